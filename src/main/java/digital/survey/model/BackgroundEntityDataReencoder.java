@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.web.SurveyApplication;
+import guru.mmp.application.configuration.IConfigurationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>BackgroundEntityDataReencoder</code> class implements the Background Entity Data
+ * Re-encoder, which applies the entity data encoding configured using the
+ * <b>Survey.EntityDataEncoding</b> configuration key and re-encodes the data for the existing
+ * survey definitions, survey responses and survey results that were written using a different
+ * encoding.
+ * <p/>
+ * The configured encoding is applied when the Background Entity Data Re-encoder is initialised,
+ * so that the data written before the first scheduled run uses the configured encoding, and again
+ * on every scheduled run so that changes to the configured encoding are picked up.
+ * <p/>
+ * The entities of each type are re-encoded in batches, each in its own transaction, by walking
+ * their IDs in order using a keyset cursor, so that every entity is examined once and the
+ * re-encoding finishes once there are no entities after the cursor. Once all the entities have
+ * been re-encoded the Background Entity Data Re-encoder does nothing further until the configured
+ * encoding changes.
+ *
+ * @author Marcus Portmann
+ */
+@Service
+@SuppressWarnings("unused")
+public class BackgroundEntityDataReencoder
+{
+  /**
+   * The entity types whose data is re-encoded.
+   */
+  private static final List<Class<?>> ENTITY_TYPES = Arrays.asList(SurveyDefinition.class,
+      SurveyResponse.class, SurveyResult.class);
+
+  /**
+   * The maximum number of entities of each type re-encoded in a single transaction.
+   */
+  private static final int REENCODE_BATCH_SIZE = 100;
+
+  /* Logger */
+  private static Logger logger = LoggerFactory.getLogger(BackgroundEntityDataReencoder.class);
+
+  /* Configuration Service */
+  @Inject
+  private IConfigurationService configurationService;
+
+  /* Survey Service */
+  @Inject
+  private ISurveyService surveyService;
+
+  /**
+   * The encoding all the entities have been re-encoded using.
+   */
+  private volatile EntityDataEncoding reencodedEncoding;
+
+  /**
+   * Initialise the Background Entity Data Re-encoder and apply the configured entity data
+   * encoding.
+   */
+  @PostConstruct
+  public void init()
+  {
+    logger.info("Initialising the Background Entity Data Re-encoder");
+
+    EntityDataEncoding encoding = getConfiguredEncoding();
+
+    if (encoding != null)
+    {
+      EntityDataCodec.setEncoding(encoding);
+    }
+  }
+
+  /**
+   * Re-encode the entity data.
+   */
+  @Scheduled(cron = "0 * * * * *")
+  @Async
+  public synchronized void reencodeEntityData()
+  {
+    EntityDataEncoding encoding = getConfiguredEncoding();
+
+    if (encoding == null)
+    {
+      return;
+    }
+
+    EntityDataCodec.setEncoding(encoding);
+
+    if (encoding == reencodedEncoding)
+    {
+      return;
+    }
+
+    logger.info(String.format("Re-encoding the entity data using the %s encoding",
+        encoding.description()));
+
+    try
+    {
+      for (Class<?> type : ENTITY_TYPES)
+      {
+        UUID lastId = null;
+
+        while (true)
+        {
+          lastId = surveyService.reencodeEntityData(type, lastId, REENCODE_BATCH_SIZE);
+
+          if (lastId == null)
+          {
+            break;
+          }
+
+          if (logger.isDebugEnabled())
+          {
+            logger.debug(String.format("Re-encoded the data for the %s entities up to the ID (%s)"
+                + " using the %s encoding", type.getSimpleName(), lastId, encoding.description()));
+          }
+        }
+      }
+
+      reencodedEncoding = encoding;
+
+      logger.info(String.format("Successfully re-encoded the entity data using the %s encoding",
+          encoding.description()));
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to re-encode the entity data using the %s encoding",
+          encoding.description()), e);
+    }
+  }
+
+  /**
+   * Returns the entity data encoding configured using the <b>Survey.EntityDataEncoding</b>
+   * configuration key.
+   *
+   * @return the configured entity data encoding, JSON if no encoding has been configured or
+   *         <code>null</code> if the configured encoding could not be retrieved
+   */
+  private EntityDataEncoding getConfiguredEncoding()
+  {
+    try
+    {
+      return configurationService.keyExists(SurveyApplication
+          .ENTITY_DATA_ENCODING_CONFIGURATION_KEY)
+          ? EntityDataEncoding.fromCode(configurationService.getInteger(SurveyApplication
+          .ENTITY_DATA_ENCODING_CONFIGURATION_KEY))
+          : EntityDataEncoding.JSON;
+    }
+    catch (Throwable e)
+    {
+      logger.error("Failed to retrieve the entity data encoding", e);
+
+      return null;
+    }
+  }
+}
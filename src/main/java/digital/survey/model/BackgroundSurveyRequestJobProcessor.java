@@ -0,0 +1,219 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>BackgroundSurveyRequestJobProcessor</code> class implements the Background Survey
+ * Request Job Processor, which processes the survey request jobs that send a survey request to
+ * all the survey audience members for a survey audience.
+ * <p/>
+ * Each survey request job is processed in chunks of survey audience members, each in its own
+ * transaction, so that the locks held while the survey requests are queued for sending are short
+ * lived and the progress of the job can be reported while it is running. If a chunk cannot be
+ * processed, it is retried a bounded number of times before the survey audience members in the
+ * chunk are recorded as failed and the job continues with the next chunk.
+ * <p/>
+ * The lock on a survey request job is a time-bounded lease that is renewed for every chunk. If a
+ * node stops, the survey request jobs it was processing are reclaimed by any node once their
+ * leases expire.
+ *
+ * @author Marcus Portmann
+ */
+@Service
+@SuppressWarnings("unused")
+public class BackgroundSurveyRequestJobProcessor
+{
+  /**
+   * The maximum number of attempts to process a chunk of survey audience members before the chunk
+   * is skipped.
+   */
+  private static final int MAXIMUM_CHUNK_ATTEMPTS = 3;
+
+  /**
+   * The delay in milliseconds before retrying to process a chunk of survey audience members,
+   * which is multiplied by the number of failed attempts.
+   */
+  private static final long CHUNK_RETRY_DELAY = 5L * 1000L;
+
+  /* Logger */
+  private static Logger logger = LoggerFactory.getLogger(
+      BackgroundSurveyRequestJobProcessor.class);
+
+  /* Survey Service */
+  @Inject
+  private ISurveyService surveyService;
+
+  /**
+   * Initialise the Background Survey Request Job Processor.
+   */
+  @PostConstruct
+  public void init()
+  {
+    logger.info("Initialising the Background Survey Request Job Processor");
+
+    if (surveyService != null)
+    {
+      // Reset the locks for any survey request jobs that were previously being processed
+      try
+      {
+        logger.info(
+            "Resetting the locks for any survey request jobs that were previously being processed");
+
+        surveyService.resetSurveyRequestJobLocks();
+      }
+      catch (Throwable e)
+      {
+        logger.error("Failed to reset the locks for any survey request jobs that were previously"
+            + " being processed", e);
+      }
+    }
+    else
+    {
+      logger.error("Failed to initialise the Background Survey Request Job Processor:"
+          + " The Survey Service was NOT injected");
+    }
+  }
+
+  /**
+   * Process the survey request jobs queued for processing.
+   */
+  @Scheduled(cron = "0 * * * * *")
+  @Async
+  public void processSurveyRequestJobs()
+  {
+    while (true)
+    {
+      // Retrieve the next survey request job that is queued for processing
+      SurveyRequestJob surveyRequestJob;
+
+      try
+      {
+        surveyRequestJob = surveyService.getNextSurveyRequestJobQueuedForProcessing();
+
+        if (surveyRequestJob == null)
+        {
+          if (logger.isDebugEnabled())
+          {
+            logger.debug("No survey request jobs are queued for processing");
+          }
+
+          return;
+        }
+      }
+      catch (Throwable e)
+      {
+        logger.error("Failed to retrieve the next survey request job that is queued for"
+            + " processing", e);
+
+        return;
+      }
+
+      processSurveyRequestJob(surveyRequestJob);
+    }
+  }
+
+  /**
+   * Process the next chunk of survey audience members for the survey request job.
+   * <p/>
+   * A chunk that cannot be processed is retried up to the maximum number of attempts, after which
+   * the survey audience members in the chunk are recorded as failed.
+   *
+   * @param surveyRequestJob the survey request job
+   *
+   * @return <code>true</code> if a chunk of survey audience members was processed or skipped or
+   *         <code>false</code> if the survey request job has completed or is no longer locked by
+   *         the Survey Service instance
+   */
+  private boolean processNextChunkForSurveyRequestJob(SurveyRequestJob surveyRequestJob)
+    throws SurveyServiceException, InterruptedException
+  {
+    for (int attempt = 1; ; attempt++)
+    {
+      try
+      {
+        return surveyService.processNextChunkForSurveyRequestJob(surveyRequestJob.getId());
+      }
+      catch (Throwable e)
+      {
+        if (attempt >= MAXIMUM_CHUNK_ATTEMPTS)
+        {
+          logger.error(String.format("Failed to process the next chunk of survey audience members"
+              + " for the survey request job (%s) after %d attempts, the chunk will be skipped",
+              surveyRequestJob.getId(), attempt), e);
+
+          return surveyService.skipNextChunkForSurveyRequestJob(surveyRequestJob.getId());
+        }
+
+        logger.warn(String.format("Failed to process the next chunk of survey audience members for"
+            + " the survey request job (%s) on attempt %d of %d", surveyRequestJob.getId(),
+            attempt, MAXIMUM_CHUNK_ATTEMPTS), e);
+
+        Thread.sleep(CHUNK_RETRY_DELAY * attempt);
+      }
+    }
+  }
+
+  /**
+   * Process the survey request job.
+   *
+   * @param surveyRequestJob the survey request job
+   */
+  private void processSurveyRequestJob(SurveyRequestJob surveyRequestJob)
+  {
+    logger.info(String.format("Processing the survey request job (%s) for the survey instance (%s)"
+        + " and the survey audience (%s)", surveyRequestJob.getId(), surveyRequestJob.getInstance()
+        .getId(), surveyRequestJob.getAudience().getId()));
+
+    try
+    {
+      while (true)
+      {
+        if (!processNextChunkForSurveyRequestJob(surveyRequestJob))
+        {
+          break;
+        }
+      }
+
+      logger.info(String.format("Finished processing the survey request job (%s)",
+          surveyRequestJob.getId()));
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to process the survey request job (%s)",
+          surveyRequestJob.getId()), e);
+
+      // Re-queue the survey request job so that it is resumed when the job is next processed
+      try
+      {
+        surveyService.unlockSurveyRequestJob(surveyRequestJob.getId());
+      }
+      catch (Throwable f)
+      {
+        logger.error(String.format("Failed to unlock the survey request job (%s)",
+            surveyRequestJob.getId()), f);
+      }
+    }
+  }
+}
@@ -13,20 +13,52 @@ package digital.survey.model;
 
 //~--- non-JDK imports --------------------------------------------------------
 
+import digital.survey.web.SurveyApplication;
+import guru.mmp.application.configuration.IConfigurationService;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 //~--- JDK imports ------------------------------------------------------------
 
 /**
  * The <code>BackgroundSurveyRequestSender</code> class implements the Background Survey Request
  * Sender.
+ * <p/>
+ * A single dispatcher thread per node drains the survey requests queued for sending when it is
+ * signalled that survey requests have been queued, and otherwise sleeps until the next survey
+ * request is due to be retried. Signals received while the dispatcher thread is draining the survey
+ * requests are coalesced into a single additional drain. When enabled on PostgreSQL, a
+ * <code>LISTEN</code> connection is used to receive the notifications sent when survey requests
+ * are queued on other nodes.
+ * <p/>
+ * The survey requests queued for sending are claimed in batches and sent concurrently using a
+ * bounded pool of sender threads. The number of survey requests sent concurrently using a single
+ * mail server is also limited so that the sender is not throttled by the mail server. The
+ * dispatcher thread waits for this limit before handing a survey request to a sender thread, so
+ * the sender threads never block waiting for the mail server.
+ * <p/>
+ * The locks on the claimed survey requests are time-bounded leases that are renewed while a batch
+ * is being sent. If a node stops, the survey requests it was sending are reclaimed by any node once
+ * their leases expire.
  *
  * @author Marcus Portmann
  */
@@ -34,13 +66,222 @@ import javax.inject.Inject;
 @SuppressWarnings("unused")
 public class BackgroundSurveyRequestSender
 {
+  /**
+   * The default maximum number of survey requests that will be sent concurrently.
+   */
+  public static final int DEFAULT_MAXIMUM_CONCURRENT_SENDS = 16;
+
+  /**
+   * The default maximum number of survey requests that will be sent concurrently using a single
+   * mail server.
+   */
+  public static final int DEFAULT_MAXIMUM_CONCURRENT_SENDS_PER_MAIL_HOST = 16;
+
+  /**
+   * The name of the PostgreSQL notification channel used to signal that survey requests have been
+   * queued for sending.
+   */
+  public static final String SURVEY_REQUESTS_QUEUED_NOTIFICATION_CHANNEL =
+      "survey_requests_queued";
+
+  /**
+   * The interval in milliseconds at which the leases on the locks for the survey requests being
+   * sent are renewed, which is a fraction of the lease duration so that a lease is not lost if a
+   * renewal is delayed or fails.
+   */
+  private static final long LOCK_LEASE_RENEWAL_INTERVAL =
+      SurveyService.SURVEY_REQUEST_LOCK_LEASE_DURATION / 5L;
+
+  /**
+   * The maximum time in milliseconds the dispatcher thread will sleep before checking for survey
+   * requests queued for sending without having been signalled.
+   */
+  private static final long MAXIMUM_DISPATCHER_WAIT = 5L * 60L * 1000L;
+
+  /**
+   * The minimum time in milliseconds the dispatcher thread will sleep between drains if it has not
+   * been signalled.
+   */
+  private static final long MINIMUM_DISPATCHER_WAIT = 1000L;
+
+  /**
+   * The interval in milliseconds at which a trivial query is executed on the <code>LISTEN</code>
+   * connection.
+   */
+  private static final long NOTIFICATION_KEEP_ALIVE_INTERVAL = 60L * 1000L;
+
+  /**
+   * The interval in milliseconds at which the notifications already received on the
+   * <code>LISTEN</code> connection are checked.
+   */
+  private static final long NOTIFICATION_POLL_INTERVAL = 1000L;
+
+  /**
+   * The delay in milliseconds before re-establishing the <code>LISTEN</code> connection after an
+   * error.
+   */
+  private static final long NOTIFICATION_RECONNECT_DELAY = 30L * 1000L;
+
+  /**
+   * The maximum time in milliseconds to wait for the survey requests currently being sent to be
+   * sent when the Background Survey Request Sender is shutdown.
+   */
+  private static final long SHUTDOWN_TIMEOUT = 60L * 1000L;
+
   /* Logger */
   private static Logger logger = LoggerFactory.getLogger(BackgroundSurveyRequestSender.class);
 
+  /* Configuration Service */
+  @Inject
+  private IConfigurationService configurationService;
+
   /* Survey Service */
   @Inject
   private ISurveyService surveyService;
 
+  /* Entity Manager Factory */
+  @PersistenceUnit(unitName = "applicationPersistenceUnit")
+  private EntityManagerFactory entityManagerFactory;
+
+  /**
+   * The dispatcher thread.
+   */
+  private Thread dispatcherThread;
+
+  /**
+   * The executor service for the sender threads.
+   */
+  private ExecutorService executorService;
+
+  /**
+   * The executor service used to renew the leases on the locks for the survey requests being sent.
+   */
+  private ScheduledExecutorService leaseRenewalExecutorService;
+
+  /**
+   * The maximum number of survey requests that will be sent concurrently.
+   */
+  private int maximumConcurrentSends;
+
+  /**
+   * The maximum number of survey requests that will be sent concurrently using a single mail
+   * server.
+   */
+  private int maximumConcurrentSendsPerMailHost;
+
+  /**
+   * The semaphores used to limit the number of survey requests sent concurrently using each mail
+   * server.
+   */
+  private ConcurrentMap<String, Semaphore> mailHostSemaphores = new ConcurrentHashMap<>();
+
+  /**
+   * The thread that listens for PostgreSQL notifications.
+   */
+  private Thread notificationListenerThread;
+
+  /**
+   * Are PostgreSQL notifications enabled?
+   */
+  private volatile boolean notificationsEnabled;
+
+  /**
+   * Has the Background Survey Request Sender been shutdown?
+   */
+  private volatile boolean shutdown;
+
+  /**
+   * Has the dispatcher thread been signalled that survey requests have been queued for sending?
+   */
+  private boolean signalled;
+
+  /**
+   * The lock used to signal the dispatcher thread.
+   */
+  private final Object signalLock = new Object();
+
+  /**
+   * Constructs a new <code>BackgroundSurveyRequestSender</code>.
+   */
+  public BackgroundSurveyRequestSender() {}
+
+  /**
+   * Constructs a new <code>BackgroundSurveyRequestSender</code> using the specified services.
+   *
+   * @param surveyService        the Survey Service
+   * @param configurationService the Configuration Service
+   */
+  BackgroundSurveyRequestSender(ISurveyService surveyService,
+      IConfigurationService configurationService)
+  {
+    this.surveyService = surveyService;
+    this.configurationService = configurationService;
+  }
+
+  /**
+   * Shutdown the Background Survey Request Sender.
+   * <p/>
+   * No further survey requests will be claimed for sending and the survey requests currently being
+   * sent will be given the opportunity to complete. The claimed survey requests that have not
+   * started being sent are re-queued for sending.
+   */
+  @PreDestroy
+  public void destroy()
+  {
+    shutdown = true;
+
+    signal();
+
+    if (notificationListenerThread != null)
+    {
+      notificationListenerThread.interrupt();
+    }
+
+    if (dispatcherThread != null)
+    {
+      dispatcherThread.interrupt();
+
+      try
+      {
+        dispatcherThread.join(SHUTDOWN_TIMEOUT);
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (executorService != null)
+    {
+      logger.info("Shutting down the Background Survey Request Sender");
+
+      executorService.shutdown();
+
+      try
+      {
+        if (!executorService.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS))
+        {
+          logger.warn("Failed to send the survey requests currently being sent within "
+              + SHUTDOWN_TIMEOUT + " milliseconds while shutting down the Background Survey"
+              + " Request Sender");
+
+          executorService.shutdownNow();
+        }
+      }
+      catch (InterruptedException e)
+      {
+        executorService.shutdownNow();
+
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (leaseRenewalExecutorService != null)
+    {
+      leaseRenewalExecutorService.shutdownNow();
+    }
+  }
+
   /**
    * Initialise the Background Survey Request Sender.
    */
@@ -70,25 +311,132 @@ public class BackgroundSurveyRequestSender
       logger.error("Failed to initialise the Background Survey Request Sender:"
           + " The Survey Service was NOT injected");
     }
+
+    maximumConcurrentSends = getConfigurationValue(SurveyApplication
+        .MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_CONFIGURATION_KEY,
+        DEFAULT_MAXIMUM_CONCURRENT_SENDS);
+
+    maximumConcurrentSendsPerMailHost = getConfigurationValue(SurveyApplication
+        .MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_PER_MAIL_HOST_CONFIGURATION_KEY,
+        DEFAULT_MAXIMUM_CONCURRENT_SENDS_PER_MAIL_HOST);
+
+    AtomicInteger threadNumber = new AtomicInteger();
+
+    executorService = Executors.newFixedThreadPool(maximumConcurrentSends, runnable ->
+    {
+      Thread thread = new Thread(runnable, "BackgroundSurveyRequestSender-"
+          + threadNumber.incrementAndGet());
+
+      thread.setDaemon(true);
+
+      return thread;
+    });
+
+    leaseRenewalExecutorService = Executors.newSingleThreadScheduledExecutor(runnable ->
+    {
+      Thread thread = new Thread(runnable, "BackgroundSurveyRequestSender-LeaseRenewal");
+
+      thread.setDaemon(true);
+
+      return thread;
+    });
+
+    // Start the dispatcher thread, which will drain any survey requests already queued for sending
+    signalled = true;
+
+    dispatcherThread = new Thread(this::dispatchSurveyRequests,
+        "BackgroundSurveyRequestSender-Dispatcher");
+    dispatcherThread.setDaemon(true);
+    dispatcherThread.start();
+
+    // Start the thread that listens for PostgreSQL notifications if required
+    if (getBooleanConfigurationValue(SurveyApplication
+        .SURVEY_REQUEST_NOTIFICATIONS_ENABLED_CONFIGURATION_KEY))
+    {
+      notificationListenerThread = new Thread(this::listenForNotifications,
+          "BackgroundSurveyRequestSender-NotificationListener");
+      notificationListenerThread.setDaemon(true);
+      notificationListenerThread.start();
+    }
+  }
+
+  /**
+   * Returns whether PostgreSQL notifications are enabled and should be sent when survey requests
+   * are queued for sending.
+   *
+   * @return <code>true</code> if PostgreSQL notifications are enabled or <code>false</code>
+   *         otherwise
+   */
+  public boolean isNotificationsEnabled()
+  {
+    return notificationsEnabled;
   }
 
   /**
    * Send the survey requests.
+   * <p/>
+   * This signals the dispatcher thread that survey requests have been queued for sending. Multiple
+   * signals received while the dispatcher thread is draining the survey requests are coalesced.
    */
-  @Scheduled(cron = "0 * * * * *")
-  @Async
   public void sendSurveyRequests()
   {
-    SurveyRequest surveyRequest;
+    signal();
+  }
+
+  /**
+   * Drain the survey requests queued for sending when signalled and otherwise sleep until the next
+   * survey request is due to be sent.
+   */
+  private void dispatchSurveyRequests()
+  {
+    while (!shutdown)
+    {
+      synchronized (signalLock)
+      {
+        signalled = false;
+      }
+
+      drainSurveyRequests();
+
+      long waitUntil = System.currentTimeMillis() + getDispatcherWait();
+
+      synchronized (signalLock)
+      {
+        try
+        {
+          long wait;
 
-    while (true)
+          while ((!signalled) && (!shutdown)
+              && ((wait = waitUntil - System.currentTimeMillis()) > 0))
+          {
+            signalLock.wait(wait);
+          }
+        }
+        catch (InterruptedException e)
+        {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Claim and send the survey requests queued for sending until no survey requests that are due
+   * to be sent remain.
+   */
+  private void drainSurveyRequests()
+  {
+    while ((!shutdown) && (!Thread.currentThread().isInterrupted()))
     {
-      // Retrieve the next survey request that is queued for sending
+      // Retrieve the next survey requests that are queued for sending
+      List<SurveyRequest> surveyRequests;
+
       try
       {
-        surveyRequest = surveyService.getNextSurveyRequestQueuedForSending();
+        surveyRequests = surveyService.getNextSurveyRequestsQueuedForSending(
+            maximumConcurrentSends * 2);
 
-        if (surveyRequest == null)
+        if (surveyRequests.isEmpty())
         {
           if (logger.isDebugEnabled())
           {
@@ -100,75 +448,477 @@ public class BackgroundSurveyRequestSender
       }
       catch (Throwable e)
       {
-        logger.error("Failed to retrieve the next survey request that is queued for sending", e);
+        logger.error("Failed to retrieve the next survey requests that are queued for sending", e);
+
+        return;
+      }
+
+      sendSurveyRequests(surveyRequests);
+    }
+  }
+
+  /**
+   * Returns the boolean value for the configuration key or <code>false</code> if the
+   * configuration key does not exist or could not be retrieved.
+   *
+   * @param key the configuration key
+   *
+   * @return the boolean value for the configuration key or <code>false</code>
+   */
+  private boolean getBooleanConfigurationValue(String key)
+  {
+    try
+    {
+      if ((configurationService != null) && configurationService.keyExists(key))
+      {
+        return configurationService.getBoolean(key);
+      }
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to retrieve the configuration value (%s)", key), e);
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the integer value for the configuration key or the default value if the configuration
+   * key does not exist or could not be retrieved.
+   *
+   * @param key          the configuration key
+   * @param defaultValue the default value
+   *
+   * @return the integer value for the configuration key or the default value
+   */
+  private int getConfigurationValue(String key, int defaultValue)
+  {
+    try
+    {
+      if ((configurationService != null) && configurationService.keyExists(key))
+      {
+        return Math.max(1, configurationService.getInteger(key));
+      }
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to retrieve the configuration value (%s)", key), e);
+    }
+
+    return defaultValue;
+  }
+
+  /**
+   * Returns the time in milliseconds the dispatcher thread should sleep until the next survey
+   * request queued for sending is due to be sent.
+   *
+   * @return the time in milliseconds the dispatcher thread should sleep
+   */
+  private long getDispatcherWait()
+  {
+    try
+    {
+      Date nextSurveyRequestSendTime = surveyService.getNextSurveyRequestSendTime();
+
+      if (nextSurveyRequestSendTime == null)
+      {
+        return MAXIMUM_DISPATCHER_WAIT;
+      }
+
+      return Math.min(MAXIMUM_DISPATCHER_WAIT, Math.max(MINIMUM_DISPATCHER_WAIT,
+          nextSurveyRequestSendTime.getTime() - System.currentTimeMillis()));
+    }
+    catch (Throwable e)
+    {
+      logger.error("Failed to retrieve the time at which the next survey request will be due to be"
+          + " sent", e);
+
+      return MINIMUM_DISPATCHER_WAIT;
+    }
+  }
+
+  /**
+   * Returns the semaphore used to limit the number of survey requests sent concurrently using the
+   * mail server that is currently configured.
+   *
+   * @return the semaphore for the mail server that is currently configured
+   */
+  private Semaphore getMailHostSemaphore()
+  {
+    String mailHost = null;
+
+    try
+    {
+      if ((configurationService != null)
+          && configurationService.keyExists(SurveyApplication.MAIL_HOST_CONFIGURATION_KEY))
+      {
+        mailHost = configurationService.getString(SurveyApplication.MAIL_HOST_CONFIGURATION_KEY);
+      }
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to retrieve the configuration value (%s)",
+          SurveyApplication.MAIL_HOST_CONFIGURATION_KEY), e);
+    }
+
+    return mailHostSemaphores.computeIfAbsent((mailHost == null)
+        ? ""
+        : mailHost.toLowerCase(Locale.ROOT), key -> new Semaphore(
+        maximumConcurrentSendsPerMailHost));
+  }
+
+  /**
+   * Listen for the PostgreSQL notifications sent when survey requests are queued for sending on
+   * any node and signal the dispatcher thread when a notification is received.
+   * <p/>
+   * A dedicated connection, which is held for the lifetime of the Background Survey Request
+   * Sender, is used and no connection is retrieved if the database is not PostgreSQL. The
+   * notifications already received by the PostgreSQL JDBC driver are checked at a fixed interval,
+   * which does not require a round trip to the database server. A trivial query is only executed
+   * on the connection at a much longer interval to detect a broken connection and to read any
+   * notifications that the driver cannot detect without communicating with the database server,
+   * e.g. when using an SSL connection.
+   */
+  private void listenForNotifications()
+  {
+    SessionFactoryImplementor sessionFactory;
+
+    try
+    {
+      sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+      Dialect dialect = sessionFactory.getServiceRegistry().getService(JdbcServices.class)
+          .getDialect();
+
+      if (!(dialect instanceof PostgreSQL81Dialect))
+      {
+        logger.info("PostgreSQL notifications will not be used to signal that survey requests"
+            + " have been queued for sending for the database dialect ("
+            + dialect.getClass().getName() + ")");
 
         return;
       }
+    }
+    catch (Throwable e)
+    {
+      logger.error("Failed to determine whether PostgreSQL notifications can be used to signal"
+          + " that survey requests have been queued for sending", e);
+
+      return;
+    }
 
-      // Send the survey request
+    ConnectionProvider connectionProvider = sessionFactory.getServiceRegistry().getService(
+        ConnectionProvider.class);
+
+    while (!shutdown)
+    {
       try
       {
-        if (logger.isDebugEnabled())
+        Connection connection = connectionProvider.getConnection();
+
+        try
+        {
+          connection.setAutoCommit(true);
+
+          PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+          try (Statement statement = connection.createStatement())
+          {
+            statement.execute("LISTEN " + SURVEY_REQUESTS_QUEUED_NOTIFICATION_CHANNEL);
+          }
+
+          notificationsEnabled = true;
+
+          logger.info("Listening for the PostgreSQL notifications on the channel ("
+              + SURVEY_REQUESTS_QUEUED_NOTIFICATION_CHANNEL + ")");
+
+          long nextKeepAlive = System.currentTimeMillis() + NOTIFICATION_KEEP_ALIVE_INTERVAL;
+
+          while (!shutdown)
+          {
+            if (System.currentTimeMillis() >= nextKeepAlive)
+            {
+              try (Statement statement = connection.createStatement())
+              {
+                statement.execute("SELECT 1");
+              }
+
+              nextKeepAlive = System.currentTimeMillis() + NOTIFICATION_KEEP_ALIVE_INTERVAL;
+            }
+
+            PGNotification[] notifications = pgConnection.getNotifications();
+
+            if ((notifications != null) && (notifications.length > 0))
+            {
+              signal();
+            }
+
+            Thread.sleep(NOTIFICATION_POLL_INTERVAL);
+          }
+        }
+        finally
         {
-          logger.debug(String.format("Sending the survey request (%s)", surveyRequest.getId()));
+          connectionProvider.closeConnection(connection);
         }
+      }
+      catch (InterruptedException e)
+      {
+        return;
+      }
+      catch (Throwable e)
+      {
+        logger.error("Failed to listen for the PostgreSQL notifications on the channel ("
+            + SURVEY_REQUESTS_QUEUED_NOTIFICATION_CHANNEL + ")", e);
 
-        if (surveyService.sendSurveyRequest(surveyRequest))
+        try
         {
-          // Unlock the survey request and mark it as sent
-          surveyService.unlockSurveyRequest(surveyRequest.getId(), SurveyRequestStatus.SENT);
+          Thread.sleep(NOTIFICATION_RECONNECT_DELAY);
         }
-        else
+        catch (InterruptedException f)
         {
-          // Unlock the survey request and mark it as failed
-          surveyService.unlockSurveyRequest(surveyRequest.getId(), SurveyRequestStatus.FAILED);
+          return;
         }
       }
-      catch (Throwable e)
+    }
+  }
+
+  /**
+   * Renew the leases on the locks for the survey requests being sent.
+   *
+   * @param ids the IDs of the survey requests being sent
+   */
+  private void renewSurveyRequestLocks(List<UUID> ids)
+  {
+    try
+    {
+      int numberOfLocksRenewed = surveyService.renewSurveyRequestLocks(ids);
+
+      if (logger.isDebugEnabled())
       {
-        logger.error(String.format("Failed to send the survey request (%s)",
-            surveyRequest.getId()), e);
+        logger.debug(String.format("Renewed the lock leases for %d of the %d survey requests being"
+            + " sent", numberOfLocksRenewed, ids.size()));
+      }
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to renew the lock leases for the survey requests (%s)",
+          ids), e);
+    }
+  }
+
+  /**
+   * Send the survey request.
+   *
+   * @param surveyRequest          the survey request
+   * @param sentSurveyRequestIds   the IDs of the survey requests that were sent successfully
+   * @param failedSurveyRequestIds the IDs of the survey requests that could not be sent
+   */
+  private void sendSurveyRequest(SurveyRequest surveyRequest, List<UUID> sentSurveyRequestIds,
+      List<UUID> failedSurveyRequestIds)
+  {
+    try
+    {
+      if (logger.isDebugEnabled())
+      {
+        logger.debug(String.format("Sending the survey request (%s)", surveyRequest.getId()));
+      }
+
+      if (surveyService.sendSurveyRequest(surveyRequest))
+      {
+        sentSurveyRequestIds.add(surveyRequest.getId());
+      }
+      else
+      {
+        failedSurveyRequestIds.add(surveyRequest.getId());
+      }
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to send the survey request (%s)", surveyRequest.getId()),
+          e);
+
+      try
+      {
+        /*
+         * Unlock the survey request and either re-queue it for sending after the backoff delay for
+         * its send attempts or set its status to "Failed" if it has reached the maximum number of
+         * send attempts.
+         */
+        if (surveyService.unlockSurveyRequestForRetry(surveyRequest) == SurveyRequestStatus
+            .FAILED)
+        {
+          logger.warn(String.format("The survey request (%s) has exceeded the maximum number of"
+              + " send attempts and has been marked as \"Failed\"", surveyRequest.getId()));
+        }
+      }
+      catch (Throwable f)
+      {
+        logger.error(String.format(
+            "Failed to unlock and set the status for the survey request (%s)",
+            surveyRequest.getId()), f);
+      }
+    }
+  }
+
+  /**
+   * Send the batch of claimed survey requests concurrently using the sender threads and unlock
+   * the survey requests once the batch has been processed.
+   * <p/>
+   * The leases on the locks for the survey requests are renewed while the batch is being sent. A
+   * survey request is only handed to a sender thread once the limit on the number of survey
+   * requests sent concurrently using the mail server allows it to be sent. If the calling thread
+   * is interrupted while waiting, the survey requests that have not been handed to a sender thread
+   * are re-queued for sending.
+   *
+   * @param surveyRequests the claimed survey requests
+   */
+  void sendSurveyRequests(List<SurveyRequest> surveyRequests)
+  {
+    List<UUID> sentSurveyRequestIds = Collections.synchronizedList(new ArrayList<>());
+    List<UUID> failedSurveyRequestIds = Collections.synchronizedList(new ArrayList<>());
+    List<UUID> unsentSurveyRequestIds = new ArrayList<>();
+    List<Future<?>> futures = new ArrayList<>();
+    List<UUID> surveyRequestIds = new ArrayList<>();
+
+    for (SurveyRequest surveyRequest : surveyRequests)
+    {
+      surveyRequestIds.add(surveyRequest.getId());
+    }
+
+    ScheduledFuture<?> leaseRenewal = leaseRenewalExecutorService.scheduleAtFixedRate(() ->
+        renewSurveyRequestLocks(surveyRequestIds), LOCK_LEASE_RENEWAL_INTERVAL,
+        LOCK_LEASE_RENEWAL_INTERVAL, TimeUnit.MILLISECONDS);
+
+    boolean interrupted = false;
+
+    try
+    {
+      Semaphore mailHostSemaphore = getMailHostSemaphore();
+
+      for (SurveyRequest surveyRequest : surveyRequests)
+      {
+        if (interrupted)
+        {
+          unsentSurveyRequestIds.add(surveyRequest.getId());
+
+          continue;
+        }
 
-        // Increment the send attempts for the survey request
         try
         {
-          surveyService.incrementSurveyRequestSendAttempts(surveyRequest);
+          mailHostSemaphore.acquire();
         }
-        catch (Throwable f)
+        catch (InterruptedException e)
         {
-          logger.error(String.format(
-              "Failed to increment the send attempts for the survey request (%s)",
-              surveyRequest.getId()), f);
+          interrupted = true;
+
+          unsentSurveyRequestIds.add(surveyRequest.getId());
+
+          continue;
         }
 
         try
         {
-          /*
-           * If the survey request has exceeded the maximum number of send attempts then unlock it
-           * and set its status to "Failed" otherwise unlock it and set its status to
-           * "QueuedForSending".
-           */
-          if (surveyRequest.getSendAttempts()
-              >= surveyService.getMaximumSurveyRequestSendAttempts())
+          futures.add(executorService.submit(() ->
+          {
+            try
+            {
+              sendSurveyRequest(surveyRequest, sentSurveyRequestIds, failedSurveyRequestIds);
+            }
+            finally
+            {
+              mailHostSemaphore.release();
+            }
+          }));
+        }
+        catch (RejectedExecutionException e)
+        {
+          mailHostSemaphore.release();
+
+          unsentSurveyRequestIds.add(surveyRequest.getId());
+        }
+      }
+
+      // Wait for the survey requests being sent so that the outcome of every send is recorded
+      for (Future<?> future : futures)
+      {
+        while (true)
+        {
+          try
           {
-            logger.warn(String.format("The survey request (%s) has exceeded the maximum number of"
-                + " send attempts and will be marked as \"Failed\"", surveyRequest.getId()));
+            future.get();
 
-            surveyService.unlockSurveyRequest(surveyRequest.getId(), SurveyRequestStatus.FAILED);
+            break;
           }
-          else
+          catch (InterruptedException e)
           {
-            surveyService.unlockSurveyRequest(surveyRequest.getId(), SurveyRequestStatus
-                .QUEUED_FOR_SENDING);
+            interrupted = true;
+          }
+          catch (Throwable e)
+          {
+            logger.error("Failed to send a survey request", e);
+
+            break;
           }
-        }
-        catch (Throwable f)
-        {
-          logger.error(String.format(
-              "Failed to unlock and set the status for the survey request (%s)",
-              surveyRequest.getId()), f);
         }
       }
     }
+    finally
+    {
+      leaseRenewal.cancel(false);
+    }
+
+    if (interrupted)
+    {
+      Thread.currentThread().interrupt();
+    }
+
+    // Unlock the survey requests that were sent and mark them as sent
+    try
+    {
+      surveyService.unlockSurveyRequests(sentSurveyRequestIds, SurveyRequestStatus.SENT);
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to unlock and set the status for the survey requests"
+          + " (%s) that were sent", sentSurveyRequestIds), e);
+    }
+
+    // Unlock the survey requests that could not be sent and mark them as failed
+    try
+    {
+      surveyService.unlockSurveyRequests(failedSurveyRequestIds, SurveyRequestStatus.FAILED);
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to unlock and set the status for the survey requests"
+          + " (%s) that could not be sent", failedSurveyRequestIds), e);
+    }
+
+    // Unlock the survey requests that were not sent because of a shutdown or an interruption and
+    // re-queue them
+    try
+    {
+      surveyService.unlockSurveyRequests(unsentSurveyRequestIds, SurveyRequestStatus
+          .QUEUED_FOR_SENDING);
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to unlock and set the status for the survey requests"
+          + " (%s) that were not sent", unsentSurveyRequestIds), e);
+    }
+  }
+
+  /**
+   * Signal the dispatcher thread that survey requests have been queued for sending.
+   */
+  private void signal()
+  {
+    synchronized (signalLock)
+    {
+      signalled = true;
+
+      signalLock.notifyAll();
+    }
   }
 }
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.web.SurveyApplication;
+import guru.mmp.application.configuration.IConfigurationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.nio.file.Paths;
+import java.util.List;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>BackgroundSurveyResponseIngester</code> class implements the Background Survey
+ * Response Ingester.
+ * <p/>
+ * When a survey response journal file is configured, the survey responses submitted by
+ * respondents are appended to the local survey response journal and acknowledged once they have
+ * been forced to disk, instead of being saved synchronously. A single committer thread per node
+ * drains the survey response journal and inserts the survey responses, and updates the
+ * materialized survey results, in batches using a single transaction per batch. Signals received
+ * while the committer thread is draining the survey response journal are coalesced into a single
+ * additional drain.
+ * <p/>
+ * If the batch of survey responses cannot be inserted, the committer thread retries the batch
+ * after a delay without skipping any survey responses. The survey responses that were journaled
+ * but not inserted before a node stopped are inserted when the node is restarted.
+ *
+ * @author Marcus Portmann
+ */
+@Service
+@SuppressWarnings("unused")
+public class BackgroundSurveyResponseIngester
+{
+  /**
+   * The maximum number of survey responses inserted in a single transaction.
+   */
+  private static final int MAXIMUM_BATCH_SIZE = 500;
+
+  /**
+   * The delay in milliseconds before retrying a batch of survey responses that could not be
+   * inserted.
+   */
+  private static final long RETRY_DELAY = 30L * 1000L;
+
+  /**
+   * The maximum time in milliseconds to wait for the committer thread to insert the survey
+   * responses in the survey response journal when the Background Survey Response Ingester is
+   * shutdown.
+   */
+  private static final long SHUTDOWN_TIMEOUT = 60L * 1000L;
+
+  /* Logger */
+  private static Logger logger = LoggerFactory.getLogger(BackgroundSurveyResponseIngester.class);
+
+  /* Configuration Service */
+  @Inject
+  private IConfigurationService configurationService;
+
+  /* Survey Service */
+  @Inject
+  private ISurveyService surveyService;
+
+  /**
+   * The committer thread.
+   */
+  private Thread committerThread;
+
+  /**
+   * The survey response journal.
+   */
+  private volatile SurveyResponseJournal journal;
+
+  /**
+   * Has the Background Survey Response Ingester been shutdown?
+   */
+  private volatile boolean shutdown;
+
+  /**
+   * Has the committer thread been signalled that survey responses have been journaled?
+   */
+  private boolean signalled;
+
+  /**
+   * The lock used to signal the committer thread.
+   */
+  private final Object signalLock = new Object();
+
+  /**
+   * Shutdown the Background Survey Response Ingester.
+   * <p/>
+   * No further survey responses will be journaled and the committer thread will be given the
+   * opportunity to insert the survey responses in the survey response journal.
+   */
+  @PreDestroy
+  public void destroy()
+  {
+    SurveyResponseJournal journal = this.journal;
+
+    if (journal == null)
+    {
+      return;
+    }
+
+    logger.info("Shutting down the Background Survey Response Ingester");
+
+    shutdown = true;
+
+    signal();
+
+    if (committerThread != null)
+    {
+      try
+      {
+        committerThread.join(SHUTDOWN_TIMEOUT);
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    this.journal = null;
+
+    try
+    {
+      journal.close();
+    }
+    catch (Throwable e)
+    {
+      logger.error("Failed to close the survey response journal", e);
+    }
+  }
+
+  /**
+   * Initialise the Background Survey Response Ingester.
+   */
+  @PostConstruct
+  public void init()
+  {
+    logger.info("Initialising the Background Survey Response Ingester");
+
+    if (surveyService == null)
+    {
+      logger.error("Failed to initialise the Background Survey Response Ingester:"
+          + " The Survey Service was NOT injected");
+
+      return;
+    }
+
+    String journalFile = getConfigurationValue(SurveyApplication
+        .SURVEY_RESPONSE_JOURNAL_FILE_CONFIGURATION_KEY);
+
+    if (StringUtils.isEmpty(journalFile))
+    {
+      logger.info("The survey response journal is disabled and survey responses will be saved"
+          + " synchronously");
+
+      return;
+    }
+
+    try
+    {
+      journal = new SurveyResponseJournal(Paths.get(journalFile));
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to open the survey response journal (%s):"
+          + " Survey responses will be saved synchronously", journalFile), e);
+
+      return;
+    }
+
+    // Start the committer thread, which will insert any survey responses already journaled
+    signalled = true;
+
+    committerThread = new Thread(this::commitSurveyResponses,
+        "BackgroundSurveyResponseIngester-Committer");
+    committerThread.setDaemon(true);
+    committerThread.start();
+  }
+
+  /**
+   * Returns whether the survey response journal is enabled and survey responses should be
+   * submitted to the Background Survey Response Ingester.
+   *
+   * @return <code>true</code> if the survey response journal is enabled or <code>false</code>
+   *         otherwise
+   */
+  public boolean isJournalEnabled()
+  {
+    return (journal != null) && (!shutdown);
+  }
+
+  /**
+   * Submit the survey response.
+   * <p/>
+   * The survey response is appended to the survey response journal and this method only returns
+   * once the survey response has been forced to disk. The survey response is inserted
+   * asynchronously by the committer thread.
+   *
+   * @param surveyResponse the survey response
+   */
+  public void submitSurveyResponse(SurveyResponse surveyResponse)
+    throws SurveyServiceException
+  {
+    SurveyResponseJournal journal = this.journal;
+
+    if ((journal == null) || shutdown)
+    {
+      throw new SurveyServiceException(String.format(
+          "Failed to submit the survey response (%s): The survey response journal is not open",
+          surveyResponse.getId()));
+    }
+
+    try
+    {
+      journal.append(new SurveyResponseJournalEntry(surveyResponse));
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(String.format(
+          "Failed to submit the survey response (%s)", surveyResponse.getId()), e);
+    }
+
+    signal();
+  }
+
+  /**
+   * Drain the survey response journal when signalled.
+   */
+  private void commitSurveyResponses()
+  {
+    while (true)
+    {
+      synchronized (signalLock)
+      {
+        signalled = false;
+      }
+
+      boolean drained = drainSurveyResponses();
+
+      if (shutdown && drained)
+      {
+        return;
+      }
+
+      synchronized (signalLock)
+      {
+        try
+        {
+          if (!drained)
+          {
+            signalLock.wait(RETRY_DELAY);
+          }
+          else
+          {
+            while ((!signalled) && (!shutdown))
+            {
+              signalLock.wait();
+            }
+          }
+        }
+        catch (InterruptedException e)
+        {
+          return;
+        }
+      }
+
+      if (shutdown && (!drained))
+      {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Insert the survey responses in the survey response journal in batches until the survey
+   * response journal has been drained.
+   *
+   * @return <code>true</code> if the survey response journal was drained or <code>false</code> if
+   *         a batch of survey responses could not be inserted and should be retried
+   */
+  private boolean drainSurveyResponses()
+  {
+    while (true)
+    {
+      try
+      {
+        List<SurveyResponseJournalEntry> entries = journal.read(MAXIMUM_BATCH_SIZE);
+
+        if (entries.isEmpty())
+        {
+          return true;
+        }
+
+        surveyService.ingestSurveyResponses(entries);
+
+        journal.commit(entries.get(entries.size() - 1));
+      }
+      catch (Throwable e)
+      {
+        logger.error(String.format("Failed to insert the batch of survey responses from the survey"
+            + " response journal: Retrying in %d milliseconds", RETRY_DELAY), e);
+
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Returns the string value for the configuration key or <code>null</code> if the configuration
+   * key does not exist or could not be retrieved.
+   *
+   * @param key the configuration key
+   *
+   * @return the string value for the configuration key or <code>null</code>
+   */
+  private String getConfigurationValue(String key)
+  {
+    try
+    {
+      if ((configurationService != null) && configurationService.keyExists(key))
+      {
+        return configurationService.getString(key);
+      }
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format("Failed to retrieve the configuration value (%s)", key), e);
+    }
+
+    return null;
+  }
+
+  /**
+   * Signal the committer thread that survey responses have been journaled.
+   */
+  private void signal()
+  {
+    synchronized (signalLock)
+    {
+      signalled = true;
+
+      signalLock.notifyAll();
+    }
+  }
+}
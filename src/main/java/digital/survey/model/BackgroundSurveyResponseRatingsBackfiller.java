@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.web.SurveyApplication;
+import guru.mmp.application.configuration.IConfigurationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.inject.Inject;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>BackgroundSurveyResponseRatingsBackfiller</code> class implements the Background
+ * Survey Response Ratings Backfiller, which populates the SURVEY.SURVEY_RESPONSE_RATINGS table
+ * from the JSON data for the survey responses that were saved before the table was introduced.
+ * <p/>
+ * The survey instances are backfilled one at a time, each in its own transaction, and the
+ * backfill is recorded as complete using the
+ * <b>Survey.BackgroundSurveyResponseRatingsBackfiller.Backfilled</b> configuration key so that it
+ * only runs once.
+ *
+ * @author Marcus Portmann
+ */
+@Service
+@SuppressWarnings("unused")
+public class BackgroundSurveyResponseRatingsBackfiller
+{
+  /* Logger */
+  private static Logger logger = LoggerFactory.getLogger(
+      BackgroundSurveyResponseRatingsBackfiller.class);
+
+  /* Configuration Service */
+  @Inject
+  private IConfigurationService configurationService;
+
+  /* Survey Service */
+  @Inject
+  private ISurveyService surveyService;
+
+  /**
+   * Has the backfill been completed?
+   */
+  private volatile boolean backfilled;
+
+  /**
+   * Backfill the survey response ratings.
+   */
+  @Scheduled(cron = "0 * * * * *")
+  @Async
+  public synchronized void backfillSurveyResponseRatings()
+  {
+    if (backfilled)
+    {
+      return;
+    }
+
+    try
+    {
+      if (configurationService.keyExists(SurveyApplication
+          .SURVEY_RESPONSE_RATINGS_BACKFILLED_CONFIGURATION_KEY))
+      {
+        backfilled = true;
+
+        return;
+      }
+    }
+    catch (Throwable e)
+    {
+      logger.error("Failed to check whether the survey response ratings have been backfilled", e);
+
+      return;
+    }
+
+    logger.info("Backfilling the survey response ratings");
+
+    UUID lastSurveyInstanceId = null;
+
+    try
+    {
+      while (true)
+      {
+        UUID surveyInstanceId = surveyService.backfillSurveyResponseRatings(lastSurveyInstanceId);
+
+        if (surveyInstanceId == null)
+        {
+          break;
+        }
+
+        if (logger.isDebugEnabled())
+        {
+          logger.debug(String.format(
+              "Backfilled the survey response ratings for the survey instance (%s)",
+              surveyInstanceId));
+        }
+
+        lastSurveyInstanceId = surveyInstanceId;
+      }
+
+      configurationService.setValue(SurveyApplication
+          .SURVEY_RESPONSE_RATINGS_BACKFILLED_CONFIGURATION_KEY, true,
+          "Have the survey response ratings been backfilled");
+
+      backfilled = true;
+
+      logger.info("Successfully backfilled the survey response ratings");
+    }
+    catch (Throwable e)
+    {
+      logger.error(String.format(
+          "Failed to backfill the survey response ratings after the survey instance (%s)",
+          lastSurveyInstanceId), e);
+    }
+  }
+}
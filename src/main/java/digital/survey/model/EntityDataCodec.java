@@ -0,0 +1,360 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>EntityDataCodec</code> class provides the shared, thread-safe encoding and decoding of
+ * the data stored in the <b>DATA</b> columns for the survey definition, survey response and survey
+ * result entities.
+ * <p/>
+ * A single <code>ObjectMapper</code> is used for each encoding and the <code>ObjectReader</code>
+ * and <code>ObjectWriter</code> for each entity type are created once and cached, so that the
+ * introspection of the entity types is only performed the first time the data for a type is
+ * encoded or decoded rather than every time Hibernate accesses the data for an entity.
+ * <p/>
+ * The data is written using the current encoding, which defaults to JSON. JSON data is stored
+ * as-is, which keeps the data written before the encoding was introduced readable. Binary data is
+ * stored as a header, which identifies the encoding using its numeric code, e.g. <b>#1:</b>,
+ * followed by the Base64 encoded bytes. The Smile encoding stores UUIDs as 16 raw bytes rather
+ * than 36 character strings and the Deflated Smile encoding additionally compresses the Smile
+ * bytes. The data is always read using the encoding identified by its header, so data written
+ * using different encodings can be read regardless of the current encoding.
+ * <p/>
+ * Values can also be captured as immutable snapshots, which buffer the tokens for their JSON
+ * representation, so that independent copies of the values can be read from the snapshots without
+ * parsing any JSON.
+ *
+ * @author Marcus Portmann
+ */
+final class EntityDataCodec
+{
+  /**
+   * The character that starts the header for the data that is not encoded as JSON.
+   */
+  private static final char HEADER_PREFIX = '#';
+
+  /**
+   * The character that ends the header for the data that is not encoded as JSON.
+   */
+  private static final char HEADER_SUFFIX = ':';
+
+  /**
+   * The JSON factory used to create the JSON parsers.
+   */
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
+  /**
+   * The Smile factory used to create the Smile parsers, which writes binary values, including
+   * UUIDs, as raw bytes rather than 7-bit encoded bytes.
+   */
+  private static final SmileFactory smileFactory = new SmileFactory().disable(
+      SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT);
+
+  /**
+   * The object mapper used to create the object readers and object writers for JSON.
+   */
+  private static final ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
+
+  /**
+   * The object mapper used to create the object readers and object writers for Smile.
+   */
+  private static final ObjectMapper smileObjectMapper = new ObjectMapper(smileFactory);
+
+  /**
+   * The JSON object readers for the entity types.
+   */
+  private static final ConcurrentMap<Class<?>, ObjectReader> objectReaders =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The JSON object writers for the entity types.
+   */
+  private static final ConcurrentMap<Class<?>, ObjectWriter> objectWriters =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The Smile object readers for the entity types.
+   */
+  private static final ConcurrentMap<Class<?>, ObjectReader> smileObjectReaders =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The Smile object writers for the entity types.
+   */
+  private static final ConcurrentMap<Class<?>, ObjectWriter> smileObjectWriters =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The encoding used to write the data.
+   */
+  private static volatile EntityDataEncoding encoding = EntityDataEncoding.JSON;
+
+  /**
+   * Private default constructor to prevent instantiation.
+   */
+  private EntityDataCodec() {}
+
+  /**
+   * Returns a JSON parser for the JSON data, e.g. submitted by a client, which may not use any of
+   * the other encodings for the data.
+   * <p/>
+   * The data is never decoded or inflated, so the size of the data that is parsed is limited to
+   * the size of the data that was received.
+   *
+   * @param data the JSON data
+   *
+   * @return the JSON parser for the JSON data
+   */
+  static JsonParser createJsonParser(String data)
+    throws IOException
+  {
+    if ((data.length() > 0) && (data.charAt(0) == HEADER_PREFIX))
+    {
+      throw new IOException("The data is not JSON data");
+    }
+
+    return jsonFactory.createParser(data);
+  }
+
+  /**
+   * Returns a parser for the data.
+   *
+   * @param data the data
+   *
+   * @return the parser for the data
+   */
+  static JsonParser createParser(String data)
+    throws IOException
+  {
+    EntityDataEncoding dataEncoding = getEncoding(data);
+
+    if (dataEncoding == EntityDataEncoding.JSON)
+    {
+      return jsonFactory.createParser(data);
+    }
+    else
+    {
+      return smileFactory.createParser(decode(data, dataEncoding));
+    }
+  }
+
+  /**
+   * Returns the encoding used to write the data.
+   *
+   * @return the encoding used to write the data
+   */
+  static EntityDataEncoding getEncoding()
+  {
+    return encoding;
+  }
+
+  /**
+   * Returns the encoding for the data using its header.
+   *
+   * @param data the data
+   *
+   * @return the encoding for the data
+   */
+  static EntityDataEncoding getEncoding(String data)
+    throws IOException
+  {
+    if ((data.length() == 0) || (data.charAt(0) != HEADER_PREFIX))
+    {
+      return EntityDataEncoding.JSON;
+    }
+
+    int headerSuffixIndex = data.indexOf(HEADER_SUFFIX);
+
+    if (headerSuffixIndex != -1)
+    {
+      try
+      {
+        EntityDataEncoding dataEncoding = EntityDataEncoding.fromCode(Integer.parseInt(
+            data.substring(1, headerSuffixIndex)));
+
+        if (dataEncoding != EntityDataEncoding.JSON)
+        {
+          return dataEncoding;
+        }
+      }
+      catch (NumberFormatException ignored) {}
+    }
+
+    throw new IOException("The data has an invalid or unsupported encoding header");
+  }
+
+  /**
+   * Returns the header for the data written using the encoding.
+   *
+   * @param encoding the encoding
+   *
+   * @return the header for the data written using the encoding or an empty string for JSON
+   */
+  static String getHeader(EntityDataEncoding encoding)
+  {
+    return (encoding == EntityDataEncoding.JSON)
+        ? ""
+        : HEADER_PREFIX + String.valueOf(encoding.code()) + HEADER_SUFFIX;
+  }
+
+  /**
+   * Populate the entity using the data.
+   *
+   * @param entity the entity to populate
+   * @param data   the data
+   * @param <T>    the entity type
+   *
+   * @return the populated entity
+   */
+  static <T> T readForUpdating(T entity, String data)
+    throws IOException
+  {
+    EntityDataEncoding dataEncoding = getEncoding(data);
+
+    if (dataEncoding == EntityDataEncoding.JSON)
+    {
+      return objectReaders.computeIfAbsent(entity.getClass(), objectMapper::readerFor)
+          .withValueToUpdate(entity).readValue(data);
+    }
+    else
+    {
+      return smileObjectReaders.computeIfAbsent(entity.getClass(), smileObjectMapper::readerFor)
+          .withValueToUpdate(entity).readValue(decode(data, dataEncoding));
+    }
+  }
+
+  /**
+   * Read the UUID the parser is positioned at, which is a string for JSON and raw bytes for
+   * Smile.
+   *
+   * @param parser the parser
+   *
+   * @return the UUID or <code>null</code> if the value is null
+   */
+  static UUID readUuid(JsonParser parser)
+    throws IOException
+  {
+    JsonToken token = parser.getCurrentToken();
+
+    if (token == JsonToken.VALUE_NULL)
+    {
+      return null;
+    }
+    else if (token == JsonToken.VALUE_EMBEDDED_OBJECT)
+    {
+      byte[] bytes = parser.getBinaryValue();
+
+      if (bytes.length != 16)
+      {
+        throw new IOException("The binary value is not a valid UUID");
+      }
+
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+      return new UUID(buffer.getLong(), buffer.getLong());
+    }
+    else
+    {
+      return UUID.fromString(parser.getText());
+    }
+  }
+
+  /**
+   * Set the encoding used to write the data.
+   *
+   * @param encoding the encoding used to write the data
+   */
+  static void setEncoding(EntityDataEncoding encoding)
+  {
+    EntityDataCodec.encoding = encoding;
+  }
+
+  /**
+   * Returns the data for the entity written using the current encoding.
+   *
+   * @param entity the entity
+   *
+   * @return the data for the entity
+   */
+  static String write(Object entity)
+    throws IOException
+  {
+    EntityDataEncoding writeEncoding = encoding;
+
+    if (writeEncoding == EntityDataEncoding.JSON)
+    {
+      return objectWriters.computeIfAbsent(entity.getClass(), objectMapper::writerFor)
+          .writeValueAsString(entity);
+    }
+
+    byte[] bytes = smileObjectWriters.computeIfAbsent(entity.getClass(),
+        smileObjectMapper::writerFor).writeValueAsBytes(entity);
+
+    if (writeEncoding == EntityDataEncoding.DEFLATED_SMILE)
+    {
+      ByteArrayOutputStream deflatedBytes = new ByteArrayOutputStream(bytes.length);
+
+      try (DeflaterOutputStream out = new DeflaterOutputStream(deflatedBytes))
+      {
+        out.write(bytes);
+      }
+
+      bytes = deflatedBytes.toByteArray();
+    }
+
+    return getHeader(writeEncoding) + Base64.getEncoder().encodeToString(bytes);
+  }
+
+  /**
+   * Returns the input stream for the bytes for the binary data.
+   *
+   * @param data         the binary data
+   * @param dataEncoding the encoding for the binary data
+   *
+   * @return the input stream for the bytes for the binary data
+   */
+  private static InputStream decode(String data, EntityDataEncoding dataEncoding)
+  {
+    InputStream in = new ByteArrayInputStream(Base64.getDecoder().decode(data.substring(
+        data.indexOf(HEADER_SUFFIX) + 1)));
+
+    return (dataEncoding == EntityDataEncoding.DEFLATED_SMILE)
+        ? new InflaterInputStream(in)
+        : in;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package digital.survey.model;
+
+/**
+ * The <code>EntityDataEncoding</code> enumeration defines the possible encodings for the data
+ * stored in the <b>DATA</b> columns for the survey definition, survey response and survey result
+ * entities.
+ *
+ * @author Marcus Portmann
+ */
+public enum EntityDataEncoding
+{
+  JSON(0, "JSON"), SMILE(1, "Smile"), DEFLATED_SMILE(2, "Deflated Smile");
+
+  private String description;
+  private int code;
+
+  EntityDataEncoding(int code, String description)
+  {
+    this.code = code;
+    this.description = description;
+  }
+
+  /**
+   * Returns the entity data encoding given by the specified numeric code value.
+   *
+   * @param code the numeric code value identifying the entity data encoding
+   *
+   * @return the entity data encoding given by the specified numeric code value
+   */
+  public static EntityDataEncoding fromCode(int code)
+  {
+    switch (code)
+    {
+      case 1:
+        return EntityDataEncoding.SMILE;
+
+      case 2:
+        return EntityDataEncoding.DEFLATED_SMILE;
+
+      default:
+        return EntityDataEncoding.JSON;
+    }
+  }
+
+  /**
+   * Returns the numeric code for the entity data encoding.
+   *
+   * @return the numeric code for the entity data encoding
+   */
+  public int code()
+  {
+    return code;
+  }
+
+  /**
+   * Returns the description for the entity data encoding.
+   *
+   * @return the description for the entity data encoding
+   */
+  public String description()
+  {
+    return description;
+  }
+
+  /**
+   * Returns the <code>String</code> representation of the numeric code for the entity data
+   * encoding.
+   *
+   * @return the <code>String</code> representation of the numeric code for the entity data
+   *         encoding
+   */
+  public String getCodeAsString()
+  {
+    return String.valueOf(code);
+  }
+}
@@ -13,6 +13,7 @@ package digital.survey.model;
 
 //~--- JDK imports ------------------------------------------------------------
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,6 +25,36 @@ import java.util.UUID;
  */
 public interface ISurveyService
 {
+  /**
+   * Backfill the SURVEY.SURVEY_RESPONSE_RATINGS table for the next survey instance, ordered by ID,
+   * after the survey instance with the specified ID using the JSON data for its survey responses.
+   *
+   * @param lastSurveyInstanceId the Universally Unique Identifier (UUID) used to uniquely identify
+   *                             the last survey instance that was backfilled or <code>null</code>
+   *                             to backfill the first survey instance
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey instance
+   *         that was backfilled or <code>null</code> if there are no more survey instances to
+   *         backfill
+   *
+   * @throws SurveyServiceException
+   */
+  UUID backfillSurveyResponseRatings(UUID lastSurveyInstanceId)
+    throws SurveyServiceException;
+
+  /**
+   * Create a survey request job that will send a survey request, for the survey instance with
+   * the specified ID, to all survey audience members for the survey audience in the background.
+   *
+   * @param surveyInstanceId the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                         survey instance that the survey requests should be sent for
+   * @param audience         the survey audience
+   *
+   * @return the survey request job
+   */
+  SurveyRequestJob createSurveyRequestJob(UUID surveyInstanceId, SurveyAudience audience)
+    throws SurveyServiceException;
+
   /**
    * Delete the survey audience.
    *
@@ -190,6 +221,25 @@ public interface ISurveyService
   List<SurveyAudienceMember> getFilteredMembersForSurveyAudience(UUID id, String filter)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of filtered survey audience members for the survey audience, sorted by last
+   * name and first name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      survey audience
+   * @param filter        the filter used to limit the matching survey audience members
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of filtered survey audience members for the survey audience
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyAudienceMember> getFilteredMembersForSurveyAudience(UUID id, String filter, int offset,
+      int limit, SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the filtered survey audiences for the organisation.
    *
@@ -202,6 +252,24 @@ public interface ISurveyService
   List<SurveyAudience> getFilteredSurveyAudiencesForOrganisation(UUID id, String filter)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of filtered survey audiences for the organisation, sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      organisation
+   * @param filter        the filter used to limit the matching survey audiences
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of filtered survey audiences for the organisation
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyAudience> getFilteredSurveyAudiencesForOrganisation(UUID id, String filter, int offset,
+      int limit, SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the summaries for the latest versions of the filtered survey definitions for the
    * organisation.
@@ -217,6 +285,26 @@ public interface ISurveyService
       String filter)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of summaries for the latest versions of the filtered survey definitions for
+   * the organisation, sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      organisation
+   * @param filter        the filter used to limit the matching survey definitions
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of summaries for the latest versions of the filtered survey definitions for
+   *         the organisation
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyDefinitionSummary> getFilteredSurveyDefinitionSummariesForOrganisation(UUID id,
+      String filter, int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the filtered survey instances for all versions of the survey definition.
    *
@@ -229,6 +317,25 @@ public interface ISurveyService
   List<SurveyInstance> getFilteredSurveyInstancesForSurveyDefinition(UUID id, String filter)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of filtered survey instances for all versions of the survey definition,
+   * sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      definition the survey instances are associated with
+   * @param filter        the filter used to limit the matching survey instances
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of filtered survey instances for all versions of the survey definition
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyInstance> getFilteredSurveyInstancesForSurveyDefinition(UUID id, String filter,
+      int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the filtered survey requests for the survey instance.
    *
@@ -241,6 +348,25 @@ public interface ISurveyService
   List<SurveyRequest> getFilteredSurveyRequestsForSurveyInstance(UUID id, String filter)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of filtered survey requests for the survey instance, sorted by last name and
+   * first name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      instance the survey requests are associated with
+   * @param filter        the filter used to limit the matching survey requests
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of filtered survey requests for the survey instance
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyRequest> getFilteredSurveyRequestsForSurveyInstance(UUID id, String filter, int offset,
+      int limit, SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the summaries for the filtered survey responses for the survey instance.
    *
@@ -254,6 +380,25 @@ public interface ISurveyService
       String filter)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of summaries for the filtered survey responses for the survey instance,
+   * sorted by date and time the survey responses were received.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      instance the survey responses are associated with
+   * @param filter        the filter used to limit the matching survey responses
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of summaries for the filtered survey responses for the survey instance
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyResponseSummary> getFilteredSurveyResponseSummariesForSurveyInstance(UUID id,
+      String filter, int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the latest version number for the survey definition.
    *
@@ -295,6 +440,38 @@ public interface ISurveyService
   List<SurveyAudienceMember> getMembersForSurveyAudience(UUID id)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of survey audience members for the survey audience, sorted by last name and
+   * first name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      survey audience
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of survey audience members for the survey audience
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyAudienceMember> getMembersForSurveyAudience(UUID id, int offset, int limit,
+      SortDirection sortDirection)
+    throws SurveyServiceException;
+
+  /**
+   * Retrieve the next survey request job that has been queued for processing.
+   * <p/>
+   * The survey request job will be given the status <b>Running</b> and locked using the name of
+   * the Survey Service instance, with a lease that is renewed for every chunk of survey audience
+   * members processed, to prevent duplicate processing. The survey request jobs whose lease has
+   * expired, because the Survey Service instance processing them stopped, are reclaimed.
+   *
+   * @return the next survey request job that has been queued for processing or <code>null</code>
+   *         if no survey request jobs are currently queued for processing
+   */
+  SurveyRequestJob getNextSurveyRequestJobQueuedForProcessing()
+    throws SurveyServiceException;
+
   /**
    * Retrieve the next survey request that has been queued for sending.
    * <p/>
@@ -306,6 +483,32 @@ public interface ISurveyService
   SurveyRequest getNextSurveyRequestQueuedForSending()
     throws SurveyServiceException;
 
+  /**
+   * Returns the date and time at which the next survey request will be due to be sent, taking into
+   * account the delay between attempts to retry sending a survey request and the expiry of the
+   * leases on the locks for the survey requests being sent.
+   *
+   * @return the date and time at which the next survey request will be due to be sent or
+   *         <code>null</code> if no survey requests are queued for sending or being sent
+   */
+  Date getNextSurveyRequestSendTime()
+    throws SurveyServiceException;
+
+  /**
+   * Retrieve the next survey requests that have been queued for sending.
+   * <p/>
+   * The survey requests are claimed atomically, in a single transaction, and are returned with the
+   * status <b>Sending</b> and locked to prevent duplicate sending. The survey requests whose lock
+   * lease has expired are reclaimed, which counts as a send attempt, or given the status
+   * <b>Failed</b> if they have reached the maximum number of send attempts.
+   *
+   * @param maximumNumberOfSurveyRequests the maximum number of survey requests to retrieve
+   *
+   * @return the next survey requests that have been queued for sending
+   */
+  List<SurveyRequest> getNextSurveyRequestsQueuedForSending(int maximumNumberOfSurveyRequests)
+    throws SurveyServiceException;
+
   /**
    * Returns the number of filtered survey audience members for the survey audience.
    *
@@ -487,8 +690,29 @@ public interface ISurveyService
   List<SurveyAudience> getSurveyAudiencesForOrganisation(UUID id)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of survey audiences for the organisation, sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      organisation
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of survey audiences for the organisation
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyAudience> getSurveyAudiencesForOrganisation(UUID id, int offset, int limit,
+      SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the survey definition identified by the specified ID and version.
+   * <p/>
+   * The survey definition that is returned is a deep copy that can be modified and saved using
+   * <code>saveSurveyDefinition</code> without affecting the survey definitions loaded for survey
+   * instances, survey requests and survey responses.
    *
    * @param id      the Universally Unique Identifier (UUID) used to, along with the version of the
    *                survey definition, uniquely identify the survey definition
@@ -510,6 +734,25 @@ public interface ISurveyService
   List<SurveyDefinitionSummary> getSurveyDefinitionSummariesForOrganisation(UUID id)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of summaries for the latest versions of the survey definitions for the
+   * organisation, sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      organisation
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of summaries for the latest versions of the survey definitions for the
+   *         organisation
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyDefinitionSummary> getSurveyDefinitionSummariesForOrganisation(UUID id, int offset,
+      int limit, SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the summary for the survey definition identified by the specified ID and version.
    *
@@ -546,6 +789,24 @@ public interface ISurveyService
   List<SurveyInstance> getSurveyInstancesForSurveyDefinition(UUID id)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of survey instances for all versions of the survey definition, sorted by
+   * name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      definition the survey instances are associated with
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of survey instances for all versions of the survey definition
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyInstance> getSurveyInstancesForSurveyDefinition(UUID id, int offset, int limit,
+      SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the survey request identified by the specified ID.
    *
@@ -571,6 +832,18 @@ public interface ISurveyService
   SurveyRequest getSurveyRequestForSurveyInstanceByEmail(UUID id, String email)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the survey request job identified by the specified ID.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   *
+   * @return the survey request job identified by the specified ID or <code>null</code> if the
+   *         survey request job could not be found
+   */
+  SurveyRequestJob getSurveyRequestJob(UUID id)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the survey requests for the survey instance.
    *
@@ -582,6 +855,24 @@ public interface ISurveyService
   List<SurveyRequest> getSurveyRequestsForSurveyInstance(UUID id)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of survey requests for the survey instance, sorted by last name and first
+   * name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      instance the survey requests are associated with
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of survey requests for the survey instance
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyRequest> getSurveyRequestsForSurveyInstance(UUID id, int offset, int limit,
+      SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the survey response identified by the specified ID.
    *
@@ -617,6 +908,24 @@ public interface ISurveyService
   List<SurveyResponseSummary> getSurveyResponseSummariesForSurveyInstance(UUID id)
     throws SurveyServiceException;
 
+  /**
+   * Retrieve the page of summaries for the survey responses for the survey instance, sorted by date
+   * and time the survey responses were received.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      instance the survey responses are associated with
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of summaries for the survey responses for the survey instance
+   *
+   * @throws SurveyServiceException
+   */
+  List<SurveyResponseSummary> getSurveyResponseSummariesForSurveyInstance(UUID id, int offset,
+      int limit, SortDirection sortDirection)
+    throws SurveyServiceException;
+
   /**
    * Retrieve the summary for the survey response identified by the specified ID.
    *
@@ -657,13 +966,106 @@ public interface ISurveyService
     throws SurveyServiceException;
 
   /**
-   * Increment the send attempts for the survey request.
+   * Retrieve the survey result for the survey instance with the specified ID using the specified
+   * survey result mode.
    *
-   * @param surveyRequest the survey request
+   * @param id   the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *             instance
+   * @param mode the survey result mode
+   *
+   * @return the survey result for the survey instance with the specified ID
+   *
+   * @throws SurveyServiceException
+   */
+  SurveyResult getSurveyResultForSurveyInstance(UUID id, SurveyResultMode mode)
+    throws SurveyServiceException;
+
+  /**
+   * Retrieve the summary for the materialized survey result for the survey instance with the
+   * specified ID.
+   * <p/>
+   * Only the SURVEY.SURVEY_RESULTS table is queried, so the summary can be used to determine
+   * whether the survey result has changed without retrieving the survey result or the survey
+   * responses.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *           instance
+   *
+   * @return the summary for the materialized survey result for the survey instance or
+   *         <code>null</code> if the survey result has not been materialized
    *
    * @throws SurveyServiceException
    */
-  void incrementSurveyRequestSendAttempts(SurveyRequest surveyRequest)
+  SurveyResultSummary getSurveyResultSummaryForSurveyInstance(UUID id)
+    throws SurveyServiceException;
+
+  /**
+   * Insert the batch of survey responses, read from the survey response journal, and add them to
+   * the materialized survey results for their survey instances.
+   * <p/>
+   * The survey responses that already exist, because the batch is being replayed, and the survey
+   * responses for survey instances or survey requests that no longer exist are skipped.
+   *
+   * @param entries the survey response journal entries for the survey responses
+   */
+  void ingestSurveyResponses(List<SurveyResponseJournalEntry> entries)
+    throws SurveyServiceException;
+
+  /**
+   * Process the next chunk of survey audience members for the survey request job by queueing the
+   * survey requests for the survey audience members for sending.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   *
+   * @return <code>true</code> if a chunk of survey audience members was processed or
+   *         <code>false</code> if the survey request job has completed or is no longer locked by
+   *         the Survey Service instance
+   */
+  boolean processNextChunkForSurveyRequestJob(UUID id)
+    throws SurveyServiceException;
+
+  /**
+   * Process the survey request jobs queued for processing asynchronously.
+   */
+  void processSurveyRequestJobs();
+
+  /**
+   * Re-encode the data for the entities of the specified type with the next IDs after the
+   * specified ID, in ID order, whose data was not written using the current entity data encoding.
+   * <p/>
+   * The IDs act as a keyset cursor, so that the entities of the specified type can be re-encoded
+   * in batches and the re-encoding finishes once there are no entities after the cursor.
+   *
+   * @param type                    the entity type, i.e. <code>SurveyDefinition</code>,
+   *                                <code>SurveyResponse</code> or <code>SurveyResult</code>
+   * @param lastId                  the Universally Unique Identifier (UUID) used to uniquely
+   *                                identify the last entity examined by the previous batch or
+   *                                <code>null</code> to start with the first entity
+   * @param maximumNumberOfEntities the maximum number of entity IDs to examine
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the last entity
+   *         examined or <code>null</code> if there are no entities after the specified ID
+   */
+  UUID reencodeEntityData(Class<?> type, UUID lastId, int maximumNumberOfEntities)
+    throws SurveyServiceException;
+
+  /**
+   * Renew the leases on the locks for the survey requests that are still being sent by the Survey
+   * Service instance.
+   *
+   * @param ids the Universally Unique Identifiers (UUIDs) used to identify the survey requests
+   *
+   * @return the number of survey requests whose lock lease was renewed
+   */
+  int renewSurveyRequestLocks(List<UUID> ids)
+    throws SurveyServiceException;
+
+  /**
+   * Reset the locks for the survey request jobs that were being processed by the Survey Service
+   * instance and re-queue them for processing.
+   */
+  void resetSurveyRequestJobLocks()
     throws SurveyServiceException;
 
   /**
@@ -777,11 +1179,71 @@ public interface ISurveyService
   void sendSurveyRequests();
 
   /**
-   * Unlock the survey request.
+   * Skip the next chunk of survey audience members for the survey request job, which could not be
+   * processed, and record the survey audience members as failed.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   *
+   * @return <code>true</code> if a chunk of survey audience members was skipped or
+   *         <code>false</code> if the survey request job has completed or is no longer locked by
+   *         the Survey Service instance
+   */
+  boolean skipNextChunkForSurveyRequestJob(UUID id)
+    throws SurveyServiceException;
+
+  /**
+   * Submit the new survey response completed by a respondent.
+   * <p/>
+   * If the survey response journal is enabled, the survey response is acknowledged once it has
+   * been appended to the survey response journal and is inserted asynchronously by the Background
+   * Survey Response Ingester. Otherwise, the survey response is saved synchronously.
+   *
+   * @param surveyResponse the survey response
+   */
+  void submitSurveyResponse(SurveyResponse surveyResponse)
+    throws SurveyServiceException;
+
+  /**
+   * Unlock the survey request if it is still locked by the Survey Service instance.
    *
    * @param id     the Universally Unique Identifier (UUID) used to identify the survey request
    * @param status the new status for the unlocked survey request
    */
   void unlockSurveyRequest(UUID id, SurveyRequestStatus status)
     throws SurveyServiceException;
+
+  /**
+   * Unlock the survey request that could not be sent, incrementing its send attempts, and either
+   * re-queue it for sending once the jittered exponential backoff delay for its send attempts has
+   * elapsed or set its status to <b>Failed</b> if it has reached the maximum number of send
+   * attempts.
+   *
+   * @param surveyRequest the survey request
+   *
+   * @return the new status for the unlocked survey request
+   */
+  SurveyRequestStatus unlockSurveyRequestForRetry(SurveyRequest surveyRequest)
+    throws SurveyServiceException;
+
+  /**
+   * Unlock the survey request job, which could not be processed, and re-queue it for processing.
+   * <p/>
+   * The survey request job is not affected if its lock lease expired and it was reclaimed by
+   * another Survey Service instance.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   */
+  void unlockSurveyRequestJob(UUID id)
+    throws SurveyServiceException;
+
+  /**
+   * Unlock the survey requests that are still locked by the Survey Service instance.
+   *
+   * @param ids    the Universally Unique Identifiers (UUIDs) used to identify the survey requests
+   * @param status the new status for the unlocked survey requests
+   */
+  void unlockSurveyRequests(List<UUID> ids, SurveyRequestStatus status)
+    throws SurveyServiceException;
 }
@@ -13,32 +13,95 @@ package digital.survey.model;
 
 //~--- non-JDK imports --------------------------------------------------------
 
+import digital.survey.web.SurveyApplication;
 import guru.mmp.application.configuration.IConfigurationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.mail.Message;
+import javax.mail.Multipart;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import java.util.Objects;
+import java.util.Properties;
 
 //~--- JDK imports ------------------------------------------------------------
 
 /**
- * The <code>MailHelper</code> class.
+ * The <code>MailHelper</code> class implements the singleton mail service used to send the survey
+ * request mails.
+ * <p/>
+ * The mails are sent using a pool of connected and authenticated SMTP transports for the mail
+ * server, which is created using the mail configuration and replaced if the mail configuration
+ * changes.
+ *
+ * @author Marcus Portmann
  */
+@Service
+@SuppressWarnings("unused")
 public class MailHelper
 {
+  /**
+   * The default maximum number of pooled connections to the mail server.
+   */
+  public static final int DEFAULT_MAXIMUM_CONNECTIONS = 16;
+
+  /**
+   * The default maximum number of mails sent using a pooled connection to the mail server before
+   * it is recycled.
+   */
+  public static final int DEFAULT_MAXIMUM_MESSAGES_PER_CONNECTION = 100;
+
+  /**
+   * The interval in milliseconds after which the mail configuration is reloaded.
+   */
+  private static final long MAIL_CONFIGURATION_RELOAD_INTERVAL = 60L * 1000L;
+
+  /**
+   * The timeout in milliseconds for connecting to, reading from and writing to the mail server.
+   */
+  private static final int MAIL_SERVER_TIMEOUT = 60 * 1000;
+
   /* Logger */
   private static final Logger logger = LoggerFactory.getLogger(MailHelper.class);
 
+  /* Configuration Service */
+  @Inject
+  private IConfigurationService configurationService;
+
   /**
-   * The Configuration Service.
+   * The current mail configuration.
    */
-  private IConfigurationService configurationService;
+  private MailConfiguration mailConfiguration;
 
   /**
-   * Constructs a new <code>MailHelper</code>.
+   * The pool of SMTP transports for the current mail configuration.
    */
-  public MailHelper(IConfigurationService configurationService)
-    throws MailHelperException
+  private SmtpTransportPool transportPool;
+
+  /**
+   * The mail configuration used to create the pool of SMTP transports.
+   */
+  private MailConfiguration transportPoolConfiguration;
+
+  /**
+   * Shutdown the mail helper and close the pooled connections to the mail server.
+   */
+  @PreDestroy
+  public synchronized void destroy()
   {
-    this.configurationService = configurationService;
+    if (transportPool != null)
+    {
+      transportPool.close();
+
+      transportPool = null;
+    }
   }
 
   /**
@@ -49,101 +112,216 @@ public class MailHelper
   public void sendSurveyRequestMail(SurveyRequest surveyRequest)
     throws MailHelperException
   {
-//  try
-//  {
-//    // Retrieve the configuration values
-//    String host = configurationService.getString(SurveyApplication.MAIL_HOST_CONFIGURATION_KEY);
-//    String username = configurationService.getString(SurveyApplication
-//        .MAIL_USERNAME_CONFIGURATION_KEY);
-//    String password = configurationService.getString(SurveyApplication
-//        .MAIL_PASSWORD_CONFIGURATION_KEY);
-//    boolean isSecure = configurationService.getBoolean(SurveyApplication
-//        .MAIL_IS_SECURE_CONFIGURATION_KEY);
-//    String fromAddress = configurationService.getString(SurveyApplication
-//        .MAIL_FROM_ADDRESS_CONFIGURATION_KEY);
-//    String completeSurveyResponseUrl = configurationService.getString(SurveyApplication
-//        .COMPLETE_SURVEY_RESPONSE_URL_CONFIGURATION_KEY);
-//
-//    // The subject
-//    String subject = "We want your opinion";
-//
-//    // Initialise the mail properties
-//    Properties properties = new Properties();
-//
-//    properties.put("mail.smtp.host", host);
-//    properties.put("mail.smtp.user", username);
-//    properties.put("mail.smtp.password", password);
-//
-//    if (isSecure)
-//    {
-//      properties.put("mail.smtp.starttls.enable", "true");
-//      properties.put("mail.smtp.port", "587");
-//      properties.put("mail.smtp.auth", "true");
-//    }
-//    else
-//    {
-//      properties.put("mail.smtp.port", "25");
-//    }
-//
-//    Session session = Session.getDefaultInstance(properties, null);
-//
-//    MimeMessage message = new MimeMessage(session);
-//
-//    message.setFrom(new InternetAddress(fromAddress));
-//    message.setReplyTo(new InternetAddress[] { new InternetAddress(fromAddress) });
-//    message.addRecipient(Message.RecipientType.TO, new InternetAddress(surveyRequest.getEmail()));
-//    message.setSubject(subject);
-//
-//    Multipart multipart = new MimeMultipart();
-//
-//    MimeBodyPart bodyPart = new MimeBodyPart();
-//
-//    String content =
-//        "<div style=\"font-family: 'Open Sans', 'Helvetica Neue', Helvetica, Arial, sans-serif; font-size: 13px;\">"
-//        + "Dear " + surveyRequest.getFirstName() + ",<br/><br/>"
-//        + "Please click the button below to complete the <b>" + surveyRequest.getInstance()
-//        .getName() + "</b> survey.<br/><br/>" + "Thank you.<br/><br/>" + "Kind regards,<br/>"
-//        + "The Survey.Digital Team<br/><br/><br/>" + "<center>" + "<a href=\""
-//        + completeSurveyResponseUrl + "?surveyInstanceId=" + surveyRequest.getInstance().getId()
-//        + "&surveyRequestId=" + surveyRequest.getId()
-//        + "\" style=\"background: rgb(92, 144, 210) none; border-image-outset: 0px; border-image-repeat: stretch; border-image-slice: 100%; border-image-source: none; border-image-width: 1; border-radius: 2px; border: 1px solid rgb(54, 117, 197); box-sizing: border-box; color: rgb(255, 255, 255); cursor: pointer; display: inline-block; font-family: 'Open Sans', 'Helvetica Neue', Helvetica, Arial, sans-serif; font-size: 13px; font-weight: 600; height: 31px; line-height: 19px; margin-bottom: 0px; padding: 5px 10px; text-align: center; text-decoration: none; vertical-align: middle; white-space: nowrap;\">Click here to complete the survey</a><br/><br/>" + "<span style=\"font-size: 10px;\">Please do not forward this e-mail as its survey link is unique to you.</span>" + "</center>" + "<div>";
-//
-//    bodyPart.setContent(content, "text/html");
-//
-//    multipart.addBodyPart(bodyPart);
-//
-////  for (MailAttachment mailAttachment : attachments)
-////  {
-////    MimeBodyPart attachment = new MimeBodyPart();
-////
-////    attachment.setFileName(mailAttachment.getName());
-////    attachment.setContent(mailAttachment.getData(), mailAttachment.getContentType());
-////    attachment.setDisposition(MimeBodyPart.ATTACHMENT);
-////
-////    multipart.addBodyPart(attachment);
-////  }
-//
-//    message.setContent(multipart);
-//
-//    Transport transport = session.getTransport("smtp");
-//
-//    transport.connect(host, username, password);
-//
-//    logger.info("Successfully connected to the mail server (" + host + ") using the"
-//        + " username (" + username + ")");
-//
-//    transport.sendMessage(message, message.getAllRecipients());
-//    transport.close();
-//
-//    logger.info("Successfully sent the mail with subject (" + subject + ") to the recipient ("
-//        + surveyRequest.getEmail() + ") using the mail server (" + host + ")");
-//
-//  }
-//  catch (Throwable e)
-//  {
-//    throw new MailHelperException("Failed to send the mail for the survey request ("
-//        + surveyRequest.getId() + ") for the person " + surveyRequest.getFirstName() + " "
-//        + surveyRequest.getLastName() + " <" + surveyRequest.getEmail() + ">", e);
-//  }
+    try
+    {
+      MailConfiguration mailConfiguration = getMailConfiguration();
+
+      SmtpTransportPool transportPool = getTransportPool(mailConfiguration);
+
+      // The subject
+      String subject = "We want your opinion";
+
+      MimeMessage message = new MimeMessage(transportPool.getSession());
+
+      message.setFrom(new InternetAddress(mailConfiguration.fromAddress));
+      message.setReplyTo(new InternetAddress[] { new InternetAddress(
+          mailConfiguration.fromAddress) });
+      message.addRecipient(Message.RecipientType.TO, new InternetAddress(
+          surveyRequest.getEmail()));
+      message.setSubject(subject);
+
+      Multipart multipart = new MimeMultipart();
+
+      MimeBodyPart bodyPart = new MimeBodyPart();
+
+      String completeSurveyResponseUrl = mailConfiguration.completeSurveyResponseUrl;
+
+      String content =
+          "<div style=\"font-family: 'Open Sans', 'Helvetica Neue', Helvetica, Arial, sans-serif; font-size: 13px;\">"
+          + "Dear " + surveyRequest.getFirstName() + ",<br/><br/>"
+          + "Please click the button below to complete the <b>" + surveyRequest.getInstance()
+          .getName() + "</b> survey.<br/><br/>" + "Thank you.<br/><br/>" + "Kind regards,<br/>"
+          + "The Survey.Digital Team<br/><br/><br/>" + "<center>" + "<a href=\""
+          + completeSurveyResponseUrl + "?surveyInstanceId=" + surveyRequest.getInstance().getId()
+          + "&surveyRequestId=" + surveyRequest.getId()
+          + "\" style=\"background: rgb(92, 144, 210) none; border-image-outset: 0px; border-image-repeat: stretch; border-image-slice: 100%; border-image-source: none; border-image-width: 1; border-radius: 2px; border: 1px solid rgb(54, 117, 197); box-sizing: border-box; color: rgb(255, 255, 255); cursor: pointer; display: inline-block; font-family: 'Open Sans', 'Helvetica Neue', Helvetica, Arial, sans-serif; font-size: 13px; font-weight: 600; height: 31px; line-height: 19px; margin-bottom: 0px; padding: 5px 10px; text-align: center; text-decoration: none; vertical-align: middle; white-space: nowrap;\">Click here to complete the survey</a><br/><br/>" + "<span style=\"font-size: 10px;\">Please do not forward this e-mail as its survey link is unique to you.</span>" + "</center>" + "<div>";
+
+      bodyPart.setContent(content, "text/html");
+
+      multipart.addBodyPart(bodyPart);
+
+      message.setContent(multipart);
+
+      transportPool.sendMessage(message, message.getAllRecipients());
+
+      if (logger.isDebugEnabled())
+      {
+        logger.debug("Successfully sent the mail with subject (" + subject + ") to the recipient ("
+            + surveyRequest.getEmail() + ") using the mail server (" + mailConfiguration.host
+            + ")");
+      }
+    }
+    catch (Throwable e)
+    {
+      throw new MailHelperException("Failed to send the mail for the survey request ("
+          + surveyRequest.getId() + ") for the person " + surveyRequest.getFirstName() + " "
+          + surveyRequest.getLastName() + " <" + surveyRequest.getEmail() + ">", e);
+    }
+  }
+
+  /**
+   * Returns the integer value for the configuration key or the default value if the configuration
+   * key does not exist.
+   *
+   * @param key          the configuration key
+   * @param defaultValue the default value
+   *
+   * @return the integer value for the configuration key or the default value
+   */
+  private int getIntegerConfigurationValue(String key, int defaultValue)
+    throws Exception
+  {
+    if (configurationService.keyExists(key))
+    {
+      return Math.max(1, configurationService.getInteger(key));
+    }
+    else
+    {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Returns the current mail configuration, reloading it if it has not been loaded or the reload
+   * interval has elapsed since it was loaded.
+   *
+   * @return the current mail configuration
+   */
+  private synchronized MailConfiguration getMailConfiguration()
+    throws Exception
+  {
+    if ((mailConfiguration == null)
+        || ((System.currentTimeMillis() - mailConfiguration.loaded)
+        > MAIL_CONFIGURATION_RELOAD_INTERVAL))
+    {
+      MailConfiguration newMailConfiguration = new MailConfiguration();
+
+      newMailConfiguration.host = configurationService.getString(SurveyApplication
+          .MAIL_HOST_CONFIGURATION_KEY);
+      newMailConfiguration.username = configurationService.getString(SurveyApplication
+          .MAIL_USERNAME_CONFIGURATION_KEY);
+      newMailConfiguration.password = configurationService.getString(SurveyApplication
+          .MAIL_PASSWORD_CONFIGURATION_KEY);
+      newMailConfiguration.isSecure = configurationService.getBoolean(SurveyApplication
+          .MAIL_IS_SECURE_CONFIGURATION_KEY);
+      newMailConfiguration.fromAddress = configurationService.getString(SurveyApplication
+          .MAIL_FROM_ADDRESS_CONFIGURATION_KEY);
+      newMailConfiguration.completeSurveyResponseUrl = configurationService.getString(
+          SurveyApplication.COMPLETE_SURVEY_RESPONSE_URL_CONFIGURATION_KEY);
+      newMailConfiguration.maximumConnections = getIntegerConfigurationValue(SurveyApplication
+          .MAIL_MAXIMUM_CONNECTIONS_CONFIGURATION_KEY, DEFAULT_MAXIMUM_CONNECTIONS);
+      newMailConfiguration.maximumMessagesPerConnection = getIntegerConfigurationValue(
+          SurveyApplication.MAIL_MAXIMUM_MESSAGES_PER_CONNECTION_CONFIGURATION_KEY,
+          DEFAULT_MAXIMUM_MESSAGES_PER_CONNECTION);
+      newMailConfiguration.loaded = System.currentTimeMillis();
+
+      mailConfiguration = newMailConfiguration;
+    }
+
+    return mailConfiguration;
+  }
+
+  /**
+   * Returns the pool of SMTP transports for the mail configuration, replacing the existing pool if
+   * it was created using a different mail configuration.
+   *
+   * @param mailConfiguration the mail configuration
+   *
+   * @return the pool of SMTP transports for the mail configuration
+   */
+  private synchronized SmtpTransportPool getTransportPool(MailConfiguration mailConfiguration)
+  {
+    if ((transportPool == null)
+        || (!mailConfiguration.isPoolCompatible(transportPoolConfiguration)))
+    {
+      if (transportPool != null)
+      {
+        transportPool.close();
+      }
+
+      Properties properties = new Properties();
+
+      properties.put("mail.smtp.host", mailConfiguration.host);
+      properties.put("mail.smtp.user", mailConfiguration.username);
+      properties.put("mail.smtp.connectiontimeout", String.valueOf(MAIL_SERVER_TIMEOUT));
+      properties.put("mail.smtp.timeout", String.valueOf(MAIL_SERVER_TIMEOUT));
+      properties.put("mail.smtp.writetimeout", String.valueOf(MAIL_SERVER_TIMEOUT));
+
+      if (mailConfiguration.isSecure)
+      {
+        properties.put("mail.smtp.starttls.enable", "true");
+        properties.put("mail.smtp.port", "587");
+        properties.put("mail.smtp.auth", "true");
+      }
+      else
+      {
+        properties.put("mail.smtp.port", "25");
+      }
+
+      transportPool = new SmtpTransportPool(Session.getInstance(properties),
+          mailConfiguration.host, mailConfiguration.getPort(), mailConfiguration.username,
+          mailConfiguration.password, mailConfiguration.maximumConnections,
+          mailConfiguration.maximumMessagesPerConnection);
+
+      transportPoolConfiguration = mailConfiguration;
+    }
+
+    return transportPool;
+  }
+
+  /**
+   * The <code>MailConfiguration</code> class holds the mail configuration.
+   */
+  private static class MailConfiguration
+  {
+    private String completeSurveyResponseUrl;
+    private String fromAddress;
+    private String host;
+    private boolean isSecure;
+    private long loaded;
+    private int maximumConnections;
+    private int maximumMessagesPerConnection;
+    private String password;
+    private String username;
+
+    /**
+     * Returns the port for the mail server.
+     *
+     * @return the port for the mail server
+     */
+    int getPort()
+    {
+      return isSecure
+          ? 587
+          : 25;
+    }
+
+    /**
+     * Returns whether a pool of SMTP transports created using the other mail configuration can be
+     * used with this mail configuration.
+     *
+     * @param other the other mail configuration
+     *
+     * @return <code>true</code> if a pool of SMTP transports created using the other mail
+     *         configuration can be used with this mail configuration or <code>false</code>
+     *         otherwise
+     */
+    boolean isPoolCompatible(MailConfiguration other)
+    {
+      return (other != null) && Objects.equals(host, other.host) && (isSecure == other.isSecure)
+          && Objects.equals(username, other.username) && Objects.equals(password, other.password)
+          && (maximumConnections == other.maximumConnections)
+          && (maximumMessagesPerConnection == other.maximumMessagesPerConnection);
+    }
   }
 }
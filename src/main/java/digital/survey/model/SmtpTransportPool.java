@@ -0,0 +1,320 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SmtpTransportPool</code> class implements a bounded pool of connected and
+ * authenticated SMTP transports for a single mail server.
+ * <p/>
+ * Transports are validated when they are borrowed from the pool, and are closed and replaced
+ * after they have been used to send the maximum number of messages per transport or if an error
+ * occurs while sending a message, so that the TCP, TLS and authentication handshakes with the mail
+ * server are only performed once for a number of messages rather than once for every message.
+ *
+ * @author Marcus Portmann
+ */
+public class SmtpTransportPool
+  implements AutoCloseable
+{
+  /* Logger */
+  private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+  /**
+   * The idle transports, with the most recently used transport first.
+   */
+  private BlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
+
+  /**
+   * Has the pool been closed?
+   */
+  private volatile boolean closed;
+
+  /**
+   * The host for the mail server.
+   */
+  private String host;
+
+  /**
+   * The maximum number of messages sent using a transport before it is closed and replaced.
+   */
+  private int maximumMessagesPerTransport;
+
+  /**
+   * The password used to authenticate with the mail server.
+   */
+  private String password;
+
+  /**
+   * The permits used to limit the number of transports.
+   */
+  private Semaphore permits;
+
+  /**
+   * The port for the mail server.
+   */
+  private int port;
+
+  /**
+   * The mail session used to create the transports.
+   */
+  private Session session;
+
+  /**
+   * The username used to authenticate with the mail server.
+   */
+  private String username;
+
+  /**
+   * Constructs a new <code>SmtpTransportPool</code>.
+   *
+   * @param session                     the mail session used to create the transports
+   * @param host                        the host for the mail server
+   * @param port                        the port for the mail server
+   * @param username                    the username used to authenticate with the mail server or
+   *                                    <code>null</code> if authentication is not required
+   * @param password                    the password used to authenticate with the mail server or
+   *                                    <code>null</code> if authentication is not required
+   * @param maximumTransports           the maximum number of transports
+   * @param maximumMessagesPerTransport the maximum number of messages sent using a transport
+   *                                    before it is closed and replaced
+   */
+  public SmtpTransportPool(Session session, String host, int port, String username,
+      String password, int maximumTransports, int maximumMessagesPerTransport)
+  {
+    this.session = session;
+    this.host = host;
+    this.port = port;
+    this.username = username;
+    this.password = password;
+    this.permits = new Semaphore(maximumTransports, true);
+    this.maximumMessagesPerTransport = maximumMessagesPerTransport;
+  }
+
+  /**
+   * Close the pool and the idle transports.
+   * <p/>
+   * The transports currently being used to send messages will be closed when they are returned to
+   * the pool.
+   */
+  @Override
+  public void close()
+  {
+    closed = true;
+
+    PooledTransport pooledTransport;
+
+    while ((pooledTransport = idleTransports.pollFirst()) != null)
+    {
+      closeTransport(pooledTransport);
+    }
+  }
+
+  /**
+   * Returns the number of idle transports.
+   *
+   * @return the number of idle transports
+   */
+  public int getNumberOfIdleTransports()
+  {
+    return idleTransports.size();
+  }
+
+  /**
+   * Returns the mail session used to create the transports.
+   *
+   * @return the mail session used to create the transports
+   */
+  public Session getSession()
+  {
+    return session;
+  }
+
+  /**
+   * Send the message to the recipients using a pooled transport.
+   * <p/>
+   * If all the transports are currently being used to send messages then this method will block
+   * until a transport is returned to the pool.
+   *
+   * @param message    the message
+   * @param recipients the recipients
+   */
+  public void sendMessage(Message message, Address[] recipients)
+    throws MessagingException
+  {
+    if (closed)
+    {
+      throw new MessagingException("Failed to send the message: The SMTP transport pool for the"
+          + " mail server (" + host + ":" + port + ") has been closed");
+    }
+
+    try
+    {
+      permits.acquire();
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+
+      throw new MessagingException("Interrupted while waiting for an SMTP transport for the mail"
+          + " server (" + host + ":" + port + ")", e);
+    }
+
+    try
+    {
+      PooledTransport pooledTransport = borrowTransport();
+
+      boolean failed = true;
+
+      try
+      {
+        pooledTransport.transport.sendMessage(message, recipients);
+
+        pooledTransport.numberOfMessagesSent++;
+
+        failed = false;
+      }
+      finally
+      {
+        returnTransport(pooledTransport, failed);
+      }
+    }
+    finally
+    {
+      permits.release();
+    }
+  }
+
+  /**
+   * Borrow a transport from the pool, validating the idle transports and connecting a new
+   * transport if there are no valid idle transports.
+   *
+   * @return the connected transport
+   */
+  private PooledTransport borrowTransport()
+    throws MessagingException
+  {
+    PooledTransport pooledTransport;
+
+    while ((pooledTransport = idleTransports.pollFirst()) != null)
+    {
+      // NOTE: This sends a NOOP command to the mail server to check that the connection is alive
+      if (pooledTransport.transport.isConnected())
+      {
+        return pooledTransport;
+      }
+
+      closeTransport(pooledTransport);
+    }
+
+    Transport transport = session.getTransport("smtp");
+
+    transport.connect(host, port, username, password);
+
+    if (logger.isDebugEnabled())
+    {
+      logger.debug("Successfully connected to the mail server (" + host + ":" + port + ")"
+          + ((username != null)
+          ? " using the username (" + username + ")"
+          : ""));
+    }
+
+    return new PooledTransport(transport);
+  }
+
+  /**
+   * Close the transport.
+   *
+   * @param pooledTransport the transport
+   */
+  private void closeTransport(PooledTransport pooledTransport)
+  {
+    try
+    {
+      pooledTransport.transport.close();
+    }
+    catch (Throwable e)
+    {
+      logger.debug("Failed to close the connection to the mail server (" + host + ":" + port
+          + ")", e);
+    }
+  }
+
+  /**
+   * Return the transport to the pool or close it if an error occurred while sending a message,
+   * it has been used to send the maximum number of messages per transport or the pool has been
+   * closed.
+   *
+   * @param pooledTransport the transport
+   * @param failed          did an error occur while sending a message using the transport
+   */
+  private void returnTransport(PooledTransport pooledTransport, boolean failed)
+  {
+    if (failed || closed
+        || (pooledTransport.numberOfMessagesSent >= maximumMessagesPerTransport))
+    {
+      closeTransport(pooledTransport);
+    }
+    else
+    {
+      idleTransports.offerFirst(pooledTransport);
+
+      // Handle the pool being closed while the transport was being returned
+      if (closed && idleTransports.remove(pooledTransport))
+      {
+        closeTransport(pooledTransport);
+      }
+    }
+  }
+
+  /**
+   * The <code>PooledTransport</code> class holds a transport and the number of messages that have
+   * been sent using it.
+   */
+  private static class PooledTransport
+  {
+    /**
+     * The transport.
+     */
+    private Transport transport;
+
+    /**
+     * The number of messages that have been sent using the transport.
+     */
+    private int numberOfMessagesSent;
+
+    /**
+     * Constructs a new <code>PooledTransport</code>.
+     *
+     * @param transport the transport
+     */
+    PooledTransport(Transport transport)
+    {
+      this.transport = transport;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+/**
+ * The <code>SortDirection</code> enumeration defines the directions in which the results returned
+ * by the paged retrieval methods provided by the Survey Service can be sorted.
+ *
+ * @author Marcus Portmann
+ */
+public enum SortDirection
+{
+  ASCENDING(1, "Ascending"), DESCENDING(2, "Descending");
+
+  private String description;
+  private int code;
+
+  SortDirection(int code, String description)
+  {
+    this.code = code;
+    this.description = description;
+  }
+
+  /**
+   * Returns the sort direction given by the specified numeric code value.
+   *
+   * @param code the numeric code value identifying the sort direction
+   *
+   * @return the sort direction given by the specified numeric code value
+   */
+  public static SortDirection fromCode(int code)
+  {
+    switch (code)
+    {
+      case 1:
+        return SortDirection.ASCENDING;
+
+      case 2:
+        return SortDirection.DESCENDING;
+
+      default:
+        return SortDirection.ASCENDING;
+    }
+  }
+
+  /**
+   * Returns the numeric code for the sort direction.
+   *
+   * @return the numeric code for the sort direction
+   */
+  public int code()
+  {
+    return code;
+  }
+
+  /**
+   * Returns the description for the sort direction.
+   *
+   * @return the description for the sort direction
+   */
+  public String description()
+  {
+    return description;
+  }
+
+  /**
+   * Returns the <code>String</code> representation of the numeric code for the sort direction.
+   *
+   * @return the <code>String</code> representation of the numeric code for the sort direction
+   */
+  public String getCodeAsString()
+  {
+    return String.valueOf(code);
+  }
+}
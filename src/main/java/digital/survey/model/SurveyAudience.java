@@ -57,7 +57,7 @@ public class SurveyAudience
    * The organisation this survey definition is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "ORGANISATION_ID", referencedColumnName = "ID")
   protected Organisation organisation;
 
@@ -34,7 +34,7 @@ public class SurveyAudienceMember
    * The survey audience this survey audience member is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "SURVEY_AUDIENCE_ID", referencedColumnName = "ID")
   protected SurveyAudience audience;
 
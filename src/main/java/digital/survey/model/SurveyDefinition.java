@@ -16,7 +16,6 @@ package digital.survey.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 
 import javax.persistence.*;
@@ -92,7 +91,7 @@ public class SurveyDefinition
    * The organisation this survey definition is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "ORGANISATION_ID", referencedColumnName = "ID")
   @JsonIgnore
   private Organisation organisation;
@@ -223,7 +222,7 @@ public class SurveyDefinition
   {
     try
     {
-      return new ObjectMapper().writeValueAsString(this);
+      return EntityDataCodec.write(this);
     }
     catch (Throwable e)
     {
@@ -404,6 +403,11 @@ public class SurveyDefinition
 
   /**
    * Set the JSON data for the survey definition.
+   * <p/>
+   * The parsed survey group definitions and survey item definitions are copied from the survey
+   * definition cache if this version of the survey definition has already been loaded with the
+   * same JSON data, in which case they are not shared with the other survey definitions loaded
+   * for this version and can be modified.
    *
    * @param data the JSON data for the survey definition
    */
@@ -411,7 +415,24 @@ public class SurveyDefinition
   {
     try
     {
-      new ObjectMapper().readerForUpdating(this).readValue(data);
+      SurveyDefinitionCache.Entry entry = (id != null)
+          ? SurveyDefinitionCache.get(id, version, data)
+          : null;
+
+      if (entry != null)
+      {
+        this.groupDefinitions = entry.getGroupDefinitions();
+        this.itemDefinitions = entry.getItemDefinitions();
+      }
+      else
+      {
+        EntityDataCodec.readForUpdating(this, data);
+
+        if ((id != null) && (groupDefinitions != null) && (itemDefinitions != null))
+        {
+          SurveyDefinitionCache.put(id, version, data, groupDefinitions, itemDefinitions);
+        }
+      }
     }
     catch (Throwable e)
     {
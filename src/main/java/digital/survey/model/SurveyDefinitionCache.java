@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The <code>SurveyDefinitionCache</code> class implements the shared, thread-safe, in-memory cache
+ * of the parsed survey group definitions and survey item definitions for the versions of the
+ * survey definitions, keyed by the ID and version of the survey definition.
+ * <p/>
+ * A version of a survey definition cannot change once a survey instance has been created for it,
+ * so the parsed definitions are reused for all the survey definition entities loaded for the same
+ * version, regardless of whether they were loaded for a survey instance, survey request or survey
+ * response, rather than parsing the JSON data every time Hibernate loads the entity. The JSON data
+ * for each cache entry is retained and compared with the JSON data being loaded, which guarantees
+ * that stale parsed definitions are never returned for a version of a survey definition that is
+ * updated in place before a survey instance is created for it.
+ * <p/>
+ * Each cache entry holds its own copy of the parsed definitions, which is never modified or handed
+ * out, and every survey definition entity is given its own deep copy of the cached definitions,
+ * made by duplicating the definitions directly without parsing any JSON or using data binding, so
+ * changes made to the definitions for one survey definition entity never affect the cache or the
+ * other survey definition entities.
+ * <p/>
+ * The cache is bounded by the total length of the JSON data for the cached entries and the least
+ * recently used entries are evicted first.
+ *
+ * @author Marcus Portmann
+ */
+final class SurveyDefinitionCache
+{
+  /**
+   * The maximum total length in characters of the JSON data for the cached entries.
+   */
+  static final long MAXIMUM_SIZE = 16L * 1024L * 1024L;
+
+  /**
+   * The cache entries, in least recently used order.
+   */
+  private static final Map<VersionedId, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * The total length in characters of the JSON data for the cached entries.
+   */
+  private static long size;
+
+  /**
+   * Private default constructor to prevent instantiation.
+   */
+  private SurveyDefinitionCache() {}
+
+  /**
+   * Remove all the entries from the cache.
+   */
+  static synchronized void clear()
+  {
+    entries.clear();
+
+    size = 0;
+  }
+
+  /**
+   * Returns the cache entry for the version of the survey definition if it was cached for the
+   * same JSON data.
+   *
+   * @param id      the Universally Unique Identifier (UUID) used to, along with the version of the
+   *                survey definition, uniquely identify the survey definition
+   * @param version the version of the survey definition
+   * @param data    the JSON data for the version of the survey definition
+   *
+   * @return the cache entry for the version of the survey definition or <code>null</code> if the
+   *         version of the survey definition has not been cached for the same JSON data
+   */
+  static synchronized Entry get(UUID id, int version, String data)
+  {
+    Entry entry = entries.get(new VersionedId(id, version));
+
+    return ((entry != null) && entry.data.equals(data))
+        ? entry
+        : null;
+  }
+
+  /**
+   * Returns the total length in characters of the JSON data for the cached entries.
+   *
+   * @return the total length in characters of the JSON data for the cached entries
+   */
+  static synchronized long getSize()
+  {
+    return size;
+  }
+
+  /**
+   * Remove the cache entry for the version of the survey definition.
+   *
+   * @param id      the Universally Unique Identifier (UUID) used to, along with the version of the
+   *                survey definition, uniquely identify the survey definition
+   * @param version the version of the survey definition
+   */
+  static synchronized void invalidate(UUID id, int version)
+  {
+    Entry entry = entries.remove(new VersionedId(id, version));
+
+    if (entry != null)
+    {
+      size -= entry.data.length();
+    }
+  }
+
+  /**
+   * Add the parsed definitions for the version of the survey definition to the cache, evicting
+   * the least recently used entries if required.
+   *
+   * @param id               the Universally Unique Identifier (UUID) used to, along with the
+   *                         version of the survey definition, uniquely identify the survey
+   *                         definition
+   * @param version          the version of the survey definition
+   * @param data             the JSON data for the version of the survey definition
+   * @param groupDefinitions the parsed survey group definitions, which are copied
+   * @param itemDefinitions  the parsed survey item definitions, which are copied
+   */
+  static void put(UUID id, int version, String data,
+      List<SurveyGroupDefinition> groupDefinitions, List<SurveyItemDefinition> itemDefinitions)
+  {
+    if (data.length() > MAXIMUM_SIZE)
+    {
+      return;
+    }
+
+    // Copy the definitions outside the lock since the copies are independent of the cache
+    Entry entry = new Entry(data, duplicateGroupDefinitions(groupDefinitions),
+        SurveyItemDefinition.duplicate(itemDefinitions));
+
+    put(new VersionedId(id, version), entry);
+  }
+
+  /**
+   * Duplicate (deep-copy) the survey group definitions.
+   *
+   * @param groupDefinitions the survey group definitions
+   *
+   * @return the duplicated (deep-copied) survey group definitions
+   */
+  private static List<SurveyGroupDefinition> duplicateGroupDefinitions(
+      List<SurveyGroupDefinition> groupDefinitions)
+  {
+    List<SurveyGroupDefinition> duplicateGroupDefinitions = new ArrayList<>(
+        groupDefinitions.size());
+
+    for (SurveyGroupDefinition groupDefinition : groupDefinitions)
+    {
+      duplicateGroupDefinitions.add(groupDefinition.duplicate());
+    }
+
+    return duplicateGroupDefinitions;
+  }
+
+  /**
+   * Add the cache entry for the version of the survey definition to the cache, evicting the least
+   * recently used entries if required.
+   *
+   * @param versionedId the ID and version of the survey definition
+   * @param entry       the cache entry
+   */
+  private static synchronized void put(VersionedId versionedId, Entry entry)
+  {
+    invalidate(versionedId.getId(), versionedId.getVersion());
+
+    entries.put(versionedId, entry);
+
+    size += entry.data.length();
+
+    Iterator<Entry> iterator = entries.values().iterator();
+
+    while ((size > MAXIMUM_SIZE) && iterator.hasNext())
+    {
+      size -= iterator.next().data.length();
+
+      iterator.remove();
+    }
+  }
+
+  /**
+   * The <code>Entry</code> class holds the copy of the parsed definitions for a version of a survey
+   * definition, which is never modified, and the JSON data they were parsed from.
+   */
+  static final class Entry
+  {
+    /**
+     * The JSON data the definitions were parsed from.
+     */
+    private final String data;
+
+    /**
+     * The copy of the parsed survey group definitions.
+     */
+    private final List<SurveyGroupDefinition> groupDefinitions;
+
+    /**
+     * The copy of the parsed survey item definitions.
+     */
+    private final List<SurveyItemDefinition> itemDefinitions;
+
+    /**
+     * Constructs a new <code>Entry</code>.
+     *
+     * @param data             the JSON data the definitions were parsed from
+     * @param groupDefinitions the copy of the parsed survey group definitions
+     * @param itemDefinitions  the copy of the parsed survey item definitions
+     */
+    private Entry(String data, List<SurveyGroupDefinition> groupDefinitions,
+        List<SurveyItemDefinition> itemDefinitions)
+    {
+      this.data = data;
+      this.groupDefinitions = groupDefinitions;
+      this.itemDefinitions = itemDefinitions;
+    }
+
+    /**
+     * Returns a new copy of the parsed survey group definitions.
+     *
+     * @return a new copy of the parsed survey group definitions
+     */
+    List<SurveyGroupDefinition> getGroupDefinitions()
+    {
+      return duplicateGroupDefinitions(groupDefinitions);
+    }
+
+    /**
+     * Returns a new copy of the parsed survey item definitions.
+     *
+     * @return a new copy of the parsed survey item definitions
+     */
+    List<SurveyItemDefinition> getItemDefinitions()
+    {
+      return SurveyItemDefinition.duplicate(itemDefinitions);
+    }
+  }
+}
@@ -259,4 +259,30 @@ public class SurveyGroupDefinition
 
     return buffer.toString();
   }
+
+  /**
+   * Duplicate (deep-copy) this survey group definition.
+   *
+   * @return the duplicated (deep-copied) survey group definition
+   */
+  SurveyGroupDefinition duplicate()
+  {
+    SurveyGroupDefinition groupDefinition = new SurveyGroupDefinition();
+
+    groupDefinition.id = id;
+    groupDefinition.name = name;
+    groupDefinition.description = description;
+
+    if (groupMemberDefinitions != null)
+    {
+      groupDefinition.groupMemberDefinitions = new ArrayList<>(groupMemberDefinitions.size());
+
+      for (SurveyGroupMemberDefinition groupMemberDefinition : groupMemberDefinitions)
+      {
+        groupDefinition.groupMemberDefinitions.add(groupMemberDefinition.duplicate());
+      }
+    }
+
+    return groupDefinition;
+  }
 }
@@ -138,4 +138,19 @@ public class SurveyGroupMemberDefinition
     return String.format("SurveyGroupMemberDefinition {id=\"%s\", name=\"%s\"}", getId(),
         getName());
   }
+
+  /**
+   * Duplicate (deep-copy) this survey group member definition.
+   *
+   * @return the duplicated (deep-copied) survey group member definition
+   */
+  SurveyGroupMemberDefinition duplicate()
+  {
+    SurveyGroupMemberDefinition groupMemberDefinition = new SurveyGroupMemberDefinition();
+
+    groupMemberDefinition.id = id;
+    groupMemberDefinition.name = name;
+
+    return groupMemberDefinition;
+  }
 }
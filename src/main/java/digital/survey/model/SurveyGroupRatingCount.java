@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The <code>SurveyGroupRatingCount</code> class implements the POJO class that stores the number
+ * of times a particular rating was given for a survey group rating across the survey responses for
+ * a survey instance, as aggregated by the database from the SURVEY.SURVEY_RESPONSE_RATINGS table.
+ *
+ * @author Marcus Portmann
+ */
+public class SurveyGroupRatingCount
+  implements Serializable
+{
+  private static final long serialVersionUID = 1000000;
+
+  /**
+   * The number of times the rating was given.
+   */
+  private long count;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey group member
+   * definition.
+   */
+  private UUID groupMemberDefinitionId;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey group rating
+   * definition.
+   */
+  private UUID groupRatingDefinitionId;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey group ratings
+   * definition.
+   */
+  private UUID groupRatingsDefinitionId;
+
+  /**
+   * The rating.
+   */
+  private int rating;
+
+  /**
+   * Constructs a new <code>SurveyGroupRatingCount</code>.
+   *
+   * Default constructor required for JPA.
+   */
+  @SuppressWarnings("unused")
+  SurveyGroupRatingCount() {}
+
+  /**
+   * Constructs a new <code>SurveyGroupRatingCount</code>.
+   *
+   * @param groupRatingsDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+   *                                 identify the survey group ratings definition
+   * @param groupRatingDefinitionId  the Universally Unique Identifier (UUID) used to uniquely
+   *                                 identify the survey group rating definition
+   * @param groupMemberDefinitionId  the Universally Unique Identifier (UUID) used to uniquely
+   *                                 identify the survey group member definition
+   * @param rating                   the rating
+   * @param count                    the number of times the rating was given
+   */
+  @SuppressWarnings("unused")
+  public SurveyGroupRatingCount(UUID groupRatingsDefinitionId, UUID groupRatingDefinitionId,
+      UUID groupMemberDefinitionId, Integer rating, Long count)
+  {
+    this.groupRatingsDefinitionId = groupRatingsDefinitionId;
+    this.groupRatingDefinitionId = groupRatingDefinitionId;
+    this.groupMemberDefinitionId = groupMemberDefinitionId;
+    this.rating = rating;
+    this.count = count;
+  }
+
+  /**
+   * Returns the number of times the rating was given.
+   *
+   * @return the number of times the rating was given
+   */
+  public long getCount()
+  {
+    return count;
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+   * member definition.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+   *         member definition
+   */
+  public UUID getGroupMemberDefinitionId()
+  {
+    return groupMemberDefinitionId;
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+   * rating definition.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+   *         rating definition
+   */
+  public UUID getGroupRatingDefinitionId()
+  {
+    return groupRatingDefinitionId;
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+   * ratings definition.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+   *         ratings definition
+   */
+  public UUID getGroupRatingsDefinitionId()
+  {
+    return groupRatingsDefinitionId;
+  }
+
+  /**
+   * Returns the rating.
+   *
+   * @return the rating
+   */
+  public int getRating()
+  {
+    return rating;
+  }
+}
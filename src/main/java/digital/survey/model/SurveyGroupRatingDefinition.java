@@ -167,4 +167,20 @@ public class SurveyGroupRatingDefinition
     return String.format("SurveyGroupRatingDefinition {id=\"%s\", name=\"%s\", ratingType=\"%s\"}",
         getId(), getName(), getRatingType().description());
   }
+
+  /**
+   * Duplicate (deep-copy) this survey group rating definition.
+   *
+   * @return the duplicated (deep-copied) survey group rating definition
+   */
+  SurveyGroupRatingDefinition duplicate()
+  {
+    SurveyGroupRatingDefinition groupRatingDefinition = new SurveyGroupRatingDefinition();
+
+    groupRatingDefinition.id = id;
+    groupRatingDefinition.name = name;
+    groupRatingDefinition.ratingType = ratingType;
+
+    return groupRatingDefinition;
+  }
 }
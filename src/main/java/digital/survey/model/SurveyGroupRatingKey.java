@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.util.UUID;
+
+/**
+ * The <code>SurveyGroupRatingKey</code> class implements the key, made up of the IDs of the survey
+ * group ratings definition, survey group rating definition and survey group member definition,
+ * that is used to index the survey group rating responses for a survey response and the survey
+ * group rating results for a survey result.
+ *
+ * @author Marcus Portmann
+ */
+final class SurveyGroupRatingKey
+{
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey group member
+   * definition.
+   */
+  private UUID groupMemberDefinitionId;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey group rating
+   * definition.
+   */
+  private UUID groupRatingDefinitionId;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey group ratings
+   * definition.
+   */
+  private UUID groupRatingsDefinitionId;
+
+  /**
+   * The cached hash code for the key.
+   */
+  private int hashCode;
+
+  /**
+   * Constructs a new <code>SurveyGroupRatingKey</code>.
+   *
+   * @param groupRatingsDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+   *                                 identify the survey group ratings definition
+   * @param groupRatingDefinitionId  the Universally Unique Identifier (UUID) used to uniquely
+   *                                 identify the survey group rating definition
+   * @param groupMemberDefinitionId  the Universally Unique Identifier (UUID) used to uniquely
+   *                                 identify the survey group member definition
+   */
+  SurveyGroupRatingKey(UUID groupRatingsDefinitionId, UUID groupRatingDefinitionId,
+      UUID groupMemberDefinitionId)
+  {
+    this.groupRatingsDefinitionId = groupRatingsDefinitionId;
+    this.groupRatingDefinitionId = groupRatingDefinitionId;
+    this.groupMemberDefinitionId = groupMemberDefinitionId;
+
+    int result = groupRatingsDefinitionId.hashCode();
+
+    result = (31 * result) + groupRatingDefinitionId.hashCode();
+    result = (31 * result) + groupMemberDefinitionId.hashCode();
+
+    this.hashCode = result;
+  }
+
+  /**
+   * Indicates whether some other object is "equal to" this one.
+   *
+   * @param obj the reference object with which to compare
+   *
+   * @return <code>true</code> if this object is the same as the obj argument otherwise
+   *         <code>false</code>
+   */
+  @Override
+  public boolean equals(Object obj)
+  {
+    if (this == obj)
+    {
+      return true;
+    }
+
+    if ((obj == null) || (getClass() != obj.getClass()))
+    {
+      return false;
+    }
+
+    SurveyGroupRatingKey other = (SurveyGroupRatingKey) obj;
+
+    return (hashCode == other.hashCode)
+        && groupMemberDefinitionId.equals(other.groupMemberDefinitionId)
+        && groupRatingDefinitionId.equals(other.groupRatingDefinitionId)
+        && groupRatingsDefinitionId.equals(other.groupRatingsDefinitionId);
+  }
+
+  /**
+   * Returns a hash code value for the object.
+   *
+   * @return a hash code value for the object
+   */
+  @Override
+  public int hashCode()
+  {
+    return hashCode;
+  }
+}
@@ -13,11 +13,11 @@ package digital.survey.model;
 
 //~--- non-JDK imports --------------------------------------------------------
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,11 +27,16 @@ import java.util.UUID;
  * The <code>SurveyGroupRatingResult</code> class implements the Survey Group Rating Result entity,
  * which represents the result for a survey group rating compiled from the users' responses to a
  * survey.
+ * <p/>
+ * The ratings are stored as a histogram, which holds the number of times each of the possible
+ * ratings for the type of survey group rating was given, rather than as the individual ratings.
  *
  * @author Marcus Portmann
  */
 @JsonPropertyOrder({ "id", "groupRatingsDefinitionId", "groupRatingDefinitionId",
-    "groupRatingDefinitionRatingType", "groupMemberDefinitionId", "averageRating", "ratings" })
+    "groupRatingDefinitionRatingType", "groupMemberDefinitionId", "averageRating",
+    "ratingCounts" })
+@JsonIgnoreProperties(value = { "averageRating" }, allowGetters = true)
 public class SurveyGroupRatingResult
   implements Serializable
 {
@@ -72,10 +77,11 @@ public class SurveyGroupRatingResult
   private UUID id;
 
   /**
-   * The ratings for the survey group rating result.
+   * The number of times each rating was given for the survey group rating result, indexed by the
+   * rating less the minimum rating for the type of survey group rating.
    */
   @JsonProperty
-  private List<Integer> ratings;
+  private int[] ratingCounts;
 
   /**
    * Constructs a new <code>SurveyGroupRatingResult</code>.
@@ -102,7 +108,8 @@ public class SurveyGroupRatingResult
     this.groupRatingDefinitionId = groupRatingDefinition.getId();
     this.groupRatingDefinitionRatingType = groupRatingDefinition.getRatingType();
     this.groupMemberDefinitionId = groupMemberDefinition.getId();
-    this.ratings = new ArrayList<>();
+    this.ratingCounts = new int[groupRatingDefinitionRatingType.maximumRating()
+        - groupRatingDefinitionRatingType.minimumRating() + 1];
   }
 
   /**
@@ -112,7 +119,19 @@ public class SurveyGroupRatingResult
    */
   public void addRating(int rating)
   {
-    ratings.add(rating);
+    getRatingCounts()[getRatingIndex(rating)]++;
+  }
+
+  /**
+   * Add the rating, which was given the specified number of times, for the survey group rating
+   * result.
+   *
+   * @param rating the rating for the survey group rating result
+   * @param count  the number of times the rating was given
+   */
+  public void addRating(int rating, int count)
+  {
+    getRatingCounts()[getRatingIndex(rating)] += count;
   }
 
   /**
@@ -123,53 +142,40 @@ public class SurveyGroupRatingResult
   @JsonProperty
   public float getAverageRating()
   {
+    int[] ratingCounts = getRatingCounts();
+
+    int minimumRating = groupRatingDefinitionRatingType.minimumRating();
+
+    int numberOfRatings = getNumberOfRatings();
+
     if (groupRatingDefinitionRatingType == SurveyGroupRatingType.ONE_TO_TEN)
     {
-      if (ratings.size() == 0)
+      if (numberOfRatings == 0)
       {
         return 0;
       }
 
       int total = 0;
 
-      for (int rating : ratings)
+      for (int i = 0; i < ratingCounts.length; i++)
       {
-        total += rating;
+        total += (minimumRating + i) * ratingCounts[i];
       }
 
-      if (ratings.size() > 0)
-      {
-        return ((float) total / (float) ratings.size());
-      }
-      else
-      {
-        return 0;
-      }
+      return ((float) total / (float) numberOfRatings);
     }
     else if (groupRatingDefinitionRatingType == SurveyGroupRatingType.YES_NO_NA)
     {
-      float total = 0;
-
-      for (int rating : ratings)
-      {
-        if (rating == -1)
-        {
-          total += 0.5;
-        }
-        else
-        {
-          total += rating;
-        }
-      }
-
-      if (ratings.size() > 0)
-      {
-        return (((float) total / (float) ratings.size()) * 100);
-      }
-      else
+      if (numberOfRatings == 0)
       {
         return 50;
       }
+
+      // A rating of N/A counts as half of a rating of Yes
+      float total = (ratingCounts[YesNoNaRating.NA.code() - minimumRating] * 0.5f)
+          + ratingCounts[YesNoNaRating.YES.code() - minimumRating];
+
+      return ((total / (float) numberOfRatings) * 100);
     }
     else
     {
@@ -235,6 +241,23 @@ public class SurveyGroupRatingResult
     return id;
   }
 
+  /**
+   * Returns the number of ratings for the survey group rating result.
+   *
+   * @return the number of ratings for the survey group rating result
+   */
+  public int getNumberOfRatings()
+  {
+    int numberOfRatings = 0;
+
+    for (int ratingCount : getRatingCounts())
+    {
+      numberOfRatings += ratingCount;
+    }
+
+    return numberOfRatings;
+  }
+
   /**
    * Returns the number of ratings with a valid score.
    *
@@ -242,37 +265,103 @@ public class SurveyGroupRatingResult
    */
   public int getNumberOfRatingsWithValidScore()
   {
-    if (groupRatingDefinitionRatingType == SurveyGroupRatingType.ONE_TO_TEN)
+    if (groupRatingDefinitionRatingType == SurveyGroupRatingType.YES_NO_NA)
     {
-      return ratings.size();
+      return getNumberOfRatings() - getRatingCount(YesNoNaRating.NA.code());
     }
-    else if (groupRatingDefinitionRatingType == SurveyGroupRatingType.YES_NO_NA)
+    else
     {
-      int numberOfRatings = 0;
+      return getNumberOfRatings();
+    }
+  }
 
-      for (int rating : ratings)
-      {
-        if (rating != -1)
-        {
-          numberOfRatings++;
-        }
-      }
+  /**
+   * Returns the number of times the specified rating was given for the survey group rating result.
+   *
+   * @param rating the rating
+   *
+   * @return the number of times the specified rating was given for the survey group rating result
+   */
+  public int getRatingCount(int rating)
+  {
+    return getRatingCounts()[getRatingIndex(rating)];
+  }
+
+  /**
+   * Remove the rating for the survey group rating result.
+   *
+   * @param rating the rating for the survey group rating result
+   *
+   * @return <code>true</code> if the rating was removed or <code>false</code> otherwise
+   */
+  public boolean removeRating(int rating)
+  {
+    int[] ratingCounts = getRatingCounts();
+
+    int index = getRatingIndex(rating);
 
-      return numberOfRatings;
+    if (ratingCounts[index] > 0)
+    {
+      ratingCounts[index]--;
+
+      return true;
     }
     else
     {
-      return ratings.size();
+      return false;
     }
   }
 
   /**
-   * Returns the ratings for the survey group rating result.
+   * Returns the histogram of the number of times each rating was given, allocating it if required.
    *
-   * @return the ratings for the survey group rating result
+   * @return the histogram of the number of times each rating was given
    */
-  public List<Integer> getRatings()
+  private int[] getRatingCounts()
   {
-    return ratings;
+    if (ratingCounts == null)
+    {
+      ratingCounts = new int[groupRatingDefinitionRatingType.maximumRating()
+          - groupRatingDefinitionRatingType.minimumRating() + 1];
+    }
+
+    return ratingCounts;
+  }
+
+  /**
+   * Returns the index of the specified rating in the histogram of the number of times each rating
+   * was given.
+   *
+   * @param rating the rating
+   *
+   * @return the index of the specified rating in the histogram
+   */
+  private int getRatingIndex(int rating)
+  {
+    if ((rating < groupRatingDefinitionRatingType.minimumRating())
+        || (rating > groupRatingDefinitionRatingType.maximumRating()))
+    {
+      throw new RuntimeException("Invalid rating (" + rating + ") for the survey group rating"
+          + " result (" + id + ") with the survey group rating type ("
+          + groupRatingDefinitionRatingType.description() + ")");
+    }
+
+    return rating - groupRatingDefinitionRatingType.minimumRating();
+  }
+
+  /**
+   * Populate the histogram using the list of individual ratings stored in the JSON data for
+   * survey group rating results created before the ratings were stored as a histogram.
+   *
+   * @param ratings the individual ratings for the survey group rating result
+   */
+  @JsonProperty("ratings")
+  @SuppressWarnings("unused")
+  private void setRatings(List<Integer> ratings)
+  {
+    for (int rating : ratings)
+    {
+      addRating(rating);
+    }
   }
 }
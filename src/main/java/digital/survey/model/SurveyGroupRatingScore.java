@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.Serializable;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyGroupRatingScore</code> class holds the precomputed score for a cell, row or
+ * column in the table of results for a survey group ratings definition.
+ * <p/>
+ * The score is computed when the survey result is compiled or materialized, so that the results
+ * can be displayed without recalculating the averages and weighted totals on every render.
+ *
+ * @author Marcus Portmann
+ */
+@JsonPropertyOrder({ "averageRating", "gradient", "numberOfRatings",
+    "numberOfRatingsWithValidScore" })
+public class SurveyGroupRatingScore
+  implements Serializable
+{
+  /**
+   * The size of the gradient buckets the average ratings are rounded down to.
+   */
+  public static final int GRADIENT_BUCKET_SIZE = 5;
+
+  private static final long serialVersionUID = 1000000;
+
+  /**
+   * The average rating.
+   */
+  @JsonProperty
+  private float averageRating;
+
+  /**
+   * The gradient bucket for the average rating, which is the average rating rounded down to a
+   * multiple of the gradient bucket size.
+   */
+  @JsonProperty
+  private int gradient;
+
+  /**
+   * The number of ratings.
+   */
+  @JsonProperty
+  private int numberOfRatings;
+
+  /**
+   * The number of ratings with a valid score.
+   */
+  @JsonProperty
+  private int numberOfRatingsWithValidScore;
+
+  /**
+   * Constructs a new <code>SurveyGroupRatingScore</code>.
+   */
+  @SuppressWarnings("unused")
+  SurveyGroupRatingScore() {}
+
+  /**
+   * Constructs a new <code>SurveyGroupRatingScore</code>.
+   *
+   * @param averageRating                 the average rating
+   * @param numberOfRatings               the number of ratings
+   * @param numberOfRatingsWithValidScore the number of ratings with a valid score
+   */
+  SurveyGroupRatingScore(float averageRating, int numberOfRatings,
+      int numberOfRatingsWithValidScore)
+  {
+    this.averageRating = averageRating;
+    this.gradient = ((int) (averageRating / GRADIENT_BUCKET_SIZE)) * GRADIENT_BUCKET_SIZE;
+    this.numberOfRatings = numberOfRatings;
+    this.numberOfRatingsWithValidScore = numberOfRatingsWithValidScore;
+  }
+
+  /**
+   * Returns the average rating.
+   *
+   * @return the average rating
+   */
+  public float getAverageRating()
+  {
+    return averageRating;
+  }
+
+  /**
+   * Returns the gradient bucket for the average rating, which is the average rating rounded down
+   * to a multiple of the gradient bucket size.
+   *
+   * @return the gradient bucket for the average rating
+   */
+  public int getGradient()
+  {
+    return gradient;
+  }
+
+  /**
+   * Returns the number of ratings.
+   *
+   * @return the number of ratings
+   */
+  public int getNumberOfRatings()
+  {
+    return numberOfRatings;
+  }
+
+  /**
+   * Returns the number of ratings with a valid score.
+   *
+   * @return the number of ratings with a valid score
+   */
+  public int getNumberOfRatingsWithValidScore()
+  {
+    return numberOfRatingsWithValidScore;
+  }
+}
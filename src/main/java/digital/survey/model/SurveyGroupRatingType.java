@@ -98,4 +98,44 @@ public enum SurveyGroupRatingType
   {
     return description;
   }
+
+  /**
+   * Returns the maximum rating for the survey group rating type.
+   *
+   * @return the maximum rating for the survey group rating type
+   */
+  public int maximumRating()
+  {
+    switch (code)
+    {
+      case 1:
+        return 10;
+
+      case 2:
+        return 1;
+
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Returns the minimum rating for the survey group rating type.
+   *
+   * @return the minimum rating for the survey group rating type
+   */
+  public int minimumRating()
+  {
+    switch (code)
+    {
+      case 1:
+        return 1;
+
+      case 2:
+        return -1;
+
+      default:
+        return 0;
+    }
+  }
 }
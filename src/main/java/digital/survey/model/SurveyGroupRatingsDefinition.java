@@ -100,6 +100,43 @@ public class SurveyGroupRatingsDefinition extends SurveyItemDefinition
     this.groupMemberDefinitions = new ArrayList<>();
   }
 
+  /**
+   * Constructs a new <code>SurveyGroupRatingsDefinition</code> that is a copy of the specified
+   * survey group ratings definition.
+   *
+   * @param groupRatingsDefinition the survey group ratings definition to copy
+   */
+  private SurveyGroupRatingsDefinition(SurveyGroupRatingsDefinition groupRatingsDefinition)
+  {
+    super(groupRatingsDefinition);
+
+    this.displayRatingsUsingGradient = groupRatingsDefinition.displayRatingsUsingGradient;
+
+    if (groupRatingsDefinition.groupRatingDefinitions != null)
+    {
+      this.groupRatingDefinitions = new ArrayList<>(
+          groupRatingsDefinition.groupRatingDefinitions.size());
+
+      for (SurveyGroupRatingDefinition groupRatingDefinition :
+          groupRatingsDefinition.groupRatingDefinitions)
+      {
+        this.groupRatingDefinitions.add(groupRatingDefinition.duplicate());
+      }
+    }
+
+    if (groupRatingsDefinition.groupMemberDefinitions != null)
+    {
+      this.groupMemberDefinitions = new ArrayList<>(
+          groupRatingsDefinition.groupMemberDefinitions.size());
+
+      for (SurveyGroupMemberDefinition groupMemberDefinition :
+          groupRatingsDefinition.groupMemberDefinitions)
+      {
+        this.groupMemberDefinitions.add(groupMemberDefinition.duplicate());
+      }
+    }
+  }
+
   /**
    * Add the survey group member definition to the survey group ratings definition.
    *
@@ -459,4 +496,15 @@ public class SurveyGroupRatingsDefinition extends SurveyItemDefinition
 
     return buffer.toString();
   }
+
+  /**
+   * Duplicate (deep-copy) this survey group ratings definition.
+   *
+   * @return the duplicated (deep-copied) survey group ratings definition
+   */
+  @Override
+  SurveyGroupRatingsDefinition duplicate()
+  {
+    return new SurveyGroupRatingsDefinition(this);
+  }
 }
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyGroupRatingsTotals</code> class holds the precomputed scores for the table of
+ * results for a survey group ratings definition, i.e. the score for each survey group member for
+ * each survey group rating, the weighted total for each survey group member across the survey
+ * group ratings and the weighted total for each survey group rating across the survey group
+ * members.
+ * <p/>
+ * The weighted totals are the averages of the average ratings for the survey group rating results
+ * weighted by their number of ratings with a valid score, or 50 if there are no ratings with a
+ * valid score.
+ *
+ * @author Marcus Portmann
+ */
+@JsonPropertyOrder({ "groupRatingsDefinitionId", "groupRatingDefinitionIds",
+    "groupMemberDefinitionIds", "scores", "groupMemberTotals", "groupRatingTotals" })
+public class SurveyGroupRatingsTotals
+  implements Serializable
+{
+  /**
+   * The weighted total used when there are no ratings with a valid score.
+   */
+  private static final float DEFAULT_WEIGHTED_TOTAL = 50;
+
+  private static final long serialVersionUID = 1000000;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey group ratings
+   * definition.
+   */
+  @JsonProperty
+  private UUID groupRatingsDefinitionId;
+
+  /**
+   * The Universally Unique Identifiers (UUIDs) used to uniquely identify the survey group member
+   * definitions, in the order of the rows in the table of results.
+   */
+  @JsonProperty
+  private List<UUID> groupMemberDefinitionIds;
+
+  /**
+   * The index of the row in the table of results for each survey group member definition, which
+   * is built the first time it is required.
+   */
+  @JsonIgnore
+  private transient Map<UUID, Integer> groupMemberDefinitionIndex;
+
+  /**
+   * The weighted totals for the survey group members, indexed by row.
+   */
+  @JsonProperty
+  private SurveyGroupRatingScore[] groupMemberTotals;
+
+  /**
+   * The Universally Unique Identifiers (UUIDs) used to uniquely identify the survey group rating
+   * definitions, in the order of the columns in the table of results.
+   */
+  @JsonProperty
+  private List<UUID> groupRatingDefinitionIds;
+
+  /**
+   * The index of the column in the table of results for each survey group rating definition,
+   * which is built the first time it is required.
+   */
+  @JsonIgnore
+  private transient Map<UUID, Integer> groupRatingDefinitionIndex;
+
+  /**
+   * The weighted totals for the survey group ratings, indexed by column.
+   */
+  @JsonProperty
+  private SurveyGroupRatingScore[] groupRatingTotals;
+
+  /**
+   * The scores for the survey group rating results, indexed by row and then column.
+   */
+  @JsonProperty
+  private SurveyGroupRatingScore[][] scores;
+
+  /**
+   * Constructs a new <code>SurveyGroupRatingsTotals</code>.
+   */
+  @SuppressWarnings("unused")
+  SurveyGroupRatingsTotals() {}
+
+  /**
+   * Constructs a new <code>SurveyGroupRatingsTotals</code> and computes the scores and weighted
+   * totals using the survey group rating results for the survey group ratings definition.
+   *
+   * @param groupRatingsDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+   *                                 identify the survey group ratings definition
+   * @param groupRatingResults       the survey group rating results for the survey group ratings
+   *                                 definition
+   */
+  SurveyGroupRatingsTotals(UUID groupRatingsDefinitionId,
+      List<SurveyGroupRatingResult> groupRatingResults)
+  {
+    this.groupRatingsDefinitionId = groupRatingsDefinitionId;
+    this.groupMemberDefinitionIds = new ArrayList<>();
+    this.groupMemberDefinitionIndex = new HashMap<>();
+    this.groupRatingDefinitionIds = new ArrayList<>();
+    this.groupRatingDefinitionIndex = new HashMap<>();
+
+    for (SurveyGroupRatingResult groupRatingResult : groupRatingResults)
+    {
+      if (!groupMemberDefinitionIndex.containsKey(groupRatingResult.getGroupMemberDefinitionId()))
+      {
+        groupMemberDefinitionIndex.put(groupRatingResult.getGroupMemberDefinitionId(),
+            groupMemberDefinitionIds.size());
+        groupMemberDefinitionIds.add(groupRatingResult.getGroupMemberDefinitionId());
+      }
+
+      if (!groupRatingDefinitionIndex.containsKey(groupRatingResult.getGroupRatingDefinitionId()))
+      {
+        groupRatingDefinitionIndex.put(groupRatingResult.getGroupRatingDefinitionId(),
+            groupRatingDefinitionIds.size());
+        groupRatingDefinitionIds.add(groupRatingResult.getGroupRatingDefinitionId());
+      }
+    }
+
+    int numberOfGroupMembers = groupMemberDefinitionIds.size();
+    int numberOfGroupRatings = groupRatingDefinitionIds.size();
+
+    this.scores = new SurveyGroupRatingScore[numberOfGroupMembers][numberOfGroupRatings];
+
+    float[] groupMemberWeightedTotals = new float[numberOfGroupMembers];
+    int[] groupMemberNumberOfRatings = new int[numberOfGroupMembers];
+    int[] groupMemberNumberOfRatingsWithValidScore = new int[numberOfGroupMembers];
+
+    float[] groupRatingWeightedTotals = new float[numberOfGroupRatings];
+    int[] groupRatingNumberOfRatings = new int[numberOfGroupRatings];
+    int[] groupRatingNumberOfRatingsWithValidScore = new int[numberOfGroupRatings];
+
+    for (SurveyGroupRatingResult groupRatingResult : groupRatingResults)
+    {
+      int row = groupMemberDefinitionIndex.get(groupRatingResult.getGroupMemberDefinitionId());
+      int column = groupRatingDefinitionIndex.get(groupRatingResult.getGroupRatingDefinitionId());
+
+      float averageRating = groupRatingResult.getAverageRating();
+      int numberOfRatings = groupRatingResult.getNumberOfRatings();
+      int numberOfRatingsWithValidScore = groupRatingResult.getNumberOfRatingsWithValidScore();
+
+      scores[row][column] = new SurveyGroupRatingScore(averageRating, numberOfRatings,
+          numberOfRatingsWithValidScore);
+
+      groupMemberWeightedTotals[row] += averageRating * numberOfRatingsWithValidScore;
+      groupMemberNumberOfRatings[row] += numberOfRatings;
+      groupMemberNumberOfRatingsWithValidScore[row] += numberOfRatingsWithValidScore;
+
+      groupRatingWeightedTotals[column] += averageRating * numberOfRatingsWithValidScore;
+      groupRatingNumberOfRatings[column] += numberOfRatings;
+      groupRatingNumberOfRatingsWithValidScore[column] += numberOfRatingsWithValidScore;
+    }
+
+    this.groupMemberTotals = new SurveyGroupRatingScore[numberOfGroupMembers];
+
+    for (int row = 0; row < numberOfGroupMembers; row++)
+    {
+      groupMemberTotals[row] = getWeightedTotal(groupMemberWeightedTotals[row],
+          groupMemberNumberOfRatings[row], groupMemberNumberOfRatingsWithValidScore[row]);
+    }
+
+    this.groupRatingTotals = new SurveyGroupRatingScore[numberOfGroupRatings];
+
+    for (int column = 0; column < numberOfGroupRatings; column++)
+    {
+      groupRatingTotals[column] = getWeightedTotal(groupRatingWeightedTotals[column],
+          groupRatingNumberOfRatings[column], groupRatingNumberOfRatingsWithValidScore[column]);
+    }
+  }
+
+  /**
+   * Returns the weighted total for the survey group member.
+   *
+   * @param groupMemberDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+   *                                identify the survey group member definition
+   *
+   * @return the weighted total for the survey group member or <code>null</code> if the survey
+   *         group member could not be found
+   */
+  public SurveyGroupRatingScore getGroupMemberTotal(UUID groupMemberDefinitionId)
+  {
+    Integer row = getGroupMemberDefinitionIndex().get(groupMemberDefinitionId);
+
+    return (row == null)
+        ? null
+        : groupMemberTotals[row];
+  }
+
+  /**
+   * Returns the weighted total for the survey group rating.
+   *
+   * @param groupRatingDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+   *                                identify the survey group rating definition
+   *
+   * @return the weighted total for the survey group rating or <code>null</code> if the survey
+   *         group rating could not be found
+   */
+  public SurveyGroupRatingScore getGroupRatingTotal(UUID groupRatingDefinitionId)
+  {
+    Integer column = getGroupRatingDefinitionIndex().get(groupRatingDefinitionId);
+
+    return (column == null)
+        ? null
+        : groupRatingTotals[column];
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+   * ratings definition.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+   *         ratings definition
+   */
+  public UUID getGroupRatingsDefinitionId()
+  {
+    return groupRatingsDefinitionId;
+  }
+
+  /**
+   * Returns the score for the survey group member for the survey group rating.
+   *
+   * @param groupRatingDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+   *                                identify the survey group rating definition
+   * @param groupMemberDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+   *                                identify the survey group member definition
+   *
+   * @return the score for the survey group member for the survey group rating or
+   *         <code>null</code> if the survey group rating result could not be found
+   */
+  public SurveyGroupRatingScore getScore(UUID groupRatingDefinitionId,
+      UUID groupMemberDefinitionId)
+  {
+    Integer row = getGroupMemberDefinitionIndex().get(groupMemberDefinitionId);
+    Integer column = getGroupRatingDefinitionIndex().get(groupRatingDefinitionId);
+
+    return ((row == null) || (column == null))
+        ? null
+        : scores[row][column];
+  }
+
+  /**
+   * Returns the weighted total score.
+   *
+   * @param weightedTotal                 the sum of the average ratings weighted by their number
+   *                                      of ratings with a valid score
+   * @param numberOfRatings               the number of ratings
+   * @param numberOfRatingsWithValidScore the number of ratings with a valid score
+   *
+   * @return the weighted total score
+   */
+  private static SurveyGroupRatingScore getWeightedTotal(float weightedTotal, int numberOfRatings,
+      int numberOfRatingsWithValidScore)
+  {
+    return new SurveyGroupRatingScore((numberOfRatingsWithValidScore > 0)
+        ? (weightedTotal / numberOfRatingsWithValidScore)
+        : DEFAULT_WEIGHTED_TOTAL, numberOfRatings, numberOfRatingsWithValidScore);
+  }
+
+  private Map<UUID, Integer> getGroupMemberDefinitionIndex()
+  {
+    if (groupMemberDefinitionIndex == null)
+    {
+      groupMemberDefinitionIndex = getIndex(groupMemberDefinitionIds);
+    }
+
+    return groupMemberDefinitionIndex;
+  }
+
+  private Map<UUID, Integer> getGroupRatingDefinitionIndex()
+  {
+    if (groupRatingDefinitionIndex == null)
+    {
+      groupRatingDefinitionIndex = getIndex(groupRatingDefinitionIds);
+    }
+
+    return groupRatingDefinitionIndex;
+  }
+
+  private static Map<UUID, Integer> getIndex(List<UUID> ids)
+  {
+    Map<UUID, Integer> index = new HashMap<>((ids.size() * 4) / 3 + 1);
+
+    for (int i = 0; i < ids.size(); i++)
+    {
+      index.put(ids.get(i), i);
+    }
+
+    return index;
+  }
+}
@@ -53,7 +53,7 @@ public class SurveyInstance
    * The survey definition this survey instance is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumns({ @JoinColumn(name = "SURVEY_DEFINITION_ID", referencedColumnName = "ID") ,
       @JoinColumn(name = "SURVEY_DEFINITION_VERSION", referencedColumnName = "VERSION") })
   private SurveyDefinition definition;
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -106,6 +107,22 @@ public abstract class SurveyItemDefinition
     this.help = help;
   }
 
+  /**
+   * Constructs a new <code>SurveyItemDefinition</code> that is a copy of the specified survey
+   * item definition.
+   *
+   * @param itemDefinition the survey item definition to copy
+   */
+  SurveyItemDefinition(SurveyItemDefinition itemDefinition)
+  {
+    this.id = itemDefinition.id;
+    this.typeId = itemDefinition.typeId;
+    this.name = itemDefinition.name;
+    this.label = itemDefinition.label;
+    this.description = itemDefinition.description;
+    this.help = itemDefinition.help;
+  }
+
   /**
    * Returns whether the survey item definition is in the list of survey item definitions.
    *
@@ -411,4 +428,30 @@ public abstract class SurveyItemDefinition
 
     return buffer.toString();
   }
+
+  /**
+   * Duplicate (deep-copy) the survey item definitions.
+   *
+   * @param itemDefinitions the survey item definitions
+   *
+   * @return the duplicated (deep-copied) survey item definitions
+   */
+  static List<SurveyItemDefinition> duplicate(List<SurveyItemDefinition> itemDefinitions)
+  {
+    List<SurveyItemDefinition> duplicateItemDefinitions = new ArrayList<>(itemDefinitions.size());
+
+    for (SurveyItemDefinition itemDefinition : itemDefinitions)
+    {
+      duplicateItemDefinitions.add(itemDefinition.duplicate());
+    }
+
+    return duplicateItemDefinitions;
+  }
+
+  /**
+   * Duplicate (deep-copy) this survey item definition.
+   *
+   * @return the duplicated (deep-copied) survey item definition
+   */
+  abstract SurveyItemDefinition duplicate();
 }
@@ -18,6 +18,7 @@ import guru.mmp.common.util.DateUtil;
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.Date;
+import java.util.Locale;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -64,7 +65,7 @@ public class SurveyRequest
    * The survey instance this survey request is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "SURVEY_INSTANCE_ID")
   private SurveyInstance instance;
 
@@ -80,12 +81,24 @@ public class SurveyRequest
   @Column(name = "LAST_PROCESSED")
   private Date lastProcessed;
 
+  /**
+   * The date and time the lease on the lock for the survey request expires if it is not renewed.
+   */
+  @Column(name = "LOCK_EXPIRES")
+  private Date lockExpires;
+
   /**
    * The name of the entity that has locked the survey request for sending.
    */
   @Column(name = "LOCK_NAME")
   private String lockName;
 
+  /**
+   * The date and time the next attempt will be made to send the survey request.
+   */
+  @Column(name = "NEXT_ATTEMPT_AT", nullable = false)
+  private Date nextAttemptAt;
+
   /**
    * The date and time the request to complete the survey was last sent.
    */
@@ -128,8 +141,9 @@ public class SurveyRequest
     this.instance = instance;
     this.firstName = firstName;
     this.lastName = lastName;
-    this.email = email.toLowerCase();
+    this.email = email.toLowerCase(Locale.ROOT);
     this.requested = new Date();
+    this.nextAttemptAt = this.requested;
   }
 
   /**
@@ -234,6 +248,18 @@ public class SurveyRequest
     return lastProcessed;
   }
 
+  /**
+   * Returns the date and time the lease on the lock for the survey request expires if it is not
+   * renewed.
+   *
+   * @return the date and time the lease on the lock for the survey request expires if it is not
+   *         renewed or <code>null</code> if the survey request is not locked
+   */
+  public Date getLockExpires()
+  {
+    return lockExpires;
+  }
+
   /**
    * Returns the name of the entity that has locked the survey request for sending.
    *
@@ -244,6 +270,16 @@ public class SurveyRequest
     return lockName;
   }
 
+  /**
+   * Returns the date and time the next attempt will be made to send the survey request.
+   *
+   * @return the date and time the next attempt will be made to send the survey request
+   */
+  public Date getNextAttemptAt()
+  {
+    return nextAttemptAt;
+  }
+
   /**
    * Returns the date and time the request to complete the survey was last sent.
    *
@@ -326,6 +362,18 @@ public class SurveyRequest
     this.lastProcessed = lastProcessed;
   }
 
+  /**
+   * Set the date and time the lease on the lock for the survey request expires if it is not
+   * renewed.
+   *
+   * @param lockExpires the date and time the lease on the lock for the survey request expires if
+   *                    it is not renewed
+   */
+  public void setLockExpires(Date lockExpires)
+  {
+    this.lockExpires = lockExpires;
+  }
+
   /**
    * Set the name of the entity that has locked the survey request for sending.
    *
@@ -336,6 +384,17 @@ public class SurveyRequest
     this.lockName = lockName;
   }
 
+  /**
+   * Set the date and time the next attempt will be made to send the survey request.
+   *
+   * @param nextAttemptAt the date and time the next attempt will be made to send the survey
+   *                      request
+   */
+  public void setNextAttemptAt(Date nextAttemptAt)
+  {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
   /**
    * Set the date and time the request to complete the survey was last sent.
    *
@@ -377,12 +436,14 @@ public class SurveyRequest
     return String.format(
         "SurveyRequest {id=\"%s\", firstName=\"%s\", lastName=\"%s\", email=\"%s\","
         + " requested=\"%s\", status=\"%s\", sendAttempts=\"%d\", lockName=\"%s\","
-        + " lastProcessed=\"%s\"}", getId(), getFirstName(), getLastName(), getEmail(),
+        + " lastProcessed=\"%s\", nextAttemptAt=\"%s\"}", getId(), getFirstName(), getLastName(),
+        getEmail(),
         DateUtil.getYYYYMMDDWithTimeFormat().format(getRequested()), getStatus().description(),
         getSendAttempts(), (getLockName() == null)
         ? ""
         : getLockName(), (getLastProcessed() == null)
         ? "Never"
-        : DateUtil.getYYYYMMDDWithTimeFormat().format(getLastProcessed()));
+        : DateUtil.getYYYYMMDDWithTimeFormat().format(getLastProcessed()),
+        DateUtil.getYYYYMMDDWithTimeFormat().format(getNextAttemptAt()));
   }
 }
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The <code>SurveyRequestJob</code> class implements the Survey Request Job entity, which
+ * represents the background job that queues the survey requests, for a survey instance, for
+ * sending to all the survey audience members for a survey audience.
+ * <p/>
+ * The survey audience members are processed in chunks, ordered by ID, each in its own transaction
+ * and the progress of the job is recorded after each chunk so that it can be reported while the
+ * job is running and so that the job can be resumed if it is interrupted.
+ *
+ * @author Marcus Portmann
+ */
+@Entity
+@Table(schema = "SURVEY", name = "SURVEY_REQUEST_JOBS")
+public class SurveyRequestJob
+  implements Serializable
+{
+  private static final long serialVersionUID = 1000000;
+
+  /**
+   * The survey audience the survey requests are being sent to.
+   */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "SURVEY_AUDIENCE_ID", referencedColumnName = "ID")
+  private SurveyAudience audience;
+
+  /**
+   * The date and time the survey request job was created.
+   */
+  @Column(name = "CREATED", nullable = false)
+  private Date created;
+
+  /**
+   * The number of survey audience members whose survey requests have been queued for sending.
+   */
+  @Column(name = "ENQUEUED", nullable = false)
+  private int enqueued;
+
+  /**
+   * The number of survey audience members whose survey requests could not be queued for sending.
+   */
+  @Column(name = "FAILED", nullable = false)
+  private int failed;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey request job.
+   */
+  @Id
+  @Column(name = "ID", nullable = false)
+  private UUID id;
+
+  /**
+   * The survey instance the survey requests are being sent for.
+   */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "SURVEY_INSTANCE_ID", referencedColumnName = "ID")
+  private SurveyInstance instance;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the last survey audience
+   * member processed by the survey request job.
+   */
+  @Column(name = "LAST_MEMBER_ID")
+  private UUID lastMemberId;
+
+  /**
+   * The date and time the lease on the lock for the survey request job expires if it is not
+   * renewed.
+   */
+  @Column(name = "LOCK_EXPIRES")
+  private Date lockExpires;
+
+  /**
+   * The name of the entity that has locked the survey request job for processing.
+   */
+  @Column(name = "LOCK_NAME")
+  private String lockName;
+
+  /**
+   * The status of the survey request job.
+   */
+  @Column(name = "STATUS", nullable = false)
+  @Convert(converter = SurveyRequestJobStatusConverter.class)
+  private SurveyRequestJobStatus status;
+
+  /**
+   * The total number of survey audience members the survey requests are being sent to.
+   */
+  @Column(name = "TOTAL", nullable = false)
+  private int total;
+
+  /**
+   * The date and time the survey request job was last updated.
+   */
+  @Column(name = "UPDATED", nullable = false)
+  private Date updated;
+
+  /**
+   * Constructs a new <code>SurveyRequestJob</code>.
+   *
+   * Default constructor required for JPA.
+   */
+  @SuppressWarnings("unused")
+  SurveyRequestJob() {}
+
+  /**
+   * Constructs a new <code>SurveyRequestJob</code>.
+   *
+   * @param instance the survey instance the survey requests are being sent for
+   * @param audience the survey audience the survey requests are being sent to
+   * @param total    the total number of survey audience members the survey requests are being
+   *                 sent to
+   */
+  public SurveyRequestJob(SurveyInstance instance, SurveyAudience audience, int total)
+  {
+    this.id = UUID.randomUUID();
+    this.instance = instance;
+    this.audience = audience;
+    this.total = total;
+    this.status = SurveyRequestJobStatus.QUEUED;
+    this.created = new Date();
+    this.updated = this.created;
+  }
+
+  /**
+   * Indicates whether some other object is "equal to" this one.
+   *
+   * @param obj the reference object with which to compare
+   *
+   * @return <code>true</code> if this object is the same as the obj argument otherwise
+   *         <code>false</code>
+   */
+  @Override
+  public boolean equals(Object obj)
+  {
+    if (this == obj)
+    {
+      return true;
+    }
+
+    if (obj == null)
+    {
+      return false;
+    }
+
+    if (getClass() != obj.getClass())
+    {
+      return false;
+    }
+
+    SurveyRequestJob other = (SurveyRequestJob) obj;
+
+    return id.equals(other.id);
+  }
+
+  /**
+   * Returns the survey audience the survey requests are being sent to.
+   *
+   * @return the survey audience the survey requests are being sent to
+   */
+  public SurveyAudience getAudience()
+  {
+    return audience;
+  }
+
+  /**
+   * Returns the date and time the survey request job was created.
+   *
+   * @return the date and time the survey request job was created
+   */
+  public Date getCreated()
+  {
+    return created;
+  }
+
+  /**
+   * Returns the number of survey audience members whose survey requests have been queued for
+   * sending.
+   *
+   * @return the number of survey audience members whose survey requests have been queued for
+   *         sending
+   */
+  public int getEnqueued()
+  {
+    return enqueued;
+  }
+
+  /**
+   * Returns the number of survey audience members whose survey requests could not be queued for
+   * sending.
+   *
+   * @return the number of survey audience members whose survey requests could not be queued for
+   *         sending
+   */
+  public int getFailed()
+  {
+    return failed;
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   * job.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *         job
+   */
+  public UUID getId()
+  {
+    return id;
+  }
+
+  /**
+   * Returns the survey instance the survey requests are being sent for.
+   *
+   * @return the survey instance the survey requests are being sent for
+   */
+  public SurveyInstance getInstance()
+  {
+    return instance;
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the last survey
+   * audience member processed by the survey request job.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the last survey
+   *         audience member processed by the survey request job or <code>null</code> if no
+   *         survey audience members have been processed
+   */
+  public UUID getLastMemberId()
+  {
+    return lastMemberId;
+  }
+
+  /**
+   * Returns the date and time the lease on the lock for the survey request job expires if it is
+   * not renewed.
+   *
+   * @return the date and time the lease on the lock for the survey request job expires if it is
+   *         not renewed or <code>null</code> if the survey request job is not locked
+   */
+  public Date getLockExpires()
+  {
+    return lockExpires;
+  }
+
+  /**
+   * Returns the name of the entity that has locked the survey request job for processing.
+   *
+   * @return the name of the entity that has locked the survey request job for processing
+   */
+  public String getLockName()
+  {
+    return lockName;
+  }
+
+  /**
+   * Returns the number of survey audience members that have been processed by the survey request
+   * job.
+   *
+   * @return the number of survey audience members that have been processed by the survey request
+   *         job
+   */
+  public int getProcessed()
+  {
+    return enqueued + failed;
+  }
+
+  /**
+   * Returns the status of the survey request job.
+   *
+   * @return the status of the survey request job
+   */
+  public SurveyRequestJobStatus getStatus()
+  {
+    return status;
+  }
+
+  /**
+   * Returns the total number of survey audience members the survey requests are being sent to.
+   *
+   * @return the total number of survey audience members the survey requests are being sent to
+   */
+  public int getTotal()
+  {
+    return total;
+  }
+
+  /**
+   * Returns the date and time the survey request job was last updated.
+   *
+   * @return the date and time the survey request job was last updated
+   */
+  public Date getUpdated()
+  {
+    return updated;
+  }
+
+  /**
+   * Returns a hash code value for the object.
+   *
+   * @return a hash code value for the object
+   */
+  @Override
+  public int hashCode()
+  {
+    return id.hashCode();
+  }
+
+  /**
+   * Returns <code>true</code> if the survey request job has completed or <code>false</code>
+   * otherwise.
+   *
+   * @return <code>true</code> if the survey request job has completed or <code>false</code>
+   *         otherwise
+   */
+  public boolean isCompleted()
+  {
+    return status == SurveyRequestJobStatus.COMPLETED;
+  }
+
+  /**
+   * Returns the String representation of the survey request job.
+   *
+   * @return the String representation of the survey request job
+   */
+  @Override
+  public String toString()
+  {
+    return String.format("SurveyRequestJob {id=\"%s\", status=\"%s\", total=\"%d\","
+        + " enqueued=\"%d\", failed=\"%d\"}", getId(), getStatus().description(), getTotal(),
+        getEnqueued(), getFailed());
+  }
+}
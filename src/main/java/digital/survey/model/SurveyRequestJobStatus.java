@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+/**
+ * The <code>SurveyRequestJobStatus</code> enumeration defines the possible statuses for a survey
+ * request job.
+ *
+ * @author Marcus Portmann
+ */
+public enum SurveyRequestJobStatus
+{
+  UNKNOWN(0, "Unknown"), QUEUED(1, "Queued"), RUNNING(2, "Running"), COMPLETED(3, "Completed");
+
+  private String description;
+  private int code;
+
+  SurveyRequestJobStatus(int code, String description)
+  {
+    this.code = code;
+    this.description = description;
+  }
+
+  /**
+   * Returns the survey request job status given by the specified numeric code value.
+   *
+   * @param code the numeric code value identifying the survey request job status
+   *
+   * @return the survey request job status given by the specified numeric code value
+   */
+  public static SurveyRequestJobStatus fromCode(int code)
+  {
+    switch (code)
+    {
+      case 1:
+        return SurveyRequestJobStatus.QUEUED;
+
+      case 2:
+        return SurveyRequestJobStatus.RUNNING;
+
+      case 3:
+        return SurveyRequestJobStatus.COMPLETED;
+
+      default:
+        return SurveyRequestJobStatus.UNKNOWN;
+    }
+  }
+
+  /**
+   * Returns the numeric code for the survey request job status.
+   *
+   * @return the numeric code for the survey request job status
+   */
+  public int code()
+  {
+    return code;
+  }
+
+  /**
+   * Returns the description for the survey request job status.
+   *
+   * @return the description for the survey request job status
+   */
+  public String description()
+  {
+    return description;
+  }
+
+  /**
+   * Returns the <code>String</code> representation of the numeric code for the survey request job
+   * status.
+   *
+   * @return the <code>String</code> representation of the numeric code for the survey request job
+   *         status
+   */
+  public String getCodeAsString()
+  {
+    return String.valueOf(code);
+  }
+}
@@ -15,14 +15,15 @@ package digital.survey.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.mmp.common.util.DateUtil;
 
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -53,7 +54,7 @@ public class SurveyResponse
    * The survey instance this survey response is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "SURVEY_INSTANCE_ID")
   @JsonIgnore
   private SurveyInstance instance;
@@ -65,11 +66,19 @@ public class SurveyResponse
   @Transient
   private List<SurveyItemResponse> itemResponses;
 
+  /**
+   * The index for the survey group rating responses that are associated with the survey response,
+   * keyed on the IDs of the survey group ratings definition, survey group rating definition and
+   * survey group member definition, which is built the first time it is required.
+   */
+  @JsonIgnore
+  private transient Map<SurveyGroupRatingKey, SurveyGroupRatingResponse> groupRatingResponseIndex;
+
   /**
    * The optional survey request this survey response is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "SURVEY_REQUEST_ID")
   @JsonIgnore
   private SurveyRequest request;
@@ -81,6 +90,13 @@ public class SurveyResponse
   @JsonIgnore
   private Date responded;
 
+  /**
+   * The index for the survey text responses that are associated with the survey response, keyed
+   * on the ID of the survey text definition, which is built the first time it is required.
+   */
+  @JsonIgnore
+  private transient Map<UUID, SurveyTextResponse> textResponseIndex;
+
   /**
    * Constructs a new <code>SurveyResponse</code>.
    *
@@ -159,7 +175,7 @@ public class SurveyResponse
   {
     try
     {
-      return new ObjectMapper().writeValueAsString(this);
+      return EntityDataCodec.write(this);
     }
     catch (Throwable e)
     {
@@ -213,22 +229,13 @@ public class SurveyResponse
   public SurveyGroupRatingResponse getGroupRatingResponseForDefinition(
       UUID groupRatingsDefinitionId, UUID groupRatingDefinitionId, UUID groupMemberDefinitionId)
   {
-    for (SurveyItemResponse itemResponse : itemResponses)
+    if (groupRatingResponseIndex == null)
     {
-      if (itemResponse instanceof SurveyGroupRatingResponse)
-      {
-        SurveyGroupRatingResponse groupRatingResponse = (SurveyGroupRatingResponse) itemResponse;
-
-        if ((groupRatingResponse.getGroupRatingsDefinitionId().equals(groupRatingsDefinitionId))
-            && (groupRatingResponse.getGroupRatingDefinitionId().equals(groupRatingDefinitionId))
-            && (groupRatingResponse.getGroupMemberDefinitionId().equals(groupMemberDefinitionId)))
-        {
-          return groupRatingResponse;
-        }
-      }
+      buildItemResponseIndexes();
     }
 
-    return null;
+    return groupRatingResponseIndex.get(new SurveyGroupRatingKey(groupRatingsDefinitionId,
+        groupRatingDefinitionId, groupMemberDefinitionId));
   }
 
   /**
@@ -300,6 +307,16 @@ public class SurveyResponse
     }
   }
 
+  /**
+   * Returns the optional survey request this survey response is associated with.
+   *
+   * @return the optional survey request this survey response is associated with
+   */
+  public SurveyRequest getRequest()
+  {
+    return request;
+  }
+
   /**
    * Returns the date and time the survey response was received.
    *
@@ -359,20 +376,12 @@ public class SurveyResponse
    */
   public SurveyTextResponse getTextResponseForDefinition(UUID textDefinitionId)
   {
-    for (SurveyItemResponse itemResponse : itemResponses)
+    if (textResponseIndex == null)
     {
-      if (itemResponse instanceof SurveyTextResponse)
-      {
-        SurveyTextResponse textResponse = (SurveyTextResponse) itemResponse;
-
-        if (textResponse.getDefinitionId().equals(textDefinitionId))
-        {
-          return textResponse;
-        }
-      }
+      buildItemResponseIndexes();
     }
 
-    return null;
+    return textResponseIndex.get(textDefinitionId);
   }
 
   /**
@@ -384,7 +393,10 @@ public class SurveyResponse
   {
     try
     {
-      new ObjectMapper().readerForUpdating(this).readValue(data);
+      EntityDataCodec.readForUpdating(this, data);
+
+      groupRatingResponseIndex = null;
+      textResponseIndex = null;
     }
     catch (Throwable e)
     {
@@ -402,6 +414,81 @@ public class SurveyResponse
     this.responded = responded;
   }
 
+  /**
+   * Set the ratings for the survey group rating responses and the values for the survey text
+   * responses using the JSON data submitted by a respondent, which uses the same format as the
+   * JSON data for the survey response.
+   * <p/>
+   * The submitted survey item responses are matched to the survey item responses for the survey
+   * response using the IDs of the survey item definitions they are associated with. Any submitted
+   * survey item responses that do not match a survey item response are ignored, so the survey item
+   * responses are always those required by the survey definition regardless of the data that is
+   * submitted.
+   * <p/>
+   * The submitted data must be plain JSON, i.e. the encodings used to store the data for a survey
+   * response are not accepted from a respondent.
+   *
+   * @param data the JSON data submitted by the respondent
+   */
+  public void setResponseValues(String data)
+  {
+    try
+    {
+      SurveyResponseDataReader.readJson(data, new SurveyResponseDataReader.Handler()
+      {
+        @Override
+        public void groupRatingResponse(UUID groupRatingsDefinitionId,
+            UUID groupRatingDefinitionId, UUID groupMemberDefinitionId, int rating)
+        {
+          if ((groupRatingsDefinitionId == null) || (groupRatingDefinitionId == null)
+              || (groupMemberDefinitionId == null))
+          {
+            return;
+          }
+
+          SurveyGroupRatingResponse groupRatingResponse = getGroupRatingResponseForDefinition(
+              groupRatingsDefinitionId, groupRatingDefinitionId, groupMemberDefinitionId);
+
+          if (groupRatingResponse == null)
+          {
+            return;
+          }
+
+          SurveyGroupRatingType ratingType = getGroupRatingType(groupRatingsDefinitionId,
+              groupRatingDefinitionId);
+
+          if ((ratingType == null) || (rating < ratingType.minimumRating())
+              || (rating > ratingType.maximumRating()))
+          {
+            throw new IllegalArgumentException(String.format(
+                "The rating (%d) for the survey group rating response (%s) is not valid", rating,
+                groupRatingResponse.getId()));
+          }
+
+          groupRatingResponse.setRating(rating);
+        }
+
+        @Override
+        public void textResponse(UUID definitionId, String value)
+        {
+          SurveyTextResponse textResponse = (definitionId == null)
+              ? null
+              : getTextResponseForDefinition(definitionId);
+
+          if (textResponse != null)
+          {
+            textResponse.setValue(value);
+          }
+        }
+      });
+    }
+    catch (Throwable e)
+    {
+      throw new RuntimeException(
+          "Failed to set the values for the survey response using the JSON data", e);
+    }
+  }
+
   /**
    * Returns the String representation of the survey response.
    *
@@ -414,6 +501,56 @@ public class SurveyResponse
         DateUtil.getYYYYMMDDWithTimeFormat().format(getResponded()));
   }
 
+  private void buildItemResponseIndexes()
+  {
+    Map<SurveyGroupRatingKey, SurveyGroupRatingResponse> groupRatingResponseIndex = new HashMap<>(
+        (itemResponses.size() * 4) / 3 + 1);
+    Map<UUID, SurveyTextResponse> textResponseIndex = new HashMap<>();
+
+    for (SurveyItemResponse itemResponse : itemResponses)
+    {
+      if (itemResponse instanceof SurveyGroupRatingResponse)
+      {
+        SurveyGroupRatingResponse groupRatingResponse = (SurveyGroupRatingResponse) itemResponse;
+
+        groupRatingResponseIndex.put(new SurveyGroupRatingKey(
+            groupRatingResponse.getGroupRatingsDefinitionId(),
+            groupRatingResponse.getGroupRatingDefinitionId(),
+            groupRatingResponse.getGroupMemberDefinitionId()), groupRatingResponse);
+      }
+      else if (itemResponse instanceof SurveyTextResponse)
+      {
+        SurveyTextResponse textResponse = (SurveyTextResponse) itemResponse;
+
+        textResponseIndex.put(textResponse.getDefinitionId(), textResponse);
+      }
+    }
+
+    this.groupRatingResponseIndex = groupRatingResponseIndex;
+    this.textResponseIndex = textResponseIndex;
+  }
+
+  private SurveyGroupRatingType getGroupRatingType(UUID groupRatingsDefinitionId,
+      UUID groupRatingDefinitionId)
+  {
+    for (SurveyItemDefinition itemDefinition : instance.getDefinition().getAllItemDefinitions())
+    {
+      if ((itemDefinition instanceof SurveyGroupRatingsDefinition)
+          && itemDefinition.getId().equals(groupRatingsDefinitionId))
+      {
+        SurveyGroupRatingDefinition groupRatingDefinition =
+            ((SurveyGroupRatingsDefinition) itemDefinition).getGroupRatingDefinition(
+            groupRatingDefinitionId);
+
+        return (groupRatingDefinition == null)
+            ? null
+            : groupRatingDefinition.getRatingType();
+      }
+    }
+
+    return null;
+  }
+
   private void initItemResponses(List<SurveyItemDefinition> itemDefinitions)
   {
     for (SurveyItemDefinition itemDefinition : itemDefinitions)
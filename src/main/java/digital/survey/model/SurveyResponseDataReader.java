@@ -0,0 +1,231 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResponseDataReader</code> class implements a streaming reader for the data
+ * stored in the <b>DATA</b> column for a survey response.
+ * <p/>
+ * The data is read token by token, using a parser for the encoding of the data, and the values
+ * for the survey group rating responses and survey text responses are passed to a handler,
+ * without creating the survey response, survey item response or any other entity objects. This
+ * is used when compiling and maintaining survey results, which only require the IDs and rating
+ * for each survey group rating response, and avoids building the full polymorphic survey item
+ * response graph for every survey response.
+ *
+ * @author Marcus Portmann
+ */
+final class SurveyResponseDataReader
+{
+  /**
+   * The type ID for the survey group rating responses.
+   */
+  private static final String GROUP_RATING_RESPONSE_TYPE_ID =
+      SurveyGroupRatingResponse.TYPE_ID.toString();
+
+  /**
+   * The type ID for the survey text responses.
+   */
+  private static final String TEXT_RESPONSE_TYPE_ID = SurveyTextResponse.TYPE_ID.toString();
+
+  /**
+   * Private default constructor to prevent instantiation.
+   */
+  private SurveyResponseDataReader() {}
+
+  /**
+   * Read the data for the survey response and pass the values for its survey group rating
+   * responses and survey text responses to the handler.
+   *
+   * @param data    the data for the survey response
+   * @param handler the handler
+   */
+  static void read(String data, Handler handler)
+    throws IOException
+  {
+    try (JsonParser parser = EntityDataCodec.createParser(data))
+    {
+      read(parser, handler);
+    }
+  }
+
+  /**
+   * Read the JSON data for a survey response submitted by a respondent and pass the values for its
+   * survey group rating responses and survey text responses to the handler.
+   * <p/>
+   * Unlike the data stored for a survey response, the submitted data must be plain JSON and is
+   * never decoded.
+   *
+   * @param data    the JSON data for the survey response
+   * @param handler the handler
+   */
+  static void readJson(String data, Handler handler)
+    throws IOException
+  {
+    try (JsonParser parser = EntityDataCodec.createJsonParser(data))
+    {
+      read(parser, handler);
+    }
+  }
+
+  /**
+   * Read the survey response using the parser and pass the values for its survey group rating
+   * responses and survey text responses to the handler.
+   *
+   * @param parser  the parser
+   * @param handler the handler
+   */
+  private static void read(JsonParser parser, Handler handler)
+    throws IOException
+  {
+    if (parser.nextToken() != JsonToken.START_OBJECT)
+    {
+      throw new IOException("The data for the survey response is not an object");
+    }
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME)
+    {
+      String fieldName = parser.getCurrentName();
+
+      if ((parser.nextToken() == JsonToken.START_ARRAY) && "itemResponses".equals(fieldName))
+      {
+        while (parser.nextToken() == JsonToken.START_OBJECT)
+        {
+          readItemResponse(parser, handler);
+        }
+      }
+      else
+      {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * Read the survey item response, which the parser is positioned at the start of, and pass its
+   * values to the handler.
+   *
+   * @param parser  the parser
+   * @param handler the handler
+   */
+  private static void readItemResponse(JsonParser parser, Handler handler)
+    throws IOException
+  {
+    String typeId = null;
+    UUID groupRatingsDefinitionId = null;
+    UUID groupRatingDefinitionId = null;
+    UUID groupMemberDefinitionId = null;
+    int rating = 0;
+    UUID definitionId = null;
+    String value = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME)
+    {
+      String fieldName = parser.getCurrentName();
+
+      JsonToken token = parser.nextToken();
+
+      switch (fieldName)
+      {
+        case "typeId":
+          typeId = parser.getText();
+
+          break;
+
+        case "groupRatingsDefinitionId":
+          groupRatingsDefinitionId = EntityDataCodec.readUuid(parser);
+
+          break;
+
+        case "groupRatingDefinitionId":
+          groupRatingDefinitionId = EntityDataCodec.readUuid(parser);
+
+          break;
+
+        case "groupMemberDefinitionId":
+          groupMemberDefinitionId = EntityDataCodec.readUuid(parser);
+
+          break;
+
+        case "rating":
+          rating = parser.getIntValue();
+
+          break;
+
+        case "definitionId":
+          definitionId = EntityDataCodec.readUuid(parser);
+
+          break;
+
+        case "value":
+          value = (token == JsonToken.VALUE_NULL)
+              ? null
+              : parser.getText();
+
+          break;
+
+        default:
+          parser.skipChildren();
+      }
+    }
+
+    if (GROUP_RATING_RESPONSE_TYPE_ID.equals(typeId))
+    {
+      handler.groupRatingResponse(groupRatingsDefinitionId, groupRatingDefinitionId,
+          groupMemberDefinitionId, rating);
+    }
+    else if (TEXT_RESPONSE_TYPE_ID.equals(typeId))
+    {
+      handler.textResponse(definitionId, value);
+    }
+  }
+
+  /**
+   * The <code>Handler</code> interface defines the callbacks invoked for the survey group rating
+   * responses and survey text responses read from the data for a survey response.
+   */
+  interface Handler
+  {
+    /**
+     * Handle the survey group rating response.
+     *
+     * @param groupRatingsDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+     *                                 identify the survey group ratings definition
+     * @param groupRatingDefinitionId  the Universally Unique Identifier (UUID) used to uniquely
+     *                                 identify the survey group rating definition
+     * @param groupMemberDefinitionId  the Universally Unique Identifier (UUID) used to uniquely
+     *                                 identify the survey group member definition
+     * @param rating                   the rating
+     */
+    void groupRatingResponse(UUID groupRatingsDefinitionId, UUID groupRatingDefinitionId,
+        UUID groupMemberDefinitionId, int rating);
+
+    /**
+     * Handle the survey text response.
+     *
+     * @param definitionId the Universally Unique Identifier (UUID) used to uniquely identify the
+     *                     survey text definition
+     * @param value        the text value
+     */
+    default void textResponse(UUID definitionId, String value) {}
+  }
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * The <code>SurveyResponseJournal</code> class implements the local, append-only write-ahead
+ * journal for the survey responses submitted by respondents, which are inserted into the
+ * SURVEY.SURVEY_RESPONSES table in batches by the Background Survey Response Ingester.
+ * <p/>
+ * Each journal record consists of the length and CRC32 checksum of its payload followed by the
+ * payload, which is the encoded survey response journal entry. A survey response is only
+ * acknowledged once its journal record has been forced to disk. The threads appending journal
+ * records concurrently share a single force, i.e. a group commit, so that the submission rate is
+ * not bounded by the latency of forcing each journal record to disk individually.
+ * <p/>
+ * The position of the first journal record that has not been inserted, and the ID of the survey
+ * response for the journal record immediately before it, are recorded in a checkpoint file
+ * alongside the journal. The checkpoint file is forced to disk, atomically renamed and its
+ * directory forced to disk before the journal is truncated. When the journal is opened, the
+ * checkpoint is only used if it identifies a journal record in the journal, otherwise the whole
+ * journal is replayed and the survey responses that already exist are skipped by the ingestion.
+ * Any incomplete journal record at the end of the journal, which was never acknowledged, is
+ * discarded. Once all the journal records have been inserted and the journal has grown beyond the
+ * truncation threshold the journal is truncated.
+ *
+ * @author Marcus Portmann
+ */
+final class SurveyResponseJournal
+  implements Closeable
+{
+  /**
+   * The maximum size in bytes of the payload for a journal record.
+   */
+  private static final int MAXIMUM_PAYLOAD_SIZE = 16 * 1024 * 1024;
+
+  /**
+   * The size in bytes of the header for a journal record, which contains the length and CRC32
+   * checksum of the payload.
+   */
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  /**
+   * The size in bytes the journal must reach before it is truncated once all the journal records
+   * have been inserted.
+   */
+  private static final long TRUNCATION_THRESHOLD = 16L * 1024L * 1024L;
+
+  /**
+   * The file channel for the journal.
+   */
+  private final FileChannel channel;
+
+  /**
+   * The size in bytes the journal must reach before it is truncated once all the journal records
+   * have been inserted.
+   */
+  private final long truncationThreshold;
+
+  /**
+   * The path to the checkpoint file for the journal.
+   */
+  private final Path checkpointPath;
+
+  /**
+   * The position of the first journal record that has not been inserted.
+   */
+  private long committedPosition;
+
+  /**
+   * The position up to which the journal has been forced to disk.
+   */
+  private long syncedPosition;
+
+  /**
+   * The lock used to serialize forcing the journal to disk.
+   */
+  private final Object syncLock = new Object();
+
+  /**
+   * The position at which the next journal record will be appended.
+   */
+  private long writePosition;
+
+  /**
+   * Constructs a new <code>SurveyResponseJournal</code> and recovers the journal records that
+   * have not been inserted.
+   *
+   * @param path the path to the journal
+   */
+  SurveyResponseJournal(Path path)
+    throws IOException
+  {
+    this(path, TRUNCATION_THRESHOLD);
+  }
+
+  /**
+   * Constructs a new <code>SurveyResponseJournal</code> and recovers the journal records that
+   * have not been inserted.
+   *
+   * @param path                the path to the journal
+   * @param truncationThreshold the size in bytes the journal must reach before it is truncated
+   *                            once all the journal records have been inserted
+   */
+  SurveyResponseJournal(Path path, long truncationThreshold)
+    throws IOException
+  {
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    this.checkpointPath = path.resolveSibling(path.getFileName() + ".checkpoint");
+    this.truncationThreshold = truncationThreshold;
+
+    String[] checkpoint = readCheckpoint();
+
+    long checkpointPosition = (checkpoint == null) ? 0 : Long.parseLong(checkpoint[0]);
+    UUID checkpointId = ((checkpoint == null) || (checkpoint.length < 2))
+        ? null
+        : UUID.fromString(checkpoint[1]);
+
+    /*
+     * Scan the journal from the start to find the end of the complete journal records, discarding
+     * any incomplete journal record at the end of the journal, and to confirm that the checkpoint
+     * identifies a journal record in the journal. A stale checkpoint, e.g. one that was written
+     * before the journal was truncated, is ignored and the whole journal is replayed.
+     */
+    committedPosition = 0;
+
+    long position = 0;
+
+    while (true)
+    {
+      long nextPosition = readRecord(position, null);
+
+      if (nextPosition == -1)
+      {
+        break;
+      }
+
+      if ((nextPosition == checkpointPosition) && (checkpointId != null))
+      {
+        List<SurveyResponseJournalEntry> entries = new ArrayList<>();
+
+        readRecord(position, entries);
+
+        if (checkpointId.equals(entries.get(0).getId()))
+        {
+          committedPosition = checkpointPosition;
+        }
+      }
+
+      position = nextPosition;
+    }
+
+    if (channel.size() > position)
+    {
+      channel.truncate(position);
+      channel.force(true);
+    }
+
+    writePosition = position;
+    syncedPosition = position;
+  }
+
+  /**
+   * Append the journal entry to the journal and force it to disk.
+   *
+   * @param entry the journal entry
+   */
+  void append(SurveyResponseJournalEntry entry)
+    throws IOException
+  {
+    byte[] payload = entry.encode();
+
+    if (payload.length > MAXIMUM_PAYLOAD_SIZE)
+    {
+      throw new IOException("The survey response (" + entry.getId()
+          + ") is too large to append to the survey response journal");
+    }
+
+    CRC32 crc = new CRC32();
+
+    crc.update(payload);
+
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+
+    buffer.putInt(payload.length);
+    buffer.putInt((int) crc.getValue());
+    buffer.put(payload);
+    buffer.flip();
+
+    long position;
+
+    synchronized (this)
+    {
+      position = writePosition;
+
+      while (buffer.hasRemaining())
+      {
+        position += channel.write(buffer, position);
+      }
+
+      writePosition = position;
+    }
+
+    sync(position);
+  }
+
+  /**
+   * Close the journal.
+   */
+  @Override
+  public void close()
+    throws IOException
+  {
+    channel.close();
+  }
+
+  /**
+   * Record that the journal records up to and including the journal record for the specified
+   * journal entry have been inserted, truncating the journal if all the journal records have been
+   * inserted and the journal has grown beyond the truncation threshold.
+   *
+   * @param entry the journal entry for the last journal record that was inserted
+   */
+  void commit(SurveyResponseJournalEntry entry)
+    throws IOException
+  {
+    synchronized (syncLock)
+    {
+      synchronized (this)
+      {
+        committedPosition = entry.getPosition();
+
+        if ((committedPosition == writePosition) && (writePosition >= truncationThreshold))
+        {
+          /*
+           * NOTE: The checkpoint is reset, and forced to disk, before the journal is truncated so
+           *       that the journal records appended after the truncation are never skipped. If the
+           *       journal is not truncated, the journal records are replayed and skipped by the
+           *       ingestion since the survey responses already exist.
+           */
+          committedPosition = 0;
+
+          writeCheckpoint(0, null);
+
+          channel.truncate(0);
+          channel.force(true);
+
+          writePosition = 0;
+          syncedPosition = 0;
+        }
+        else
+        {
+          writeCheckpoint(committedPosition, entry.getId());
+        }
+      }
+    }
+  }
+
+  /**
+   * Read up to the specified number of journal entries, which have been forced to disk but not
+   * inserted, starting with the first journal entry that has not been inserted.
+   *
+   * @param maximumNumberOfEntries the maximum number of journal entries to read
+   *
+   * @return the journal entries
+   */
+  List<SurveyResponseJournalEntry> read(int maximumNumberOfEntries)
+    throws IOException
+  {
+    long position;
+    long endPosition;
+
+    synchronized (syncLock)
+    {
+      synchronized (this)
+      {
+        position = committedPosition;
+        endPosition = syncedPosition;
+      }
+    }
+
+    List<SurveyResponseJournalEntry> entries = new ArrayList<>();
+
+    while ((position < endPosition) && (entries.size() < maximumNumberOfEntries))
+    {
+      position = readRecord(position, entries);
+
+      if (position == -1)
+      {
+        throw new IOException("Failed to read the corrupt survey response journal record");
+      }
+    }
+
+    return entries;
+  }
+
+  /**
+   * Read the checkpoint, i.e. the position of the first journal record that has not been inserted
+   * optionally followed by the ID of the survey response for the journal record immediately before
+   * it, from the checkpoint file.
+   *
+   * @return the position and optional ID or <code>null</code> if there is no valid checkpoint
+   */
+  private String[] readCheckpoint()
+    throws IOException
+  {
+    if (!Files.exists(checkpointPath))
+    {
+      return null;
+    }
+
+    String[] checkpoint = new String(Files.readAllBytes(checkpointPath),
+        StandardCharsets.US_ASCII).trim().split(" ");
+
+    try
+    {
+      Long.parseLong(checkpoint[0]);
+
+      if (checkpoint.length > 1)
+      {
+        UUID.fromString(checkpoint[1]);
+      }
+
+      return checkpoint;
+    }
+    catch (IllegalArgumentException e)
+    {
+      return null;
+    }
+  }
+
+  /**
+   * Read the journal record at the specified position.
+   *
+   * @param position the position of the journal record
+   * @param entries  the journal entries the journal entry for the journal record should be added
+   *                 to or <code>null</code> if the journal record should only be validated
+   *
+   * @return the position immediately after the journal record or -1 if there is no complete and
+   *         valid journal record at the position
+   */
+  private long readRecord(long position, List<SurveyResponseJournalEntry> entries)
+    throws IOException
+  {
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+
+    if (!readFully(header, position))
+    {
+      return -1;
+    }
+
+    header.flip();
+
+    int length = header.getInt();
+    int checksum = header.getInt();
+
+    if ((length < 0) || (length > MAXIMUM_PAYLOAD_SIZE))
+    {
+      return -1;
+    }
+
+    ByteBuffer payload = ByteBuffer.allocate(length);
+
+    if (!readFully(payload, position + RECORD_HEADER_SIZE))
+    {
+      return -1;
+    }
+
+    CRC32 crc = new CRC32();
+
+    crc.update(payload.array());
+
+    if ((int) crc.getValue() != checksum)
+    {
+      return -1;
+    }
+
+    long nextPosition = position + RECORD_HEADER_SIZE + length;
+
+    if (entries != null)
+    {
+      entries.add(SurveyResponseJournalEntry.decode(payload.array(), nextPosition));
+    }
+
+    return nextPosition;
+  }
+
+  /**
+   * Fill the buffer by reading from the journal starting at the specified position.
+   *
+   * @param buffer   the buffer
+   * @param position the position
+   *
+   * @return <code>true</code> if the buffer was filled or <code>false</code> if the end of the
+   *         journal was reached
+   */
+  private boolean readFully(ByteBuffer buffer, long position)
+    throws IOException
+  {
+    while (buffer.hasRemaining())
+    {
+      int numberOfBytesRead = channel.read(buffer, position);
+
+      if (numberOfBytesRead == -1)
+      {
+        return false;
+      }
+
+      position += numberOfBytesRead;
+    }
+
+    return true;
+  }
+
+  /**
+   * Force the journal to disk up to at least the specified position.
+   * <p/>
+   * If another thread has already forced the journal to disk beyond the position while this
+   * thread was waiting, the journal is not forced again.
+   *
+   * @param position the position
+   */
+  private void sync(long position)
+    throws IOException
+  {
+    synchronized (syncLock)
+    {
+      if (syncedPosition >= position)
+      {
+        return;
+      }
+
+      long targetPosition;
+
+      synchronized (this)
+      {
+        targetPosition = writePosition;
+      }
+
+      channel.force(false);
+
+      syncedPosition = targetPosition;
+    }
+  }
+
+  /**
+   * Write the checkpoint to the checkpoint file and force it, and the rename of the checkpoint
+   * file, to disk.
+   *
+   * @param position the position of the first journal record that has not been inserted
+   * @param id       the ID of the survey response for the journal record immediately before the
+   *                 position or <code>null</code> if the position is the start of the journal
+   */
+  private void writeCheckpoint(long position, UUID id)
+    throws IOException
+  {
+    Path temporaryCheckpointPath = checkpointPath.resolveSibling(checkpointPath.getFileName()
+        + ".tmp");
+
+    String checkpoint = (id == null)
+        ? Long.toString(position)
+        : (position + " " + id);
+
+    try (FileChannel checkpointChannel = FileChannel.open(temporaryCheckpointPath,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING))
+    {
+      ByteBuffer buffer = ByteBuffer.wrap(checkpoint.getBytes(StandardCharsets.US_ASCII));
+
+      while (buffer.hasRemaining())
+      {
+        checkpointChannel.write(buffer);
+      }
+
+      checkpointChannel.force(true);
+    }
+
+    Files.move(temporaryCheckpointPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+
+    // Force the directory to disk so that the rename of the checkpoint file is durable
+    try (FileChannel directoryChannel = FileChannel.open(
+        checkpointPath.toAbsolutePath().getParent(), StandardOpenOption.READ))
+    {
+      directoryChannel.force(true);
+    }
+    catch (AccessDeniedException ignored)
+    {
+      // Directories cannot be opened on some platforms, e.g. Windows
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package digital.survey.model;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The <code>SurveyResponseJournalEntry</code> class holds a survey response that has been
+ * appended to the survey response journal and is waiting to be inserted into the
+ * SURVEY.SURVEY_RESPONSES table.
+ * <p/>
+ * Only the IDs for the survey response, survey instance and survey request, the date and time the
+ * survey response was received and the data for the survey response are retained, which is all
+ * that is required to insert the survey response.
+ *
+ * @author Marcus Portmann
+ */
+public final class SurveyResponseJournalEntry
+{
+  /**
+   * The data for the survey response.
+   */
+  private String data;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey response.
+   */
+  private UUID id;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey instance the
+   * survey response is associated with.
+   */
+  private UUID instanceId;
+
+  /**
+   * The position in the survey response journal immediately after the journal entry.
+   */
+  private long position;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the optional survey request
+   * the survey response is associated with.
+   */
+  private UUID requestId;
+
+  /**
+   * The date and time the survey response was received.
+   */
+  private Date responded;
+
+  /**
+   * Constructs a new <code>SurveyResponseJournalEntry</code>.
+   *
+   * @param surveyResponse the survey response
+   */
+  SurveyResponseJournalEntry(SurveyResponse surveyResponse)
+  {
+    this.id = surveyResponse.getId();
+    this.instanceId = surveyResponse.getInstance().getId();
+    this.requestId = (surveyResponse.getRequest() == null)
+        ? null
+        : surveyResponse.getRequest().getId();
+    this.responded = surveyResponse.getResponded();
+    this.data = surveyResponse.getData();
+  }
+
+  /**
+   * Constructs a new <code>SurveyResponseJournalEntry</code>.
+   */
+  private SurveyResponseJournalEntry() {}
+
+  /**
+   * Returns the journal entry encoded using the bytes for the payload of its journal record.
+   *
+   * @return the journal entry encoded using the bytes for the payload of its journal record
+   */
+  byte[] encode()
+    throws IOException
+  {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length() + 64);
+
+    try (DataOutputStream out = new DataOutputStream(bytes))
+    {
+      out.writeLong(id.getMostSignificantBits());
+      out.writeLong(id.getLeastSignificantBits());
+      out.writeLong(instanceId.getMostSignificantBits());
+      out.writeLong(instanceId.getLeastSignificantBits());
+      out.writeBoolean(requestId != null);
+
+      if (requestId != null)
+      {
+        out.writeLong(requestId.getMostSignificantBits());
+        out.writeLong(requestId.getLeastSignificantBits());
+      }
+
+      out.writeLong(responded.getTime());
+
+      byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
+
+      out.writeInt(dataBytes.length);
+      out.write(dataBytes);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Returns the journal entry decoded from the bytes for the payload of its journal record.
+   *
+   * @param payload  the bytes for the payload of the journal record
+   * @param position the position in the survey response journal immediately after the journal
+   *                 record
+   *
+   * @return the journal entry
+   */
+  static SurveyResponseJournalEntry decode(byte[] payload, long position)
+    throws IOException
+  {
+    SurveyResponseJournalEntry entry = new SurveyResponseJournalEntry();
+
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload)))
+    {
+      entry.id = new UUID(in.readLong(), in.readLong());
+      entry.instanceId = new UUID(in.readLong(), in.readLong());
+      entry.requestId = in.readBoolean()
+          ? new UUID(in.readLong(), in.readLong())
+          : null;
+      entry.responded = new Date(in.readLong());
+
+      byte[] dataBytes = new byte[in.readInt()];
+
+      in.readFully(dataBytes);
+
+      entry.data = new String(dataBytes, StandardCharsets.UTF_8);
+    }
+
+    entry.position = position;
+
+    return entry;
+  }
+
+  /**
+   * Returns the data for the survey response.
+   *
+   * @return the data for the survey response
+   */
+  public String getData()
+  {
+    return data;
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey response.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey response
+   */
+  public UUID getId()
+  {
+    return id;
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey instance
+   * the survey response is associated with.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey instance
+   *         the survey response is associated with
+   */
+  public UUID getInstanceId()
+  {
+    return instanceId;
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the optional survey
+   * request the survey response is associated with.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the optional survey
+   *         request the survey response is associated with or <code>null</code> for an anonymous
+   *         survey response
+   */
+  public UUID getRequestId()
+  {
+    return requestId;
+  }
+
+  /**
+   * Returns the date and time the survey response was received.
+   *
+   * @return the date and time the survey response was received
+   */
+  public Date getResponded()
+  {
+    return responded;
+  }
+
+  /**
+   * Returns the position in the survey response journal immediately after the journal entry.
+   *
+   * @return the position in the survey response journal immediately after the journal entry
+   */
+  long getPosition()
+  {
+    return position;
+  }
+}
@@ -46,7 +46,7 @@ public class SurveyResponseSummary
    * The survey instance this survey response is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "SURVEY_INSTANCE_ID")
   private SurveyInstance instance;
 
@@ -54,7 +54,7 @@ public class SurveyResponseSummary
    * The optional survey request this survey response is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "SURVEY_REQUEST_ID")
   private SurveyRequest request;
 
@@ -15,12 +15,16 @@ package digital.survey.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import javax.persistence.*;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -35,6 +39,13 @@ import java.util.stream.Collectors;
 @Entity
 @Table(schema = "SURVEY", name = "SURVEY_RESULTS")
 @Access(AccessType.FIELD)
+@SqlResultSetMapping(name = "SurveyGroupRatingCount",
+    classes = { @ConstructorResult(targetClass = SurveyGroupRatingCount.class,
+        columns = { @ColumnResult(name = "GROUP_RATINGS_DEFINITION_ID", type = UUID.class) ,
+            @ColumnResult(name = "GROUP_RATING_DEFINITION_ID", type = UUID.class) ,
+            @ColumnResult(name = "GROUP_MEMBER_DEFINITION_ID", type = UUID.class) ,
+            @ColumnResult(name = "RATING", type = Integer.class) ,
+            @ColumnResult(name = "RATING_COUNT", type = Long.class) }) })
 public class SurveyResult
   implements Serializable
 {
@@ -52,7 +63,7 @@ public class SurveyResult
    * The survey instance this survey result is associated with.
    */
   @SuppressWarnings("unused")
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "SURVEY_INSTANCE_ID")
   @JsonIgnore
   private SurveyInstance instance;
@@ -64,6 +75,54 @@ public class SurveyResult
   @Transient
   private List<SurveyGroupRatingResult> groupRatingResults;
 
+  /**
+   * The index for the survey group rating results that are associated with the survey result,
+   * keyed on the IDs of the survey group ratings definition, survey group rating definition and
+   * survey group member definition, which is built the first time it is required.
+   */
+  @JsonIgnore
+  private transient Map<SurveyGroupRatingKey, SurveyGroupRatingResult> groupRatingResultIndex;
+
+  /**
+   * The precomputed scores and weighted totals for the survey group ratings definitions, which
+   * are recomputed whenever the survey result is updated so that they are always stored with the
+   * survey result.
+   */
+  @JsonProperty
+  @Transient
+  private List<SurveyGroupRatingsTotals> groupRatingsTotals;
+
+  /**
+   * The index for the precomputed scores and weighted totals, keyed on the ID of the survey group
+   * ratings definition, which is built the first time it is required.
+   */
+  @JsonIgnore
+  private transient Map<UUID, SurveyGroupRatingsTotals> groupRatingsTotalsIndex;
+
+  /**
+   * The number of survey responses the survey result was compiled from.
+   */
+  @Column(name = "NUMBER_OF_RESPONSES", nullable = false)
+  @JsonProperty
+  private int numberOfResponses;
+
+  /**
+   * The date and time the survey result was last updated.
+   */
+  @Column(name = "UPDATED", nullable = false)
+  @Temporal(TemporalType.TIMESTAMP)
+  @JsonIgnore
+  private Date updated;
+
+  /**
+   * The version of the survey result, which is incremented every time the survey result is
+   * updated.
+   */
+  @Version
+  @Column(name = "VERSION", nullable = false)
+  @JsonIgnore
+  private int version;
+
   /**
    * Constructs a new <code>SurveyResult</code>.
    *
@@ -93,10 +152,11 @@ public class SurveyResult
   {
     this.id = id;
     this.instance = instance;
+    this.updated = new Date();
 
     this.groupRatingResults = new ArrayList<>();
 
-    for (SurveyItemDefinition itemDefinition : instance.getDefinition().getItemDefinitions())
+    for (SurveyItemDefinition itemDefinition : instance.getDefinition().getAllItemDefinitions())
     {
       if (itemDefinition instanceof SurveyGroupRatingsDefinition)
       {
@@ -115,6 +175,91 @@ public class SurveyResult
         }
       }
     }
+
+    computeGroupRatingsTotals();
+  }
+
+  /**
+   * Add the number of times each rating was given for the survey group ratings, as aggregated by
+   * the database, to the survey result.
+   * <p/>
+   * The scores and weighted totals are recomputed once, after all the counts have been added.
+   *
+   * @param groupRatingCounts the number of times each rating was given for the survey group
+   *                          ratings
+   */
+  public void addGroupRatingCounts(List<SurveyGroupRatingCount> groupRatingCounts)
+  {
+    for (SurveyGroupRatingCount groupRatingCount : groupRatingCounts)
+    {
+      SurveyGroupRatingResult groupRatingResult = getGroupRatingResult(
+          groupRatingCount.getGroupRatingsDefinitionId(),
+          groupRatingCount.getGroupRatingDefinitionId(),
+          groupRatingCount.getGroupMemberDefinitionId());
+
+      if (groupRatingResult == null)
+      {
+        throw new RuntimeException(
+            "Failed to find a survey group rating result for the survey group ratings definition ("
+            + groupRatingCount.getGroupRatingsDefinitionId()
+            + "), survey group rating definition ("
+            + groupRatingCount.getGroupRatingDefinitionId()
+            + ") and survey group member definition ("
+            + groupRatingCount.getGroupMemberDefinitionId() + ")");
+      }
+
+      groupRatingResult.addRating(groupRatingCount.getRating(),
+          (int) groupRatingCount.getCount());
+    }
+
+    markUpdated();
+  }
+
+  /**
+   * Add the survey response to the survey result.
+   *
+   * @param surveyResponse the survey response
+   */
+  public void addResponse(SurveyResponse surveyResponse)
+  {
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      getGroupRatingResultForResponse(groupRatingResponse).addRating(
+          groupRatingResponse.getRating());
+    }
+
+    numberOfResponses++;
+
+    markUpdated();
+  }
+
+  /**
+   * Add the survey response to the survey result using only the JSON data for the survey
+   * response.
+   * <p/>
+   * The ratings for the survey group rating responses are streamed from the JSON data without
+   * creating the survey response or its survey item responses.
+   *
+   * @param data the JSON data for the survey response
+   */
+  public void addResponseData(String data)
+  {
+    try
+    {
+      SurveyResponseDataReader.read(data,
+          (groupRatingsDefinitionId, groupRatingDefinitionId, groupMemberDefinitionId, rating) ->
+          getGroupRatingResultForResponse(groupRatingsDefinitionId, groupRatingDefinitionId,
+          groupMemberDefinitionId).addRating(rating));
+    }
+    catch (IOException e)
+    {
+      throw new RuntimeException(
+          "Failed to add the survey response to the survey result using the JSON data", e);
+    }
+
+    numberOfResponses++;
+
+    markUpdated();
   }
 
   /**
@@ -160,7 +305,7 @@ public class SurveyResult
   {
     try
     {
-      return new ObjectMapper().writeValueAsString(this);
+      return EntityDataCodec.write(this);
     }
     catch (Throwable e)
     {
@@ -209,17 +354,8 @@ public class SurveyResult
   public SurveyGroupRatingResult getGroupRatingResult(UUID groupRatingsDefinitionId,
       UUID groupRatingDefinitionId, UUID groupMemberDefinitionId)
   {
-    for (SurveyGroupRatingResult groupRatingResult : groupRatingResults)
-    {
-      if ((groupRatingResult.getGroupRatingsDefinitionId().equals(groupRatingsDefinitionId))
-          && (groupRatingResult.getGroupRatingDefinitionId().equals(groupRatingDefinitionId))
-          && (groupRatingResult.getGroupMemberDefinitionId().equals(groupMemberDefinitionId)))
-      {
-        return groupRatingResult;
-      }
-    }
-
-    return null;
+    return getGroupRatingResultIndex().get(new SurveyGroupRatingKey(groupRatingsDefinitionId,
+        groupRatingDefinitionId, groupMemberDefinitionId));
   }
 
   /**
@@ -232,6 +368,22 @@ public class SurveyResult
     return groupRatingResults;
   }
 
+  /**
+   * Returns the precomputed scores and weighted totals for the survey group ratings definition
+   * with the specified ID.
+   *
+   * @param groupRatingsDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+   *                                 identify the survey group ratings definition
+   *
+   * @return the precomputed scores and weighted totals for the survey group ratings definition or
+   *         <code>null</code> if the survey result has no survey group rating results for the
+   *         survey group ratings definition
+   */
+  public SurveyGroupRatingsTotals getGroupRatingsTotals(UUID groupRatingsDefinitionId)
+  {
+    return getGroupRatingsTotalsIndex().get(groupRatingsDefinitionId);
+  }
+
   /**
    * Returns the survey group rating results that are associated with the survey group member
    * definition with the specified ID.
@@ -270,6 +422,90 @@ public class SurveyResult
     return instance;
   }
 
+  /**
+   * Returns the number of survey responses the survey result was compiled from.
+   *
+   * @return the number of survey responses the survey result was compiled from
+   */
+  public int getNumberOfResponses()
+  {
+    return numberOfResponses;
+  }
+
+  /**
+   * Returns the date and time the survey result was last updated.
+   *
+   * @return the date and time the survey result was last updated
+   */
+  public Date getUpdated()
+  {
+    return updated;
+  }
+
+  /**
+   * Returns the version of the survey result, which is incremented every time the survey result
+   * is updated.
+   *
+   * @return the version of the survey result
+   */
+  public int getVersion()
+  {
+    return version;
+  }
+
+  /**
+   * Remove the survey response, which was previously added, from the survey result.
+   *
+   * @param surveyResponse the survey response
+   */
+  public void removeResponse(SurveyResponse surveyResponse)
+  {
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      getGroupRatingResultForResponse(groupRatingResponse).removeRating(
+          groupRatingResponse.getRating());
+    }
+
+    if (numberOfResponses > 0)
+    {
+      numberOfResponses--;
+    }
+
+    markUpdated();
+  }
+
+  /**
+   * Remove the survey response, which was previously added, from the survey result using only the
+   * JSON data for the survey response.
+   * <p/>
+   * The ratings for the survey group rating responses are streamed from the JSON data without
+   * creating the survey response or its survey item responses.
+   *
+   * @param data the JSON data for the survey response
+   */
+  public void removeResponseData(String data)
+  {
+    try
+    {
+      SurveyResponseDataReader.read(data,
+          (groupRatingsDefinitionId, groupRatingDefinitionId, groupMemberDefinitionId, rating) ->
+          getGroupRatingResultForResponse(groupRatingsDefinitionId, groupRatingDefinitionId,
+          groupMemberDefinitionId).removeRating(rating));
+    }
+    catch (IOException e)
+    {
+      throw new RuntimeException(
+          "Failed to remove the survey response from the survey result using the JSON data", e);
+    }
+
+    if (numberOfResponses > 0)
+    {
+      numberOfResponses--;
+    }
+
+    markUpdated();
+  }
+
   /**
    * Set the JSON data for the survey result.
    *
@@ -279,7 +515,18 @@ public class SurveyResult
   {
     try
     {
-      new ObjectMapper().readerForUpdating(this).readValue(data);
+      groupRatingsTotals = null;
+
+      EntityDataCodec.readForUpdating(this, data);
+
+      groupRatingResultIndex = null;
+      groupRatingsTotalsIndex = null;
+
+      // Compute the scores and weighted totals if they were not stored with the survey result
+      if (groupRatingsTotals == null)
+      {
+        computeGroupRatingsTotals();
+      }
     }
     catch (Throwable e)
     {
@@ -287,6 +534,18 @@ public class SurveyResult
     }
   }
 
+  /**
+   * Set the number of survey responses the survey result was compiled from.
+   *
+   * @param numberOfResponses the number of survey responses the survey result was compiled from
+   */
+  public void setNumberOfResponses(int numberOfResponses)
+  {
+    this.numberOfResponses = numberOfResponses;
+
+    markUpdated();
+  }
+
   /**
    * Returns the String representation of the survey result.
    *
@@ -297,4 +556,106 @@ public class SurveyResult
   {
     return String.format("SurveyResult {id=\"%s\"}", getId());
   }
+
+  /**
+   * Compute the scores and weighted totals for the survey group ratings definitions from the
+   * survey group rating results.
+   */
+  private void computeGroupRatingsTotals()
+  {
+    Map<UUID, List<SurveyGroupRatingResult>> groupRatingResultsByDefinition =
+        new LinkedHashMap<>();
+
+    for (SurveyGroupRatingResult groupRatingResult : groupRatingResults)
+    {
+      groupRatingResultsByDefinition.computeIfAbsent(
+          groupRatingResult.getGroupRatingsDefinitionId(), groupRatingsDefinitionId ->
+          new ArrayList<>()).add(groupRatingResult);
+    }
+
+    List<SurveyGroupRatingsTotals> totals = new ArrayList<>();
+
+    for (Map.Entry<UUID, List<SurveyGroupRatingResult>> entry :
+        groupRatingResultsByDefinition.entrySet())
+    {
+      totals.add(new SurveyGroupRatingsTotals(entry.getKey(), entry.getValue()));
+    }
+
+    groupRatingsTotals = totals;
+    groupRatingsTotalsIndex = null;
+  }
+
+  private Map<SurveyGroupRatingKey, SurveyGroupRatingResult> getGroupRatingResultIndex()
+  {
+    if (groupRatingResultIndex == null)
+    {
+      Map<SurveyGroupRatingKey, SurveyGroupRatingResult> index = new HashMap<>(
+          (groupRatingResults.size() * 4) / 3 + 1);
+
+      for (SurveyGroupRatingResult groupRatingResult : groupRatingResults)
+      {
+        index.put(new SurveyGroupRatingKey(groupRatingResult.getGroupRatingsDefinitionId(),
+            groupRatingResult.getGroupRatingDefinitionId(),
+            groupRatingResult.getGroupMemberDefinitionId()), groupRatingResult);
+      }
+
+      groupRatingResultIndex = index;
+    }
+
+    return groupRatingResultIndex;
+  }
+
+  private SurveyGroupRatingResult getGroupRatingResultForResponse(
+      SurveyGroupRatingResponse groupRatingResponse)
+  {
+    return getGroupRatingResultForResponse(groupRatingResponse.getGroupRatingsDefinitionId(),
+        groupRatingResponse.getGroupRatingDefinitionId(),
+        groupRatingResponse.getGroupMemberDefinitionId());
+  }
+
+  private SurveyGroupRatingResult getGroupRatingResultForResponse(UUID groupRatingsDefinitionId,
+      UUID groupRatingDefinitionId, UUID groupMemberDefinitionId)
+  {
+    SurveyGroupRatingResult groupRatingResult = getGroupRatingResult(groupRatingsDefinitionId,
+        groupRatingDefinitionId, groupMemberDefinitionId);
+
+    if (groupRatingResult == null)
+    {
+      throw new RuntimeException(
+          "Failed to find a survey group rating result for the survey group rating response with"
+          + " the survey group ratings definition (" + groupRatingsDefinitionId
+          + "), survey group rating definition (" + groupRatingDefinitionId
+          + ") and survey group member definition (" + groupMemberDefinitionId + ")");
+    }
+
+    return groupRatingResult;
+  }
+
+  private Map<UUID, SurveyGroupRatingsTotals> getGroupRatingsTotalsIndex()
+  {
+    if (groupRatingsTotalsIndex == null)
+    {
+      Map<UUID, SurveyGroupRatingsTotals> index = new HashMap<>();
+
+      for (SurveyGroupRatingsTotals totals : groupRatingsTotals)
+      {
+        index.put(totals.getGroupRatingsDefinitionId(), totals);
+      }
+
+      groupRatingsTotalsIndex = index;
+    }
+
+    return groupRatingsTotalsIndex;
+  }
+
+  /**
+   * Record that the survey result has been updated and recompute the precomputed scores and
+   * weighted totals.
+   */
+  private void markUpdated()
+  {
+    updated = new Date();
+
+    computeGroupRatingsTotals();
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+/**
+ * The <code>SurveyResultMode</code> enumeration defines the ways in which the survey result for a
+ * survey instance can be retrieved.
+ * <p/>
+ * A <b>MATERIALIZED</b> survey result is stored in the database and incrementally maintained as
+ * survey responses are saved and deleted. An <b>AGGREGATED</b> survey result is computed on
+ * demand by the database, using a single <code>GROUP BY</code> query, from the normalized survey
+ * group rating responses stored in the SURVEY.SURVEY_RESPONSE_RATINGS table.
+ *
+ * @author Marcus Portmann
+ */
+public enum SurveyResultMode
+{
+  MATERIALIZED(1, "Materialized"), AGGREGATED(2, "Aggregated");
+
+  private String description;
+  private int code;
+
+  SurveyResultMode(int code, String description)
+  {
+    this.code = code;
+    this.description = description;
+  }
+
+  /**
+   * Returns the survey result mode given by the specified numeric code value.
+   *
+   * @param code the numeric code value identifying the survey result mode
+   *
+   * @return the survey result mode given by the specified numeric code value
+   */
+  public static SurveyResultMode fromCode(int code)
+  {
+    switch (code)
+    {
+      case 1:
+        return SurveyResultMode.MATERIALIZED;
+
+      case 2:
+        return SurveyResultMode.AGGREGATED;
+
+      default:
+        return SurveyResultMode.MATERIALIZED;
+    }
+  }
+
+  /**
+   * Returns the numeric code for the survey result mode.
+   *
+   * @return the numeric code for the survey result mode
+   */
+  public int code()
+  {
+    return code;
+  }
+
+  /**
+   * Returns the description for the survey result mode.
+   *
+   * @return the description for the survey result mode
+   */
+  public String description()
+  {
+    return description;
+  }
+
+  /**
+   * Returns the <code>String</code> representation of the numeric code for the survey result mode.
+   *
+   * @return the <code>String</code> representation of the numeric code for the survey result mode
+   */
+  public String getCodeAsString()
+  {
+    return String.valueOf(code);
+  }
+}
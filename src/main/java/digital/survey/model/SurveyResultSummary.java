@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResultSummary</code> class implements the Survey Result Summary entity, which
+ * represents a summary for the materialized results of a survey.
+ * <p/>
+ * The summary is retrieved without the JSON data for the survey result and is used to determine
+ * whether a survey result has changed, e.g. to answer conditional HTTP requests, without
+ * retrieving the survey result or the survey responses it was compiled from.
+ *
+ * @author Marcus Portmann
+ */
+@Entity
+@Table(schema = "SURVEY", name = "SURVEY_RESULTS")
+public class SurveyResultSummary
+  implements Serializable
+{
+  private static final long serialVersionUID = 1000000;
+
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey result.
+   */
+  @Id
+  @Column(name = "ID", nullable = false)
+  private UUID id;
+
+  /**
+   * The survey instance this survey result is associated with.
+   */
+  @SuppressWarnings("unused")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "SURVEY_INSTANCE_ID")
+  private SurveyInstance instance;
+
+  /**
+   * The number of survey responses the survey result was compiled from.
+   */
+  @Column(name = "NUMBER_OF_RESPONSES", nullable = false)
+  private int numberOfResponses;
+
+  /**
+   * The date and time the survey result was last updated.
+   */
+  @Column(name = "UPDATED", nullable = false)
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date updated;
+
+  /**
+   * The version of the survey result, which is incremented every time the survey result is
+   * updated.
+   */
+  @Column(name = "VERSION", nullable = false)
+  private int version;
+
+  /**
+   * Constructs a new <code>SurveyResultSummary</code>.
+   *
+   * Default constructor required for JPA.
+   */
+  @SuppressWarnings("unused")
+  SurveyResultSummary() {}
+
+  /**
+   * Indicates whether some other object is "equal to" this one.
+   *
+   * @param obj the reference object with which to compare
+   *
+   * @return <code>true</code> if this object is the same as the obj argument otherwise
+   *         <code>false</code>
+   */
+  @Override
+  public boolean equals(Object obj)
+  {
+    if (this == obj)
+    {
+      return true;
+    }
+
+    if (obj == null)
+    {
+      return false;
+    }
+
+    if (getClass() != obj.getClass())
+    {
+      return false;
+    }
+
+    SurveyResultSummary other = (SurveyResultSummary) obj;
+
+    return id.equals(other.id);
+  }
+
+  /**
+   * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey result.
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey result
+   */
+  public UUID getId()
+  {
+    return id;
+  }
+
+  /**
+   * Returns the number of survey responses the survey result was compiled from.
+   *
+   * @return the number of survey responses the survey result was compiled from
+   */
+  public int getNumberOfResponses()
+  {
+    return numberOfResponses;
+  }
+
+  /**
+   * Returns the date and time the survey result was last updated.
+   *
+   * @return the date and time the survey result was last updated
+   */
+  public Date getUpdated()
+  {
+    return updated;
+  }
+
+  /**
+   * Returns the version of the survey result, which is incremented every time the survey result
+   * is updated.
+   *
+   * @return the version of the survey result
+   */
+  public int getVersion()
+  {
+    return version;
+  }
+
+  /**
+   * Returns the String representation of the survey result summary.
+   *
+   * @return the String representation of the survey result summary
+   */
+  @Override
+  public String toString()
+  {
+    return String.format("SurveyResultSummary {id=\"%s\", numberOfResponses=\"%d\","
+        + " version=\"%d\"}", id, numberOfResponses, version);
+  }
+}
@@ -75,6 +75,22 @@ public class SurveySectionDefinition extends SurveyItemDefinition
     this.itemDefinitions = new ArrayList<>();
   }
 
+  /**
+   * Constructs a new <code>SurveySectionDefinition</code> that is a copy of the specified survey
+   * section definition.
+   *
+   * @param sectionDefinition the survey section definition to copy
+   */
+  private SurveySectionDefinition(SurveySectionDefinition sectionDefinition)
+  {
+    super(sectionDefinition);
+
+    if (sectionDefinition.itemDefinitions != null)
+    {
+      this.itemDefinitions = SurveyItemDefinition.duplicate(sectionDefinition.itemDefinitions);
+    }
+  }
+
   /**
    * Add the survey item definition to the survey section definition.
    *
@@ -224,4 +240,15 @@ public class SurveySectionDefinition extends SurveyItemDefinition
 
     return buffer.toString();
   }
+
+  /**
+   * Duplicate (deep-copy) this survey section definition.
+   *
+   * @return the duplicated (deep-copied) survey section definition
+   */
+  @Override
+  SurveySectionDefinition duplicate()
+  {
+    return new SurveySectionDefinition(this);
+  }
 }
@@ -16,6 +16,8 @@ package digital.survey.model;
 import digital.survey.web.SurveyApplication;
 import guru.mmp.application.configuration.IConfigurationService;
 import guru.mmp.application.util.ServiceUtil;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,18 +25,33 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 
+import java.sql.DatabaseMetaData;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 //~--- JDK imports ------------------------------------------------------------
 
@@ -52,13 +69,70 @@ public class SurveyService
   @SuppressWarnings("unused")
   private static final Logger logger = LoggerFactory.getLogger(SurveyService.class);
 
+  /**
+   * The maximum number of survey responses retrieved in a single batch when compiling a survey
+   * result.
+   */
+  private static final int SURVEY_RESULT_COMPILATION_BATCH_SIZE = 500;
+
+  /**
+   * The maximum number of rows inserted into the SURVEY.SURVEY_RESPONSES table using a single
+   * multi-row INSERT statement.
+   */
+  private static final int SURVEY_RESPONSES_INSERT_BATCH_SIZE = 100;
+
+  /**
+   * The maximum number of rows inserted into the SURVEY.SURVEY_RESPONSE_RATINGS table using a
+   * single multi-row INSERT statement.
+   */
+  private static final int SURVEY_RESPONSE_RATINGS_INSERT_BATCH_SIZE = 100;
+
+  /**
+   * The maximum number of rows inserted into the SURVEY.SURVEY_REQUESTS table using a single
+   * multi-row INSERT statement.
+   */
+  private static final int SURVEY_REQUESTS_INSERT_BATCH_SIZE = 100;
+
   /* The name of the Survey Service instance. */
   private String instanceName = ServiceUtil.getServiceInstanceName("Survey Service");
 
   /**
-   * The delay in milliseconds between attempts to retry sending a survey request.
+   * The duration in milliseconds of the lease on the lock for a survey request that is being sent,
+   * after which the survey request can be reclaimed by any Survey Service instance if the lease has
+   * not been renewed.
+   */
+  public static final long SURVEY_REQUEST_LOCK_LEASE_DURATION = 5L * 60L * 1000L;
+
+  /**
+   * The initial delay in milliseconds before retrying to send a survey request that could not be
+   * sent, which is doubled for each subsequent failed send attempt.
+   */
+  private static final long SEND_SURVEY_REQUEST_INITIAL_RETRY_DELAY = 60L * 1000L;
+
+  /**
+   * The maximum delay in milliseconds before retrying to send a survey request that could not be
+   * sent.
+   */
+  private static final long SEND_SURVEY_REQUEST_MAXIMUM_RETRY_DELAY = 4L * 60L * 60L * 1000L;
+
+  /**
+   * The maximum number of survey audience members processed by a survey request job in a single
+   * transaction.
+   */
+  private static final int SURVEY_REQUEST_JOB_CHUNK_SIZE = 500;
+
+  /**
+   * The duration in milliseconds of the lease on the lock for a survey request job that is being
+   * processed, after which the survey request job can be reclaimed by any Survey Service instance
+   * if the lease has not been renewed. The lease is renewed for every chunk of survey audience
+   * members processed.
    */
-  private long SEND_SURVEY_REQUEST_RETRY_DELAY = 60L * 5L * 1000L;
+  private static final long SURVEY_REQUEST_JOB_LOCK_LEASE_DURATION = 5L * 60L * 1000L;
+
+  /**
+   * Does the database support <code>SELECT ... FOR UPDATE SKIP LOCKED</code>?
+   */
+  private volatile Boolean skipLockedSupported;
 
   /* Entity Manager */
   @PersistenceContext(unitName = "applicationPersistenceUnit")
@@ -68,6 +142,10 @@ public class SurveyService
   @Inject
   private IConfigurationService configurationService;
 
+  /* Mail Helper */
+  @Inject
+  private MailHelper mailHelper;
+
   /**
    * The Spring application context.
    */
@@ -82,6 +160,129 @@ public class SurveyService
 
   }
 
+  /**
+   * Backfill the SURVEY.SURVEY_RESPONSE_RATINGS table for the next survey instance, ordered by ID,
+   * after the survey instance with the specified ID using the JSON data for its survey responses.
+   *
+   * @param lastSurveyInstanceId the Universally Unique Identifier (UUID) used to uniquely identify
+   *                             the last survey instance that was backfilled or <code>null</code>
+   *                             to backfill the first survey instance
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey instance
+   *         that was backfilled or <code>null</code> if there are no more survey instances to
+   *         backfill
+   */
+  @Transactional
+  public UUID backfillSurveyResponseRatings(UUID lastSurveyInstanceId)
+    throws SurveyServiceException
+  {
+    try
+    {
+      TypedQuery<UUID> query;
+
+      if (lastSurveyInstanceId == null)
+      {
+        query = entityManager.createQuery("SELECT si.id FROM SurveyInstance si ORDER BY si.id",
+            UUID.class);
+      }
+      else
+      {
+        query = entityManager.createQuery("SELECT si.id FROM SurveyInstance si"
+            + " WHERE si.id > :lastId ORDER BY si.id", UUID.class);
+
+        query.setParameter("lastId", lastSurveyInstanceId);
+      }
+
+      query.setMaxResults(1);
+
+      List<UUID> surveyInstanceIds = query.getResultList();
+
+      if (surveyInstanceIds.size() == 0)
+      {
+        return null;
+      }
+
+      UUID surveyInstanceId = surveyInstanceIds.get(0);
+
+      // Serialize with concurrent updates to the survey responses for the survey instance
+      lockSurveyInstance(surveyInstanceId);
+
+      Query deleteQuery = entityManager.createNativeQuery(
+          "DELETE FROM SURVEY.SURVEY_RESPONSE_RATINGS WHERE SURVEY_INSTANCE_ID=?1");
+
+      deleteQuery.setParameter(1, surveyInstanceId);
+
+      deleteQuery.executeUpdate();
+
+      processSurveyResponsesForSurveyInstance(surveyInstanceId, (surveyResponseId, data) ->
+      {
+        SurveyResponse surveyResponse = new SurveyResponse();
+
+        surveyResponse.setData(data);
+
+        insertSurveyResponseRatings(surveyResponseId, surveyInstanceId,
+            surveyResponse.getGroupRatingResponses());
+      });
+
+      return surveyInstanceId;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to backfill the survey response ratings for the next survey instance after ("
+          + lastSurveyInstanceId + ")", e);
+    }
+  }
+
+  /**
+   * Create a survey request job that will send a survey request, for the survey instance with
+   * the specified ID, to all survey audience members for the survey audience in the background.
+   * <p/>
+   * The survey request job is processed by the Background Survey Request Job Processor once the
+   * transaction has been committed.
+   *
+   * @param surveyInstanceId the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                         survey instance that the survey requests should be sent for
+   * @param audience         the survey audience
+   *
+   * @return the survey request job
+   */
+  @Transactional
+  public SurveyRequestJob createSurveyRequestJob(UUID surveyInstanceId, SurveyAudience audience)
+    throws SurveyServiceException
+  {
+    try
+    {
+      SurveyInstance surveyInstance = getSurveyInstance(surveyInstanceId);
+
+      if (surveyInstance == null)
+      {
+        throw new SurveyServiceException("Failed to find the survey instance ("
+            + surveyInstanceId + ")");
+      }
+
+      SurveyRequestJob surveyRequestJob = new SurveyRequestJob(surveyInstance, entityManager
+          .getReference(SurveyAudience.class, audience.getId()),
+          getNumberOfMembersForSurveyAudience(audience.getId()));
+
+      entityManager.persist(surveyRequestJob);
+
+      processSurveyRequestJobs();
+
+      return surveyRequestJob;
+    }
+    catch (SurveyServiceException e)
+    {
+      throw e;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to create the survey request job for the survey instance (" + surveyInstanceId
+          + ") and the audience (" + audience.getId() + ")", e);
+    }
+  }
+
   /**
    * Delete the survey audience.
    *
@@ -368,6 +569,9 @@ public class SurveyService
     {
       if (entityManager.contains(surveyRequest))
       {
+        // Delete the survey response explicitly so that the survey result is updated
+        deleteSurveyResponseForSurveyRequest(surveyRequest.getId());
+
         entityManager.remove(surveyRequest);
         entityManager.flush();
 
@@ -399,6 +603,9 @@ public class SurveyService
   {
     try
     {
+      // Delete the survey response explicitly so that the survey result is updated
+      deleteSurveyResponseForSurveyRequest(id);
+
       Query query = entityManager.createQuery("delete from SurveyRequest sr where sr.id = :id");
 
       query.setParameter("id", id);
@@ -427,6 +634,8 @@ public class SurveyService
     {
       if (entityManager.contains(surveyResponse))
       {
+        removeSurveyResponseFromSurveyResult(surveyResponse);
+
         entityManager.remove(surveyResponse);
         entityManager.flush();
 
@@ -458,6 +667,15 @@ public class SurveyService
   {
     try
     {
+      SurveyResponse surveyResponse = getSurveyResponse(id);
+
+      if (surveyResponse != null)
+      {
+        removeSurveyResponseFromSurveyResult(surveyResponse);
+
+        entityManager.detach(surveyResponse);
+      }
+
       Query query = entityManager.createQuery("delete from SurveyResponse sr where sr.id = :id");
 
       query.setParameter("id", id);
@@ -487,6 +705,15 @@ public class SurveyService
   {
     try
     {
+      SurveyResponse surveyResponse = getSurveyResponseForSurveyRequest(id);
+
+      if (surveyResponse != null)
+      {
+        removeSurveyResponseFromSurveyResult(surveyResponse);
+
+        entityManager.detach(surveyResponse);
+      }
+
       String sql = "DELETE FROM SurveyResponse sr WHERE sr.request.id = :id";
 
       Query query = entityManager.createQuery(sql);
@@ -518,14 +745,15 @@ public class SurveyService
     try
     {
       String sql = "SELECT sam FROM SurveyAudienceMember sam"
-          + " WHERE sam.audience.id = :id AND ((UPPER(sam.firstName) LIKE :filter)"
-          + " OR (UPPER(sam.lastName) LIKE :filter) OR (UPPER(sam.email) LIKE :filter))";
+          + " WHERE sam.audience.id = :id AND ((UPPER(sam.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sam.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sam.email) LIKE :filter ESCAPE '\\'))";
 
       TypedQuery<SurveyAudienceMember> query = entityManager.createQuery(sql,
           SurveyAudienceMember.class);
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return query.getResultList();
     }
@@ -537,6 +765,53 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of filtered survey audience members for the survey audience, sorted by last
+   * name and first name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      survey audience
+   * @param filter        the filter used to limit the matching survey audience members
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of filtered survey audience members for the survey audience
+   */
+  @Transactional
+  public List<SurveyAudienceMember> getFilteredMembersForSurveyAudience(UUID id, String filter,
+      int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT sam FROM SurveyAudienceMember sam"
+          + " WHERE sam.audience.id = :id AND ((UPPER(sam.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sam.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sam.email) LIKE :filter ESCAPE '\\'))"
+          + " ORDER BY sam.lastName %1$s, sam.firstName %1$s, sam.id %1$s",
+          getSortDirectionSql(sortDirection));
+
+      TypedQuery<SurveyAudienceMember> query = entityManager.createQuery(sql,
+          SurveyAudienceMember.class);
+
+      query.setParameter("id", id);
+      query.setParameter("filter", getFilterPattern(filter));
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of survey audience members for the survey audience with"
+          + " ID (" + id + ") matching the filter (" + filter + ")", e);
+    }
+  }
+
   /**
    * Retrieve the filtered survey audiences for the organisation.
    *
@@ -553,12 +828,12 @@ public class SurveyService
     try
     {
       String sql = "SELECT sa FROM SurveyAudience sa WHERE sa.organisation.id = :id"
-          + " AND (UPPER(sa.name) LIKE :filter)";
+          + " AND (UPPER(sa.name) LIKE :filter ESCAPE '\\')";
 
       TypedQuery<SurveyAudience> query = entityManager.createQuery(sql, SurveyAudience.class);
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return query.getResultList();
     }
@@ -570,6 +845,48 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of filtered survey audiences for the organisation, sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      organisation
+   * @param filter        the filter used to limit the matching survey audiences
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of filtered survey audiences for the organisation
+   */
+  @Transactional
+  public List<SurveyAudience> getFilteredSurveyAudiencesForOrganisation(UUID id, String filter,
+      int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT sa FROM SurveyAudience sa WHERE sa.organisation.id = :id"
+          + " AND (UPPER(sa.name) LIKE :filter ESCAPE '\\') ORDER BY sa.name %1$s, sa.id %1$s",
+          getSortDirectionSql(sortDirection));
+
+      TypedQuery<SurveyAudience> query = entityManager.createQuery(sql, SurveyAudience.class);
+
+      query.setParameter("id", id);
+      query.setParameter("filter", getFilterPattern(filter));
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of survey audiences for the organisation with ID (" + id
+          + ") matching the filter (" + filter + ")", e);
+    }
+  }
+
   /**
    * Retrieve the summaries for the latest versions of the filtered survey definitions for the
    * organisation.
@@ -592,12 +909,12 @@ public class SurveyService
       String sql = "SELECT SD.ID, SD.VERSION, SD.NAME FROM SURVEY.SURVEY_DEFINITIONS SD"
           + " JOIN (SELECT ID, MAX(VERSION) AS LATEST_VERSION FROM SURVEY.SURVEY_DEFINITIONS"
           + " GROUP BY ID) LATEST ON (SD.VERSION = LATEST.LATEST_VERSION AND SD.ID = LATEST.ID)"
-          + " WHERE SD.ORGANISATION_ID = ?1 AND UPPER(SD.NAME) LIKE ?2";
+          + " WHERE SD.ORGANISATION_ID = ?1 AND UPPER(SD.NAME) LIKE ?2 ESCAPE '\\'";
 
       Query query = entityManager.createNativeQuery(sql, SurveyDefinitionSummary.class);
 
       query.setParameter(1, id);
-      query.setParameter(2, "%" + filter.toUpperCase() + "%");
+      query.setParameter(2, getFilterPattern(filter));
 
       return query.getResultList();
     }
@@ -609,6 +926,54 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of summaries for the latest versions of the filtered survey definitions for
+   * the organisation, sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      organisation
+   * @param filter        the filter used to limit the matching survey definitions
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of summaries for the latest versions of the filtered survey definitions for
+   *         the organisation
+   */
+  @Transactional
+  @SuppressWarnings("unchecked")
+  public List<SurveyDefinitionSummary> getFilteredSurveyDefinitionSummariesForOrganisation(UUID id,
+      String filter, int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT SD.ID, SD.VERSION, SD.NAME FROM SURVEY.SURVEY_DEFINITIONS SD"
+          + " JOIN (SELECT ID, MAX(VERSION) AS LATEST_VERSION FROM SURVEY.SURVEY_DEFINITIONS"
+          + " GROUP BY ID) LATEST ON (SD.VERSION = LATEST.LATEST_VERSION AND SD.ID = LATEST.ID)"
+          + " WHERE SD.ORGANISATION_ID = ?1 AND UPPER(SD.NAME) LIKE ?2 ESCAPE '\\'"
+          + " ORDER BY SD.NAME %1$s, SD.ID %1$s",
+          getSortDirectionSql(sortDirection));
+
+      Query query = entityManager.createNativeQuery(sql, SurveyDefinitionSummary.class);
+
+      query.setParameter(1, id);
+      query.setParameter(2, getFilterPattern(filter));
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of summaries for the filtered latest versions of the"
+          + " survey definitions for the organisation with ID (" + id + ")", e);
+    }
+  }
+
   /**
    * Retrieve the filtered survey instances for all versions of the survey definition.
    *
@@ -624,13 +989,13 @@ public class SurveyService
   {
     try
     {
-      String sql = "SELECT si FROM SurveyInstance si JOIN si.definition sd"
-          + " WHERE sd.id = :id AND (UPPER(si.name) LIKE :filter)";
+      String sql = "SELECT si FROM SurveyInstance si JOIN FETCH si.definition sd"
+          + " WHERE sd.id = :id AND (UPPER(si.name) LIKE :filter ESCAPE '\\')";
 
       TypedQuery<SurveyInstance> query = entityManager.createQuery(sql, SurveyInstance.class);
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return query.getResultList();
     }
@@ -642,6 +1007,50 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of filtered survey instances for all versions of the survey definition,
+   * sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      definition the survey instances are associated with
+   * @param filter        the filter used to limit the matching survey instances
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of filtered survey instances for all versions of the survey definition
+   */
+  @Transactional
+  public List<SurveyInstance> getFilteredSurveyInstancesForSurveyDefinition(UUID id, String filter,
+      int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT si FROM SurveyInstance si JOIN FETCH si.definition sd"
+          + " WHERE sd.id = :id AND (UPPER(si.name) LIKE :filter ESCAPE '\\')"
+          + " ORDER BY si.name %1$s, si.id %1$s",
+          getSortDirectionSql(sortDirection));
+
+      TypedQuery<SurveyInstance> query = entityManager.createQuery(sql, SurveyInstance.class);
+
+      query.setParameter("id", id);
+      query.setParameter("filter", getFilterPattern(filter));
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of filtered survey instances for the survey definition"
+          + " with ID (" + id + ")", e);
+    }
+  }
+
   /**
    * Retrieve the filtered survey requests for the survey instance.
    *
@@ -658,13 +1067,14 @@ public class SurveyService
     try
     {
       String sql = "SELECT sr FROM SurveyRequest sr JOIN sr.instance si WHERE si.id = :id"
-          + " AND ((UPPER(sr.firstName) LIKE :filter) OR (UPPER(sr.lastName) LIKE :filter)"
-          + " OR (UPPER(sr.email) LIKE :filter))";
+          + " AND ((UPPER(sr.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sr.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sr.email) LIKE :filter ESCAPE '\\'))";
 
       TypedQuery<SurveyRequest> query = entityManager.createQuery(sql, SurveyRequest.class);
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return query.getResultList();
     }
@@ -676,6 +1086,52 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of filtered survey requests for the survey instance, sorted by last name and
+   * first name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      instance the survey requests are associated with
+   * @param filter        the filter used to limit the matching survey requests
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of filtered survey requests for the survey instance
+   */
+  @Transactional
+  public List<SurveyRequest> getFilteredSurveyRequestsForSurveyInstance(UUID id, String filter,
+      int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT sr FROM SurveyRequest sr JOIN sr.instance si WHERE si.id = :id"
+          + " AND ((UPPER(sr.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sr.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sr.email) LIKE :filter ESCAPE '\\'))"
+          + " ORDER BY sr.lastName %1$s, sr.firstName %1$s, sr.id %1$s",
+          getSortDirectionSql(sortDirection));
+
+      TypedQuery<SurveyRequest> query = entityManager.createQuery(sql, SurveyRequest.class);
+
+      query.setParameter("id", id);
+      query.setParameter("filter", getFilterPattern(filter));
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of filtered survey requests for the survey instance with"
+          + " ID (" + id + ")", e);
+    }
+  }
+
   /**
    * Retrieve the summaries for the filtered survey responses for the survey instance.
    *
@@ -693,14 +1149,16 @@ public class SurveyService
     try
     {
       String sql = "SELECT srs FROM SurveyResponseSummary srs JOIN srs.instance si"
-          + " JOIN srs.request req WHERE si.id = :id AND ((UPPER(req.firstName) LIKE :filter)"
-          + " OR (UPPER(req.lastName) LIKE :filter) OR (UPPER(req.email) LIKE :filter))";
+          + " JOIN FETCH srs.request req WHERE si.id = :id"
+          + " AND ((UPPER(req.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(req.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(req.email) LIKE :filter ESCAPE '\\'))";
 
       TypedQuery<SurveyResponseSummary> query = entityManager.createQuery(sql,
           SurveyResponseSummary.class);
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return query.getResultList();
     }
@@ -712,40 +1170,88 @@ public class SurveyService
   }
 
   /**
-   * Retrieve the latest version number for the survey definition.
+   * Retrieve the page of summaries for the filtered survey responses for the survey instance,
+   * sorted by date and time the survey responses were received.
    *
-   * @param id the Universally Unique Identifier (UUID) used to identify the survey definition
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      instance the survey responses are associated with
+   * @param filter        the filter used to limit the matching survey responses
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
    *
-   * @return the latest version number for the survey definition or 0 if the survey definition
-   *         could not be found
+   * @return the page of summaries for the filtered survey responses for the survey instance
    */
   @Transactional
-  public int getLatestVersionNumberForSurveyDefinition(UUID id)
+  public List<SurveyResponseSummary> getFilteredSurveyResponseSummariesForSurveyInstance(UUID id,
+      String filter, int offset, int limit, SortDirection sortDirection)
     throws SurveyServiceException
   {
     try
     {
-      String sql = "SELECT MAX(sd.version) FROM SurveyDefinition sd WHERE sd.id = :id";
+      String sql = String.format(
+          "SELECT srs FROM SurveyResponseSummary srs JOIN srs.instance si"
+          + " JOIN FETCH srs.request req WHERE si.id = :id"
+          + " AND ((UPPER(req.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(req.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(req.email) LIKE :filter ESCAPE '\\'))"
+          + " ORDER BY srs.responded %1$s, srs.id %1$s",
+          getSortDirectionSql(sortDirection));
 
-      Query query = entityManager.createQuery(sql);
+      TypedQuery<SurveyResponseSummary> query = entityManager.createQuery(sql,
+          SurveyResponseSummary.class);
 
       query.setParameter("id", id);
+      query.setParameter("filter", getFilterPattern(filter));
 
-      return ((Number) query.getSingleResult()).intValue();
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
     }
     catch (Throwable e)
     {
       throw new SurveyServiceException(
-          "Failed to retrieve the latest version number for the survey definition with ID (" + id
-          + ")", e);
+          "Failed to retrieve the page of summaries for the filtered survey"
+          + " responses for the survey instance with ID (" + id + ")", e);
     }
   }
 
   /**
-   * Retrieve the latest version of the survey definition identified by the specified ID.
+   * Retrieve the latest version number for the survey definition.
    *
-   * @param id the Universally Unique Identifier (UUID) used to, along with the version of the
-   *           survey definition, uniquely identify the survey definition
+   * @param id the Universally Unique Identifier (UUID) used to identify the survey definition
+   *
+   * @return the latest version number for the survey definition or 0 if the survey definition
+   *         could not be found
+   */
+  @Transactional
+  public int getLatestVersionNumberForSurveyDefinition(UUID id)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = "SELECT MAX(sd.version) FROM SurveyDefinition sd WHERE sd.id = :id";
+
+      Query query = entityManager.createQuery(sql);
+
+      query.setParameter("id", id);
+
+      return ((Number) query.getSingleResult()).intValue();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the latest version number for the survey definition with ID (" + id
+          + ")", e);
+    }
+  }
+
+  /**
+   * Retrieve the latest version of the survey definition identified by the specified ID.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to, along with the version of the
+   *           survey definition, uniquely identify the survey definition
    *
    * @return the latest version of the survey definition identified by the specified ID
    */
@@ -834,59 +1340,132 @@ public class SurveyService
   }
 
   /**
-   * Retrieve the next survey request that has been queued for sending.
-   * <p/>
-   * The survey request will be locked to prevent duplicate sending.
+   * Retrieve the page of survey audience members for the survey audience, sorted by last name and
+   * first name.
    *
-   * @return the next survey request that has been queued for sending or <code>null</code> if no
-   *         survey requests are currently queued for sending
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      survey audience
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of survey audience members for the survey audience
    */
-  @SuppressWarnings("unchecked")
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
-  public SurveyRequest getNextSurveyRequestQueuedForSending()
+  @Transactional
+  public List<SurveyAudienceMember> getMembersForSurveyAudience(UUID id, int offset, int limit,
+      SortDirection sortDirection)
     throws SurveyServiceException
   {
     try
     {
-      String selectSQL =
-          "SELECT ID, SURVEY_INSTANCE_ID, FIRST_NAME, LAST_NAME, EMAIL, REQUESTED, STATUS, SEND_ATTEMPTS, LOCK_NAME, LAST_PROCESSED FROM SURVEY.SURVEY_REQUESTS WHERE STATUS=?1 AND (LAST_PROCESSED<?2 OR LAST_PROCESSED IS NULL) FETCH FIRST 1 ROWS ONLY FOR UPDATE";
+      String sql = String.format(
+          "SELECT sam FROM SurveyAudienceMember sam WHERE sam.audience.id = :id"
+          + " ORDER BY sam.lastName %1$s, sam.firstName %1$s, sam.id %1$s",
+          getSortDirectionSql(sortDirection));
 
-      Query selectQuery = entityManager.createNativeQuery(selectSQL, SurveyRequest.class);
-
-      Timestamp processedBefore = new Timestamp(System.currentTimeMillis()
-          - SEND_SURVEY_REQUEST_RETRY_DELAY);
+      TypedQuery<SurveyAudienceMember> query = entityManager.createQuery(sql,
+          SurveyAudienceMember.class);
 
-      selectQuery.setParameter(1, SurveyRequestStatus.QUEUED_FOR_SENDING.code());
-      selectQuery.setParameter(2, processedBefore);
+      query.setParameter("id", id);
 
-      List<SurveyRequest> surveyRequests = selectQuery.getResultList();
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
 
-      SurveyRequest surveyRequest = null;
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of survey audience members for the survey audience with"
+          + " ID (" + id + ")", e);
+    }
+  }
 
-      if (surveyRequests.size() > 0)
-      {
-        surveyRequest = surveyRequests.get(0);
+  /**
+   * Retrieve the next survey request job that has been queued for processing.
+   * <p/>
+   * The survey request job will be given the status <b>Running</b> and locked using the name of
+   * the Survey Service instance, with a lease that is renewed for every chunk of survey audience
+   * members processed, to prevent duplicate processing. The survey request jobs whose lease has
+   * expired, because the Survey Service instance processing them stopped, are reclaimed.
+   *
+   * @return the next survey request job that has been queued for processing or <code>null</code>
+   *         if no survey request jobs are currently queued for processing
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public SurveyRequestJob getNextSurveyRequestJobQueuedForProcessing()
+    throws SurveyServiceException
+  {
+    try
+    {
+      Timestamp now = new Timestamp(System.currentTimeMillis());
 
-        surveyRequest.setStatus(SurveyRequestStatus.SENDING);
-        surveyRequest.setLockName(instanceName);
+      TypedQuery<UUID> selectQuery = entityManager.createQuery(
+          "SELECT srj.id FROM SurveyRequestJob srj WHERE srj.status = :queuedStatus"
+          + " OR (srj.status = :runningStatus AND srj.lockExpires < :now) ORDER BY srj.created",
+          UUID.class);
 
-        String lockSQL = "UPDATE SURVEY.SURVEY_REQUESTS SET STATUS=?1, LOCK_NAME=?2 WHERE ID=?3";
+      selectQuery.setParameter("queuedStatus", SurveyRequestJobStatus.QUEUED);
+      selectQuery.setParameter("runningStatus", SurveyRequestJobStatus.RUNNING);
+      selectQuery.setParameter("now", now);
+      selectQuery.setMaxResults(10);
 
-        Query lockQuery = entityManager.createNativeQuery(lockSQL);
+      for (UUID id : selectQuery.getResultList())
+      {
+        Query lockQuery = entityManager.createNativeQuery(
+            "UPDATE SURVEY.SURVEY_REQUEST_JOBS SET STATUS=?1, LOCK_NAME=?2, LOCK_EXPIRES=?3,"
+            + " UPDATED=?4 WHERE ID=?5 AND (STATUS=?6 OR (STATUS=?7 AND LOCK_EXPIRES<?8))");
 
-        lockQuery.setParameter(1, SurveyRequestStatus.SENDING.code());
+        lockQuery.setParameter(1, SurveyRequestJobStatus.RUNNING.code());
         lockQuery.setParameter(2, instanceName);
-        lockQuery.setParameter(3, surveyRequest.getId());
-
-        if (lockQuery.executeUpdate() != 1)
+        lockQuery.setParameter(3, new Timestamp(now.getTime()
+            + SURVEY_REQUEST_JOB_LOCK_LEASE_DURATION));
+        lockQuery.setParameter(4, now);
+        lockQuery.setParameter(5, id);
+        lockQuery.setParameter(6, SurveyRequestJobStatus.QUEUED.code());
+        lockQuery.setParameter(7, SurveyRequestJobStatus.RUNNING.code());
+        lockQuery.setParameter(8, now);
+
+        // Skip the survey request jobs that have been locked by another Survey Service instance
+        if (lockQuery.executeUpdate() == 1)
         {
-          throw new SurveyServiceException(String.format(
-              "No rows were affected as a result of executing the SQL statement (%s)", lockSQL));
-
+          return getSurveyRequestJob(id);
         }
       }
 
-      return surveyRequest;
+      return null;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the next survey request job that has been queued for processing", e);
+    }
+  }
+
+  /**
+   * Retrieve the next survey request that has been queued for sending.
+   * <p/>
+   * The survey request will be locked to prevent duplicate sending.
+   *
+   * @return the next survey request that has been queued for sending or <code>null</code> if no
+   *         survey requests are currently queued for sending
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public SurveyRequest getNextSurveyRequestQueuedForSending()
+    throws SurveyServiceException
+  {
+    try
+    {
+      List<SurveyRequest> surveyRequests = claimSurveyRequestsQueuedForSending(1);
+
+      if (surveyRequests.size() > 0)
+      {
+        return surveyRequests.get(0);
+      }
+      else
+      {
+        return null;
+      }
     }
     catch (Throwable e)
     {
@@ -895,6 +1474,74 @@ public class SurveyService
     }
   }
 
+  /**
+   * Returns the date and time at which the next survey request will be due to be sent.
+   * <p/>
+   * This is the earlier of the date and time at which the next survey request queued for sending
+   * is due to be sent and the date and time at which the next lease on the lock for a survey
+   * request being sent expires, after which the survey request can be reclaimed.
+   *
+   * @return the date and time at which the next survey request will be due to be sent or
+   *         <code>null</code> if no survey requests are queued for sending or being sent
+   */
+  @Transactional
+  public Date getNextSurveyRequestSendTime()
+    throws SurveyServiceException
+  {
+    try
+    {
+      Query query = entityManager.createNativeQuery("SELECT MIN(NEXT_SEND_TIME) FROM ("
+          + "SELECT MIN(NEXT_ATTEMPT_AT) AS NEXT_SEND_TIME FROM SURVEY.SURVEY_REQUESTS"
+          + " WHERE STATUS=?1 UNION ALL SELECT MIN(LOCK_EXPIRES) AS NEXT_SEND_TIME"
+          + " FROM SURVEY.SURVEY_REQUESTS WHERE STATUS=?2) NEXT_SEND_TIMES");
+
+      query.setParameter(1, SurveyRequestStatus.QUEUED_FOR_SENDING.code());
+      query.setParameter(2, SurveyRequestStatus.SENDING.code());
+
+      Date nextAttemptAt = (Date) query.getSingleResult();
+
+      return (nextAttemptAt == null)
+          ? null
+          : new Date(nextAttemptAt.getTime());
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the time at which the next survey request will be due to be sent", e);
+    }
+  }
+
+  /**
+   * Retrieve the next survey requests that have been queued for sending.
+   * <p/>
+   * The survey requests are claimed atomically, in a single transaction, and are returned with the
+   * status <b>Sending</b> and locked using the name of the Survey Service instance to prevent
+   * duplicate sending. Where the database supports it, the survey requests that have already been
+   * locked by another Survey Service instance are skipped rather than waited for. The survey
+   * requests whose lock lease has expired are reclaimed, which counts as a send attempt, or given
+   * the status <b>Failed</b> if they have reached the maximum number of send attempts.
+   *
+   * @param maximumNumberOfSurveyRequests the maximum number of survey requests to retrieve
+   *
+   * @return the next survey requests that have been queued for sending
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public List<SurveyRequest> getNextSurveyRequestsQueuedForSending(
+      int maximumNumberOfSurveyRequests)
+    throws SurveyServiceException
+  {
+    try
+    {
+      return claimSurveyRequestsQueuedForSending(maximumNumberOfSurveyRequests);
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(String.format(
+          "Failed to retrieve the next %d survey requests that have been queued for sending",
+          maximumNumberOfSurveyRequests), e);
+    }
+  }
+
   /**
    * Returns the number of filtered survey audience members for the survey audience.
    *
@@ -911,11 +1558,12 @@ public class SurveyService
     try
     {
       Query query = entityManager.createQuery("SELECT COUNT(sam.id) FROM SurveyAudienceMember sam "
-          + " WHERE sam.audience.id = :id AND ((UPPER(sam.firstName) LIKE :filter)"
-          + " OR (UPPER(sam.lastName) LIKE :filter) OR (UPPER(sam.email) LIKE :filter))");
+          + " WHERE sam.audience.id = :id AND ((UPPER(sam.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sam.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sam.email) LIKE :filter ESCAPE '\\'))");
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return ((Number) query.getSingleResult()).intValue();
     }
@@ -943,10 +1591,10 @@ public class SurveyService
     try
     {
       Query query = entityManager.createQuery("SELECT COUNT(sa.id) FROM SurveyAudience sa"
-          + " WHERE sa.organisation.id = :id AND (UPPER(sa.name) LIKE :filter)");
+          + " WHERE sa.organisation.id = :id AND (UPPER(sa.name) LIKE :filter ESCAPE '\\')");
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return ((Number) query.getSingleResult()).intValue();
     }
@@ -974,12 +1622,12 @@ public class SurveyService
     try
     {
       String sql = "SELECT COUNT(DISTINCT SD.ID) FROM SURVEY.SURVEY_DEFINITIONS SD"
-          + " WHERE SD.ORGANISATION_ID = ?1 AND UPPER(SD.NAME) LIKE ?2";
+          + " WHERE SD.ORGANISATION_ID = ?1 AND UPPER(SD.NAME) LIKE ?2 ESCAPE '\\'";
 
       Query query = entityManager.createNativeQuery(sql);
 
       query.setParameter(1, id);
-      query.setParameter(2, "%" + filter.toUpperCase() + "%");
+      query.setParameter(2, getFilterPattern(filter));
 
       return ((Number) query.getSingleResult()).intValue();
     }
@@ -1005,13 +1653,13 @@ public class SurveyService
   {
     try
     {
-      String sql = "SELECT si FROM SurveyInstance si JOIN si.definition sd"
-          + " WHERE sd.id = :id AND (UPPER(si.name) LIKE :filter)";
+      String sql = "SELECT COUNT(si.id) FROM SurveyInstance si JOIN si.definition sd"
+          + " WHERE sd.id = :id AND (UPPER(si.name) LIKE :filter ESCAPE '\\')";
 
       Query query = entityManager.createQuery(sql);
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return ((Number) query.getSingleResult()).intValue();
     }
@@ -1040,13 +1688,14 @@ public class SurveyService
     {
       String sql =
           "SELECT COUNT(sr.id) FROM SurveyRequest sr JOIN sr.instance si WHERE si.id = :id"
-          + " AND ((UPPER(sr.firstName) LIKE :filter) OR (UPPER(sr.lastName) LIKE :filter)"
-          + " OR (UPPER(sr.email) LIKE :filter))";
+          + " AND ((UPPER(sr.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sr.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(sr.email) LIKE :filter ESCAPE '\\'))";
 
       Query query = entityManager.createQuery(sql);
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return ((Number) query.getSingleResult()).intValue();
     }
@@ -1074,13 +1723,15 @@ public class SurveyService
     try
     {
       String sql = "SELECT COUNT(sr.id) FROM SurveyResponse sr JOIN sr.instance si"
-          + " JOIN sr.request req WHERE si.id = :id AND ((UPPER(req.firstName) LIKE :filter)"
-          + " OR (UPPER(req.lastName) LIKE :filter) OR (UPPER(req.email) LIKE :filter))";
+          + " JOIN sr.request req WHERE si.id = :id"
+          + " AND ((UPPER(req.firstName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(req.lastName) LIKE :filter ESCAPE '\\')"
+          + " OR (UPPER(req.email) LIKE :filter ESCAPE '\\'))";
 
       Query query = entityManager.createQuery(sql);
 
       query.setParameter("id", id);
-      query.setParameter("filter", "%" + filter.toUpperCase() + "%");
+      query.setParameter("filter", getFilterPattern(filter));
 
       return ((Number) query.getSingleResult()).intValue();
     }
@@ -1413,8 +2064,53 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of survey audiences for the organisation, sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      organisation
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of survey audiences for the organisation
+   */
+  @Transactional
+  public List<SurveyAudience> getSurveyAudiencesForOrganisation(UUID id, int offset, int limit,
+      SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT sa FROM SurveyAudience sa WHERE sa.organisation.id = :id"
+          + " ORDER BY sa.name %1$s, sa.id %1$s",
+          getSortDirectionSql(sortDirection));
+
+      TypedQuery<SurveyAudience> query = entityManager.createQuery(sql, SurveyAudience.class);
+
+      query.setParameter("id", id);
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of survey audiences for the organisation with ID (" + id
+          + ")", e);
+    }
+  }
+
   /**
    * Retrieve the survey definition identified by the specified ID and version.
+   * <p/>
+   * The survey definition that is returned is detached and has its own copy of the survey group
+   * definitions and survey item definitions, so it can be modified and saved using
+   * <code>saveSurveyDefinition</code> without affecting the survey definitions loaded for survey
+   * instances, survey requests and survey responses.
    *
    * @param id      the Universally Unique Identifier (UUID) used to, along with the version of the
    *                survey definition, uniquely identify the survey definition
@@ -1444,7 +2140,17 @@ public class SurveyService
       }
       else
       {
-        return surveyDefinitions.get(0);
+        /*
+         * Detach the survey definition so that it can be modified without the changes being
+         * persisted. Its group and item definitions are already its own copies, which are not
+         * shared with the survey definition cache or the other survey definitions loaded for this
+         * version.
+         */
+        SurveyDefinition surveyDefinition = surveyDefinitions.get(0);
+
+        entityManager.detach(surveyDefinition);
+
+        return surveyDefinition;
       }
     }
     catch (Throwable e)
@@ -1487,6 +2193,51 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of summaries for the latest versions of the survey definitions for the
+   * organisation, sorted by name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                      organisation
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of summaries for the latest versions of the survey definitions for the
+   *         organisation
+   */
+  @Transactional
+  @SuppressWarnings("unchecked")
+  public List<SurveyDefinitionSummary> getSurveyDefinitionSummariesForOrganisation(UUID id,
+      int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT SD.ID, SD.VERSION, SD.NAME FROM SURVEY.SURVEY_DEFINITIONS SD"
+          + " JOIN (SELECT ID, MAX(VERSION) AS LATEST_VERSION FROM SURVEY.SURVEY_DEFINITIONS"
+          + " GROUP BY ID) LATEST ON (SD.VERSION = LATEST.LATEST_VERSION AND SD.ID = LATEST.ID)"
+          + " WHERE SD.ORGANISATION_ID = ?1 ORDER BY SD.NAME %1$s, SD.ID %1$s",
+          getSortDirectionSql(sortDirection));
+
+      Query query = entityManager.createNativeQuery(sql, SurveyDefinitionSummary.class);
+
+      query.setParameter(1, id);
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of summaries for the latest versions of the survey"
+          + " definitions for the organisation with ID (" + id + ")", e);
+    }
+  }
+
   /**
    * Retrieve the summary for the survey definition identified by the specified ID and version.
    *
@@ -1545,7 +2296,7 @@ public class SurveyService
   {
     try
     {
-      String sql = "SELECT si FROM SurveyInstance si WHERE si.id = :id";
+      String sql = "SELECT si FROM SurveyInstance si JOIN FETCH si.definition WHERE si.id = :id";
 
       TypedQuery<SurveyInstance> query = entityManager.createQuery(sql, SurveyInstance.class);
 
@@ -1582,7 +2333,8 @@ public class SurveyService
   {
     try
     {
-      String sql = "SELECT si FROM SurveyInstance si JOIN si.definition sd WHERE sd.id = :id";
+      String sql =
+          "SELECT si FROM SurveyInstance si JOIN FETCH si.definition sd WHERE sd.id = :id";
 
       TypedQuery<SurveyInstance> query = entityManager.createQuery(sql, SurveyInstance.class);
 
@@ -1598,6 +2350,47 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of survey instances for all versions of the survey definition, sorted by
+   * name.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      definition the survey instances are associated with
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of survey instances for all versions of the survey definition
+   */
+  @Transactional
+  public List<SurveyInstance> getSurveyInstancesForSurveyDefinition(UUID id, int offset, int limit,
+      SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT si FROM SurveyInstance si JOIN FETCH si.definition sd WHERE sd.id = :id"
+          + " ORDER BY si.name %1$s, si.id %1$s",
+          getSortDirectionSql(sortDirection));
+
+      TypedQuery<SurveyInstance> query = entityManager.createQuery(sql, SurveyInstance.class);
+
+      query.setParameter("id", id);
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of survey instances for the survey definition with ID ("
+          + id + ")", e);
+    }
+  }
+
   /**
    * Retrieve the survey request identified by the specified ID.
    *
@@ -1612,7 +2405,7 @@ public class SurveyService
   {
     try
     {
-      String sql = "SELECT sr FROM SurveyRequest sr WHERE sr.id = :id";
+      String sql = "SELECT sr FROM SurveyRequest sr JOIN FETCH sr.instance WHERE sr.id = :id";
 
       TypedQuery<SurveyRequest> query = entityManager.createQuery(sql, SurveyRequest.class);
 
@@ -1658,7 +2451,7 @@ public class SurveyService
       TypedQuery<SurveyRequest> query = entityManager.createQuery(sql, SurveyRequest.class);
 
       query.setParameter("id", id);
-      query.setParameter("email", email.toLowerCase());
+      query.setParameter("email", email.toLowerCase(Locale.ROOT));
 
       List<SurveyRequest> surveyRequests = query.getResultList();
 
@@ -1678,6 +2471,46 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the survey request job identified by the specified ID.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   *
+   * @return the survey request job identified by the specified ID or <code>null</code> if the
+   *         survey request job could not be found
+   */
+  @Transactional
+  public SurveyRequestJob getSurveyRequestJob(UUID id)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = "SELECT srj FROM SurveyRequestJob srj JOIN FETCH srj.instance"
+          + " JOIN FETCH srj.audience WHERE srj.id = :id";
+
+      TypedQuery<SurveyRequestJob> query = entityManager.createQuery(sql, SurveyRequestJob.class);
+
+      query.setParameter("id", id);
+
+      List<SurveyRequestJob> surveyRequestJobs = query.getResultList();
+
+      if (surveyRequestJobs.size() == 0)
+      {
+        return null;
+      }
+      else
+      {
+        return surveyRequestJobs.get(0);
+      }
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException("Failed to retrieve the survey request job (" + id + ")",
+          e);
+    }
+  }
+
   /**
    * Retrieve the survey requests for the survey instance.
    *
@@ -1708,27 +2541,69 @@ public class SurveyService
   }
 
   /**
-   * Retrieve the survey response identified by the specified ID.
+   * Retrieve the page of survey requests for the survey instance, sorted by last name and first
+   * name.
    *
-   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
-   *           response
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      instance the survey requests are associated with
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
    *
-   * @return the survey response identified by the specified ID or <code>null</code> if the survey
-   *         response could not be found
+   * @return the page of survey requests for the survey instance
    */
   @Transactional
-  public SurveyResponse getSurveyResponse(UUID id)
+  public List<SurveyRequest> getSurveyRequestsForSurveyInstance(UUID id, int offset, int limit,
+      SortDirection sortDirection)
     throws SurveyServiceException
   {
     try
     {
-      String sql = "SELECT sr FROM SurveyResponse sr WHERE sr.id = :id";
+      String sql = String.format(
+          "SELECT sr FROM SurveyRequest sr JOIN sr.instance si WHERE si.id = :id"
+          + " ORDER BY sr.lastName %1$s, sr.firstName %1$s, sr.id %1$s",
+          getSortDirectionSql(sortDirection));
 
-      TypedQuery<SurveyResponse> query = entityManager.createQuery(sql, SurveyResponse.class);
+      TypedQuery<SurveyRequest> query = entityManager.createQuery(sql, SurveyRequest.class);
 
       query.setParameter("id", id);
 
-      List<SurveyResponse> surveyResponses = query.getResultList();
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of survey requests for the survey instance with ID ("
+          + id + ")", e);
+    }
+  }
+
+  /**
+   * Retrieve the survey response identified by the specified ID.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *           response
+   *
+   * @return the survey response identified by the specified ID or <code>null</code> if the survey
+   *         response could not be found
+   */
+  @Transactional
+  public SurveyResponse getSurveyResponse(UUID id)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = "SELECT sr FROM SurveyResponse sr JOIN FETCH sr.instance si"
+          + " JOIN FETCH si.definition LEFT JOIN FETCH sr.request WHERE sr.id = :id";
+
+      TypedQuery<SurveyResponse> query = entityManager.createQuery(sql, SurveyResponse.class);
+
+      query.setParameter("id", id);
+
+      List<SurveyResponse> surveyResponses = query.getResultList();
 
       if (surveyResponses.size() == 0)
       {
@@ -1760,7 +2635,8 @@ public class SurveyService
   {
     try
     {
-      String sql = "SELECT sr FROM SurveyResponse sr WHERE sr.request.id = :id";
+      String sql = "SELECT sr FROM SurveyResponse sr JOIN FETCH sr.instance si"
+          + " JOIN FETCH si.definition JOIN FETCH sr.request srq WHERE srq.id = :id";
 
       TypedQuery<SurveyResponse> query = entityManager.createQuery(sql, SurveyResponse.class);
 
@@ -1798,8 +2674,8 @@ public class SurveyService
   {
     try
     {
-      String sql =
-          "SELECT srs FROM SurveyResponseSummary srs JOIN srs.instance si WHERE si.id = :id";
+      String sql = "SELECT srs FROM SurveyResponseSummary srs JOIN srs.instance si"
+          + " LEFT JOIN FETCH srs.request WHERE si.id = :id";
 
       TypedQuery<SurveyResponseSummary> query = entityManager.createQuery(sql,
           SurveyResponseSummary.class);
@@ -1815,6 +2691,49 @@ public class SurveyService
     }
   }
 
+  /**
+   * Retrieve the page of summaries for the survey responses for the survey instance, sorted by date
+   * and time the survey responses were received.
+   *
+   * @param id            the Universally Unique Identifier (UUID) used to identify the survey
+   *                      instance the survey responses are associated with
+   * @param offset        the zero-based offset of the first result to retrieve
+   * @param limit         the maximum number of results to retrieve
+   * @param sortDirection the direction in which the results should be sorted
+   *
+   * @return the page of summaries for the survey responses for the survey instance
+   */
+  @Transactional
+  public List<SurveyResponseSummary> getSurveyResponseSummariesForSurveyInstance(UUID id,
+      int offset, int limit, SortDirection sortDirection)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = String.format(
+          "SELECT srs FROM SurveyResponseSummary srs JOIN srs.instance si"
+          + " LEFT JOIN FETCH srs.request WHERE si.id = :id"
+          + " ORDER BY srs.responded %1$s, srs.id %1$s",
+          getSortDirectionSql(sortDirection));
+
+      TypedQuery<SurveyResponseSummary> query = entityManager.createQuery(sql,
+          SurveyResponseSummary.class);
+
+      query.setParameter("id", id);
+
+      query.setFirstResult(offset);
+      query.setMaxResults(limit);
+
+      return query.getResultList();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to retrieve the page of summaries for the survey responses for the survey"
+          + " instance with ID (" + id + ")", e);
+    }
+  }
+
   /**
    * Retrieve the summary for the survey response identified by the specified ID.
    *
@@ -1830,7 +2749,8 @@ public class SurveyService
   {
     try
     {
-      String sql = "SELECT srs FROM SurveyResponseSummary srs WHERE srs.id = :id";
+      String sql = "SELECT srs FROM SurveyResponseSummary srs LEFT JOIN FETCH srs.request"
+          + " WHERE srs.id = :id";
 
       TypedQuery<SurveyResponseSummary> query = entityManager.createQuery(sql,
           SurveyResponseSummary.class);
@@ -1872,7 +2792,8 @@ public class SurveyService
   {
     try
     {
-      String sql = "SELECT sr FROM SurveyResponse sr JOIN sr.instance si WHERE si.id = :id";
+      String sql = "SELECT sr FROM SurveyResponse sr JOIN FETCH sr.instance si"
+          + " JOIN FETCH si.definition LEFT JOIN FETCH sr.request WHERE si.id = :id";
 
       TypedQuery<SurveyResponse> query = entityManager.createQuery(sql, SurveyResponse.class);
 
@@ -1889,6 +2810,9 @@ public class SurveyService
 
   /**
    * Retrieve the survey result for the survey instance with the specified ID.
+   * <p/>
+   * The survey result is materialized in the database the first time it is requested and is then
+   * incrementally maintained as survey responses are saved and deleted.
    *
    * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
    *           instance
@@ -1901,51 +2825,25 @@ public class SurveyService
   {
     try
     {
-      SurveyInstance surveyInstance = getSurveyInstance(id);
-
-      entityManager.detach(surveyInstance);
-      entityManager.detach(surveyInstance.getDefinition());
+      SurveyResult surveyResult = getMaterializedSurveyResultForSurveyInstance(id);
 
-      SurveyResult surveyResult = new SurveyResult(surveyInstance);
-
-      // TODO: Check if we have too many survey responses to compile the survey result in real time.
-
-      // TODO: Add caching of survey result in database.
-      // This will require deleting the cached result if a new survey response is received.
-      // It might be worth it to pregenerate the survey result once all the survey responses
-      // have been received for the survey requests. This will only work on surveys that do
-      // not allow anonymous responses where we can track the outstanding responses. Creating
-      // a new survey request for this survey instance will ALSO invalidate the survey result
+      if (surveyResult == null)
+      {
+        // Serialize with concurrent updates to the survey responses for the survey instance
+        lockSurveyInstance(id);
 
-      // TODO: Make this more efficient by retrieving batches of survey responses rather than all
-      // the survey responses at one time. Might require a list of IDs to be retrieved first
-      // and then retrievals of 10 survey responses based on the next 10 IDs.
-      List<SurveyResponse> surveyResponses = getSurveyResponsesForSurveyInstance(id);
+        surveyResult = getMaterializedSurveyResultForSurveyInstance(id);
 
-      for (SurveyResponse surveyResponse : surveyResponses)
-      {
-        for (SurveyGroupRatingResponse groupRatingResponse :
-            surveyResponse.getGroupRatingResponses())
+        if (surveyResult == null)
         {
-          SurveyGroupRatingResult groupRatingResult = surveyResult.getGroupRatingResult(
-              groupRatingResponse.getGroupRatingsDefinitionId(),
-              groupRatingResponse.getGroupRatingDefinitionId(),
-              groupRatingResponse.getGroupMemberDefinitionId());
+          surveyResult = entityManager.merge(compileSurveyResult(id));
 
-          if (groupRatingResult != null)
-          {
-            groupRatingResult.addRating(groupRatingResponse.getRating());
-          }
-          else
-          {
-            throw new SurveyServiceException(
-                "Failed to retrieve the survey result for the survey instance (" + id
-                + "): Failed to find a survey group rating result for the survey group rating response ("
-                + groupRatingResponse + ")");
-          }
+          entityManager.flush();
         }
       }
 
+      entityManager.detach(surveyResult);
+
       return surveyResult;
     }
     catch (Throwable e)
@@ -1956,217 +2854,632 @@ public class SurveyService
   }
 
   /**
-   * Increment the send attempts for the survey request.
+   * Retrieve the survey result for the survey instance with the specified ID using the specified
+   * survey result mode.
+   * <p/>
+   * A <b>MATERIALIZED</b> survey result is retrieved as described for
+   * <code>getSurveyResultForSurveyInstance(UUID)</code>. An <b>AGGREGATED</b> survey result is
+   * computed by the database, using a single <code>GROUP BY</code> query, from the rows in the
+   * SURVEY.SURVEY_RESPONSE_RATINGS table for the survey instance, without retrieving the JSON data
+   * for the survey responses.
    *
-   * @param surveyRequest the survey request
+   * @param id   the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *             instance
+   * @param mode the survey result mode
+   *
+   * @return the survey result for the survey instance with the specified ID
    */
   @Transactional
-  public void incrementSurveyRequestSendAttempts(SurveyRequest surveyRequest)
+  public SurveyResult getSurveyResultForSurveyInstance(UUID id, SurveyResultMode mode)
     throws SurveyServiceException
   {
-    try
+    if (mode == SurveyResultMode.AGGREGATED)
     {
-      String sql = "UPDATE SURVEY.SURVEY_REQUESTS SET SEND_ATTEMPTS = SEND_ATTEMPTS + 1"
-          + " WHERE ID = ?1";
-
-      Query query = entityManager.createNativeQuery(sql);
-
-      query.setParameter(1, surveyRequest.getId());
-
-      if (query.executeUpdate() > 0)
+      try
+      {
+        return aggregateSurveyResult(id);
+      }
+      catch (Throwable e)
       {
-        surveyRequest.setSendAttempts(surveyRequest.getSendAttempts() + 1);
+        throw new SurveyServiceException(
+            "Failed to aggregate the survey result for the survey instance (" + id + ")", e);
       }
     }
-    catch (Throwable e)
+    else
     {
-      throw new SurveyServiceException(String.format(
-          "Failed to increment the send attempts for the survey request (%s)",
-          surveyRequest.getId()), e);
+      return getSurveyResultForSurveyInstance(id);
     }
   }
 
   /**
-   * Reset the survey request locks.
+   * Retrieve the summary for the materialized survey result for the survey instance with the
+   * specified ID.
+   * <p/>
+   * Only the SURVEY.SURVEY_RESULTS table is queried, so the summary can be used to determine
+   * whether the survey result has changed without retrieving the survey result or the survey
+   * responses.
    *
-   * @param status    the current status of the survey requests that have been locked
-   * @param newStatus the new status for the survey requests that have been unlocked
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *           instance
+   *
+   * @return the summary for the materialized survey result for the survey instance or
+   *         <code>null</code> if the survey result has not been materialized
    */
   @Transactional
-  public void resetSurveyRequestLocks(SurveyRequestStatus status, SurveyRequestStatus newStatus)
+  public SurveyResultSummary getSurveyResultSummaryForSurveyInstance(UUID id)
     throws SurveyServiceException
   {
     try
     {
-      String sql = "UPDATE SURVEY.SURVEY_REQUESTS SET STATUS =?1, LOCK_NAME=NULL"
-          + " WHERE LOCK_NAME=?2 AND STATUS=?3";
+      String sql = "SELECT srs FROM SurveyResultSummary srs WHERE srs.instance.id = :id";
 
-      Query query = entityManager.createNativeQuery(sql);
+      TypedQuery<SurveyResultSummary> query = entityManager.createQuery(sql,
+          SurveyResultSummary.class);
 
-      query.setParameter(1, status.code());
-      query.setParameter(2, instanceName);
-      query.setParameter(3, newStatus.code());
+      query.setParameter("id", id);
 
-      query.executeUpdate();
+      List<SurveyResultSummary> surveyResultSummaries = query.getResultList();
+
+      if (surveyResultSummaries.size() == 0)
+      {
+        return null;
+      }
+      else
+      {
+        return surveyResultSummaries.get(0);
+      }
     }
     catch (Throwable e)
     {
-      throw new SurveyServiceException(String.format("Failed to reset the locks for the survey"
-          + " requests with status (%s) locked using the lock name (%s)", status, instanceName), e);
+      throw new SurveyServiceException(String.format(
+          "Failed to retrieve the summary for the survey result for the survey instance (%s)",
+          id), e);
     }
   }
 
   /**
-   * Save the survey audience.
-   *
-   * @param surveyAudience the survey audience
+   * Insert the batch of survey responses, read from the survey response journal, and add them to
+   * the materialized survey results for their survey instances.
+   * <p/>
+   * The survey responses that already exist, because the batch is being replayed, and the survey
+   * responses for survey instances or survey requests that no longer exist are skipped. The
+   * survey instances are locked in a consistent order to avoid deadlocks with the other updates
+   * to the materialized survey results.
    *
-   * @return the saved survey audience
+   * @param entries the survey response journal entries for the survey responses
    */
   @Transactional
-  public SurveyAudience saveSurveyAudience(SurveyAudience surveyAudience)
+  public void ingestSurveyResponses(List<SurveyResponseJournalEntry> entries)
     throws SurveyServiceException
   {
     try
     {
-      if (!entityManager.contains(surveyAudience))
+      Set<UUID> ids = new HashSet<>();
+      Set<UUID> instanceIds = new HashSet<>();
+      Set<UUID> requestIds = new HashSet<>();
+
+      for (SurveyResponseJournalEntry entry : entries)
       {
-        surveyAudience = entityManager.merge(surveyAudience);
+        ids.add(entry.getId());
+        instanceIds.add(entry.getInstanceId());
 
-        entityManager.flush();
+        if (entry.getRequestId() != null)
+        {
+          requestIds.add(entry.getRequestId());
+        }
+      }
 
-        entityManager.detach(surveyAudience);
+      Set<UUID> existingIds = getExistingIds("SurveyResponse", ids);
+      Set<UUID> existingInstanceIds = getExistingIds("SurveyInstance", instanceIds);
+      Set<UUID> existingRequestIds = getExistingIds("SurveyRequest", requestIds);
+
+      Map<UUID, List<SurveyResponseJournalEntry>> entriesByInstanceId = new TreeMap<>();
+
+      for (SurveyResponseJournalEntry entry : entries)
+      {
+        if (existingIds.contains(entry.getId()))
+        {
+          continue;
+        }
+
+        if ((!existingInstanceIds.contains(entry.getInstanceId()))
+            || ((entry.getRequestId() != null)
+            && (!existingRequestIds.contains(entry.getRequestId()))))
+        {
+          logger.warn(String.format("Skipping the journaled survey response (%s) whose survey"
+              + " instance (%s) or survey request (%s) no longer exists", entry.getId(),
+              entry.getInstanceId(), entry.getRequestId()));
+
+          continue;
+        }
+
+        /*
+         * NOTE: The survey response IDs are added so that a survey response journaled more than
+         *       once in the same batch is only inserted once.
+         */
+        existingIds.add(entry.getId());
+
+        entriesByInstanceId.computeIfAbsent(entry.getInstanceId(), instanceId ->
+            new ArrayList<>()).add(entry);
       }
 
-      return surveyAudience;
+      for (Map.Entry<UUID, List<SurveyResponseJournalEntry>> instanceEntries :
+          entriesByInstanceId.entrySet())
+      {
+        SurveyResult surveyResult = lockMaterializedSurveyResultForSurveyInstance(
+            instanceEntries.getKey());
+
+        if (surveyResult != null)
+        {
+          for (SurveyResponseJournalEntry entry : instanceEntries.getValue())
+          {
+            surveyResult.addResponseData(entry.getData());
+          }
+        }
+
+        insertSurveyResponses(instanceEntries.getValue());
+
+        for (SurveyResponseJournalEntry entry : instanceEntries.getValue())
+        {
+          SurveyResponse surveyResponse = new SurveyResponse();
+
+          surveyResponse.setData(entry.getData());
+
+          insertSurveyResponseRatings(entry.getId(), entry.getInstanceId(),
+              surveyResponse.getGroupRatingResponses());
+        }
+      }
+
+      entityManager.flush();
     }
     catch (Throwable e)
     {
-      throw new SurveyServiceException("Failed to save the survey audience with ID ("
-          + surveyAudience.getId() + ")", e);
+      throw new SurveyServiceException(String.format(
+          "Failed to ingest the batch of %d journaled survey responses", entries.size()), e);
     }
   }
 
   /**
-   * Save the survey audience member.
+   * Process the next chunk of survey audience members for the survey request job by queueing the
+   * survey requests for the survey audience members for sending.
+   * <p/>
+   * The survey request job is marked as <b>Completed</b> if there are no more survey audience
+   * members to process. The lease on the lock for the survey request job is renewed before the
+   * chunk is processed.
    *
-   * @param surveyAudienceMember the survey audience member
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
    *
-   * @return the saved survey response
+   * @return <code>true</code> if a chunk of survey audience members was processed or
+   *         <code>false</code> if the survey request job has completed or is no longer locked by
+   *         the Survey Service instance
    */
   @Transactional
-  public SurveyAudienceMember saveSurveyAudienceMember(SurveyAudienceMember surveyAudienceMember)
+  public boolean processNextChunkForSurveyRequestJob(UUID id)
     throws SurveyServiceException
   {
     try
     {
-      if (!entityManager.contains(surveyAudienceMember))
+      if (!renewSurveyRequestJobLock(id))
       {
-        surveyAudienceMember = entityManager.merge(surveyAudienceMember);
+        return false;
+      }
 
-        entityManager.flush();
+      SurveyRequestJob surveyRequestJob = getSurveyRequestJob(id);
 
-        entityManager.detach(surveyAudienceMember);
+      if (surveyRequestJob == null)
+      {
+        throw new SurveyServiceException("Failed to find the survey request job (" + id + ")");
       }
 
-      return surveyAudienceMember;
+      List<Object[]> members = getNextChunkOfMembersForSurveyRequestJob(surveyRequestJob);
+
+      if (members.isEmpty())
+      {
+        completeSurveyRequestJob(id);
+
+        return false;
+      }
+
+      queueSurveyRequestsForMembers(surveyRequestJob.getInstance(), members);
+
+      updateSurveyRequestJobProgress(id, members.size(), 0, (UUID) members.get(members.size()
+          - 1)[0]);
+
+      sendSurveyRequests();
+
+      return true;
+    }
+    catch (SurveyServiceException e)
+    {
+      throw e;
     }
     catch (Throwable e)
     {
-      throw new SurveyServiceException("Failed to save the survey audience member with ID ("
-          + surveyAudienceMember.getId() + ")", e);
+      throw new SurveyServiceException(
+          "Failed to process the next chunk of survey audience members for the survey request job ("
+          + id + ")", e);
     }
   }
 
   /**
-   * Save the survey definition.
-   *
-   * @param surveyDefinition the survey definition
-   *
-   * @return the saved survey definition
+   * Process the survey request jobs queued for processing asynchronously.
+   * <p/>
+   * If a transaction is active the Background Survey Request Job Processor is only invoked once
+   * the transaction has been committed, so that the survey request jobs created by the transaction
+   * are visible to it.
+   */
+  public void processSurveyRequestJobs()
+  {
+    BackgroundSurveyRequestJobProcessor backgroundSurveyRequestJobProcessor = applicationContext
+        .getBean(BackgroundSurveyRequestJobProcessor.class);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive())
+    {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronizationAdapter()
+          {
+            @Override
+            public void afterCommit()
+            {
+              backgroundSurveyRequestJobProcessor.processSurveyRequestJobs();
+            }
+          });
+    }
+    else
+    {
+      backgroundSurveyRequestJobProcessor.processSurveyRequestJobs();
+    }
+  }
+
+  /**
+   * Re-encode the data for the entities of the specified type with the next IDs after the
+   * specified ID, in ID order, whose data was not written using the current entity data encoding.
+   * <p/>
+   * The IDs act as a keyset cursor, so that the entities of the specified type can be re-encoded
+   * in batches that each examine the entities after the last ID examined by the previous batch,
+   * and the re-encoding finishes once there are no entities after the cursor. All the versions of
+   * a survey definition are re-encoded in the same batch.
+   * <p/>
+   * The entities are locked using <code>SELECT ... FOR UPDATE</code>, so that concurrent updates
+   * to their data are not lost, and the data for each entity is written using the current entity
+   * data encoding by explicitly marking the data as modified and flushing the persistence context.
+   *
+   * @param type                    the entity type, i.e. <code>SurveyDefinition</code>,
+   *                                <code>SurveyResponse</code> or <code>SurveyResult</code>
+   * @param lastId                  the Universally Unique Identifier (UUID) used to uniquely
+   *                                identify the last entity examined by the previous batch or
+   *                                <code>null</code> to start with the first entity
+   * @param maximumNumberOfEntities the maximum number of entity IDs to examine
+   *
+   * @return the Universally Unique Identifier (UUID) used to uniquely identify the last entity
+   *         examined or <code>null</code> if there are no entities after the specified ID
    */
   @Transactional
-  public SurveyDefinition saveSurveyDefinition(SurveyDefinition surveyDefinition)
+  public UUID reencodeEntityData(Class<?> type, UUID lastId, int maximumNumberOfEntities)
     throws SurveyServiceException
   {
+    EntityDataEncoding encoding = EntityDataCodec.getEncoding();
+
     try
     {
-      // Check if a survey instance exists for the current version of the survey definition
-      Query surveyInstanceExistsQuery = entityManager.createQuery(
-          "SELECT COUNT(si.id) FROM SurveyInstance si JOIN si.definition sd"
-          + " WHERE sd.id = :id AND sd.version = :version");
+      TypedQuery<UUID> idQuery = entityManager.createQuery("SELECT DISTINCT e.id FROM "
+          + type.getSimpleName() + " e" + ((lastId == null)
+          ? ""
+          : " WHERE e.id > :lastId") + " ORDER BY e.id", UUID.class);
 
-      surveyInstanceExistsQuery.setParameter("id", surveyDefinition.getId());
-      surveyInstanceExistsQuery.setParameter("version", surveyDefinition.getVersion());
+      if (lastId != null)
+      {
+        idQuery.setParameter("lastId", lastId);
+      }
 
-      boolean surveyInstanceExists =
-          (((Number) surveyInstanceExistsQuery.getSingleResult()).intValue() > 0);
+      idQuery.setMaxResults(maximumNumberOfEntities);
 
-      // Duplicate the survey definition and increment the current version if required
-      if (surveyInstanceExists)
+      List<UUID> ids = idQuery.getResultList();
+
+      if (ids.isEmpty())
       {
-        entityManager.detach(surveyDefinition);
+        return null;
+      }
 
-        surveyDefinition = surveyDefinition.duplicate();
+      TypedQuery<?> query;
 
-        surveyDefinition.incrementVersion();
-      }
+      if (encoding == EntityDataEncoding.JSON)
+      {
+        query = entityManager.createQuery("SELECT e FROM " + type.getSimpleName()
+            + " e WHERE e.id IN :ids AND e.data LIKE :pattern", type);
 
-      if (!entityManager.contains(surveyDefinition))
+        query.setParameter("pattern", "#%");
+      }
+      else
       {
-        surveyDefinition = entityManager.merge(surveyDefinition);
+        query = entityManager.createQuery("SELECT e FROM " + type.getSimpleName()
+            + " e WHERE e.id IN :ids AND e.data NOT LIKE :pattern", type);
 
-        entityManager.flush();
+        query.setParameter("pattern", EntityDataCodec.getHeader(encoding) + "%");
+      }
 
-        entityManager.detach(surveyDefinition);
+      query.setParameter("ids", ids);
+      query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+
+      Session session = entityManager.unwrap(Session.class);
+
+      for (Object entity : query.getResultList())
+      {
+        // Force the data for the entity to be written even if it is not detected as modified
+        session.evict(entity);
+        session.update(entity);
       }
 
-      return surveyDefinition;
+      entityManager.flush();
+      entityManager.clear();
+
+      return ids.get(ids.size() - 1);
     }
     catch (Throwable e)
     {
-      throw new SurveyServiceException("Failed to save the survey definition with ID ("
-          + surveyDefinition.getId() + ")", e);
+      throw new SurveyServiceException(String.format(
+          "Failed to re-encode the data for the %s entities after the ID (%s) using the %s"
+          + " encoding", type.getSimpleName(), lastId, encoding.description()), e);
     }
   }
 
   /**
-   * Save the survey instance.
+   * Renew the leases on the locks for the survey requests that are still being sent by the Survey
+   * Service instance.
    *
-   * @param surveyInstance the survey instance
+   * @param ids the Universally Unique Identifiers (UUIDs) used to identify the survey requests
    *
-   * @return the saved survey instance
+   * @return the number of survey requests whose lock lease was renewed
    */
   @Transactional
-  public SurveyInstance saveSurveyInstance(SurveyInstance surveyInstance)
+  public int renewSurveyRequestLocks(List<UUID> ids)
     throws SurveyServiceException
   {
-    try
+    if (ids.isEmpty())
     {
-      if (!entityManager.contains(surveyInstance))
-      {
-        surveyInstance = entityManager.merge(surveyInstance);
+      return 0;
+    }
 
-        entityManager.flush();
+    try
+    {
+      Query query = entityManager.createNativeQuery(
+          "UPDATE SURVEY.SURVEY_REQUESTS SET LOCK_EXPIRES=?1 WHERE ID IN (?2) AND STATUS=?3"
+          + " AND LOCK_NAME=?4");
 
-        entityManager.detach(surveyInstance);
-      }
+      query.setParameter(1, new Timestamp(System.currentTimeMillis()
+          + SURVEY_REQUEST_LOCK_LEASE_DURATION));
+      query.setParameter(2, ids);
+      query.setParameter(3, SurveyRequestStatus.SENDING.code());
+      query.setParameter(4, instanceName);
 
-      return surveyInstance;
+      return query.executeUpdate();
     }
     catch (Throwable e)
     {
-      throw new SurveyServiceException("Failed to save the survey instance with ID ("
-          + surveyInstance.getId() + ")", e);
+      throw new SurveyServiceException(String.format(
+          "Failed to renew the lock leases for %d survey requests", ids.size()), e);
     }
   }
 
   /**
-   * Save the survey request.
-   *
-   * @param surveyRequest the survey request
-   *
-   * @return the saved survey request
+   * Reset the locks for the survey request jobs that were being processed by the Survey Service
+   * instance and re-queue them for processing.
+   */
+  @Transactional
+  public void resetSurveyRequestJobLocks()
+    throws SurveyServiceException
+  {
+    try
+    {
+      Query query = entityManager.createNativeQuery(
+          "UPDATE SURVEY.SURVEY_REQUEST_JOBS SET STATUS=?1, LOCK_NAME=NULL, LOCK_EXPIRES=NULL"
+          + " WHERE LOCK_NAME=?2 AND STATUS=?3");
+
+      query.setParameter(1, SurveyRequestJobStatus.QUEUED.code());
+      query.setParameter(2, instanceName);
+      query.setParameter(3, SurveyRequestJobStatus.RUNNING.code());
+
+      query.executeUpdate();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(String.format("Failed to reset the locks for the survey"
+          + " request jobs locked using the lock name (%s)", instanceName), e);
+    }
+  }
+
+  /**
+   * Reset the survey request locks.
+   *
+   * @param status    the current status of the survey requests that have been locked
+   * @param newStatus the new status for the survey requests that have been unlocked
+   */
+  @Transactional
+  public void resetSurveyRequestLocks(SurveyRequestStatus status, SurveyRequestStatus newStatus)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = "UPDATE SURVEY.SURVEY_REQUESTS SET STATUS=?1, LOCK_NAME=NULL,"
+          + " LOCK_EXPIRES=NULL WHERE LOCK_NAME=?2 AND STATUS=?3";
+
+      Query query = entityManager.createNativeQuery(sql);
+
+      query.setParameter(1, newStatus.code());
+      query.setParameter(2, instanceName);
+      query.setParameter(3, status.code());
+
+      query.executeUpdate();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(String.format("Failed to reset the locks for the survey"
+          + " requests with status (%s) locked using the lock name (%s)", status, instanceName), e);
+    }
+  }
+
+  /**
+   * Save the survey audience.
+   *
+   * @param surveyAudience the survey audience
+   *
+   * @return the saved survey audience
+   */
+  @Transactional
+  public SurveyAudience saveSurveyAudience(SurveyAudience surveyAudience)
+    throws SurveyServiceException
+  {
+    try
+    {
+      if (!entityManager.contains(surveyAudience))
+      {
+        surveyAudience = entityManager.merge(surveyAudience);
+
+        entityManager.flush();
+
+        entityManager.detach(surveyAudience);
+      }
+
+      return surveyAudience;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException("Failed to save the survey audience with ID ("
+          + surveyAudience.getId() + ")", e);
+    }
+  }
+
+  /**
+   * Save the survey audience member.
+   *
+   * @param surveyAudienceMember the survey audience member
+   *
+   * @return the saved survey response
+   */
+  @Transactional
+  public SurveyAudienceMember saveSurveyAudienceMember(SurveyAudienceMember surveyAudienceMember)
+    throws SurveyServiceException
+  {
+    try
+    {
+      if (!entityManager.contains(surveyAudienceMember))
+      {
+        surveyAudienceMember = entityManager.merge(surveyAudienceMember);
+
+        entityManager.flush();
+
+        entityManager.detach(surveyAudienceMember);
+      }
+
+      return surveyAudienceMember;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException("Failed to save the survey audience member with ID ("
+          + surveyAudienceMember.getId() + ")", e);
+    }
+  }
+
+  /**
+   * Save the survey definition.
+   *
+   * @param surveyDefinition the survey definition
+   *
+   * @return the saved survey definition
+   */
+  @Transactional
+  public SurveyDefinition saveSurveyDefinition(SurveyDefinition surveyDefinition)
+    throws SurveyServiceException
+  {
+    try
+    {
+      // Check if a survey instance exists for the current version of the survey definition
+      Query surveyInstanceExistsQuery = entityManager.createQuery(
+          "SELECT COUNT(si.id) FROM SurveyInstance si JOIN si.definition sd"
+          + " WHERE sd.id = :id AND sd.version = :version");
+
+      surveyInstanceExistsQuery.setParameter("id", surveyDefinition.getId());
+      surveyInstanceExistsQuery.setParameter("version", surveyDefinition.getVersion());
+
+      boolean surveyInstanceExists =
+          (((Number) surveyInstanceExistsQuery.getSingleResult()).intValue() > 0);
+
+      // Duplicate the survey definition and increment the current version if required
+      if (surveyInstanceExists)
+      {
+        entityManager.detach(surveyDefinition);
+
+        surveyDefinition = surveyDefinition.duplicate();
+
+        surveyDefinition.incrementVersion();
+      }
+
+      if (!entityManager.contains(surveyDefinition))
+      {
+        surveyDefinition = entityManager.merge(surveyDefinition);
+
+        entityManager.flush();
+
+        entityManager.detach(surveyDefinition);
+      }
+
+      // Remove the parsed definitions for a version of the survey definition updated in place
+      if (!surveyInstanceExists)
+      {
+        SurveyDefinitionCache.invalidate(surveyDefinition.getId(), surveyDefinition.getVersion());
+      }
+
+      return surveyDefinition;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException("Failed to save the survey definition with ID ("
+          + surveyDefinition.getId() + ")", e);
+    }
+  }
+
+  /**
+   * Save the survey instance.
+   *
+   * @param surveyInstance the survey instance
+   *
+   * @return the saved survey instance
+   */
+  @Transactional
+  public SurveyInstance saveSurveyInstance(SurveyInstance surveyInstance)
+    throws SurveyServiceException
+  {
+    try
+    {
+      if (!entityManager.contains(surveyInstance))
+      {
+        /*
+         * NOTE: The survey instance is returned rather than the merged copy, whose lazy
+         *       associations would not be initialized.
+         */
+        SurveyInstance mergedSurveyInstance = entityManager.merge(surveyInstance);
+
+        entityManager.flush();
+
+        entityManager.detach(mergedSurveyInstance);
+      }
+
+      return surveyInstance;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException("Failed to save the survey instance with ID ("
+          + surveyInstance.getId() + ")", e);
+    }
+  }
+
+  /**
+   * Save the survey request.
+   *
+   * @param surveyRequest the survey request
+   *
+   * @return the saved survey request
    */
   @Transactional
   public SurveyRequest saveSurveyRequest(SurveyRequest surveyRequest)
@@ -2174,15 +3487,19 @@ public class SurveyService
   {
     try
     {
-      surveyRequest.setEmail(surveyRequest.getEmail().toLowerCase());
+      surveyRequest.setEmail(surveyRequest.getEmail().toLowerCase(Locale.ROOT));
 
       if (!entityManager.contains(surveyRequest))
       {
-        surveyRequest = entityManager.merge(surveyRequest);
+        /*
+         * NOTE: The survey request is returned rather than the merged copy, whose lazy
+         *       associations would not be initialized.
+         */
+        SurveyRequest mergedSurveyRequest = entityManager.merge(surveyRequest);
 
         entityManager.flush();
 
-        entityManager.detach(surveyRequest);
+        entityManager.detach(mergedSurveyRequest);
       }
 
       return surveyRequest;
@@ -2207,13 +3524,50 @@ public class SurveyService
   {
     try
     {
-      if (!entityManager.contains(surveyResponse))
+      SurveyResult surveyResult = lockMaterializedSurveyResultForSurveyInstance(
+          surveyResponse.getInstance().getId());
+
+      if (surveyResult != null)
       {
-        surveyResponse = entityManager.merge(surveyResponse);
+        /*
+         * NOTE: The persistence context is not flushed before the existing data is retrieved, so
+         *       that the changes to a managed survey response are not written to the database
+         *       before the existing data for the survey response is removed from the survey
+         *       result.
+         */
+        TypedQuery<String> existingDataQuery = entityManager.createQuery(
+            "SELECT sr.data FROM SurveyResponse sr WHERE sr.id = :id", String.class);
+
+        existingDataQuery.setFlushMode(FlushModeType.COMMIT);
+        existingDataQuery.setParameter("id", surveyResponse.getId());
+
+        for (String existingData : existingDataQuery.getResultList())
+        {
+          surveyResult.removeResponseData(existingData);
+        }
+
+        surveyResult.addResponse(surveyResponse);
+      }
 
+      if (entityManager.contains(surveyResponse))
+      {
         entityManager.flush();
 
-        entityManager.detach(surveyResponse);
+        saveSurveyResponseRatings(surveyResponse);
+      }
+      else
+      {
+        /*
+         * NOTE: The survey response is returned rather than the merged copy, whose lazy
+         *       associations would not be initialized.
+         */
+        SurveyResponse mergedSurveyResponse = entityManager.merge(surveyResponse);
+
+        entityManager.flush();
+
+        saveSurveyResponseRatings(mergedSurveyResponse);
+
+        entityManager.detach(mergedSurveyResponse);
       }
 
       return surveyResponse;
@@ -2238,9 +3592,7 @@ public class SurveyService
   {
     try
     {
-      MailHelper mailSenderHelper = new MailHelper(configurationService);
-
-      mailSenderHelper.sendSurveyRequestMail(surveyRequest);
+      mailHelper.sendSurveyRequestMail(surveyRequest);
 
       return true;
     }
@@ -2254,6 +3606,12 @@ public class SurveyService
   /**
    * Send a survey request, for the survey instance with the specified ID, to all survey audience
    * members for the survey audience.
+   * <p/>
+   * The survey requests are queued for sending using set-based statements rather than processing
+   * each survey audience member individually. The existing survey requests for the survey audience
+   * members are re-queued, and their survey responses deleted, using a single UPDATE and DELETE
+   * statement respectively, and the new survey requests are inserted using multi-row INSERT
+   * statements.
    *
    * @param surveyInstanceId the Universally Unique Identifier (UUID) used to uniquely identify the
    *                         survey instance that the survey requests should be sent for
@@ -2265,31 +3623,77 @@ public class SurveyService
   {
     try
     {
-      List<SurveyAudienceMember> members = getMembersForSurveyAudience(audience.getId());
+      SurveyInstance surveyInstance = getSurveyInstance(surveyInstanceId);
 
-      for (SurveyAudienceMember member : members)
+      if (surveyInstance == null)
       {
-        SurveyRequest surveyRequest = getSurveyRequestForSurveyInstanceByEmail(surveyInstanceId,
-            member.getEmail());
+        throw new SurveyServiceException("Failed to find the survey instance ("
+            + surveyInstanceId + ")");
+      }
 
-        if (surveyRequest == null)
-        {
-          SurveyInstance surveyInstance = getSurveyInstance(surveyInstanceId);
+      Timestamp requested = new Timestamp(System.currentTimeMillis());
 
-          surveyRequest = new SurveyRequest(surveyInstance, member.getFirstName(),
-              member.getLastName(), member.getEmail());
-        }
-        else
-        {
-          deleteSurveyResponseForSurveyRequest(surveyRequest.getId());
-        }
+      // Remove the existing survey responses for the survey audience from the survey result
+      SurveyResult surveyResult = lockMaterializedSurveyResultForSurveyInstance(surveyInstanceId);
+
+      if (surveyResult != null)
+      {
+        removeSurveyResponsesForSurveyAudienceFromSurveyResult(surveyResult, surveyInstanceId,
+            audience.getId());
+
+        entityManager.flush();
+      }
+
+      // Delete the existing survey responses for the survey audience
+      Query deleteQuery = entityManager.createNativeQuery(
+          "DELETE FROM SURVEY.SURVEY_RESPONSES WHERE SURVEY_REQUEST_ID IN"
+          + " (SELECT ID FROM SURVEY.SURVEY_REQUESTS WHERE SURVEY_INSTANCE_ID=?1 AND EMAIL IN"
+          + " (SELECT LOWER(EMAIL) FROM SURVEY.SURVEY_AUDIENCE_MEMBERS"
+          + " WHERE SURVEY_AUDIENCE_ID=?2))");
 
-        surveyRequest.setRequested(new Date());
-        surveyRequest.setStatus(SurveyRequestStatus.QUEUED_FOR_SENDING);
+      deleteQuery.setParameter(1, surveyInstanceId);
+      deleteQuery.setParameter(2, audience.getId());
 
-        saveSurveyRequest(surveyRequest);
+      deleteQuery.executeUpdate();
+
+      // Re-queue the existing survey requests for the survey audience
+      Query updateQuery = entityManager.createNativeQuery(
+          "UPDATE SURVEY.SURVEY_REQUESTS SET REQUESTED=?1, STATUS=?2, SEND_ATTEMPTS=0,"
+          + " LOCK_NAME=NULL, LOCK_EXPIRES=NULL, LAST_PROCESSED=NULL, NEXT_ATTEMPT_AT=?1"
+          + " WHERE SURVEY_INSTANCE_ID=?3 AND EMAIL IN (SELECT LOWER(EMAIL)"
+          + " FROM SURVEY.SURVEY_AUDIENCE_MEMBERS WHERE SURVEY_AUDIENCE_ID=?4)");
+
+      updateQuery.setParameter(1, requested);
+      updateQuery.setParameter(2, SurveyRequestStatus.QUEUED_FOR_SENDING.code());
+      updateQuery.setParameter(3, surveyInstanceId);
+      updateQuery.setParameter(4, audience.getId());
+
+      updateQuery.executeUpdate();
+
+      // Insert the survey requests for the survey audience members without a survey request
+      TypedQuery<Object[]> selectQuery = entityManager.createQuery(
+          "SELECT sam.firstName, sam.lastName, sam.email FROM SurveyAudienceMember sam"
+          + " WHERE sam.audience.id = :audienceId AND NOT EXISTS"
+          + " (SELECT sr.id FROM SurveyRequest sr WHERE sr.instance.id = :instanceId"
+          + " AND sr.email = LOWER(sam.email))", Object[].class);
+
+      selectQuery.setParameter("audienceId", audience.getId());
+      selectQuery.setParameter("instanceId", surveyInstanceId);
+
+      Map<String, SurveyRequest> surveyRequests = new LinkedHashMap<>();
+
+      for (Object[] row : selectQuery.getResultList())
+      {
+        SurveyRequest surveyRequest = new SurveyRequest(surveyInstance, (String) row[0],
+            (String) row[1], (String) row[2]);
+
+        surveyRequest.setRequested(requested);
+
+        surveyRequests.putIfAbsent(surveyRequest.getEmail(), surveyRequest);
       }
 
+      insertSurveyRequests(new ArrayList<>(surveyRequests.values()));
+
       sendSurveyRequests();
     }
     catch (SurveyServiceException e)
@@ -2337,6 +3741,11 @@ public class SurveyService
 
       surveyRequest.setRequested(new Date());
       surveyRequest.setStatus(SurveyRequestStatus.QUEUED_FOR_SENDING);
+      surveyRequest.setSendAttempts(0);
+      surveyRequest.setLockName(null);
+      surveyRequest.setLockExpires(null);
+      surveyRequest.setLastProcessed(null);
+      surveyRequest.setNextAttemptAt(surveyRequest.getRequested());
 
       saveSurveyRequest(surveyRequest);
 
@@ -2353,30 +3762,147 @@ public class SurveyService
 
   /**
    * Send all the survey requests queued for sending asynchronously.
+   * <p/>
+   * If a transaction is active the Background Survey Request Sender is only signalled once the
+   * transaction has been committed, so that the survey requests queued by the transaction are
+   * visible to it. If PostgreSQL notifications are enabled a notification is also sent, when the
+   * transaction is committed, to wake up the Background Survey Request Senders on the other nodes.
    */
-  public synchronized void sendSurveyRequests()
+  public void sendSurveyRequests()
   {
-    applicationContext.getBean(BackgroundSurveyRequestSender.class).sendSurveyRequests();
+    BackgroundSurveyRequestSender backgroundSurveyRequestSender = applicationContext.getBean(
+        BackgroundSurveyRequestSender.class);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive())
+    {
+      if (backgroundSurveyRequestSender.isNotificationsEnabled())
+      {
+        entityManager.createNativeQuery("NOTIFY "
+            + BackgroundSurveyRequestSender.SURVEY_REQUESTS_QUEUED_NOTIFICATION_CHANNEL)
+            .executeUpdate();
+      }
+
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronizationAdapter()
+          {
+            @Override
+            public void afterCommit()
+            {
+              backgroundSurveyRequestSender.sendSurveyRequests();
+            }
+          });
+    }
+    else
+    {
+      backgroundSurveyRequestSender.sendSurveyRequests();
+    }
   }
 
   /**
-   * Unlock the survey request.
+   * Skip the next chunk of survey audience members for the survey request job, which could not be
+   * processed, and record the survey audience members as failed.
+   * <p/>
+   * The survey request job is marked as <b>Completed</b> if there are no more survey audience
+   * members to process. The lease on the lock for the survey request job is renewed before the
+   * chunk is skipped.
    *
-   * @param id     the Universally Unique Identifier (UUID) used to identify the survey request
-   * @param status the new status for the unlocked survey request
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   *
+   * @return <code>true</code> if a chunk of survey audience members was skipped or
+   *         <code>false</code> if the survey request job has completed or is no longer locked by
+   *         the Survey Service instance
    */
   @Transactional
-  public void unlockSurveyRequest(UUID id, SurveyRequestStatus status)
+  public boolean skipNextChunkForSurveyRequestJob(UUID id)
     throws SurveyServiceException
   {
     try
     {
-      String sql = "UPDATE SURVEY.SURVEY_REQUESTS SET STATUS=?1, LOCK_NAME=NULL WHERE ID=?2";
+      if (!renewSurveyRequestJobLock(id))
+      {
+        return false;
+      }
 
-      Query query = entityManager.createNativeQuery(sql);
+      SurveyRequestJob surveyRequestJob = getSurveyRequestJob(id);
 
-      query.setParameter(1, status.code());
-      query.setParameter(2, id);
+      if (surveyRequestJob == null)
+      {
+        throw new SurveyServiceException("Failed to find the survey request job (" + id + ")");
+      }
+
+      List<Object[]> members = getNextChunkOfMembersForSurveyRequestJob(surveyRequestJob);
+
+      if (members.isEmpty())
+      {
+        completeSurveyRequestJob(id);
+
+        return false;
+      }
+
+      updateSurveyRequestJobProgress(id, 0, members.size(), (UUID) members.get(members.size()
+          - 1)[0]);
+
+      return true;
+    }
+    catch (SurveyServiceException e)
+    {
+      throw e;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(
+          "Failed to skip the next chunk of survey audience members for the survey request job ("
+          + id + ")", e);
+    }
+  }
+
+  /**
+   * Submit the new survey response completed by a respondent.
+   * <p/>
+   * If the survey response journal is enabled, the survey response is acknowledged once it has
+   * been appended to the survey response journal and is inserted asynchronously by the Background
+   * Survey Response Ingester. Otherwise, the survey response is saved synchronously.
+   *
+   * @param surveyResponse the survey response
+   */
+  public void submitSurveyResponse(SurveyResponse surveyResponse)
+    throws SurveyServiceException
+  {
+    BackgroundSurveyResponseIngester backgroundSurveyResponseIngester =
+        applicationContext.getBean(BackgroundSurveyResponseIngester.class);
+
+    if (backgroundSurveyResponseIngester.isJournalEnabled())
+    {
+      backgroundSurveyResponseIngester.submitSurveyResponse(surveyResponse);
+    }
+    else
+    {
+      // Invoke the transactional proxy rather than this instance
+      applicationContext.getBean(ISurveyService.class).saveSurveyResponse(surveyResponse);
+    }
+  }
+
+  /**
+   * Unlock the survey request if it is still locked by the Survey Service instance.
+   *
+   * @param id     the Universally Unique Identifier (UUID) used to identify the survey request
+   * @param status the new status for the unlocked survey request
+   */
+  @Transactional
+  public void unlockSurveyRequest(UUID id, SurveyRequestStatus status)
+    throws SurveyServiceException
+  {
+    try
+    {
+      String sql = "UPDATE SURVEY.SURVEY_REQUESTS SET STATUS=?1, LOCK_NAME=NULL,"
+          + " LOCK_EXPIRES=NULL WHERE ID=?2 AND LOCK_NAME=?3";
+
+      Query query = entityManager.createNativeQuery(sql);
+
+      query.setParameter(1, status.code());
+      query.setParameter(2, id);
+      query.setParameter(3, instanceName);
 
       if (query.executeUpdate() != 1)
       {
@@ -2391,4 +3917,1124 @@ public class SurveyService
           status.description()), e);
     }
   }
+
+  /**
+   * Unlock the survey request that could not be sent, incrementing its send attempts, and either
+   * re-queue it for sending once the jittered exponential backoff delay for its send attempts has
+   * elapsed or set its status to <b>Failed</b> if it has reached the maximum number of send
+   * attempts.
+   *
+   * @param surveyRequest the survey request
+   *
+   * @return the new status for the unlocked survey request
+   */
+  @Transactional
+  public SurveyRequestStatus unlockSurveyRequestForRetry(SurveyRequest surveyRequest)
+    throws SurveyServiceException
+  {
+    try
+    {
+      int sendAttempts = surveyRequest.getSendAttempts() + 1;
+
+      SurveyRequestStatus status = (sendAttempts >= getMaximumSurveyRequestSendAttempts())
+          ? SurveyRequestStatus.FAILED
+          : SurveyRequestStatus.QUEUED_FOR_SENDING;
+
+      Date nextAttemptAt = new Date(System.currentTimeMillis() + getSendSurveyRequestRetryDelay(
+          sendAttempts));
+
+      String sql = "UPDATE SURVEY.SURVEY_REQUESTS SET STATUS=?1, LOCK_NAME=NULL,"
+          + " LOCK_EXPIRES=NULL, SEND_ATTEMPTS=?2, NEXT_ATTEMPT_AT=?3 WHERE ID=?4"
+          + " AND LOCK_NAME=?5";
+
+      Query query = entityManager.createNativeQuery(sql);
+
+      query.setParameter(1, status.code());
+      query.setParameter(2, sendAttempts);
+      query.setParameter(3, new Timestamp(nextAttemptAt.getTime()));
+      query.setParameter(4, surveyRequest.getId());
+      query.setParameter(5, instanceName);
+
+      if (query.executeUpdate() != 1)
+      {
+        throw new SurveyServiceException(String.format(
+            "The lock for the survey request (%s) is no longer held by (%s)",
+            surveyRequest.getId(), instanceName));
+      }
+
+      surveyRequest.setStatus(status);
+      surveyRequest.setLockName(null);
+      surveyRequest.setLockExpires(null);
+      surveyRequest.setSendAttempts(sendAttempts);
+      surveyRequest.setNextAttemptAt(nextAttemptAt);
+
+      return status;
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(String.format(
+          "Failed to unlock the survey request (%s) for retry", surveyRequest.getId()), e);
+    }
+  }
+
+  /**
+   * Unlock the survey request job, which could not be processed, and re-queue it for processing.
+   * <p/>
+   * The survey request job is not affected if its lock lease expired and it was reclaimed by
+   * another Survey Service instance.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   */
+  @Transactional
+  public void unlockSurveyRequestJob(UUID id)
+    throws SurveyServiceException
+  {
+    try
+    {
+      Query query = entityManager.createNativeQuery(
+          "UPDATE SURVEY.SURVEY_REQUEST_JOBS SET STATUS=?1, LOCK_NAME=NULL, LOCK_EXPIRES=NULL,"
+          + " UPDATED=?2 WHERE ID=?3 AND STATUS=?4 AND LOCK_NAME=?5");
+
+      query.setParameter(1, SurveyRequestJobStatus.QUEUED.code());
+      query.setParameter(2, new Timestamp(System.currentTimeMillis()));
+      query.setParameter(3, id);
+      query.setParameter(4, SurveyRequestJobStatus.RUNNING.code());
+      query.setParameter(5, instanceName);
+
+      query.executeUpdate();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException("Failed to unlock the survey request job (" + id + ")", e);
+    }
+  }
+
+  /**
+   * Unlock the survey requests that are still locked by the Survey Service instance.
+   * <p/>
+   * The survey requests whose lock lease expired and that were reclaimed by another Survey Service
+   * instance are not affected.
+   *
+   * @param ids    the Universally Unique Identifiers (UUIDs) used to identify the survey requests
+   * @param status the new status for the unlocked survey requests
+   */
+  @Transactional
+  public void unlockSurveyRequests(List<UUID> ids, SurveyRequestStatus status)
+    throws SurveyServiceException
+  {
+    if (ids.isEmpty())
+    {
+      return;
+    }
+
+    try
+    {
+      Query query = entityManager.createNativeQuery(
+          "UPDATE SURVEY.SURVEY_REQUESTS SET STATUS=?1, LOCK_NAME=NULL, LOCK_EXPIRES=NULL"
+          + " WHERE ID IN (?2) AND LOCK_NAME=?3");
+
+      query.setParameter(1, status.code());
+      query.setParameter(2, ids);
+      query.setParameter(3, instanceName);
+
+      query.executeUpdate();
+    }
+    catch (Throwable e)
+    {
+      throw new SurveyServiceException(String.format(
+          "Failed to unlock and set the status for %d survey requests to (%s)", ids.size(),
+          status.description()), e);
+    }
+  }
+
+  /**
+   * Aggregate the survey result for the survey instance with the specified ID using a single
+   * <code>GROUP BY</code> query against the SURVEY.SURVEY_RESPONSE_RATINGS table.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *           instance
+   *
+   * @return the aggregated survey result
+   */
+  @SuppressWarnings("unchecked")
+  private SurveyResult aggregateSurveyResult(UUID id)
+    throws SurveyServiceException
+  {
+    SurveyInstance surveyInstance = getSurveyInstance(id);
+
+    if (surveyInstance == null)
+    {
+      throw new SurveyServiceException("Failed to find the survey instance (" + id + ")");
+    }
+
+    SurveyResult surveyResult = new SurveyResult(surveyInstance);
+
+    String sql = "SELECT GROUP_RATINGS_DEFINITION_ID, GROUP_RATING_DEFINITION_ID,"
+        + " GROUP_MEMBER_DEFINITION_ID, RATING, COUNT(*) AS RATING_COUNT"
+        + " FROM SURVEY.SURVEY_RESPONSE_RATINGS WHERE SURVEY_INSTANCE_ID = ?1"
+        + " GROUP BY GROUP_RATINGS_DEFINITION_ID, GROUP_RATING_DEFINITION_ID,"
+        + " GROUP_MEMBER_DEFINITION_ID, RATING";
+
+    Query query = entityManager.createNativeQuery(sql, "SurveyGroupRatingCount");
+
+    query.setParameter(1, id);
+
+    surveyResult.addGroupRatingCounts((List<SurveyGroupRatingCount>) query.getResultList());
+
+    surveyResult.setNumberOfResponses(getNumberOfSurveyResponsesForSurveyInstance(id));
+
+    return surveyResult;
+  }
+
+  /**
+   * Claim up to the specified number of survey requests that have been queued for sending and are
+   * due to be sent, in the order in which they are due, by locking them using
+   * <code>SELECT ... FOR UPDATE</code>, and using <code>SKIP LOCKED</code> where the database
+   * supports it, and then setting their status to <b>Sending</b>, their lock name to the name
+   * of the Survey Service instance and the expiry of their lock lease using a single UPDATE
+   * statement. The claimed survey requests are returned detached from the persistence context.
+   * <p/>
+   * The survey requests locked by any Survey Service instance whose lock lease has expired, because
+   * the instance stopped renewing the lease before the survey requests were sent, are reclaimed
+   * first. Reclaiming a survey request counts as a send attempt, and a survey request that has
+   * reached the maximum number of send attempts is given the status <b>Failed</b> instead of
+   * being reclaimed, so that a survey request that repeatedly stops the Survey Service instances
+   * sending it is not retried indefinitely.
+   *
+   * @param maximumNumberOfSurveyRequests the maximum number of survey requests to claim
+   *
+   * @return the claimed survey requests
+   */
+  private List<SurveyRequest> claimSurveyRequestsQueuedForSending(
+      int maximumNumberOfSurveyRequests)
+    throws SurveyServiceException
+  {
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    Timestamp lockExpires = new Timestamp(now.getTime() + SURVEY_REQUEST_LOCK_LEASE_DURATION);
+
+    // Reclaim the survey requests whose lock lease has expired
+    List<SurveyRequest> reclaimedSurveyRequests = new ArrayList<>();
+    List<SurveyRequest> failedSurveyRequests = new ArrayList<>();
+
+    List<SurveyRequest> expiredSurveyRequests = selectSurveyRequestsForUpdate(
+        "STATUS=?1 AND LOCK_EXPIRES<?2 ORDER BY LOCK_EXPIRES", SurveyRequestStatus.SENDING, now,
+        maximumNumberOfSurveyRequests);
+
+    if (expiredSurveyRequests.size() > 0)
+    {
+      int maximumSendAttempts = getMaximumSurveyRequestSendAttempts();
+
+      for (SurveyRequest surveyRequest : expiredSurveyRequests)
+      {
+        if ((surveyRequest.getSendAttempts() + 1) >= maximumSendAttempts)
+        {
+          logger.warn(String.format("The survey request (%s) whose lock lease held by (%s)"
+              + " expired at (%s) has exceeded the maximum number of send attempts and has been"
+              + " marked as \"Failed\"", surveyRequest.getId(), surveyRequest.getLockName(),
+              surveyRequest.getLockExpires()));
+
+          failedSurveyRequests.add(surveyRequest);
+        }
+        else
+        {
+          logger.warn(String.format("Reclaiming the survey request (%s) whose lock lease held by"
+              + " (%s) expired at (%s)", surveyRequest.getId(), surveyRequest.getLockName(),
+              surveyRequest.getLockExpires()));
+
+          reclaimedSurveyRequests.add(surveyRequest);
+        }
+      }
+
+      updateClaimedSurveyRequests(failedSurveyRequests, SurveyRequestStatus.FAILED, null, 1,
+          now);
+      updateClaimedSurveyRequests(reclaimedSurveyRequests, SurveyRequestStatus.SENDING,
+          lockExpires, 1, now);
+    }
+
+    List<SurveyRequest> surveyRequests = new ArrayList<>(reclaimedSurveyRequests);
+
+    if (surveyRequests.size() < maximumNumberOfSurveyRequests)
+    {
+      List<SurveyRequest> queuedSurveyRequests = selectSurveyRequestsForUpdate(
+          "STATUS=?1 AND NEXT_ATTEMPT_AT<=?2 ORDER BY NEXT_ATTEMPT_AT",
+          SurveyRequestStatus.QUEUED_FOR_SENDING, now, maximumNumberOfSurveyRequests
+          - surveyRequests.size());
+
+      updateClaimedSurveyRequests(queuedSurveyRequests, SurveyRequestStatus.SENDING, lockExpires,
+          0, now);
+
+      surveyRequests.addAll(queuedSurveyRequests);
+    }
+
+    return surveyRequests;
+  }
+
+  /**
+   * Compile the survey result for the survey instance with the specified ID from the survey
+   * responses for the survey instance.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *           instance
+   *
+   * @return the compiled survey result
+   */
+  private SurveyResult compileSurveyResult(UUID id)
+    throws SurveyServiceException
+  {
+    SurveyInstance surveyInstance = getSurveyInstance(id);
+
+    if (surveyInstance == null)
+    {
+      throw new SurveyServiceException("Failed to find the survey instance (" + id + ")");
+    }
+
+    SurveyResult surveyResult = new SurveyResult(surveyInstance);
+
+    processSurveyResponsesForSurveyInstance(id,
+        (surveyResponseId, data) -> surveyResult.addResponseData(data));
+
+    return surveyResult;
+  }
+
+  /**
+   * Mark the survey request job as <b>Completed</b> and unlock it.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   */
+  private void completeSurveyRequestJob(UUID id)
+  {
+    Query query = entityManager.createNativeQuery(
+        "UPDATE SURVEY.SURVEY_REQUEST_JOBS SET STATUS=?1, LOCK_NAME=NULL, LOCK_EXPIRES=NULL,"
+        + " TOTAL=ENQUEUED+FAILED, UPDATED=?2 WHERE ID=?3");
+
+    query.setParameter(1, SurveyRequestJobStatus.COMPLETED.code());
+    query.setParameter(2, new Timestamp(System.currentTimeMillis()));
+    query.setParameter(3, id);
+
+    query.executeUpdate();
+  }
+
+  /**
+   * Returns the IDs of the entities of the specified type with the specified IDs that exist.
+   *
+   * @param entityName the name of the entity type
+   * @param ids        the Universally Unique Identifiers (UUIDs) used to uniquely identify the
+   *                   entities
+   *
+   * @return the IDs of the entities that exist
+   */
+  private Set<UUID> getExistingIds(String entityName, Set<UUID> ids)
+  {
+    if (ids.isEmpty())
+    {
+      return new HashSet<>();
+    }
+
+    TypedQuery<UUID> query = entityManager.createQuery("SELECT e.id FROM " + entityName
+        + " e WHERE e.id IN :ids", UUID.class);
+
+    query.setParameter("ids", ids);
+
+    return new HashSet<>(query.getResultList());
+  }
+
+  /**
+   * Returns the <code>LIKE</code> pattern for the filter, which matches the upper case values
+   * containing the filter.
+   * <p/>
+   * The filters are applied using <code>UPPER(column) LIKE pattern</code>, which is supported by
+   * the trigram GIN indexes on the filtered columns on PostgreSQL. The <code>LIKE</code> wildcards
+   * in the filter are escaped using a backslash, which every query using the pattern declares as
+   * its escape character with <code>ESCAPE '\'</code>, so that they are matched literally rather
+   * than matching every row.
+   *
+   * @param filter the filter
+   *
+   * @return the <code>LIKE</code> pattern for the filter
+   */
+  private String getFilterPattern(String filter)
+  {
+    return "%" + filter.toUpperCase(Locale.ROOT).replace("\\", "\\\\").replace("%", "\\%")
+        .replace("_", "\\_") + "%";
+  }
+
+  /**
+   * Returns the next chunk of survey audience members, ordered by ID, for the survey request job
+   * after the last survey audience member processed by the job.
+   *
+   * @param surveyRequestJob the survey request job
+   *
+   * @return the ID, first name, last name and e-mail address for each survey audience member in
+   *         the next chunk
+   */
+  private List<Object[]> getNextChunkOfMembersForSurveyRequestJob(
+      SurveyRequestJob surveyRequestJob)
+  {
+    String sql = "SELECT sam.id, sam.firstName, sam.lastName, sam.email"
+        + " FROM SurveyAudienceMember sam WHERE sam.audience.id = :audienceId";
+
+    TypedQuery<Object[]> query;
+
+    if (surveyRequestJob.getLastMemberId() == null)
+    {
+      query = entityManager.createQuery(sql + " ORDER BY sam.id", Object[].class);
+    }
+    else
+    {
+      query = entityManager.createQuery(sql + " AND sam.id > :lastMemberId ORDER BY sam.id",
+          Object[].class);
+
+      query.setParameter("lastMemberId", surveyRequestJob.getLastMemberId());
+    }
+
+    query.setParameter("audienceId", surveyRequestJob.getAudience().getId());
+    query.setMaxResults(SURVEY_REQUEST_JOB_CHUNK_SIZE);
+
+    return query.getResultList();
+  }
+
+  /**
+   * Returns the jittered exponential backoff delay in milliseconds before retrying to send a survey
+   * request that has failed the specified number of send attempts.
+   * <p/>
+   * The delay doubles for each failed send attempt, up to the maximum retry delay, and a random
+   * jitter of up to half the delay is subtracted so that the survey requests that failed together,
+   * e.g. because the mail server was unavailable, are not retried together.
+   *
+   * @param sendAttempts the number of failed send attempts for the survey request
+   *
+   * @return the delay in milliseconds before retrying to send the survey request
+   */
+  private long getSendSurveyRequestRetryDelay(int sendAttempts)
+  {
+    long delay = SEND_SURVEY_REQUEST_MAXIMUM_RETRY_DELAY;
+
+    if (sendAttempts <= 20)
+    {
+      delay = Math.min(delay, SEND_SURVEY_REQUEST_INITIAL_RETRY_DELAY << Math.max(0,
+          sendAttempts - 1));
+    }
+
+    return delay - ThreadLocalRandom.current().nextLong((delay / 2) + 1);
+  }
+
+  /**
+   * Returns the SQL keyword for the sort direction.
+   *
+   * @param sortDirection the sort direction
+   *
+   * @return the SQL keyword for the sort direction
+   */
+  private String getSortDirectionSql(SortDirection sortDirection)
+  {
+    return (sortDirection == SortDirection.DESCENDING)
+        ? "DESC"
+        : "ASC";
+  }
+
+  /**
+   * Retrieve the materialized survey result for the survey instance with the specified ID.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *           instance
+   *
+   * @return the materialized survey result for the survey instance with the specified ID or
+   *         <code>null</code> if the survey result has not been materialized
+   */
+  private SurveyResult getMaterializedSurveyResultForSurveyInstance(UUID id)
+  {
+    String sql = "SELECT sr FROM SurveyResult sr JOIN FETCH sr.instance si"
+        + " JOIN FETCH si.definition WHERE si.id = :id";
+
+    TypedQuery<SurveyResult> query = entityManager.createQuery(sql, SurveyResult.class);
+
+    query.setParameter("id", id);
+
+    List<SurveyResult> surveyResults = query.getResultList();
+
+    if (surveyResults.size() == 0)
+    {
+      return null;
+    }
+    else
+    {
+      return surveyResults.get(0);
+    }
+  }
+
+  /**
+   * Lock the survey instance with the specified ID and retrieve its materialized survey result.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *           instance
+   *
+   * @return the managed materialized survey result for the survey instance or <code>null</code>
+   *         if the survey result has not been materialized
+   */
+  private SurveyResult lockMaterializedSurveyResultForSurveyInstance(UUID id)
+  {
+    lockSurveyInstance(id);
+
+    return getMaterializedSurveyResultForSurveyInstance(id);
+  }
+
+  /**
+   * Lock the row for the survey instance with the specified ID until the end of the current
+   * transaction.
+   * <p/>
+   * This serializes the updates to the materialized survey result for the survey instance.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *           instance
+   */
+  private void lockSurveyInstance(UUID id)
+  {
+    Query query = entityManager.createNativeQuery(
+        "SELECT ID FROM SURVEY.SURVEY_INSTANCES WHERE ID=?1 FOR UPDATE");
+
+    // The lock does not require the pending changes in the persistence context to be flushed
+    query.setFlushMode(FlushModeType.COMMIT);
+    query.setParameter(1, id);
+
+    query.getResultList();
+  }
+
+  /**
+   * Insert the survey requests into the SURVEY.SURVEY_REQUESTS table using multi-row INSERT
+   * statements.
+   *
+   * @param surveyRequests the survey requests
+   */
+  private void insertSurveyRequests(List<SurveyRequest> surveyRequests)
+  {
+    for (int start = 0; start < surveyRequests.size(); start += SURVEY_REQUESTS_INSERT_BATCH_SIZE)
+    {
+      int end = Math.min(start + SURVEY_REQUESTS_INSERT_BATCH_SIZE, surveyRequests.size());
+
+      StringBuilder buffer = new StringBuilder();
+
+      buffer.append("INSERT INTO SURVEY.SURVEY_REQUESTS (ID, SURVEY_INSTANCE_ID, FIRST_NAME,"
+          + " LAST_NAME, EMAIL, REQUESTED, STATUS, SEND_ATTEMPTS, NEXT_ATTEMPT_AT) VALUES ");
+
+      for (int i = start; i < end; i++)
+      {
+        int parameter = ((i - start) * 9) + 1;
+
+        if (i > start)
+        {
+          buffer.append(", ");
+        }
+
+        buffer.append(String.format("(?%d, ?%d, ?%d, ?%d, ?%d, ?%d, ?%d, ?%d, ?%d)", parameter,
+            parameter + 1, parameter + 2, parameter + 3, parameter + 4, parameter + 5,
+            parameter + 6, parameter + 7, parameter + 8));
+      }
+
+      Query query = entityManager.createNativeQuery(buffer.toString());
+
+      for (int i = start; i < end; i++)
+      {
+        SurveyRequest surveyRequest = surveyRequests.get(i);
+
+        int parameter = ((i - start) * 9) + 1;
+
+        query.setParameter(parameter, surveyRequest.getId());
+        query.setParameter(parameter + 1, surveyRequest.getInstance().getId());
+        query.setParameter(parameter + 2, surveyRequest.getFirstName());
+        query.setParameter(parameter + 3, surveyRequest.getLastName());
+        query.setParameter(parameter + 4, surveyRequest.getEmail());
+        query.setParameter(parameter + 5, new Timestamp(surveyRequest.getRequested().getTime()));
+        query.setParameter(parameter + 6, surveyRequest.getStatus().code());
+        query.setParameter(parameter + 7, surveyRequest.getSendAttempts());
+        query.setParameter(parameter + 8, new Timestamp(surveyRequest.getNextAttemptAt()
+            .getTime()));
+      }
+
+      query.executeUpdate();
+    }
+  }
+
+  /**
+   * Insert the journaled survey responses into the SURVEY.SURVEY_RESPONSES table using multi-row
+   * INSERT statements.
+   *
+   * @param entries the survey response journal entries for the survey responses
+   */
+  private void insertSurveyResponses(List<SurveyResponseJournalEntry> entries)
+  {
+    for (int start = 0; start < entries.size(); start += SURVEY_RESPONSES_INSERT_BATCH_SIZE)
+    {
+      int end = Math.min(start + SURVEY_RESPONSES_INSERT_BATCH_SIZE, entries.size());
+
+      StringBuilder buffer = new StringBuilder();
+
+      buffer.append("INSERT INTO SURVEY.SURVEY_RESPONSES (ID, SURVEY_INSTANCE_ID,"
+          + " SURVEY_REQUEST_ID, RESPONDED, DATA) VALUES ");
+
+      for (int i = start; i < end; i++)
+      {
+        int parameter = ((i - start) * 5) + 1;
+
+        if (i > start)
+        {
+          buffer.append(", ");
+        }
+
+        // A literal NULL is used for a missing survey request ID to avoid an untyped parameter
+        buffer.append(String.format("(?%d, ?%d, %s, ?%d, ?%d)", parameter, parameter + 1,
+            (entries.get(i).getRequestId() == null)
+            ? "NULL"
+            : "?" + (parameter + 2), parameter + 3, parameter + 4));
+      }
+
+      Query query = entityManager.createNativeQuery(buffer.toString());
+
+      for (int i = start; i < end; i++)
+      {
+        SurveyResponseJournalEntry entry = entries.get(i);
+
+        int parameter = ((i - start) * 5) + 1;
+
+        query.setParameter(parameter, entry.getId());
+        query.setParameter(parameter + 1, entry.getInstanceId());
+
+        if (entry.getRequestId() != null)
+        {
+          query.setParameter(parameter + 2, entry.getRequestId());
+        }
+
+        query.setParameter(parameter + 3, new Timestamp(entry.getResponded().getTime()));
+        query.setParameter(parameter + 4, entry.getData());
+      }
+
+      query.executeUpdate();
+    }
+  }
+
+  /**
+   * Insert the rows for the survey group rating responses for the survey response into the
+   * SURVEY.SURVEY_RESPONSE_RATINGS table using multi-row INSERT statements.
+   *
+   * @param surveyResponseId     the Universally Unique Identifier (UUID) used to uniquely identify
+   *                             the survey response
+   * @param surveyInstanceId     the Universally Unique Identifier (UUID) used to uniquely identify
+   *                             the survey instance the survey response is associated with
+   * @param groupRatingResponses the survey group rating responses for the survey response
+   */
+  private void insertSurveyResponseRatings(UUID surveyResponseId, UUID surveyInstanceId,
+      List<SurveyGroupRatingResponse> groupRatingResponses)
+  {
+    for (int start = 0; start < groupRatingResponses.size();
+        start += SURVEY_RESPONSE_RATINGS_INSERT_BATCH_SIZE)
+    {
+      int end = Math.min(start + SURVEY_RESPONSE_RATINGS_INSERT_BATCH_SIZE,
+          groupRatingResponses.size());
+
+      StringBuilder buffer = new StringBuilder();
+
+      buffer.append("INSERT INTO SURVEY.SURVEY_RESPONSE_RATINGS (SURVEY_RESPONSE_ID,"
+          + " SURVEY_INSTANCE_ID, GROUP_RATINGS_DEFINITION_ID, GROUP_RATING_DEFINITION_ID,"
+          + " GROUP_MEMBER_DEFINITION_ID, RATING) VALUES ");
+
+      for (int i = start; i < end; i++)
+      {
+        int parameter = ((i - start) * 6) + 1;
+
+        if (i > start)
+        {
+          buffer.append(", ");
+        }
+
+        buffer.append(String.format("(?%d, ?%d, ?%d, ?%d, ?%d, ?%d)", parameter, parameter + 1,
+            parameter + 2, parameter + 3, parameter + 4, parameter + 5));
+      }
+
+      Query query = entityManager.createNativeQuery(buffer.toString());
+
+      for (int i = start; i < end; i++)
+      {
+        SurveyGroupRatingResponse groupRatingResponse = groupRatingResponses.get(i);
+
+        int parameter = ((i - start) * 6) + 1;
+
+        query.setParameter(parameter, surveyResponseId);
+        query.setParameter(parameter + 1, surveyInstanceId);
+        query.setParameter(parameter + 2, groupRatingResponse.getGroupRatingsDefinitionId());
+        query.setParameter(parameter + 3, groupRatingResponse.getGroupRatingDefinitionId());
+        query.setParameter(parameter + 4, groupRatingResponse.getGroupMemberDefinitionId());
+        query.setParameter(parameter + 5, groupRatingResponse.getRating());
+      }
+
+      query.executeUpdate();
+    }
+  }
+
+  /**
+   * Returns whether the database supports <code>SELECT ... FOR UPDATE SKIP LOCKED</code>.
+   * <p/>
+   * The result is determined once, using the metadata for the database connection, and cached.
+   *
+   * @return <code>true</code> if the database supports
+   *         <code>SELECT ... FOR UPDATE SKIP LOCKED</code> or <code>false</code> otherwise
+   */
+  private boolean isSkipLockedSupported()
+  {
+    if (skipLockedSupported == null)
+    {
+      skipLockedSupported = entityManager.unwrap(Session.class).doReturningWork(connection ->
+      {
+        DatabaseMetaData metaData = connection.getMetaData();
+
+        // SKIP LOCKED is supported by PostgreSQL 9.5 and later
+        return "PostgreSQL".equals(metaData.getDatabaseProductName())
+            && ((metaData.getDatabaseMajorVersion() > 9)
+            || ((metaData.getDatabaseMajorVersion() == 9)
+            && (metaData.getDatabaseMinorVersion() >= 5)));
+      });
+    }
+
+    return skipLockedSupported;
+  }
+
+  /**
+   * Process the survey responses for the survey instance with the specified ID.
+   * <p/>
+   * The survey responses are retrieved in batches, ordered by ID, using keyset pagination. Only the
+   * ID and JSON data for each survey response is retrieved so that no survey response entities are
+   * added to the persistence context and the memory used remains bounded by the batch size
+   * regardless of the number of survey responses for the survey instance.
+   *
+   * @param id        the Universally Unique Identifier (UUID) used to uniquely identify the survey
+   *                  instance
+   * @param processor the processor invoked with the ID and JSON data for each survey response
+   */
+  private void processSurveyResponsesForSurveyInstance(UUID id,
+      BiConsumer<UUID, String> processor)
+  {
+    UUID lastSurveyResponseId = null;
+
+    while (true)
+    {
+      TypedQuery<Object[]> query;
+
+      if (lastSurveyResponseId == null)
+      {
+        query = entityManager.createQuery("SELECT sr.id, sr.data FROM SurveyResponse sr"
+            + " WHERE sr.instance.id = :id ORDER BY sr.id", Object[].class);
+      }
+      else
+      {
+        query = entityManager.createQuery("SELECT sr.id, sr.data FROM SurveyResponse sr"
+            + " WHERE sr.instance.id = :id AND sr.id > :lastId ORDER BY sr.id", Object[].class);
+
+        query.setParameter("lastId", lastSurveyResponseId);
+      }
+
+      query.setParameter("id", id);
+      query.setMaxResults(SURVEY_RESULT_COMPILATION_BATCH_SIZE);
+
+      List<Object[]> rows = query.getResultList();
+
+      for (Object[] row : rows)
+      {
+        processor.accept((UUID) row[0], (String) row[1]);
+
+        lastSurveyResponseId = (UUID) row[0];
+      }
+
+      if (rows.size() < SURVEY_RESULT_COMPILATION_BATCH_SIZE)
+      {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Queue the survey requests, for the survey instance, for sending to the survey audience members.
+   * <p/>
+   * The existing survey requests for the e-mail addresses for the survey audience members are
+   * re-queued, and their survey responses deleted, and new survey requests are inserted for the
+   * remaining survey audience members.
+   *
+   * @param surveyInstance the survey instance
+   * @param members        the ID, first name, last name and e-mail address for each survey
+   *                       audience member
+   */
+  private void queueSurveyRequestsForMembers(SurveyInstance surveyInstance, List<Object[]> members)
+  {
+    Timestamp requested = new Timestamp(System.currentTimeMillis());
+
+    Map<String, Object[]> membersByEmail = new LinkedHashMap<>();
+
+    for (Object[] member : members)
+    {
+      membersByEmail.putIfAbsent(((String) member[3]).toLowerCase(Locale.ROOT), member);
+    }
+
+    List<String> emails = new ArrayList<>(membersByEmail.keySet());
+
+    // Remove the existing survey responses for the e-mail addresses from the survey result
+    SurveyResult surveyResult = lockMaterializedSurveyResultForSurveyInstance(
+        surveyInstance.getId());
+
+    if (surveyResult != null)
+    {
+      removeSurveyResponsesFromSurveyResult(surveyResult, "SELECT sr.id, sr.data"
+          + " FROM SurveyResponse sr WHERE sr.request.id IN (SELECT sq.id FROM SurveyRequest sq"
+          + " WHERE sq.instance.id = :instanceId AND sq.email IN :emails)", query ->
+          {
+            query.setParameter("instanceId", surveyInstance.getId());
+            query.setParameter("emails", emails);
+          });
+
+      entityManager.flush();
+    }
+
+    // Delete the existing survey responses for the e-mail addresses
+    Query deleteQuery = entityManager.createNativeQuery(
+        "DELETE FROM SURVEY.SURVEY_RESPONSES WHERE SURVEY_REQUEST_ID IN"
+        + " (SELECT ID FROM SURVEY.SURVEY_REQUESTS WHERE SURVEY_INSTANCE_ID=?1 AND EMAIL IN (?2))");
+
+    deleteQuery.setParameter(1, surveyInstance.getId());
+    deleteQuery.setParameter(2, emails);
+
+    deleteQuery.executeUpdate();
+
+    // Re-queue the existing survey requests for the e-mail addresses
+    Query updateQuery = entityManager.createNativeQuery(
+        "UPDATE SURVEY.SURVEY_REQUESTS SET REQUESTED=?1, STATUS=?2, SEND_ATTEMPTS=0,"
+        + " LOCK_NAME=NULL, LOCK_EXPIRES=NULL, LAST_PROCESSED=NULL, NEXT_ATTEMPT_AT=?1"
+        + " WHERE SURVEY_INSTANCE_ID=?3 AND EMAIL IN (?4)");
+
+    updateQuery.setParameter(1, requested);
+    updateQuery.setParameter(2, SurveyRequestStatus.QUEUED_FOR_SENDING.code());
+    updateQuery.setParameter(3, surveyInstance.getId());
+    updateQuery.setParameter(4, emails);
+
+    updateQuery.executeUpdate();
+
+    // Insert the survey requests for the e-mail addresses without a survey request
+    TypedQuery<String> selectQuery = entityManager.createQuery(
+        "SELECT sr.email FROM SurveyRequest sr WHERE sr.instance.id = :instanceId"
+        + " AND sr.email IN :emails", String.class);
+
+    selectQuery.setParameter("instanceId", surveyInstance.getId());
+    selectQuery.setParameter("emails", emails);
+
+    for (String email : selectQuery.getResultList())
+    {
+      membersByEmail.remove(email);
+    }
+
+    List<SurveyRequest> surveyRequests = new ArrayList<>();
+
+    for (Object[] member : membersByEmail.values())
+    {
+      SurveyRequest surveyRequest = new SurveyRequest(surveyInstance, (String) member[1],
+          (String) member[2], (String) member[3]);
+
+      surveyRequest.setRequested(requested);
+      surveyRequest.setNextAttemptAt(requested);
+
+      surveyRequests.add(surveyRequest);
+    }
+
+    insertSurveyRequests(surveyRequests);
+  }
+
+  /**
+   * Renew the lease on the lock for the survey request job if it is still locked by the Survey
+   * Service instance.
+   * <p/>
+   * The row for the survey request job remains locked until the end of the current transaction,
+   * which prevents the survey request job from being reclaimed while a chunk of survey audience
+   * members is being processed.
+   *
+   * @param id the Universally Unique Identifier (UUID) used to uniquely identify the survey request
+   *           job
+   *
+   * @return <code>true</code> if the lease on the lock for the survey request job was renewed or
+   *         <code>false</code> if the survey request job is no longer locked by the Survey Service
+   *         instance
+   */
+  private boolean renewSurveyRequestJobLock(UUID id)
+  {
+    Query query = entityManager.createNativeQuery(
+        "UPDATE SURVEY.SURVEY_REQUEST_JOBS SET LOCK_EXPIRES=?1 WHERE ID=?2 AND STATUS=?3"
+        + " AND LOCK_NAME=?4");
+
+    query.setParameter(1, new Timestamp(System.currentTimeMillis()
+        + SURVEY_REQUEST_JOB_LOCK_LEASE_DURATION));
+    query.setParameter(2, id);
+    query.setParameter(3, SurveyRequestJobStatus.RUNNING.code());
+    query.setParameter(4, instanceName);
+
+    if (query.executeUpdate() == 1)
+    {
+      return true;
+    }
+
+    logger.warn(String.format("The survey request job (%s) is no longer locked by the Survey"
+        + " Service instance (%s)", id, instanceName));
+
+    return false;
+  }
+
+  /**
+   * Remove the survey response from the materialized survey result for its survey instance.
+   *
+   * @param surveyResponse the survey response
+   */
+  private void removeSurveyResponseFromSurveyResult(SurveyResponse surveyResponse)
+  {
+    SurveyResult surveyResult = lockMaterializedSurveyResultForSurveyInstance(
+        surveyResponse.getInstance().getId());
+
+    if (surveyResult != null)
+    {
+      surveyResult.removeResponse(surveyResponse);
+
+      entityManager.flush();
+    }
+  }
+
+  /**
+   * Remove the survey responses for the survey requests for the survey instance with the
+   * specified ID that were sent to the members of the survey audience with the specified ID from
+   * the materialized survey result.
+   *
+   * @param surveyResult     the managed materialized survey result for the survey instance
+   * @param surveyInstanceId the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                         survey instance
+   * @param audienceId       the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                         survey audience
+   */
+  private void removeSurveyResponsesForSurveyAudienceFromSurveyResult(SurveyResult surveyResult,
+      UUID surveyInstanceId, UUID audienceId)
+  {
+    removeSurveyResponsesFromSurveyResult(surveyResult, "SELECT sr.id, sr.data"
+        + " FROM SurveyResponse sr WHERE sr.request.id IN (SELECT sq.id FROM SurveyRequest sq"
+        + " WHERE sq.instance.id = :instanceId AND sq.email IN (SELECT LOWER(sam.email)"
+        + " FROM SurveyAudienceMember sam WHERE sam.audience.id = :audienceId))", query ->
+        {
+          query.setParameter("instanceId", surveyInstanceId);
+          query.setParameter("audienceId", audienceId);
+        });
+  }
+
+  /**
+   * Remove the survey responses retrieved using the JPQL query from the materialized survey
+   * result.
+   * <p/>
+   * The survey responses are retrieved in batches, ordered by ID, using keyset pagination and only
+   * the ID and JSON data for each survey response is retrieved.
+   *
+   * @param surveyResult the managed materialized survey result for the survey instance
+   * @param sql          the JPQL query that selects the ID and JSON data for the survey responses
+   *                     using the alias <code>sr</code>
+   * @param parameters   the consumer used to set the parameters for the JPQL query
+   */
+  private void removeSurveyResponsesFromSurveyResult(SurveyResult surveyResult, String sql,
+      Consumer<TypedQuery<Object[]>> parameters)
+  {
+    UUID lastSurveyResponseId = null;
+
+    while (true)
+    {
+      TypedQuery<Object[]> query;
+
+      if (lastSurveyResponseId == null)
+      {
+        query = entityManager.createQuery(sql + " ORDER BY sr.id", Object[].class);
+      }
+      else
+      {
+        query = entityManager.createQuery(sql + " AND sr.id > :lastId ORDER BY sr.id",
+            Object[].class);
+
+        query.setParameter("lastId", lastSurveyResponseId);
+      }
+
+      parameters.accept(query);
+      query.setMaxResults(SURVEY_RESULT_COMPILATION_BATCH_SIZE);
+
+      List<Object[]> rows = query.getResultList();
+
+      for (Object[] row : rows)
+      {
+        surveyResult.removeResponseData((String) row[1]);
+
+        lastSurveyResponseId = (UUID) row[0];
+      }
+
+      if (rows.size() < SURVEY_RESULT_COMPILATION_BATCH_SIZE)
+      {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Replace the rows in the SURVEY.SURVEY_RESPONSE_RATINGS table for the survey response with the
+   * survey group rating responses for the survey response.
+   *
+   * @param surveyResponse the survey response
+   */
+  private void saveSurveyResponseRatings(SurveyResponse surveyResponse)
+  {
+    Query query = entityManager.createNativeQuery(
+        "DELETE FROM SURVEY.SURVEY_RESPONSE_RATINGS WHERE SURVEY_RESPONSE_ID=?1");
+
+    query.setParameter(1, surveyResponse.getId());
+
+    query.executeUpdate();
+
+    insertSurveyResponseRatings(surveyResponse.getId(), surveyResponse.getInstance().getId(),
+        surveyResponse.getGroupRatingResponses());
+  }
+
+  /**
+   * Select and lock up to the specified number of survey requests with the specified status
+   * matching the condition using <code>SELECT ... FOR UPDATE</code>, and using
+   * <code>SKIP LOCKED</code> where the database supports it.
+   *
+   * @param condition                     the SQL condition and ordering for the survey requests,
+   *                                      which references the status as <code>?1</code> and the
+   *                                      timestamp as <code>?2</code>
+   * @param status                        the status for the survey requests
+   * @param timestamp                     the timestamp referenced by the condition
+   * @param maximumNumberOfSurveyRequests the maximum number of survey requests to select
+   *
+   * @return the locked survey requests
+   */
+  @SuppressWarnings("unchecked")
+  private List<SurveyRequest> selectSurveyRequestsForUpdate(String condition,
+      SurveyRequestStatus status, Timestamp timestamp, int maximumNumberOfSurveyRequests)
+  {
+    String sql = String.format("SELECT ID, SURVEY_INSTANCE_ID, FIRST_NAME, LAST_NAME, EMAIL,"
+        + " REQUESTED, STATUS, SEND_ATTEMPTS, LOCK_NAME, LOCK_EXPIRES, LAST_PROCESSED,"
+        + " NEXT_ATTEMPT_AT FROM SURVEY.SURVEY_REQUESTS WHERE %s FETCH FIRST %d ROWS ONLY"
+        + " FOR UPDATE%s", condition, maximumNumberOfSurveyRequests, isSkipLockedSupported()
+        ? " SKIP LOCKED"
+        : "");
+
+    Query query = entityManager.createNativeQuery(sql, SurveyRequest.class);
+
+    query.setParameter(1, status.code());
+    query.setParameter(2, timestamp);
+
+    return new ArrayList<>(query.getResultList());
+  }
+
+  /**
+   * Update the survey requests, which have been selected and locked using
+   * <code>SELECT ... FOR UPDATE</code>, using a single UPDATE statement and then detach them from
+   * the persistence context and update them to reflect the UPDATE statement.
+   * <p/>
+   * The survey requests are detached before they are updated so that the changes are not flushed
+   * as an UPDATE statement per survey request when the transaction is committed.
+   *
+   * @param surveyRequests        the survey requests
+   * @param status                the new status for the survey requests
+   * @param lockExpires           the expiry of the lock lease for the survey requests, which will
+   *                              be locked using the name of the Survey Service instance, or
+   *                              <code>null</code> if the survey requests should be unlocked
+   * @param sendAttemptsIncrement the number of send attempts to add to the send attempts for the
+   *                              survey requests
+   * @param now                   the current date and time
+   */
+  private void updateClaimedSurveyRequests(List<SurveyRequest> surveyRequests,
+      SurveyRequestStatus status, Timestamp lockExpires, int sendAttemptsIncrement,
+      Timestamp now)
+    throws SurveyServiceException
+  {
+    if (surveyRequests.isEmpty())
+    {
+      return;
+    }
+
+    List<UUID> ids = new ArrayList<>();
+
+    for (SurveyRequest surveyRequest : surveyRequests)
+    {
+      // Initialize the shared survey instance, which is required for the survey request mail
+      Hibernate.initialize(surveyRequest.getInstance());
+
+      ids.add(surveyRequest.getId());
+    }
+
+    String sql = "UPDATE SURVEY.SURVEY_REQUESTS SET STATUS=?1, SEND_ATTEMPTS=SEND_ATTEMPTS+?2,"
+        + " LAST_PROCESSED=?3, " + ((lockExpires == null)
+        ? "LOCK_NAME=NULL, LOCK_EXPIRES=NULL"
+        : "LOCK_NAME=?5, LOCK_EXPIRES=?6") + " WHERE ID IN (?4)";
+
+    Query query = entityManager.createNativeQuery(sql);
+
+    query.setParameter(1, status.code());
+    query.setParameter(2, sendAttemptsIncrement);
+    query.setParameter(3, now);
+    query.setParameter(4, ids);
+
+    if (lockExpires != null)
+    {
+      query.setParameter(5, instanceName);
+      query.setParameter(6, lockExpires);
+    }
+
+    if (query.executeUpdate() != ids.size())
+    {
+      throw new SurveyServiceException(String.format(
+          "The expected number of rows were not affected as a result of executing the SQL"
+          + " statement (%s)", sql));
+    }
+
+    for (SurveyRequest surveyRequest : surveyRequests)
+    {
+      entityManager.detach(surveyRequest);
+
+      surveyRequest.setStatus(status);
+      surveyRequest.setSendAttempts(surveyRequest.getSendAttempts() + sendAttemptsIncrement);
+      surveyRequest.setLastProcessed(now);
+
+      if (lockExpires == null)
+      {
+        surveyRequest.setLockName(null);
+        surveyRequest.setLockExpires(null);
+      }
+      else
+      {
+        surveyRequest.setLockName(instanceName);
+        surveyRequest.setLockExpires(lockExpires);
+      }
+    }
+  }
+
+  /**
+   * Record the progress of the survey request job.
+   *
+   * @param id           the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                     survey request job
+   * @param enqueued     the number of additional survey audience members whose survey requests
+   *                     have been queued for sending
+   * @param failed       the number of additional survey audience members whose survey requests
+   *                     could not be queued for sending
+   * @param lastMemberId the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                     last survey audience member processed by the survey request job
+   */
+  private void updateSurveyRequestJobProgress(UUID id, int enqueued, int failed, UUID lastMemberId)
+  {
+    Query query = entityManager.createNativeQuery(
+        "UPDATE SURVEY.SURVEY_REQUEST_JOBS SET ENQUEUED=ENQUEUED+?1, FAILED=FAILED+?2,"
+        + " LAST_MEMBER_ID=?3, UPDATED=?4 WHERE ID=?5");
+
+    query.setParameter(1, enqueued);
+    query.setParameter(2, failed);
+    query.setParameter(3, lastMemberId);
+    query.setParameter(4, new Timestamp(System.currentTimeMillis()));
+    query.setParameter(5, id);
+
+    query.executeUpdate();
+  }
 }
@@ -62,4 +62,26 @@ public class SurveyTextDefinition extends SurveyItemDefinition
   {
     super(TYPE_UUID, name, label, description, help);
   }
+
+  /**
+   * Constructs a new <code>SurveyTextDefinition</code> that is a copy of the specified survey text
+   * definition.
+   *
+   * @param textDefinition the survey text definition to copy
+   */
+  private SurveyTextDefinition(SurveyTextDefinition textDefinition)
+  {
+    super(textDefinition);
+  }
+
+  /**
+   * Duplicate (deep-copy) this survey text definition.
+   *
+   * @return the duplicated (deep-copied) survey text definition
+   */
+  @Override
+  SurveyTextDefinition duplicate()
+  {
+    return new SurveyTextDefinition(this);
+  }
 }
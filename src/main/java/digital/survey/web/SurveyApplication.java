@@ -13,6 +13,8 @@ package digital.survey.web;
 
 //~--- non-JDK imports --------------------------------------------------------
 
+import digital.survey.web.api.SurveyResponseResource;
+import digital.survey.web.api.SurveyResultResource;
 import digital.survey.web.pages.DashboardPage;
 import digital.survey.web.pages.HomePage;
 import digital.survey.web.pages.SurveyAudienceAdministrationPage;
@@ -23,6 +25,8 @@ import guru.mmp.application.web.template.navigation.NavigationGroup;
 import guru.mmp.application.web.template.navigation.NavigationLink;
 import org.apache.wicket.Page;
 import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.ResourceReference;
 import org.springframework.boot.SpringApplication;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.stereotype.Component;
@@ -71,11 +75,59 @@ public class SurveyApplication extends TemplateWebApplication
   public static final String MAXIMUM_SURVEY_REQUEST_SEND_ATTEMPTS_CONFIGURATION_KEY =
       "Survey.BackgroundSurveyRequestSender.MaximumSendAttempts";
 
+  /**
+   * The "Survey.BackgroundSurveyRequestSender.MaximumConcurrentSends" configuration key.
+   */
+  public static final String MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_CONFIGURATION_KEY =
+      "Survey.BackgroundSurveyRequestSender.MaximumConcurrentSends";
+
+  /**
+   * The "Survey.BackgroundSurveyRequestSender.MaximumConcurrentSendsPerMailHost" configuration key.
+   */
+  public static final String
+      MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_PER_MAIL_HOST_CONFIGURATION_KEY =
+      "Survey.BackgroundSurveyRequestSender.MaximumConcurrentSendsPerMailHost";
+
+  /**
+   * The "Survey.BackgroundSurveyRequestSender.NotificationsEnabled" configuration key.
+   */
+  public static final String SURVEY_REQUEST_NOTIFICATIONS_ENABLED_CONFIGURATION_KEY =
+      "Survey.BackgroundSurveyRequestSender.NotificationsEnabled";
+
+  /**
+   * The "Survey.BackgroundSurveyResponseIngester.JournalFile" configuration key.
+   */
+  public static final String SURVEY_RESPONSE_JOURNAL_FILE_CONFIGURATION_KEY =
+      "Survey.BackgroundSurveyResponseIngester.JournalFile";
+
   /**
    * The "Survey.Mail.IsSecure" configuration key.
    */
   public static final String MAIL_IS_SECURE_CONFIGURATION_KEY = "Survey.Mail.IsSecure";
 
+  /**
+   * The "Survey.Mail.MaximumConnections" configuration key.
+   */
+  public static final String MAIL_MAXIMUM_CONNECTIONS_CONFIGURATION_KEY =
+      "Survey.Mail.MaximumConnections";
+
+  /**
+   * The "Survey.Mail.MaximumMessagesPerConnection" configuration key.
+   */
+  public static final String MAIL_MAXIMUM_MESSAGES_PER_CONNECTION_CONFIGURATION_KEY =
+      "Survey.Mail.MaximumMessagesPerConnection";
+
+  /**
+   * The "Survey.BackgroundSurveyResponseRatingsBackfiller.Backfilled" configuration key.
+   */
+  public static final String SURVEY_RESPONSE_RATINGS_BACKFILLED_CONFIGURATION_KEY =
+      "Survey.BackgroundSurveyResponseRatingsBackfiller.Backfilled";
+
+  /**
+   * The "Survey.EntityDataEncoding" configuration key.
+   */
+  public static final String ENTITY_DATA_ENCODING_CONFIGURATION_KEY = "Survey.EntityDataEncoding";
+
   /**
    * The default "Survey.CompleteSurvey.ResponseUrl" configuration value.
    */
@@ -153,6 +205,38 @@ public class SurveyApplication extends TemplateWebApplication
      * This is done to ensure that things like the Bootstrap collapse component work correctly.
      */
     getMarkupSettings().setStripWicketTags(true);
+
+    /*
+     * Mount the stateless JSON resource used by respondents to complete a survey without creating
+     * an HTTP session.
+     */
+    mountResource("/api/surveys/${surveyInstanceId}/responses/#{surveyRequestId}",
+        new ResourceReference(SurveyResponseResource.class, "surveyResponseResource")
+    {
+      private static final long serialVersionUID = 1000000;
+
+      @Override
+      public IResource getResource()
+      {
+        return new SurveyResponseResource();
+      }
+    });
+
+    /*
+     * Mount the HTTP-cacheable JSON resource used to retrieve the survey result for a survey
+     * instance.
+     */
+    mountResource("/api/surveys/${surveyInstanceId}/result",
+        new ResourceReference(SurveyResultResource.class, "surveyResultResource")
+    {
+      private static final long serialVersionUID = 1000000;
+
+      @Override
+      public IResource getResource()
+      {
+        return new SurveyResultResource();
+      }
+    });
   }
 
   /**
@@ -13,6 +13,9 @@ package digital.survey.web;
 
 //~--- non-JDK imports --------------------------------------------------------
 
+import digital.survey.model.BackgroundSurveyRequestSender;
+import digital.survey.model.EntityDataEncoding;
+import digital.survey.model.MailHelper;
 import guru.mmp.application.configuration.IConfigurationService;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.common.persistence.DAOUtil;
@@ -124,6 +127,24 @@ public class SurveyApplicationListener
             "no-reply@mlogic.biz", "The from e-mail address for the mail helper");
       }
 
+      if (!configurationService.keyExists(SurveyApplication
+          .MAIL_MAXIMUM_CONNECTIONS_CONFIGURATION_KEY))
+      {
+        configurationService.setValue(SurveyApplication.MAIL_MAXIMUM_CONNECTIONS_CONFIGURATION_KEY,
+            MailHelper.DEFAULT_MAXIMUM_CONNECTIONS,
+            "The maximum number of pooled connections to the mail server for the mail helper");
+      }
+
+      if (!configurationService.keyExists(SurveyApplication
+          .MAIL_MAXIMUM_MESSAGES_PER_CONNECTION_CONFIGURATION_KEY))
+      {
+        configurationService.setValue(SurveyApplication
+            .MAIL_MAXIMUM_MESSAGES_PER_CONNECTION_CONFIGURATION_KEY,
+            MailHelper.DEFAULT_MAXIMUM_MESSAGES_PER_CONNECTION,
+            "The maximum number of mails sent using a pooled connection to the mail server before"
+            + " it is recycled for the mail helper");
+      }
+
       if (!configurationService.keyExists(SurveyApplication
           .MAXIMUM_SURVEY_REQUEST_SEND_ATTEMPTS_CONFIGURATION_KEY))
       {
@@ -132,6 +153,52 @@ public class SurveyApplicationListener
             "The maximum number of attempts to send a survey request");
       }
 
+      if (!configurationService.keyExists(SurveyApplication
+          .MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_CONFIGURATION_KEY))
+      {
+        configurationService.setValue(SurveyApplication
+            .MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_CONFIGURATION_KEY,
+            BackgroundSurveyRequestSender.DEFAULT_MAXIMUM_CONCURRENT_SENDS,
+            "The maximum number of survey requests that will be sent concurrently");
+      }
+
+      if (!configurationService.keyExists(SurveyApplication
+          .MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_PER_MAIL_HOST_CONFIGURATION_KEY))
+      {
+        configurationService.setValue(SurveyApplication
+            .MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_PER_MAIL_HOST_CONFIGURATION_KEY,
+            BackgroundSurveyRequestSender.DEFAULT_MAXIMUM_CONCURRENT_SENDS_PER_MAIL_HOST,
+            "The maximum number of survey requests that will be sent concurrently using a single"
+            + " mail server");
+      }
+
+      if (!configurationService.keyExists(SurveyApplication
+          .SURVEY_REQUEST_NOTIFICATIONS_ENABLED_CONFIGURATION_KEY))
+      {
+        configurationService.setValue(SurveyApplication
+            .SURVEY_REQUEST_NOTIFICATIONS_ENABLED_CONFIGURATION_KEY, false,
+            "Should PostgreSQL notifications be used to wake up the survey request senders on all"
+            + " nodes when survey requests are queued for sending");
+      }
+
+      if (!configurationService.keyExists(SurveyApplication
+          .SURVEY_RESPONSE_JOURNAL_FILE_CONFIGURATION_KEY))
+      {
+        configurationService.setValue(SurveyApplication
+            .SURVEY_RESPONSE_JOURNAL_FILE_CONFIGURATION_KEY, "",
+            "The path to the local journal used to acknowledge survey responses before they are"
+            + " inserted in batches, or blank to save survey responses synchronously");
+      }
+
+      if (!configurationService.keyExists(SurveyApplication
+          .ENTITY_DATA_ENCODING_CONFIGURATION_KEY))
+      {
+        configurationService.setValue(SurveyApplication.ENTITY_DATA_ENCODING_CONFIGURATION_KEY,
+            EntityDataEncoding.JSON.code(),
+            "The numeric code for the encoding used to write the data for the survey definitions,"
+            + " survey responses and survey results (0 = JSON, 1 = Smile, 2 = Deflated Smile)");
+      }
+
     }
     catch (Throwable e)
     {
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package digital.survey.web.api;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import digital.survey.model.ISurveyService;
+import digital.survey.model.SurveyInstance;
+import digital.survey.model.SurveyRequest;
+import digital.survey.model.SurveyResponse;
+import org.apache.wicket.injection.Injector;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
+import org.apache.wicket.request.resource.AbstractResource;
+import org.apache.wicket.util.string.StringValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResponseResource</code> class implements the stateless JSON resource used by
+ * respondents to complete a survey without a stateful <code>CompleteSurveyPage</code> instance.
+ * <p/>
+ * A <b>GET</b> request returns the survey instance, its survey definition and a survey response,
+ * with the default ratings and values, which is used as the template for the survey response. A
+ * <b>POST</b> request submits the completed survey response, using the same JSON format as the
+ * survey response template, which is saved using the Survey Service. Only the IDs for the survey
+ * instance and optional survey request are passed in the URL and no state is retained between
+ * requests, so no HTTP session or page instance is created for the respondent and the requests can
+ * be handled by any node.
+ *
+ * @author Marcus Portmann
+ */
+public class SurveyResponseResource extends AbstractResource
+{
+  /* Logger */
+  private static final Logger logger = LoggerFactory.getLogger(SurveyResponseResource.class);
+
+  /**
+   * The maximum size in bytes of the JSON data for a submitted survey response.
+   */
+  private static final int MAXIMUM_SURVEY_RESPONSE_SIZE = 1024 * 1024;
+
+  /**
+   * The object mapper used to read and write the JSON data.
+   */
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final long serialVersionUID = 1000000;
+
+  /* Survey Service */
+  @Inject
+  private ISurveyService surveyService;
+
+  /**
+   * Constructs a new <code>SurveyResponseResource</code>.
+   */
+  public SurveyResponseResource()
+  {
+    Injector.get().inject(this);
+  }
+
+  /**
+   * Returns the resource response for the request.
+   *
+   * @param attributes the request attributes
+   *
+   * @return the resource response for the request
+   */
+  @Override
+  protected ResourceResponse newResourceResponse(Attributes attributes)
+  {
+    ResourceResponse resourceResponse = new ResourceResponse();
+
+    resourceResponse.disableCaching();
+
+    HttpServletRequest request = (HttpServletRequest) attributes.getRequest()
+        .getContainerRequest();
+
+    UUID surveyInstanceId = getUuidParameter(attributes.getParameters(), "surveyInstanceId");
+    UUID surveyRequestId = getUuidParameter(attributes.getParameters(), "surveyRequestId");
+
+    if (surveyInstanceId == null)
+    {
+      resourceResponse.setError(HttpServletResponse.SC_NOT_FOUND);
+
+      return resourceResponse;
+    }
+
+    try
+    {
+      SurveyInstance surveyInstance = surveyService.getSurveyInstance(surveyInstanceId);
+
+      if (surveyInstance == null)
+      {
+        resourceResponse.setError(HttpServletResponse.SC_NOT_FOUND);
+
+        return resourceResponse;
+      }
+
+      SurveyRequest surveyRequest = null;
+
+      if (surveyRequestId != null)
+      {
+        surveyRequest = surveyService.getSurveyRequest(surveyRequestId);
+
+        if ((surveyRequest == null)
+            || (!surveyRequest.getInstance().getId().equals(surveyInstanceId)))
+        {
+          resourceResponse.setError(HttpServletResponse.SC_NOT_FOUND);
+
+          return resourceResponse;
+        }
+      }
+      else if (!surveyInstance.getDefinition().isAnonymous())
+      {
+        resourceResponse.setError(HttpServletResponse.SC_FORBIDDEN);
+
+        return resourceResponse;
+      }
+
+      SurveyResponse surveyResponse = new SurveyResponse(surveyInstance, surveyRequest);
+
+      ObjectNode node = objectMapper.createObjectNode();
+
+      if ("GET".equals(request.getMethod()))
+      {
+        node.put("surveyInstanceId", surveyInstance.getId().toString());
+        node.put("name", surveyInstance.getName());
+        node.put("description", surveyInstance.getDescription());
+        node.set("definition", objectMapper.valueToTree(surveyInstance.getDefinition()));
+        node.set("response", objectMapper.valueToTree(surveyResponse));
+      }
+      else if ("POST".equals(request.getMethod()))
+      {
+        String data = readRequestBody(request);
+
+        if (data == null)
+        {
+          resourceResponse.setError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+
+          return resourceResponse;
+        }
+
+        try
+        {
+          surveyResponse.setResponseValues(data);
+        }
+        catch (Throwable e)
+        {
+          logger.warn("Failed to process the JSON data for the survey response for the survey"
+              + " instance (" + surveyInstanceId + "): " + e.getMessage());
+
+          resourceResponse.setError(HttpServletResponse.SC_BAD_REQUEST);
+
+          return resourceResponse;
+        }
+
+        surveyService.submitSurveyResponse(surveyResponse);
+
+        node.put("id", surveyResponse.getId().toString());
+
+        resourceResponse.setStatusCode(HttpServletResponse.SC_CREATED);
+      }
+      else
+      {
+        resourceResponse.setError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+
+        return resourceResponse;
+      }
+
+      byte[] body = objectMapper.writeValueAsBytes(node);
+
+      resourceResponse.setContentType("application/json");
+      resourceResponse.setTextEncoding(StandardCharsets.UTF_8.name());
+      resourceResponse.setContentLength(body.length);
+      resourceResponse.setWriteCallback(new WriteCallback()
+      {
+        @Override
+        public void writeData(Attributes attributes)
+        {
+          attributes.getResponse().write(body);
+        }
+      });
+
+      return resourceResponse;
+    }
+    catch (Throwable e)
+    {
+      logger.error("Failed to process the " + request.getMethod()
+          + " request for the survey response for the survey instance (" + surveyInstanceId
+          + ")", e);
+
+      resourceResponse.setError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+
+      return resourceResponse;
+    }
+  }
+
+  /**
+   * Returns the UUID value of the parameter.
+   *
+   * @param parameters the parameters
+   * @param name       the name of the parameter
+   *
+   * @return the UUID value of the parameter or <code>null</code> if the parameter was not
+   *         specified or is not a valid UUID
+   */
+  private static UUID getUuidParameter(PageParameters parameters, String name)
+  {
+    StringValue value = parameters.get(name);
+
+    if (value.isNull() || value.isEmpty())
+    {
+      return null;
+    }
+
+    try
+    {
+      return UUID.fromString(value.toString());
+    }
+    catch (IllegalArgumentException e)
+    {
+      return null;
+    }
+  }
+
+  /**
+   * Read the body of the request as a UTF-8 string.
+   *
+   * @param request the HTTP servlet request
+   *
+   * @return the body of the request or <code>null</code> if the body exceeds the maximum size for
+   *         a survey response
+   */
+  private static String readRequestBody(HttpServletRequest request)
+    throws Exception
+  {
+    if (request.getContentLength() > MAXIMUM_SURVEY_RESPONSE_SIZE)
+    {
+      return null;
+    }
+
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+
+    try (InputStream in = request.getInputStream())
+    {
+      int numberOfBytesRead;
+
+      while ((numberOfBytesRead = in.read(buffer)) != -1)
+      {
+        if ((body.size() + numberOfBytesRead) > MAXIMUM_SURVEY_RESPONSE_SIZE)
+        {
+          return null;
+        }
+
+        body.write(buffer, 0, numberOfBytesRead);
+      }
+    }
+
+    return new String(body.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.web.api;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import digital.survey.model.ISurveyService;
+import digital.survey.model.SurveyResult;
+import digital.survey.model.SurveyResultSummary;
+import digital.survey.web.SurveySecurity;
+import guru.mmp.application.web.WebSession;
+import org.apache.wicket.Session;
+import org.apache.wicket.injection.Injector;
+import org.apache.wicket.request.http.WebResponse;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
+import org.apache.wicket.request.resource.AbstractResource;
+import org.apache.wicket.util.string.StringValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResultResource</code> class implements the read-only JSON resource used to
+ * retrieve the compiled result for a survey instance, e.g. for dashboards that are refreshed
+ * frequently.
+ * <p/>
+ * Every response includes a strong <code>ETag</code>, derived from the ID of the survey instance
+ * and the number of survey responses and version of the materialized survey result, and a
+ * <code>Last-Modified</code> header with the date and time the survey result was last updated.
+ * Conditional requests using <code>If-None-Match</code> or <code>If-Modified-Since</code> are
+ * answered with a <b>304 Not Modified</b> using only the summary for the materialized survey
+ * result, without retrieving the survey result or querying the survey responses.
+ * <p/>
+ * The resource is only available to users with access to the survey administration or view survey
+ * response functions.
+ *
+ * @author Marcus Portmann
+ */
+public class SurveyResultResource extends AbstractResource
+{
+  /* Logger */
+  private static final Logger logger = LoggerFactory.getLogger(SurveyResultResource.class);
+
+  /**
+   * The formatter for the HTTP dates used in the <code>Last-Modified</code> header.
+   */
+  private static final DateTimeFormatter HTTP_DATE_FORMATTER =
+      DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+  /**
+   * The object mapper used to write the JSON data.
+   */
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final long serialVersionUID = 1000000;
+
+  /* Survey Service */
+  @Inject
+  private ISurveyService surveyService;
+
+  /**
+   * Constructs a new <code>SurveyResultResource</code>.
+   */
+  public SurveyResultResource()
+  {
+    Injector.get().inject(this);
+  }
+
+  /**
+   * Configure the response so that clients and shared caches revalidate the survey result, using
+   * a conditional request, every time it is used.
+   *
+   * @param data       the resource response
+   * @param attributes the request attributes
+   */
+  @Override
+  protected void configureCache(ResourceResponse data, Attributes attributes)
+  {
+    ((WebResponse) attributes.getResponse()).setHeader("Cache-Control", "private, no-cache");
+  }
+
+  /**
+   * Returns whether the user associated with the existing web session has access to the survey
+   * results.
+   * <p/>
+   * A web session is never created by this resource.
+   *
+   * @return <code>true</code> if the user has access to the survey results or <code>false</code>
+   *         otherwise
+   */
+  protected boolean hasAccessToSurveyResults()
+  {
+    if (!Session.exists())
+    {
+      return false;
+    }
+
+    WebSession session = (WebSession) Session.get();
+
+    return session.hasAcccessToFunction(SurveySecurity.FUNCTION_CODE_SURVEY_ADMINISTRATION)
+        || session.hasAcccessToFunction(SurveySecurity.FUNCTION_CODE_VIEW_SURVEY_RESPONSE);
+  }
+
+  /**
+   * Returns the resource response for the request.
+   *
+   * @param attributes the request attributes
+   *
+   * @return the resource response for the request
+   */
+  @Override
+  protected ResourceResponse newResourceResponse(Attributes attributes)
+  {
+    ResourceResponse resourceResponse = new ResourceResponse();
+
+    HttpServletRequest request = (HttpServletRequest) attributes.getRequest()
+        .getContainerRequest();
+
+    UUID surveyInstanceId = getUuidParameter(attributes.getParameters(), "surveyInstanceId");
+
+    if (surveyInstanceId == null)
+    {
+      resourceResponse.setError(HttpServletResponse.SC_NOT_FOUND);
+
+      return resourceResponse;
+    }
+
+    if (!"GET".equals(request.getMethod()))
+    {
+      resourceResponse.setError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+
+      return resourceResponse;
+    }
+
+    if (!hasAccessToSurveyResults())
+    {
+      resourceResponse.setError(HttpServletResponse.SC_FORBIDDEN);
+
+      return resourceResponse;
+    }
+
+    try
+    {
+      SurveyResultSummary surveyResultSummary =
+          surveyService.getSurveyResultSummaryForSurveyInstance(surveyInstanceId);
+
+      if (surveyResultSummary != null)
+      {
+        String entityTag = getEntityTag(surveyInstanceId,
+            surveyResultSummary.getNumberOfResponses(), surveyResultSummary.getVersion());
+
+        if (isNotModified(request, entityTag, surveyResultSummary.getUpdated()))
+        {
+          setValidators(resourceResponse, entityTag, surveyResultSummary.getUpdated());
+
+          resourceResponse.setStatusCode(HttpServletResponse.SC_NOT_MODIFIED);
+
+          return resourceResponse;
+        }
+      }
+      else if (surveyService.getSurveyInstance(surveyInstanceId) == null)
+      {
+        resourceResponse.setError(HttpServletResponse.SC_NOT_FOUND);
+
+        return resourceResponse;
+      }
+
+      SurveyResult surveyResult = surveyService.getSurveyResultForSurveyInstance(
+          surveyInstanceId);
+
+      ObjectNode node = objectMapper.createObjectNode();
+
+      node.put("surveyInstanceId", surveyInstanceId.toString());
+      node.put("numberOfResponses", surveyResult.getNumberOfResponses());
+      node.put("updated", HTTP_DATE_FORMATTER.format(surveyResult.getUpdated().toInstant()));
+      node.set("result", objectMapper.valueToTree(surveyResult));
+
+      byte[] body = objectMapper.writeValueAsBytes(node);
+
+      setValidators(resourceResponse, getEntityTag(surveyInstanceId,
+          surveyResult.getNumberOfResponses(), surveyResult.getVersion()),
+          surveyResult.getUpdated());
+
+      resourceResponse.setContentType("application/json");
+      resourceResponse.setTextEncoding(StandardCharsets.UTF_8.name());
+      resourceResponse.setContentLength(body.length);
+      resourceResponse.setWriteCallback(new WriteCallback()
+      {
+        @Override
+        public void writeData(Attributes attributes)
+        {
+          attributes.getResponse().write(body);
+        }
+      });
+
+      return resourceResponse;
+    }
+    catch (Throwable e)
+    {
+      logger.error("Failed to retrieve the survey result for the survey instance ("
+          + surveyInstanceId + ")", e);
+
+      resourceResponse.setError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+
+      return resourceResponse;
+    }
+  }
+
+  /**
+   * Returns the strong entity tag for the survey result.
+   *
+   * @param surveyInstanceId  the Universally Unique Identifier (UUID) used to uniquely identify the
+   *                          survey instance
+   * @param numberOfResponses the number of survey responses the survey result was compiled from
+   * @param version           the version of the survey result
+   *
+   * @return the strong entity tag for the survey result
+   */
+  private static String getEntityTag(UUID surveyInstanceId, int numberOfResponses, int version)
+  {
+    return String.format("\"%s-%d-%d\"", surveyInstanceId, numberOfResponses, version);
+  }
+
+  /**
+   * Returns the UUID value of the parameter.
+   *
+   * @param parameters the parameters
+   * @param name       the name of the parameter
+   *
+   * @return the UUID value of the parameter or <code>null</code> if the parameter was not
+   *         specified or is not a valid UUID
+   */
+  private static UUID getUuidParameter(PageParameters parameters, String name)
+  {
+    StringValue value = parameters.get(name);
+
+    if (value.isNull() || value.isEmpty())
+    {
+      return null;
+    }
+
+    try
+    {
+      return UUID.fromString(value.toString());
+    }
+    catch (IllegalArgumentException e)
+    {
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether the survey result has not been modified according to the conditional headers
+   * for the request.
+   * <p/>
+   * The <code>If-None-Match</code> header takes precedence over the <code>If-Modified-Since</code>
+   * header as required by RFC 7232.
+   *
+   * @param request   the HTTP servlet request
+   * @param entityTag the current entity tag for the survey result
+   * @param updated   the date and time the survey result was last updated
+   *
+   * @return <code>true</code> if the survey result has not been modified or <code>false</code>
+   *         otherwise
+   */
+  private static boolean isNotModified(HttpServletRequest request, String entityTag, Date updated)
+  {
+    String ifNoneMatch = request.getHeader("If-None-Match");
+
+    if (ifNoneMatch != null)
+    {
+      for (String candidate : ifNoneMatch.split(","))
+      {
+        candidate = candidate.trim();
+
+        // The weak comparison function is used for If-None-Match
+        if (candidate.startsWith("W/"))
+        {
+          candidate = candidate.substring(2);
+        }
+
+        if (candidate.equals("*") || candidate.equals(entityTag))
+        {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    try
+    {
+      long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+
+      // HTTP dates only have a precision of one second
+      return (ifModifiedSince != -1) && ((updated.getTime() / 1000L) <= (ifModifiedSince / 1000L));
+    }
+    catch (IllegalArgumentException e)
+    {
+      return false;
+    }
+  }
+
+  /**
+   * Set the <code>ETag</code> and <code>Last-Modified</code> headers for the resource response.
+   *
+   * @param resourceResponse the resource response
+   * @param entityTag        the entity tag for the survey result
+   * @param updated          the date and time the survey result was last updated
+   */
+  private static void setValidators(ResourceResponse resourceResponse, String entityTag,
+      Date updated)
+  {
+    resourceResponse.getHeaders().addHeader("ETag", entityTag);
+    resourceResponse.getHeaders().addHeader("Last-Modified", HTTP_DATE_FORMATTER.format(
+        updated.toInstant()));
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.web.components;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.model.SurveyDefinition;
+import digital.survey.model.SurveyGroupRatingResponse;
+import digital.survey.model.SurveyGroupRatingsDefinition;
+import digital.survey.model.SurveyResponse;
+import org.apache.wicket.markup.ComponentTag;
+import org.apache.wicket.markup.MarkupStream;
+import org.apache.wicket.markup.html.form.FormComponent;
+import org.apache.wicket.model.IModel;
+import org.apache.wicket.request.IRequestParameters;
+
+import java.util.List;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyGroupRatingsResponseGrid</code> class implements the form component that
+ * renders the table of ratings for a survey group ratings response.
+ * <p/>
+ * Rather than building a component for every survey group member and survey group rating, the
+ * static markup for the table is retrieved from the <code>SurveyResponseFormCache</code> and only
+ * the selected rating for each cell is rendered for the survey response. The ratings submitted
+ * for the cells are validated against the rating options for the cells and then applied directly
+ * to the survey group rating responses for the survey response.
+ *
+ * @author Marcus Portmann
+ */
+class SurveyGroupRatingsResponseGrid extends FormComponent<SurveyResponse>
+{
+  private static final long serialVersionUID = 1000000;
+
+  /**
+   * The model for the survey group ratings definition.
+   */
+  private IModel<SurveyGroupRatingsDefinition> surveyGroupRatingsDefinitionModel;
+
+  /**
+   * The submitted ratings for the cells that have been validated but not applied to the survey
+   * response.
+   */
+  private int[] submittedRatings;
+
+  /**
+   * Constructs a new <code>SurveyGroupRatingsResponseGrid</code>.
+   *
+   * @param id                                the non-null id of this component
+   * @param surveyGroupRatingsDefinitionModel the model for the survey group ratings definition
+   * @param surveyResponseModel               the model for the survey response
+   */
+  SurveyGroupRatingsResponseGrid(String id,
+      IModel<SurveyGroupRatingsDefinition> surveyGroupRatingsDefinitionModel,
+      IModel<SurveyResponse> surveyResponseModel)
+  {
+    super(id, surveyResponseModel);
+
+    this.surveyGroupRatingsDefinitionModel = surveyGroupRatingsDefinitionModel;
+  }
+
+  /**
+   * Validate the ratings submitted for the cells.
+   */
+  @Override
+  protected void convertInput()
+  {
+    List<SurveyResponseFormCache.Cell> cells = getSkeleton().getCells();
+
+    IRequestParameters parameters = getRequest().getPostParameters();
+
+    int[] ratings = new int[cells.size()];
+
+    for (int i = 0; i < cells.size(); i++)
+    {
+      SurveyResponseFormCache.Cell cell = cells.get(i);
+
+      String value = parameters.getParameterValue(getCellInputName(i)).toOptionalString();
+
+      try
+      {
+        ratings[i] = Integer.parseInt(value);
+      }
+      catch (NumberFormatException e)
+      {
+        error("Please select a valid rating for every group member");
+
+        return;
+      }
+
+      if (!cell.isValidRating(ratings[i]))
+      {
+        error("Please select a valid rating for every group member");
+
+        return;
+      }
+    }
+
+    submittedRatings = ratings;
+
+    setConvertedInput(getModelObject());
+  }
+
+  @Override
+  protected void detachModel()
+  {
+    super.detachModel();
+
+    surveyGroupRatingsDefinitionModel.detach();
+  }
+
+  @Override
+  protected void onComponentTag(ComponentTag tag)
+  {
+    super.onComponentTag(tag);
+
+    // The ratings are submitted using the names of the select elements for the cells
+    tag.remove("name");
+  }
+
+  /**
+   * Render the table of ratings using the cached static markup and the ratings for the survey
+   * response.
+   *
+   * @param markupStream the markup stream
+   * @param openTag      the tag for the component
+   */
+  @Override
+  public void onComponentTagBody(MarkupStream markupStream, ComponentTag openTag)
+  {
+    SurveyResponseFormCache.Skeleton skeleton = getSkeleton();
+
+    List<SurveyResponseFormCache.Cell> cells = skeleton.getCells();
+    List<String> fragments = skeleton.getFragments();
+
+    UUID groupRatingsDefinitionId = surveyGroupRatingsDefinitionModel.getObject().getId();
+
+    SurveyResponse surveyResponse = getModelObject();
+
+    StringBuilder buffer = new StringBuilder(fragments.get(fragments.size() - 1).length()
+        + (cells.size() * 256));
+
+    for (int i = 0; i < cells.size(); i++)
+    {
+      SurveyResponseFormCache.Cell cell = cells.get(i);
+
+      int rating;
+
+      if (submittedRatings != null)
+      {
+        rating = submittedRatings[i];
+      }
+      else
+      {
+        SurveyGroupRatingResponse groupRatingResponse =
+            surveyResponse.getGroupRatingResponseForDefinition(groupRatingsDefinitionId,
+            cell.getGroupRatingDefinitionId(), cell.getGroupMemberDefinitionId());
+
+        rating = groupRatingResponse.getRating();
+      }
+
+      buffer.append(fragments.get(i));
+      buffer.append(getCellInputName(i)).append("\">");
+
+      cell.renderOptions(buffer, rating);
+    }
+
+    buffer.append(fragments.get(fragments.size() - 1));
+
+    replaceComponentTagBody(markupStream, openTag, buffer);
+  }
+
+  /**
+   * Apply the validated ratings submitted for the cells to the survey group rating responses for
+   * the survey response.
+   */
+  @Override
+  public void updateModel()
+  {
+    if (submittedRatings == null)
+    {
+      return;
+    }
+
+    List<SurveyResponseFormCache.Cell> cells = getSkeleton().getCells();
+
+    UUID groupRatingsDefinitionId = surveyGroupRatingsDefinitionModel.getObject().getId();
+
+    SurveyResponse surveyResponse = getModelObject();
+
+    for (int i = 0; i < cells.size(); i++)
+    {
+      SurveyResponseFormCache.Cell cell = cells.get(i);
+
+      surveyResponse.getGroupRatingResponseForDefinition(groupRatingsDefinitionId,
+          cell.getGroupRatingDefinitionId(), cell.getGroupMemberDefinitionId()).setRating(
+          submittedRatings[i]);
+    }
+
+    submittedRatings = null;
+  }
+
+  /**
+   * Returns the name of the request parameter for the rating for the cell.
+   *
+   * @param index the index of the cell
+   *
+   * @return the name of the request parameter for the rating for the cell
+   */
+  private String getCellInputName(int index)
+  {
+    return getInputName() + "_" + index;
+  }
+
+  /**
+   * Returns the markup skeleton for the survey group ratings definition for the version of the
+   * survey definition the survey response is associated with.
+   *
+   * @return the markup skeleton for the survey group ratings definition
+   */
+  private SurveyResponseFormCache.Skeleton getSkeleton()
+  {
+    SurveyDefinition surveyDefinition = getModelObject().getInstance().getDefinition();
+
+    return SurveyResponseFormCache.getGroupRatingsSkeleton(surveyDefinition.getId(),
+        surveyDefinition.getVersion(), surveyGroupRatingsDefinitionModel.getObject());
+  }
+}
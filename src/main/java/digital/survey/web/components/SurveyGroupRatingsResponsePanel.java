@@ -14,23 +14,19 @@ package digital.survey.web.components;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.*;
-import guru.mmp.application.web.components.StringSelectOption;
-import guru.mmp.application.web.template.components.DropDownChoiceWithFeedback;
 import org.apache.wicket.markup.html.basic.Label;
-import org.apache.wicket.markup.html.form.ChoiceRenderer;
-import org.apache.wicket.markup.html.list.ListItem;
-import org.apache.wicket.markup.html.list.ListView;
 import org.apache.wicket.markup.html.panel.Panel;
 import org.apache.wicket.model.IModel;
 import org.apache.wicket.model.PropertyModel;
 
-import java.util.ArrayList;
-import java.util.List;
-
 //~--- JDK imports ------------------------------------------------------------
 
 /**
  * The <code>SurveyGroupRatingsResponsePanel</code> class.
+ * <p/>
+ * The table of ratings is rendered by a single <code>SurveyGroupRatingsResponseGrid</code> form
+ * component, using the markup cached for the version of the survey definition, rather than a
+ * component for every survey group member and survey group rating.
  *
  * @author Marcus Portmann
  */
@@ -55,76 +51,7 @@ class SurveyGroupRatingsResponsePanel extends Panel
 
     add(new Label("label", new PropertyModel<>(surveyGroupRatingsDefinitionModel, "label")));
 
-    add(new ListView<SurveyGroupRatingDefinition>("groupRating", new PropertyModel<>(
-        surveyGroupRatingsDefinitionModel, "groupRatingDefinitions"))
-        {
-          @Override
-          protected void populateItem(ListItem<SurveyGroupRatingDefinition> item)
-          {
-            item.add(new Label("name", new PropertyModel(item.getModel(), "name")));
-          }
-        });
-
-    add(new ListView<SurveyGroupMemberDefinition>("groupMember", new PropertyModel<>(
-        surveyGroupRatingsDefinitionModel, "groupMemberDefinitions"))
-        {
-          @Override
-          protected void populateItem(ListItem<SurveyGroupMemberDefinition> item)
-          {
-            SurveyGroupMemberDefinition groupMemberDefinition = item.getModelObject();
-
-            item.add(new Label("name", new PropertyModel<>(groupMemberDefinition, "name")));
-
-            item.add(new ListView<SurveyGroupRatingDefinition>("groupRatingResponse",
-                new PropertyModel<>(surveyGroupRatingsDefinitionModel, "groupRatingDefinitions"))
-            {
-              @Override
-              protected void populateItem(ListItem<SurveyGroupRatingDefinition> item)
-              {
-                SurveyGroupRatingDefinition groupRatingDefinition = item.getModelObject();
-
-                SurveyGroupRatingsDefinition groupRatingsDefinition =
-                    surveyGroupRatingsDefinitionModel.getObject();
-
-                SurveyResponse surveyResponse = surveyResponseModel.getObject();
-
-                if (groupRatingDefinition.getRatingType() == SurveyGroupRatingType.YES_NO_NA)
-                {
-                  SurveyGroupRatingResponse groupRatingResponse =
-                      surveyResponse.getGroupRatingResponseForDefinition(
-                      groupRatingsDefinition.getId(), groupRatingDefinition.getId(),
-                      groupMemberDefinition.getId());
-
-                  ChoiceRenderer<StringSelectOption> choiceRenderer = new ChoiceRenderer<>("name",
-                      "value");
-
-                  item.add(new DropDownChoiceWithFeedback<>("rating", new PropertyModel<>(
-                      groupRatingResponse, "rating"), getGroupRatingResponseOptions(
-                      groupRatingDefinition.getRatingType()), choiceRenderer));
-                }
-                else
-                {
-                  throw new RuntimeException("Unsupported survey group rating item type ("
-                      + groupRatingDefinition.getRatingType() + ")");
-                }
-              }
-            });
-          }
-        });
-  }
-
-  private List<StringSelectOption> getGroupRatingResponseOptions(
-      SurveyGroupRatingType groupRatingType)
-  {
-    List<StringSelectOption> options = new ArrayList<>();
-
-    if (groupRatingType == SurveyGroupRatingType.YES_NO_NA)
-    {
-      options.add(new StringSelectOption("Yes", "1"));
-      options.add(new StringSelectOption("No", "0"));
-      options.add(new StringSelectOption("-", "-1"));
-    }
-
-    return options;
+    add(new SurveyGroupRatingsResponseGrid("groupRatings", surveyGroupRatingsDefinitionModel,
+        surveyResponseModel));
   }
 }
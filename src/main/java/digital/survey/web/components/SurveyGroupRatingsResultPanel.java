@@ -22,8 +22,6 @@ import org.apache.wicket.markup.html.panel.Panel;
 import org.apache.wicket.model.IModel;
 import org.apache.wicket.model.PropertyModel;
 
-import java.util.List;
-
 //~--- JDK imports ------------------------------------------------------------
 
 /**
@@ -73,7 +71,8 @@ class SurveyGroupRatingsResultPanel extends Panel
             SurveyGroupRatingsDefinition groupRatingsDefinition =
                 surveyGroupRatingsDefinitionModel.getObject();
 
-            SurveyResult surveyResult = surveyResultModel.getObject();
+            SurveyGroupRatingsTotals groupRatingsTotals = surveyResultModel.getObject()
+                .getGroupRatingsTotals(groupRatingsDefinition.getId());
 
             item.add(new Label("name", new PropertyModel<>(groupMemberDefinition, "name")));
 
@@ -87,89 +86,46 @@ class SurveyGroupRatingsResultPanel extends Panel
 
                 if (groupRatingDefinition.getRatingType() == SurveyGroupRatingType.YES_NO_NA)
                 {
-                  SurveyGroupRatingResult groupRatingResult = surveyResult.getGroupRatingResult(
-                      groupRatingsDefinition.getId(), groupRatingDefinition.getId(),
-                      groupMemberDefinition.getId());
+                  SurveyGroupRatingScore score = groupRatingsTotals.getScore(
+                      groupRatingDefinition.getId(), groupMemberDefinition.getId());
 
-                  float averageRating = groupRatingResult.getAverageRating();
+                  Label ratingLabel = new Label("rating", String.format(
+                      "%3.0f%%<br><span class=\"num-ratings\">%d/%d</span>",
+                      score.getAverageRating(), score.getNumberOfRatingsWithValidScore(),
+                      score.getNumberOfRatings()));
+                  ratingLabel.setEscapeModelStrings(false);
 
-                  if (averageRating == -1)
+                  if (groupRatingsDefinition.getDisplayRatingsUsingGradient())
                   {
-                    Label ratingLabel = new Label("rating", "-");
-
-                    item.add(ratingLabel);
+                    ratingLabel.add(new AttributeAppender("class", "grad-"
+                        + score.getGradient()));
                   }
-                  else
-                  {
-                    int maxNumberOfRatings = groupRatingResult.getRatings().size();
-
-                    int grad = ((int) (averageRating / 5)) * 5;
-
-                    Label ratingLabel = new Label("rating", String.format(
-                        "%3.0f%%<br><span class=\"num-ratings\">%d/%d</span>", averageRating,
-                        groupRatingResult.getNumberOfRatingsWithValidScore(), maxNumberOfRatings));
-                    ratingLabel.setEscapeModelStrings(false);
-
-                    if (groupRatingsDefinition.getDisplayRatingsUsingGradient())
-                    {
-                      ratingLabel.add(new AttributeAppender("class", "grad-" + grad));
-                    }
 
-                    item.add(ratingLabel);
-                  }
+                  item.add(ratingLabel);
                 }
                 else
                 {
                   throw new RuntimeException("Unsupported survey group rating item type ("
                       + groupRatingDefinition.getRatingType() + ")");
                 }
-
               }
             });
 
-            // Calculate and show the total
-            List<SurveyGroupRatingResult> groupRatingResults =
-                surveyResult.getGroupRatingResultsForGroupMember(groupMemberDefinition.getId());
-
-            float totalAverageRating = 0;
-            int totalNumberOfRatingsWithValidScore = 0;
-
-            for (SurveyGroupRatingResult groupRatingResult : groupRatingResults)
-            {
-              float averageRating = groupRatingResult.getAverageRating();
-
-              totalAverageRating += (averageRating
-                  * groupRatingResult.getNumberOfRatingsWithValidScore());
-
-              totalNumberOfRatingsWithValidScore +=
-                  groupRatingResult.getNumberOfRatingsWithValidScore();
-            }
-
-            float weightedTotalAverageRating = 0;
-
-            if (totalNumberOfRatingsWithValidScore > 0)
-            {
-              weightedTotalAverageRating = totalAverageRating / totalNumberOfRatingsWithValidScore;
-            }
-            else
-            {
-              weightedTotalAverageRating = 50;
-            }
-
-            int grad = ((int) (weightedTotalAverageRating / 5)) * 5;
+            // Show the precomputed weighted total
+            SurveyGroupRatingScore total = groupRatingsTotals.getGroupMemberTotal(
+                groupMemberDefinition.getId());
 
             Label ratingLabel = new Label("total", String.format("%3.0f%%",
-                weightedTotalAverageRating));
+                total.getAverageRating()));
 
             ratingLabel.setEscapeModelStrings(false);
 
             if (groupRatingsDefinition.getDisplayRatingsUsingGradient())
             {
-              ratingLabel.add(new AttributeAppender("class", "grad-" + grad));
+              ratingLabel.add(new AttributeAppender("class", "grad-" + total.getGradient()));
             }
 
             item.add(ratingLabel);
-
           }
         });
   }
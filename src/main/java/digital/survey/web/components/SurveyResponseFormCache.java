@@ -0,0 +1,390 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.web.components;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.model.SurveyGroupMemberDefinition;
+import digital.survey.model.SurveyGroupRatingDefinition;
+import digital.survey.model.SurveyGroupRatingType;
+import digital.survey.model.SurveyGroupRatingsDefinition;
+import org.apache.wicket.util.string.Strings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResponseFormCache</code> class implements the shared, thread-safe, in-memory
+ * cache of the pre-rendered markup skeletons for the survey group ratings on the respondent form,
+ * keyed by the ID and version of the survey definition and the ID of the survey group ratings
+ * definition.
+ * <p/>
+ * A version of a survey definition cannot change once a survey instance has been created for it,
+ * and survey responses are only captured for survey instances, so the static markup for the table
+ * of survey group ratings, i.e. everything except the selected rating for each survey group
+ * member, is rendered once per version and shared by all the respondent forms for the version.
+ * <p/>
+ * The cache is bounded by the total length of the cached markup and the least recently used
+ * entries are evicted first.
+ *
+ * @author Marcus Portmann
+ */
+final class SurveyResponseFormCache
+{
+  /**
+   * The maximum total length in characters of the markup for the cached entries.
+   */
+  static final long MAXIMUM_SIZE = 8L * 1024L * 1024L;
+
+  /**
+   * The cache entries, in least recently used order.
+   */
+  private static final Map<String, Skeleton> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * The total length in characters of the markup for the cached entries.
+   */
+  private static long size;
+
+  /**
+   * Private default constructor to prevent instantiation.
+   */
+  private SurveyResponseFormCache() {}
+
+  /**
+   * Returns the markup skeleton for the survey group ratings definition for the version of the
+   * survey definition, rendering and caching it if required.
+   *
+   * @param definitionId           the Universally Unique Identifier (UUID) used to, along with the
+   *                               version of the survey definition, uniquely identify the survey
+   *                               definition
+   * @param definitionVersion      the version of the survey definition
+   * @param groupRatingsDefinition the survey group ratings definition
+   *
+   * @return the markup skeleton for the survey group ratings definition
+   */
+  static Skeleton getGroupRatingsSkeleton(UUID definitionId, int definitionVersion,
+      SurveyGroupRatingsDefinition groupRatingsDefinition)
+  {
+    String key = definitionId + ":" + definitionVersion + ":" + groupRatingsDefinition.getId();
+
+    synchronized (SurveyResponseFormCache.class)
+    {
+      Skeleton skeleton = entries.get(key);
+
+      if (skeleton != null)
+      {
+        return skeleton;
+      }
+    }
+
+    // Render the skeleton outside the lock, a concurrent render of the same skeleton is harmless
+    Skeleton skeleton = new Skeleton(groupRatingsDefinition);
+
+    synchronized (SurveyResponseFormCache.class)
+    {
+      if ((skeleton.size <= MAXIMUM_SIZE) && (!entries.containsKey(key)))
+      {
+        entries.put(key, skeleton);
+
+        size += skeleton.size;
+
+        Iterator<Skeleton> iterator = entries.values().iterator();
+
+        while ((size > MAXIMUM_SIZE) && iterator.hasNext())
+        {
+          size -= iterator.next().size;
+
+          iterator.remove();
+        }
+      }
+    }
+
+    return skeleton;
+  }
+
+  /**
+   * The <code>Cell</code> class holds the IDs and rating options for a cell in the table of survey
+   * group ratings, which contains the rating for a survey group member for a survey group rating.
+   */
+  static final class Cell
+  {
+    /**
+     * The Universally Unique Identifier (UUID) used to uniquely identify the survey group member
+     * definition.
+     */
+    private final UUID groupMemberDefinitionId;
+
+    /**
+     * The Universally Unique Identifier (UUID) used to uniquely identify the survey group rating
+     * definition.
+     */
+    private final UUID groupRatingDefinitionId;
+
+    /**
+     * The pre-rendered markup for the rating options, excluding the value and selected attributes.
+     */
+    private final String[] optionLabels;
+
+    /**
+     * The values for the rating options.
+     */
+    private final int[] optionValues;
+
+    /**
+     * Constructs a new <code>Cell</code>.
+     *
+     * @param groupRatingDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+     *                                identify the survey group rating definition
+     * @param groupMemberDefinitionId the Universally Unique Identifier (UUID) used to uniquely
+     *                                identify the survey group member definition
+     * @param optionValues            the values for the rating options
+     * @param optionLabels            the pre-rendered markup for the rating options
+     */
+    private Cell(UUID groupRatingDefinitionId, UUID groupMemberDefinitionId, int[] optionValues,
+        String[] optionLabels)
+    {
+      this.groupRatingDefinitionId = groupRatingDefinitionId;
+      this.groupMemberDefinitionId = groupMemberDefinitionId;
+      this.optionValues = optionValues;
+      this.optionLabels = optionLabels;
+    }
+
+    /**
+     * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+     * member definition.
+     *
+     * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+     *         member definition
+     */
+    UUID getGroupMemberDefinitionId()
+    {
+      return groupMemberDefinitionId;
+    }
+
+    /**
+     * Returns the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+     * rating definition.
+     *
+     * @return the Universally Unique Identifier (UUID) used to uniquely identify the survey group
+     *         rating definition
+     */
+    UUID getGroupRatingDefinitionId()
+    {
+      return groupRatingDefinitionId;
+    }
+
+    /**
+     * Returns whether the rating is one of the rating options for the cell.
+     *
+     * @param rating the rating
+     *
+     * @return <code>true</code> if the rating is one of the rating options for the cell or
+     *         <code>false</code> otherwise
+     */
+    boolean isValidRating(int rating)
+    {
+      for (int optionValue : optionValues)
+      {
+        if (optionValue == rating)
+        {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    /**
+     * Render the rating options for the cell, selecting the option for the rating.
+     *
+     * @param buffer the buffer to render the rating options to
+     * @param rating the rating
+     */
+    void renderOptions(StringBuilder buffer, int rating)
+    {
+      for (int i = 0; i < optionValues.length; i++)
+      {
+        buffer.append("<option value=\"").append(optionValues[i]).append('"');
+
+        if (optionValues[i] == rating)
+        {
+          buffer.append(" selected=\"selected\"");
+        }
+
+        buffer.append(optionLabels[i]);
+      }
+    }
+  }
+
+  /**
+   * The <code>Skeleton</code> class holds the pre-rendered static markup for the table of survey
+   * group ratings for a survey group ratings definition.
+   * <p/>
+   * The markup consists of the static fragments that are rendered before, between and after the
+   * <code>select</code> elements for the cells in the table, in document order.
+   */
+  static final class Skeleton
+  {
+    /**
+     * The cells in the table, in document order.
+     */
+    private final List<Cell> cells;
+
+    /**
+     * The static markup fragments, where the fragment with index <i>n</i> is rendered before the
+     * cell with index <i>n</i> and the last fragment is rendered after the last cell.
+     */
+    private final List<String> fragments;
+
+    /**
+     * The total length in characters of the static markup fragments.
+     */
+    private final long size;
+
+    /**
+     * Constructs a new <code>Skeleton</code> by rendering the static markup for the table of survey
+     * group ratings for the survey group ratings definition.
+     *
+     * @param groupRatingsDefinition the survey group ratings definition
+     */
+    private Skeleton(SurveyGroupRatingsDefinition groupRatingsDefinition)
+    {
+      List<SurveyGroupRatingDefinition> groupRatingDefinitions =
+          groupRatingsDefinition.getGroupRatingDefinitions();
+
+      List<Cell> cells = new ArrayList<>();
+      List<String> fragments = new ArrayList<>();
+
+      StringBuilder buffer = new StringBuilder();
+
+      buffer.append("<table class=\"table table-striped table-group-ratings\">");
+      buffer.append("<thead><tr><th></th>");
+
+      for (SurveyGroupRatingDefinition groupRatingDefinition : groupRatingDefinitions)
+      {
+        buffer.append("<th><div>").append(Strings.escapeMarkup(groupRatingDefinition.getName()))
+            .append("</div></th>");
+      }
+
+      buffer.append("</tr></thead><tbody>");
+
+      for (SurveyGroupMemberDefinition groupMemberDefinition :
+          groupRatingsDefinition.getGroupMemberDefinitions())
+      {
+        buffer.append("<tr><td>").append(Strings.escapeMarkup(groupMemberDefinition.getName()))
+            .append("</td>");
+
+        for (SurveyGroupRatingDefinition groupRatingDefinition : groupRatingDefinitions)
+        {
+          buffer.append("<td class=\"center\"><div class=\"form-group\">");
+          buffer.append("<div class=\"select-wrapper\"><select class=\"form-control\" name=\"");
+
+          fragments.add(buffer.toString());
+
+          buffer.setLength(0);
+
+          buffer.append("</select></div></div></td>");
+
+          cells.add(new Cell(groupRatingDefinition.getId(), groupMemberDefinition.getId(),
+              getOptionValues(groupRatingDefinition.getRatingType()), getOptionLabels(
+              groupRatingDefinition.getRatingType())));
+        }
+
+        buffer.append("</tr>");
+      }
+
+      buffer.append("</tbody></table>");
+
+      fragments.add(buffer.toString());
+
+      long size = 0;
+
+      for (String fragment : fragments)
+      {
+        size += fragment.length();
+      }
+
+      this.cells = Collections.unmodifiableList(cells);
+      this.fragments = Collections.unmodifiableList(fragments);
+      this.size = size;
+    }
+
+    /**
+     * Returns the pre-rendered markup for the rating options for the survey group rating type.
+     *
+     * @param groupRatingType the survey group rating type
+     *
+     * @return the pre-rendered markup for the rating options
+     */
+    private static String[] getOptionLabels(SurveyGroupRatingType groupRatingType)
+    {
+      if (groupRatingType == SurveyGroupRatingType.YES_NO_NA)
+      {
+        return new String[] { ">Yes</option>", ">No</option>", ">-</option>" };
+      }
+      else
+      {
+        throw new RuntimeException("Unsupported survey group rating item type ("
+            + groupRatingType + ")");
+      }
+    }
+
+    /**
+     * Returns the values for the rating options for the survey group rating type.
+     *
+     * @param groupRatingType the survey group rating type
+     *
+     * @return the values for the rating options
+     */
+    private static int[] getOptionValues(SurveyGroupRatingType groupRatingType)
+    {
+      if (groupRatingType == SurveyGroupRatingType.YES_NO_NA)
+      {
+        return new int[] { 1, 0, -1 };
+      }
+      else
+      {
+        throw new RuntimeException("Unsupported survey group rating item type ("
+            + groupRatingType + ")");
+      }
+    }
+
+    /**
+     * Returns the cells in the table, in document order.
+     *
+     * @return the cells in the table, in document order
+     */
+    List<Cell> getCells()
+    {
+      return cells;
+    }
+
+    /**
+     * Returns the static markup fragments, where the fragment with index <i>n</i> is rendered
+     * before the cell with index <i>n</i> and the last fragment is rendered after the last cell.
+     *
+     * @return the static markup fragments
+     */
+    List<String> getFragments()
+    {
+      return fragments;
+    }
+  }
+}
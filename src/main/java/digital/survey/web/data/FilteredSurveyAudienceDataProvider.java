@@ -14,6 +14,7 @@ package digital.survey.web.data;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.ISurveyService;
+import digital.survey.model.SortDirection;
 import digital.survey.model.SurveyAudience;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.application.web.data.InjectableDataProvider;
@@ -22,7 +23,6 @@ import org.apache.wicket.model.IModel;
 
 import javax.inject.Inject;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -103,12 +103,11 @@ public class FilteredSurveyAudienceDataProvider extends InjectableDataProvider<S
   {
     try
     {
-      List<SurveyAudience> allSurveyAudiences = StringUtil.isNullOrEmpty(filter)
-          ? surveyService.getSurveyAudiencesForOrganisation(organisationId)
-          : surveyService.getFilteredSurveyAudiencesForOrganisation(organisationId, filter);
-
-      return allSurveyAudiences.subList((int) first, (int) Math.min(first + count,
-          allSurveyAudiences.size())).iterator();
+      return (StringUtil.isNullOrEmpty(filter)
+          ? surveyService.getSurveyAudiencesForOrganisation(organisationId, (int) first,
+              (int) count, SortDirection.ASCENDING)
+          : surveyService.getFilteredSurveyAudiencesForOrganisation(organisationId, filter,
+              (int) first, (int) count, SortDirection.ASCENDING)).iterator();
     }
     catch (Throwable e)
     {
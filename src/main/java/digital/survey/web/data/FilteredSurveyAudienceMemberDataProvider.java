@@ -14,6 +14,7 @@ package digital.survey.web.data;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.ISurveyService;
+import digital.survey.model.SortDirection;
 import digital.survey.model.SurveyAudienceMember;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.application.web.data.InjectableDataProvider;
@@ -22,7 +23,6 @@ import org.apache.wicket.model.IModel;
 
 import javax.inject.Inject;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -105,12 +105,11 @@ public class FilteredSurveyAudienceMemberDataProvider
   {
     try
     {
-      List<SurveyAudienceMember> allSurveyAudienceMembers = StringUtil.isNullOrEmpty(filter)
-          ? surveyService.getMembersForSurveyAudience(surveyAudienceId)
-          : surveyService.getFilteredMembersForSurveyAudience(surveyAudienceId, filter);
-
-      return allSurveyAudienceMembers.subList((int) first, (int) Math.min(first + count,
-          allSurveyAudienceMembers.size())).iterator();
+      return (StringUtil.isNullOrEmpty(filter)
+          ? surveyService.getMembersForSurveyAudience(surveyAudienceId, (int) first, (int) count,
+              SortDirection.ASCENDING)
+          : surveyService.getFilteredMembersForSurveyAudience(surveyAudienceId, filter, (int) first,
+              (int) count, SortDirection.ASCENDING)).iterator();
     }
     catch (Throwable e)
     {
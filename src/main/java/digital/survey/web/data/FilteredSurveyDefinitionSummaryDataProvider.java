@@ -14,6 +14,7 @@ package digital.survey.web.data;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.ISurveyService;
+import digital.survey.model.SortDirection;
 import digital.survey.model.SurveyDefinitionSummary;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.application.web.data.InjectableDataProvider;
@@ -22,7 +23,6 @@ import org.apache.wicket.model.IModel;
 
 import javax.inject.Inject;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -106,13 +106,11 @@ public class FilteredSurveyDefinitionSummaryDataProvider
   {
     try
     {
-      List<SurveyDefinitionSummary> allSurveyDefinitionSummarys = StringUtil.isNullOrEmpty(filter)
-          ? surveyService.getSurveyDefinitionSummariesForOrganisation(organisationId)
+      return (StringUtil.isNullOrEmpty(filter)
+          ? surveyService.getSurveyDefinitionSummariesForOrganisation(organisationId, (int) first,
+              (int) count, SortDirection.ASCENDING)
           : surveyService.getFilteredSurveyDefinitionSummariesForOrganisation(organisationId,
-              filter);
-
-      return allSurveyDefinitionSummarys.subList((int) first, (int) Math.min(first + count,
-          allSurveyDefinitionSummarys.size())).iterator();
+              filter, (int) first, (int) count, SortDirection.ASCENDING)).iterator();
     }
     catch (Throwable e)
     {
@@ -14,6 +14,7 @@ package digital.survey.web.data;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.ISurveyService;
+import digital.survey.model.SortDirection;
 import digital.survey.model.SurveyInstance;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.application.web.data.InjectableDataProvider;
@@ -22,7 +23,6 @@ import org.apache.wicket.model.IModel;
 
 import javax.inject.Inject;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -103,12 +103,11 @@ public class FilteredSurveyInstanceDataProvider extends InjectableDataProvider<S
   {
     try
     {
-      List<SurveyInstance> allSurveyInstances = StringUtil.isNullOrEmpty(filter)
-          ? surveyService.getSurveyInstancesForSurveyDefinition(surveyDefinitionId)
-          : surveyService.getFilteredSurveyInstancesForSurveyDefinition(surveyDefinitionId, filter);
-
-      return allSurveyInstances.subList((int) first, (int) Math.min(first + count,
-          allSurveyInstances.size())).iterator();
+      return (StringUtil.isNullOrEmpty(filter)
+          ? surveyService.getSurveyInstancesForSurveyDefinition(surveyDefinitionId, (int) first,
+              (int) count, SortDirection.ASCENDING)
+          : surveyService.getFilteredSurveyInstancesForSurveyDefinition(surveyDefinitionId, filter,
+              (int) first, (int) count, SortDirection.ASCENDING)).iterator();
     }
     catch (Throwable e)
     {
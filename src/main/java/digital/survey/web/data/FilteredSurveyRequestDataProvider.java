@@ -14,6 +14,7 @@ package digital.survey.web.data;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.ISurveyService;
+import digital.survey.model.SortDirection;
 import digital.survey.model.SurveyRequest;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.application.web.data.InjectableDataProvider;
@@ -22,7 +23,6 @@ import org.apache.wicket.model.IModel;
 
 import javax.inject.Inject;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -103,12 +103,11 @@ public class FilteredSurveyRequestDataProvider extends InjectableDataProvider<Su
   {
     try
     {
-      List<SurveyRequest> allSurveyRequests = StringUtil.isNullOrEmpty(filter)
-          ? surveyService.getSurveyRequestsForSurveyInstance(surveyInstanceId)
-          : surveyService.getFilteredSurveyRequestsForSurveyInstance(surveyInstanceId, filter);
-
-      return allSurveyRequests.subList((int) first, (int) Math.min(first + count,
-          allSurveyRequests.size())).iterator();
+      return (StringUtil.isNullOrEmpty(filter)
+          ? surveyService.getSurveyRequestsForSurveyInstance(surveyInstanceId, (int) first,
+              (int) count, SortDirection.ASCENDING)
+          : surveyService.getFilteredSurveyRequestsForSurveyInstance(surveyInstanceId, filter,
+              (int) first, (int) count, SortDirection.ASCENDING)).iterator();
     }
     catch (Throwable e)
     {
@@ -14,6 +14,7 @@ package digital.survey.web.data;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.ISurveyService;
+import digital.survey.model.SortDirection;
 import digital.survey.model.SurveyResponseSummary;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.application.web.data.InjectableDataProvider;
@@ -22,7 +23,6 @@ import org.apache.wicket.model.IModel;
 
 import javax.inject.Inject;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -104,13 +104,11 @@ public class FilteredSurveyResponseSummaryDataProvider
   {
     try
     {
-      List<SurveyResponseSummary> allSurveyResponses = StringUtil.isNullOrEmpty(filter)
-          ? surveyService.getSurveyResponseSummariesForSurveyInstance(surveyInstanceId)
+      return (StringUtil.isNullOrEmpty(filter)
+          ? surveyService.getSurveyResponseSummariesForSurveyInstance(surveyInstanceId, (int) first,
+              (int) count, SortDirection.ASCENDING)
           : surveyService.getFilteredSurveyResponseSummariesForSurveyInstance(surveyInstanceId,
-              filter);
-
-      return allSurveyResponses.subList((int) first, (int) Math.min(first + count,
-          allSurveyResponses.size())).iterator();
+              filter, (int) first, (int) count, SortDirection.ASCENDING)).iterator();
     }
     catch (Throwable e)
     {
@@ -14,6 +14,7 @@ package digital.survey.web.data;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.ISurveyService;
+import digital.survey.model.SortDirection;
 import digital.survey.model.SurveyAudience;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.application.web.data.InjectableDataProvider;
@@ -21,7 +22,6 @@ import org.apache.wicket.model.IModel;
 
 import javax.inject.Inject;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -86,11 +86,8 @@ public class SurveyAudienceDataProvider extends InjectableDataProvider<SurveyAud
   {
     try
     {
-      List<SurveyAudience> allSurveyAudiences = surveyService.getSurveyAudiencesForOrganisation(
-          organisationId);
-
-      return allSurveyAudiences.subList((int) first, (int) Math.min(first + count,
-          allSurveyAudiences.size())).iterator();
+      return surveyService.getSurveyAudiencesForOrganisation(organisationId, (int) first,
+          (int) count, SortDirection.ASCENDING).iterator();
     }
     catch (Throwable e)
     {
@@ -14,6 +14,7 @@ package digital.survey.web.data;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.ISurveyService;
+import digital.survey.model.SortDirection;
 import digital.survey.model.SurveyAudienceMember;
 import guru.mmp.application.web.WebApplicationException;
 import guru.mmp.application.web.data.InjectableDataProvider;
@@ -21,7 +22,6 @@ import org.apache.wicket.model.IModel;
 
 import javax.inject.Inject;
 import java.util.Iterator;
-import java.util.List;
 import java.util.UUID;
 
 //~--- JDK imports ------------------------------------------------------------
@@ -85,11 +85,8 @@ public class SurveyAudienceMemberDataProvider extends InjectableDataProvider<Sur
   {
     try
     {
-      List<SurveyAudienceMember> allSurveyAudienceMembers =
-          surveyService.getMembersForSurveyAudience(surveyAudienceId);
-
-      return allSurveyAudienceMembers.subList((int) first, (int) Math.min(first + count,
-          allSurveyAudienceMembers.size())).iterator();
+      return surveyService.getMembersForSurveyAudience(surveyAudienceId, (int) first, (int) count,
+          SortDirection.ASCENDING).iterator();
     }
     catch (Throwable e)
     {
@@ -99,7 +99,7 @@ public class CompleteSurveyPage extends TemplateWebPage
         {
           try
           {
-            surveyService.saveSurveyResponse(completeSurveyForm.getModelObject());
+            surveyService.submitSurveyResponse(completeSurveyForm.getModelObject());
 
             setVisible(false);
 
@@ -17,6 +17,7 @@ import digital.survey.model.ISurveyService;
 import digital.survey.model.SendSurveyRequestType;
 import digital.survey.model.SurveyAudience;
 import digital.survey.model.SurveyInstance;
+import digital.survey.model.SurveyRequestJob;
 import digital.survey.web.SurveySecurity;
 import digital.survey.web.components.SendSurveyRequestTypeChoiceRenderer;
 import digital.survey.web.components.SurveyAudienceChoiceRenderer;
@@ -27,6 +28,7 @@ import guru.mmp.application.web.pages.WebPageSecurity;
 import guru.mmp.application.web.template.components.*;
 import guru.mmp.application.web.template.pages.TemplateWebPage;
 import org.apache.wicket.PageReference;
+import org.apache.wicket.ajax.AbstractAjaxTimerBehavior;
 import org.apache.wicket.ajax.AjaxRequestTarget;
 import org.apache.wicket.ajax.form.AjaxFormComponentUpdatingBehavior;
 import org.apache.wicket.ajax.markup.html.AjaxLink;
@@ -42,6 +44,7 @@ import org.apache.wicket.markup.repeater.ReuseIfModelsEqualStrategy;
 import org.apache.wicket.markup.repeater.data.DataView;
 import org.apache.wicket.model.Model;
 import org.apache.wicket.model.PropertyModel;
+import org.apache.wicket.util.time.Duration;
 import org.apache.wicket.validation.validator.EmailAddressValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,6 +76,22 @@ class SurveyInstanceAdministrationPage extends TemplateWebPage
   @Inject
   private ISurveyService surveyService;
 
+  /**
+   * The Universally Unique Identifier (UUID) used to uniquely identify the survey request job whose
+   * progress is displayed.
+   */
+  private UUID surveyRequestJobId;
+
+  /**
+   * The container used to display the progress of the survey request job.
+   */
+  private WebMarkupContainer surveyRequestJobContainer;
+
+  /**
+   * The timer used to poll the progress of the survey request job using AJAX.
+   */
+  private AbstractAjaxTimerBehavior surveyRequestJobTimer;
+
   /**
    * Constructs a new <code>SurveyInstanceAdministrationPage</code>.
    *
@@ -109,6 +128,55 @@ class SurveyInstanceAdministrationPage extends TemplateWebPage
       SendSurveyRequestDialog sendSurveyRequestDialog = new SendSurveyRequestDialog();
       add(sendSurveyRequestDialog);
 
+      // The container used to display the progress of the survey request job
+      surveyRequestJobContainer = new WebMarkupContainer("surveyRequestJobContainer")
+      {
+        private static final long serialVersionUID = 1000000;
+
+        @Override
+        protected void onConfigure()
+        {
+          super.onConfigure();
+
+          setVisible(surveyRequestJobId != null);
+        }
+      };
+      surveyRequestJobContainer.setOutputMarkupId(true);
+      surveyRequestJobContainer.setOutputMarkupPlaceholderTag(true);
+      add(surveyRequestJobContainer);
+
+      surveyRequestJobContainer.add(new Label("surveyRequestJobProgress", new Model<String>()
+          {
+            private static final long serialVersionUID = 1000000;
+
+            @Override
+            public String getObject()
+            {
+              return getSurveyRequestJobProgress();
+            }
+          }));
+
+      // The timer used to poll the progress of the survey request job, which stops once the job
+      // has completed
+      surveyRequestJobTimer = new AbstractAjaxTimerBehavior(Duration.seconds(2))
+      {
+        private static final long serialVersionUID = 1000000;
+
+        @Override
+        protected void onTimer(AjaxRequestTarget target)
+        {
+          SurveyRequestJob surveyRequestJob = getSurveyRequestJob();
+
+          if ((surveyRequestJob == null) || surveyRequestJob.isCompleted())
+          {
+            stop(target);
+          }
+
+          target.add(surveyRequestJobContainer);
+        }
+      };
+      add(surveyRequestJobTimer);
+
       // The "addLink" used to add a new survey instance
       Link<Void> addLink = new Link<Void>("addLink")
       {
@@ -315,6 +383,59 @@ class SurveyInstanceAdministrationPage extends TemplateWebPage
     }
   }
 
+  /**
+   * Returns the survey request job whose progress is displayed.
+   *
+   * @return the survey request job whose progress is displayed or <code>null</code> if there is no
+   *         survey request job or it could not be retrieved
+   */
+  private SurveyRequestJob getSurveyRequestJob()
+  {
+    if (surveyRequestJobId == null)
+    {
+      return null;
+    }
+
+    try
+    {
+      return surveyService.getSurveyRequestJob(surveyRequestJobId);
+    }
+    catch (Throwable e)
+    {
+      logger.error("Failed to retrieve the survey request job (" + surveyRequestJobId + ")", e);
+
+      return null;
+    }
+  }
+
+  /**
+   * Returns the description of the progress of the survey request job.
+   *
+   * @return the description of the progress of the survey request job
+   */
+  private String getSurveyRequestJobProgress()
+  {
+    SurveyRequestJob surveyRequestJob = getSurveyRequestJob();
+
+    if (surveyRequestJob == null)
+    {
+      return "";
+    }
+    else if (surveyRequestJob.isCompleted())
+    {
+      return String.format("Queued the survey request for sending to %d of the %d members of %s"
+          + " (%d failed)", surveyRequestJob.getEnqueued(), surveyRequestJob.getTotal(),
+          surveyRequestJob.getAudience().getName(), surveyRequestJob.getFailed());
+    }
+    else
+    {
+      return String.format("Queueing the survey request for sending to the members of %s:"
+          + " %d of %d processed (%d failed)", surveyRequestJob.getAudience().getName(),
+          surveyRequestJob.getProcessed(), surveyRequestJob.getTotal(),
+          surveyRequestJob.getFailed());
+    }
+  }
+
   /**
    * The <code>RemoveDialog</code> class implements a dialog that allows the removal of a
    * survey instance to be confirmed.
@@ -525,10 +646,16 @@ class SurveyInstanceAdministrationPage extends TemplateWebPage
         if (SendSurveyRequestType.AUDIENCE.getCodeAsString().equals(
             sendSurveyRequestTypeField.getValue()))
         {
-          surveyService.sendSurveyRequestToAudience(id, audience);
+          SurveyRequestJob surveyRequestJob = surveyService.createSurveyRequestJob(id, audience);
+
+          surveyRequestJobId = surveyRequestJob.getId();
+
+          surveyRequestJobTimer.restart(target);
+
+          target.add(surveyRequestJobContainer);
 
           SurveyInstanceAdministrationPage.this.info(String.format(
-              "Successfully sent the survey request to %s", audience.getName()));
+              "Sending the survey request to %s in the background", audience.getName()));
         }
         else
         {
@@ -90,7 +90,9 @@ CREATE TABLE SURVEY.SURVEY_REQUESTS (
   STATUS              INTEGER NOT NULL,
   SEND_ATTEMPTS       INTEGER NOT NULL DEFAULT 0,
   LOCK_NAME           TEXT,
+  LOCK_EXPIRES        TIMESTAMP,
   LAST_PROCESSED      TIMESTAMP,
+  NEXT_ATTEMPT_AT     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
   PRIMARY KEY (ID),
   CONSTRAINT  SURVEY_SURVEY_REQUESTS_SURVEY_INSTANCE_FK FOREIGN KEY (SURVEY_INSTANCE_ID) REFERENCES SURVEY.SURVEY_INSTANCES(ID) ON DELETE CASCADE
@@ -104,6 +106,14 @@ CREATE INDEX SURVEY_SURVEY_REQUESTS_EMAIL_IX
   ON SURVEY.SURVEY_REQUESTS
   (EMAIL);
 
+CREATE INDEX SURVEY_SURVEY_REQUESTS_STATUS_NEXT_ATTEMPT_AT_IX
+  ON SURVEY.SURVEY_REQUESTS
+  (STATUS, NEXT_ATTEMPT_AT);
+
+CREATE INDEX SURVEY_SURVEY_REQUESTS_STATUS_LOCK_EXPIRES_IX
+  ON SURVEY.SURVEY_REQUESTS
+  (STATUS, LOCK_EXPIRES);
+
 COMMENT ON COLUMN SURVEY.SURVEY_REQUESTS.ID
   IS 'The Universally Unique Identifier (UUID) used  to uniquely identify the survey request';
 
@@ -131,9 +141,15 @@ COMMENT ON COLUMN SURVEY.SURVEY_REQUESTS.SEND_ATTEMPTS
 COMMENT ON COLUMN SURVEY.SURVEY_REQUESTS.LOCK_NAME
   IS 'The name of the entity that has locked the survey request for sending';
 
+COMMENT ON COLUMN SURVEY.SURVEY_REQUESTS.LOCK_EXPIRES
+  IS 'The date and time the lease on the lock for the survey request expires if it is not renewed';
+
 COMMENT ON COLUMN SURVEY.SURVEY_REQUESTS.LAST_PROCESSED
   IS 'The date and time the last attempt was made to send the survey request';
 
+COMMENT ON COLUMN SURVEY.SURVEY_REQUESTS.NEXT_ATTEMPT_AT
+  IS 'The date and time the next attempt will be made to send the survey request';
+
 
 
 CREATE TABLE SURVEY.SURVEY_RESPONSES (
@@ -173,6 +189,78 @@ COMMENT ON COLUMN SURVEY.SURVEY_RESPONSES.DATA
 
 
 
+CREATE TABLE SURVEY.SURVEY_RESPONSE_RATINGS (
+  SURVEY_RESPONSE_ID           UUID NOT NULL,
+  SURVEY_INSTANCE_ID           UUID NOT NULL,
+  GROUP_RATINGS_DEFINITION_ID  UUID NOT NULL,
+  GROUP_RATING_DEFINITION_ID   UUID NOT NULL,
+  GROUP_MEMBER_DEFINITION_ID   UUID NOT NULL,
+  RATING                       SMALLINT NOT NULL,
+
+  PRIMARY KEY (SURVEY_RESPONSE_ID, GROUP_RATINGS_DEFINITION_ID, GROUP_RATING_DEFINITION_ID, GROUP_MEMBER_DEFINITION_ID),
+  CONSTRAINT  SURVEY_SURVEY_RESPONSE_RATINGS_SURVEY_RESPONSE_FK FOREIGN KEY (SURVEY_RESPONSE_ID) REFERENCES SURVEY.SURVEY_RESPONSES(ID) ON DELETE CASCADE
+);
+
+CREATE INDEX SURVEY_SURVEY_RESPONSE_RATINGS_SURVEY_INSTANCE_ID_IX
+  ON SURVEY.SURVEY_RESPONSE_RATINGS
+  (SURVEY_INSTANCE_ID);
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESPONSE_RATINGS.SURVEY_RESPONSE_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey response the survey group rating response is associated with';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESPONSE_RATINGS.SURVEY_INSTANCE_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey instance the survey response is associated with';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESPONSE_RATINGS.GROUP_RATINGS_DEFINITION_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey group ratings definition the survey group rating response is associated with';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESPONSE_RATINGS.GROUP_RATING_DEFINITION_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey group rating definition the survey group rating response is associated with';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESPONSE_RATINGS.GROUP_MEMBER_DEFINITION_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey group member definition the survey group rating response is associated with';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESPONSE_RATINGS.RATING
+  IS 'The rating for the survey group rating response';
+
+
+
+CREATE TABLE SURVEY.SURVEY_RESULTS (
+  ID                   UUID NOT NULL,
+  SURVEY_INSTANCE_ID   UUID NOT NULL,
+  NUMBER_OF_RESPONSES  INTEGER NOT NULL DEFAULT 0,
+  VERSION              INTEGER NOT NULL DEFAULT 0,
+  UPDATED              TIMESTAMP NOT NULL,
+  DATA                 CLOB NOT NULL,
+
+  PRIMARY KEY (ID),
+  CONSTRAINT  SURVEY_SURVEY_RESULTS_SURVEY_INSTANCE_FK FOREIGN KEY (SURVEY_INSTANCE_ID) REFERENCES SURVEY.SURVEY_INSTANCES(ID) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX SURVEY_SURVEY_RESULTS_SURVEY_INSTANCE_ID_IX
+  ON SURVEY.SURVEY_RESULTS
+  (SURVEY_INSTANCE_ID);
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESULTS.ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey result';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESULTS.SURVEY_INSTANCE_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey instance the survey result is associated with';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESULTS.NUMBER_OF_RESPONSES
+  IS 'The number of survey responses the survey result was compiled from';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESULTS.VERSION
+  IS 'The version of the survey result, which is incremented every time the survey result is updated';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESULTS.UPDATED
+  IS 'The date and time the survey result was last updated';
+
+COMMENT ON COLUMN SURVEY.SURVEY_RESULTS.DATA
+  IS 'The JSON data for the survey result';
+
+
+
 CREATE TABLE SURVEY.SURVEY_AUDIENCES (
   ID               UUID NOT NULL,
   ORGANISATION_ID  UUID NOT NULL,
@@ -233,6 +321,75 @@ COMMENT ON COLUMN SURVEY.SURVEY_AUDIENCE_MEMBERS.EMAIL
 
 
 
+CREATE TABLE SURVEY.SURVEY_REQUEST_JOBS (
+  ID                  UUID NOT NULL,
+  SURVEY_INSTANCE_ID  UUID NOT NULL,
+  SURVEY_AUDIENCE_ID  UUID NOT NULL,
+  STATUS              INTEGER NOT NULL,
+  TOTAL               INTEGER NOT NULL,
+  ENQUEUED            INTEGER NOT NULL DEFAULT 0,
+  FAILED              INTEGER NOT NULL DEFAULT 0,
+  LAST_MEMBER_ID      UUID,
+  LOCK_NAME           VARCHAR(4000),
+  LOCK_EXPIRES        TIMESTAMP,
+  CREATED             TIMESTAMP NOT NULL,
+  UPDATED             TIMESTAMP NOT NULL,
+
+  PRIMARY KEY (ID),
+  CONSTRAINT  SURVEY_SURVEY_REQUEST_JOBS_SURVEY_INSTANCE_FK FOREIGN KEY (SURVEY_INSTANCE_ID) REFERENCES SURVEY.SURVEY_INSTANCES(ID) ON DELETE CASCADE,
+  CONSTRAINT  SURVEY_SURVEY_REQUEST_JOBS_SURVEY_AUDIENCE_FK FOREIGN KEY (SURVEY_AUDIENCE_ID) REFERENCES SURVEY.SURVEY_AUDIENCES(ID) ON DELETE CASCADE
+);
+
+CREATE INDEX SURVEY_SURVEY_REQUEST_JOBS_SURVEY_INSTANCE_ID_IX
+  ON SURVEY.SURVEY_REQUEST_JOBS
+  (SURVEY_INSTANCE_ID);
+
+CREATE INDEX SURVEY_SURVEY_REQUEST_JOBS_SURVEY_AUDIENCE_ID_IX
+  ON SURVEY.SURVEY_REQUEST_JOBS
+  (SURVEY_AUDIENCE_ID);
+
+CREATE INDEX SURVEY_SURVEY_REQUEST_JOBS_STATUS_IX
+  ON SURVEY.SURVEY_REQUEST_JOBS
+  (STATUS);
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey request job';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.SURVEY_INSTANCE_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey instance the survey requests are being sent for';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.SURVEY_AUDIENCE_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the survey audience the survey requests are being sent to';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.STATUS
+  IS 'The status of the survey request job';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.TOTAL
+  IS 'The total number of survey audience members the survey requests are being sent to';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.ENQUEUED
+  IS 'The number of survey audience members whose survey requests have been queued for sending';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.FAILED
+  IS 'The number of survey audience members whose survey requests could not be queued for sending';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.LAST_MEMBER_ID
+  IS 'The Universally Unique Identifier (UUID) used to uniquely identify the last survey audience member processed by the survey request job';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.LOCK_NAME
+  IS 'The name of the entity that has locked the survey request job for processing';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.LOCK_EXPIRES
+  IS 'The date and time the lease on the lock for the survey request job expires if it is not renewed';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.CREATED
+  IS 'The date and time the survey request job was created';
+
+COMMENT ON COLUMN SURVEY.SURVEY_REQUEST_JOBS.UPDATED
+  IS 'The date and time the survey request job was last updated';
+
+
+
 -- -------------------------------------------------------------------------------------------------
 -- POPULATE TABLES
 -- -------------------------------------------------------------------------------------------------
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.web.SurveyApplication;
+import guru.mmp.application.configuration.IConfigurationService;
+import guru.mmp.application.security.OrganisationStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>BackgroundSurveyRequestSenderTest</code> class contains the implementation of the
+ * JUnit tests for the <code>BackgroundSurveyRequestSender</code> class.
+ *
+ * @author Marcus Portmann
+ */
+public class BackgroundSurveyRequestSenderTest
+{
+  private static final int MAXIMUM_CONCURRENT_SENDS = 8;
+  private static final int MAXIMUM_CONCURRENT_SENDS_PER_MAIL_HOST = 2;
+  private Map<String, Object> configuration = new ConcurrentHashMap<>();
+  private BackgroundSurveyRequestSender sender;
+  private Consumer<SurveyRequest> sendSurveyRequestHandler;
+  private SurveyInstance surveyInstance;
+  private Map<SurveyRequestStatus, List<UUID>> unlockedSurveyRequestIds = new ConcurrentHashMap<>();
+
+  /**
+   * Test that the number of survey requests sent concurrently using a single mail server does not
+   * exceed the limit for the mail server and that all the survey requests are sent.
+   */
+  @Test
+  public void concurrentSendsPerMailHostTest()
+  {
+    AtomicInteger concurrentSends = new AtomicInteger();
+    AtomicInteger maximumConcurrentSends = new AtomicInteger();
+
+    sendSurveyRequestHandler = surveyRequest ->
+    {
+      int sends = concurrentSends.incrementAndGet();
+
+      maximumConcurrentSends.accumulateAndGet(sends, Math::max);
+
+      try
+      {
+        Thread.sleep(20L);
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+
+      concurrentSends.decrementAndGet();
+    };
+
+    List<SurveyRequest> surveyRequests = getTestSurveyRequests(20);
+
+    sender.sendSurveyRequests(surveyRequests);
+
+    assertEquals("The maximum number of survey requests sent concurrently is not correct",
+        MAXIMUM_CONCURRENT_SENDS_PER_MAIL_HOST, maximumConcurrentSends.get());
+    assertEquals("The survey requests that were sent are not correct", getIds(surveyRequests),
+        new HashSet<>(getUnlockedSurveyRequestIds(SurveyRequestStatus.SENT)));
+    assertTrue("Survey requests were re-queued for sending", getUnlockedSurveyRequestIds(
+        SurveyRequestStatus.QUEUED_FOR_SENDING).isEmpty());
+  }
+
+  /**
+   * Test that the survey requests that have not been handed to a sender thread are re-queued for
+   * sending, and the survey request being sent is still unlocked as sent, if the thread sending the
+   * batch of survey requests is interrupted while waiting for the limit for the mail server.
+   */
+  @Test
+  public void interruptedSendTest()
+  {
+    configuration.put(SurveyApplication
+        .MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_PER_MAIL_HOST_CONFIGURATION_KEY, 1);
+
+    sender.destroy();
+
+    sender = newBackgroundSurveyRequestSender();
+
+    Thread batchThread = Thread.currentThread();
+
+    // Interrupt the thread sending the batch while the first survey request holds the only permit
+    sendSurveyRequestHandler = surveyRequest -> batchThread.interrupt();
+
+    List<SurveyRequest> surveyRequests = getTestSurveyRequests(5);
+
+    try
+    {
+      sender.sendSurveyRequests(surveyRequests);
+
+      assertTrue("The interrupted status of the thread sending the batch was not restored",
+          Thread.currentThread().isInterrupted());
+    }
+    finally
+    {
+      Thread.interrupted();
+    }
+
+    assertEquals("The survey requests that were sent are not correct", Collections.singletonList(
+        surveyRequests.get(0).getId()), getUnlockedSurveyRequestIds(SurveyRequestStatus.SENT));
+    assertEquals("The survey requests that were re-queued for sending are not correct", getIds(
+        surveyRequests.subList(1, surveyRequests.size())), new HashSet<>(
+        getUnlockedSurveyRequestIds(SurveyRequestStatus.QUEUED_FOR_SENDING)));
+    assertTrue("Survey requests were marked as failed", getUnlockedSurveyRequestIds(
+        SurveyRequestStatus.FAILED).isEmpty());
+  }
+
+  /**
+   * Setup the configuration and survey instance used to create the Background Survey Request
+   * Sender and survey requests.
+   */
+  @Before
+  public void setup()
+  {
+    configuration.put(SurveyApplication.MAIL_HOST_CONFIGURATION_KEY, "smtp.example.com");
+    configuration.put(SurveyApplication.MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_CONFIGURATION_KEY,
+        MAXIMUM_CONCURRENT_SENDS);
+    configuration.put(SurveyApplication
+        .MAXIMUM_CONCURRENT_SURVEY_REQUEST_SENDS_PER_MAIL_HOST_CONFIGURATION_KEY,
+        MAXIMUM_CONCURRENT_SENDS_PER_MAIL_HOST);
+
+    Organisation organisation = new Organisation(UUID.randomUUID(), "Test Organisation",
+        OrganisationStatus.ACTIVE);
+
+    SurveyDefinition surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1, organisation,
+        "Test Survey Definition", "Test Survey Definition");
+
+    surveyInstance = new SurveyInstance("Test Survey Instance", "Test Survey Instance",
+        surveyDefinition);
+
+    sender = newBackgroundSurveyRequestSender();
+  }
+
+  /**
+   * Shutdown the Background Survey Request Sender.
+   */
+  @After
+  public void teardown()
+  {
+    sender.destroy();
+  }
+
+  private Set<UUID> getIds(List<SurveyRequest> surveyRequests)
+  {
+    Set<UUID> ids = new HashSet<>();
+
+    for (SurveyRequest surveyRequest : surveyRequests)
+    {
+      ids.add(surveyRequest.getId());
+    }
+
+    return ids;
+  }
+
+  private List<SurveyRequest> getTestSurveyRequests(int numberOfSurveyRequests)
+  {
+    List<SurveyRequest> surveyRequests = new ArrayList<>();
+
+    for (int i = 0; i < numberOfSurveyRequests; i++)
+    {
+      surveyRequests.add(new SurveyRequest(surveyInstance, "First Name " + i, "Last Name " + i,
+          "test" + i + "@example.com"));
+    }
+
+    return surveyRequests;
+  }
+
+  private List<UUID> getUnlockedSurveyRequestIds(SurveyRequestStatus status)
+  {
+    return unlockedSurveyRequestIds.getOrDefault(status, Collections.emptyList());
+  }
+
+  private BackgroundSurveyRequestSender newBackgroundSurveyRequestSender()
+  {
+    IConfigurationService configurationService = (IConfigurationService) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] { IConfigurationService.class }, (proxy,
+        method, args) ->
+        {
+          switch (method.getName())
+          {
+            case "keyExists":
+              return configuration.containsKey((String) args[0]);
+
+            case "getBoolean":
+            case "getInteger":
+            case "getString":
+              return configuration.get((String) args[0]);
+
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+
+    ISurveyService surveyService = (ISurveyService) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] { ISurveyService.class }, (proxy, method,
+        args) ->
+        {
+          switch (method.getName())
+          {
+            case "getNextSurveyRequestSendTime":
+              return null;
+
+            case "getNextSurveyRequestsQueuedForSending":
+              return Collections.emptyList();
+
+            case "renewSurveyRequestLocks":
+              return ((List<?>) args[0]).size();
+
+            case "resetSurveyRequestLocks":
+              return null;
+
+            case "sendSurveyRequest":
+              sendSurveyRequestHandler.accept((SurveyRequest) args[0]);
+
+              return true;
+
+            case "unlockSurveyRequests":
+              @SuppressWarnings("unchecked")
+              List<UUID> ids = (List<UUID>) args[0];
+
+              unlockedSurveyRequestIds.computeIfAbsent((SurveyRequestStatus) args[1],
+                  key -> Collections.synchronizedList(new ArrayList<>())).addAll(ids);
+
+              return null;
+
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+
+    BackgroundSurveyRequestSender sender = new BackgroundSurveyRequestSender(surveyService,
+        configurationService);
+
+    sender.init();
+
+    return sender;
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.mmp.application.security.OrganisationStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>EntityDataCodecTest</code> class contains the implementation of the JUnit
+ * tests for the <code>EntityDataCodec</code> class.
+ *
+ * @author Marcus Portmann
+ */
+public class EntityDataCodecTest
+{
+  private SurveyInstance surveyInstance;
+
+  /**
+   * Test that the data written using the Deflated Smile encoding can be read.
+   */
+  @Test
+  public void deflatedSmileRoundTripTest()
+    throws Exception
+  {
+    roundTrip(EntityDataEncoding.DEFLATED_SMILE);
+  }
+
+  /**
+   * Test that data with an invalid encoding header is rejected rather than read as JSON.
+   */
+  @Test(expected = IOException.class)
+  public void invalidHeaderTest()
+    throws Exception
+  {
+    EntityDataCodec.getEncoding("#99:AAAA");
+  }
+
+  /**
+   * Test that the data written using the JSON encoding is stored as-is and can be read.
+   */
+  @Test
+  public void jsonRoundTripTest()
+    throws Exception
+  {
+    String data = roundTrip(EntityDataEncoding.JSON);
+
+    assertTrue("The JSON data is not stored as-is", data.startsWith("{"));
+  }
+
+  /**
+   * Test that the unprefixed JSON data written before the entity data encoding was introduced can
+   * still be read, and is written using the current encoding once it has been read, when the
+   * current encoding is Smile.
+   */
+  @Test
+  public void legacyJsonTest()
+    throws Exception
+  {
+    SurveyResponse surveyResponse = getTestSurveyResponse();
+
+    String legacyData = new ObjectMapper().writeValueAsString(surveyResponse);
+
+    EntityDataCodec.setEncoding(EntityDataEncoding.SMILE);
+
+    assertEquals("The encoding for the legacy JSON data is not correct", EntityDataEncoding.JSON,
+        EntityDataCodec.getEncoding(legacyData));
+
+    SurveyResponse decodedSurveyResponse = new SurveyResponse(surveyInstance);
+
+    decodedSurveyResponse.setData(legacyData);
+
+    String data = decodedSurveyResponse.getData();
+
+    assertTrue("The data read from the legacy JSON data was not written using the current"
+        + " encoding", data.startsWith(EntityDataCodec.getHeader(EntityDataEncoding.SMILE)));
+
+    EntityDataCodec.setEncoding(EntityDataEncoding.JSON);
+
+    assertEquals("The survey response read from the legacy JSON data is not correct",
+        surveyResponse.getData(), decodedSurveyResponse.getData());
+  }
+
+  /**
+   * Reset the encoding used to write the data, which is shared by all the tests.
+   */
+  @After
+  public void resetEncoding()
+  {
+    EntityDataCodec.setEncoding(EntityDataEncoding.JSON);
+  }
+
+  /**
+   * Setup the survey instance used to create the survey responses.
+   */
+  @Before
+  public void setup()
+  {
+    Organisation organisation = new Organisation(UUID.randomUUID(), "Test Organisation",
+        OrganisationStatus.ACTIVE);
+
+    SurveyDefinition surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1, organisation,
+        "Test Survey Definition", "Test Survey Definition");
+
+    surveyDefinition.addItemDefinition(new SurveyTextDefinition("test_text", "Test Text",
+        "Test Text", "Test Text"));
+
+    SurveyGroupRatingsDefinition groupRatingsDefinition = new SurveyGroupRatingsDefinition(
+        "test_group_ratings", "Test Group Ratings", "Test Group Ratings", "Test Group Ratings",
+        true);
+
+    groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        "Test Rating", SurveyGroupRatingType.ONE_TO_TEN));
+    groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        "Test Yes No NA Rating", SurveyGroupRatingType.YES_NO_NA));
+
+    for (int i = 0; i < 3; i++)
+    {
+      groupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+          "Test Group Member " + i));
+    }
+
+    surveyDefinition.addItemDefinition(groupRatingsDefinition);
+
+    surveyInstance = new SurveyInstance("Test Survey Instance", "Test Survey Instance",
+        surveyDefinition);
+  }
+
+  /**
+   * Test that the data written using the Smile encoding can be read.
+   */
+  @Test
+  public void smileRoundTripTest()
+    throws Exception
+  {
+    roundTrip(EntityDataEncoding.SMILE);
+  }
+
+  private SurveyResponse getTestSurveyResponse()
+  {
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    int rating = 0;
+
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      groupRatingResponse.setRating((rating++ % 3) - 1);
+    }
+
+    for (SurveyItemResponse itemResponse : surveyResponse.getItemResponses())
+    {
+      if (itemResponse instanceof SurveyTextResponse)
+      {
+        ((SurveyTextResponse) itemResponse).setValue("Test Text Response");
+      }
+    }
+
+    return surveyResponse;
+  }
+
+  private String roundTrip(EntityDataEncoding encoding)
+    throws Exception
+  {
+    SurveyResponse surveyResponse = getTestSurveyResponse();
+
+    String expectedData = surveyResponse.getData();
+
+    EntityDataCodec.setEncoding(encoding);
+
+    String data = surveyResponse.getData();
+
+    assertEquals("The encoding for the data is not correct", encoding,
+        EntityDataCodec.getEncoding(data));
+    assertTrue("The data does not start with the header for the encoding", data.startsWith(
+        EntityDataCodec.getHeader(encoding)));
+
+    SurveyResponse decodedSurveyResponse = new SurveyResponse(surveyInstance);
+
+    decodedSurveyResponse.setData(data);
+
+    EntityDataCodec.setEncoding(EntityDataEncoding.JSON);
+
+    assertEquals("The survey response read from the data is not correct", expectedData,
+        decodedSurveyResponse.getData());
+
+    return data;
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Provider;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.URLName;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SmtpTransportPoolTest</code> class contains the implementation of the JUnit tests for
+ * the <code>SmtpTransportPool</code> class.
+ *
+ * @author Marcus Portmann
+ */
+public class SmtpTransportPoolTest
+{
+  private static final List<StubTransport> transports = new CopyOnWriteArrayList<>();
+  private Session session;
+
+  /**
+   * Test that a transport is closed, rather than returned to the pool, if an error occurs while
+   * sending a message using it and that a new transport is connected to send the next message.
+   */
+  @Test
+  public void failedSendTest()
+    throws Exception
+  {
+    try (SmtpTransportPool pool = newSmtpTransportPool(10))
+    {
+      sendMessage(pool);
+
+      transports.get(0).failSend = true;
+
+      try
+      {
+        sendMessage(pool);
+
+        fail("The error sending the message was not reported");
+      }
+      catch (MessagingException ignored) {}
+
+      assertTrue("The transport that failed to send the message was not closed", transports.get(
+          0).closed);
+      assertEquals("The number of idle transports is not correct", 0,
+          pool.getNumberOfIdleTransports());
+
+      sendMessage(pool);
+
+      assertEquals("The number of transports is not correct", 2, transports.size());
+      assertEquals("The number of messages sent using the new transport is not correct", 1,
+          transports.get(1).numberOfMessagesSent);
+      assertEquals("The number of idle transports is not correct", 1,
+          pool.getNumberOfIdleTransports());
+    }
+  }
+
+  /**
+   * Test that a transport is closed and replaced once it has been used to send the maximum number
+   * of messages per transport.
+   */
+  @Test
+  public void recycleTest()
+    throws Exception
+  {
+    try (SmtpTransportPool pool = newSmtpTransportPool(2))
+    {
+      for (int i = 0; i < 5; i++)
+      {
+        sendMessage(pool);
+      }
+
+      assertEquals("The number of transports is not correct", 3, transports.size());
+
+      int[] expectedNumberOfMessagesSent = new int[] { 2, 2, 1 };
+
+      for (int i = 0; i < transports.size(); i++)
+      {
+        assertEquals(String.format("The number of messages sent using transport %d is not correct",
+            i), expectedNumberOfMessagesSent[i], transports.get(i).numberOfMessagesSent);
+        assertEquals(String.format("The closed status for transport %d is not correct", i), i < 2,
+            transports.get(i).closed);
+      }
+
+      assertEquals("The number of idle transports is not correct", 1,
+          pool.getNumberOfIdleTransports());
+    }
+  }
+
+  /**
+   * Test that a single connected transport is reused to send consecutive messages and that it is
+   * closed when the pool is closed.
+   */
+  @Test
+  public void reuseTest()
+    throws Exception
+  {
+    SmtpTransportPool pool = newSmtpTransportPool(10);
+
+    for (int i = 0; i < 3; i++)
+    {
+      sendMessage(pool);
+    }
+
+    assertEquals("The number of transports is not correct", 1, transports.size());
+    assertEquals("The number of connections for the transport is not correct", 1,
+        transports.get(0).numberOfConnects);
+    assertEquals("The number of messages sent using the transport is not correct", 3,
+        transports.get(0).numberOfMessagesSent);
+    assertFalse("The transport was closed", transports.get(0).closed);
+    assertEquals("The number of idle transports is not correct", 1,
+        pool.getNumberOfIdleTransports());
+
+    pool.close();
+
+    assertTrue("The idle transport was not closed when the pool was closed", transports.get(
+        0).closed);
+    assertEquals("The number of idle transports is not correct", 0,
+        pool.getNumberOfIdleTransports());
+  }
+
+  /**
+   * Setup the mail session that creates the stub transports.
+   */
+  @Before
+  public void setup()
+    throws Exception
+  {
+    transports.clear();
+
+    session = Session.getInstance(new Properties());
+
+    session.setProvider(new Provider(Provider.Type.TRANSPORT, "smtp",
+        StubTransport.class.getName(), "Test", "1.0"));
+  }
+
+  /**
+   * Test that an idle transport that is no longer connected is closed, rather than used, when it
+   * is validated before sending a message and that a new transport is connected instead.
+   */
+  @Test
+  public void validationTest()
+    throws Exception
+  {
+    try (SmtpTransportPool pool = newSmtpTransportPool(10))
+    {
+      sendMessage(pool);
+
+      transports.get(0).valid = false;
+
+      sendMessage(pool);
+
+      assertEquals("The number of transports is not correct", 2, transports.size());
+      assertTrue("The transport that failed validation was not closed", transports.get(0).closed);
+      assertEquals("The number of messages sent using the transport that failed validation is not"
+          + " correct", 1, transports.get(0).numberOfMessagesSent);
+      assertEquals("The number of messages sent using the new transport is not correct", 1,
+          transports.get(1).numberOfMessagesSent);
+      assertEquals("The number of idle transports is not correct", 1,
+          pool.getNumberOfIdleTransports());
+    }
+  }
+
+  private SmtpTransportPool newSmtpTransportPool(int maximumMessagesPerTransport)
+  {
+    return new SmtpTransportPool(session, "smtp.example.com", 25, "username", "password", 2,
+        maximumMessagesPerTransport);
+  }
+
+  private void sendMessage(SmtpTransportPool pool)
+    throws MessagingException
+  {
+    pool.sendMessage(new MimeMessage(session), new Address[] { new InternetAddress(
+        "test@example.com") });
+  }
+
+  /**
+   * The <code>StubTransport</code> class implements a transport, created by the mail session
+   * using its provider, that records how it was used instead of connecting to a mail server.
+   */
+  public static class StubTransport
+    extends Transport
+  {
+    /**
+     * Has the transport been closed?
+     */
+    private volatile boolean closed;
+
+    /**
+     * Should sending a message using the transport fail?
+     */
+    private volatile boolean failSend;
+
+    /**
+     * The number of times the transport has been connected.
+     */
+    private volatile int numberOfConnects;
+
+    /**
+     * The number of messages that have been sent using the transport.
+     */
+    private volatile int numberOfMessagesSent;
+
+    /**
+     * Is the connection for the transport still valid?
+     */
+    private volatile boolean valid = true;
+
+    /**
+     * Constructs a new <code>StubTransport</code>.
+     *
+     * @param session the mail session
+     * @param urlName the URL name for the transport
+     */
+    public StubTransport(Session session, URLName urlName)
+    {
+      super(session, urlName);
+
+      transports.add(this);
+    }
+
+    /**
+     * Close the transport.
+     */
+    @Override
+    public synchronized void close()
+      throws MessagingException
+    {
+      closed = true;
+
+      super.close();
+    }
+
+    /**
+     * Is the transport connected?
+     *
+     * @return <code>true</code> if the transport is connected and its connection is still valid or
+     *         <code>false</code> otherwise
+     */
+    @Override
+    public synchronized boolean isConnected()
+    {
+      return valid && super.isConnected();
+    }
+
+    /**
+     * Send the message to the addresses.
+     *
+     * @param message   the message
+     * @param addresses the addresses
+     */
+    @Override
+    public void sendMessage(Message message, Address[] addresses)
+      throws MessagingException
+    {
+      if (failSend)
+      {
+        throw new MessagingException("Failed to send the message");
+      }
+
+      numberOfMessagesSent++;
+    }
+
+    /**
+     * Connect the transport without connecting to a mail server.
+     *
+     * @param host     the host for the mail server
+     * @param port     the port for the mail server
+     * @param user     the username used to authenticate with the mail server
+     * @param password the password used to authenticate with the mail server
+     *
+     * @return <code>true</code>
+     */
+    @Override
+    protected boolean protocolConnect(String host, int port, String user, String password)
+    {
+      numberOfConnects++;
+
+      return true;
+    }
+  }
+}
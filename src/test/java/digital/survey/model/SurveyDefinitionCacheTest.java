@@ -0,0 +1,239 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import guru.mmp.application.security.OrganisationStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyDefinitionCacheTest</code> class contains the implementation of the JUnit
+ * tests for the <code>SurveyDefinitionCache</code> class.
+ *
+ * @author Marcus Portmann
+ */
+public class SurveyDefinitionCacheTest
+{
+  private UUID id;
+  private Organisation organisation;
+
+  /**
+   * Test that the parsed definitions for a version of a survey definition are cached when the
+   * survey definition is loaded and are reused when the same version is loaded with the same JSON
+   * data.
+   */
+  @Test
+  public void cacheHitTest()
+    throws Exception
+  {
+    String data = getTestSurveyDefinitionDetails(1, "Test Text").getData();
+
+    assertNull("The version of the survey definition was cached before it was loaded",
+        SurveyDefinitionCache.get(id, 1, data));
+
+    SurveyDefinition surveyDefinition = loadSurveyDefinition(1, data);
+
+    assertNotNull("The version of the survey definition was not cached when it was loaded",
+        SurveyDefinitionCache.get(id, 1, data));
+    assertEquals("The size of the cache is not correct", data.length(),
+        SurveyDefinitionCache.getSize());
+
+    SurveyDefinition cachedSurveyDefinition = loadSurveyDefinition(1, data);
+
+    assertEquals("The survey definition loaded from the cache is not correct", data,
+        cachedSurveyDefinition.getData());
+    assertEquals("The survey definition loaded from the cache is not correct",
+        surveyDefinition.getData(), cachedSurveyDefinition.getData());
+
+    SurveyDefinitionCache.invalidate(id, 1);
+
+    assertNull("The version of the survey definition was not removed from the cache",
+        SurveyDefinitionCache.get(id, 1, data));
+  }
+
+  /**
+   * Test that changes to the definitions for a survey definition loaded using the cache, or the
+   * survey definition whose definitions were cached, do not affect the cache or the other survey
+   * definitions loaded for the same version.
+   */
+  @Test
+  public void mutationIsolationTest()
+    throws Exception
+  {
+    String data = getTestSurveyDefinitionDetails(1, "Test Text").getData();
+
+    SurveyDefinition surveyDefinition = loadSurveyDefinition(1, data);
+
+    SurveyDefinition cachedSurveyDefinition = loadSurveyDefinition(1, data);
+
+    assertNotSame("The survey group definitions are shared",
+        surveyDefinition.getGroupDefinitions().get(0), cachedSurveyDefinition
+        .getGroupDefinitions().get(0));
+    assertNotSame("The survey item definitions are shared",
+        surveyDefinition.getItemDefinitions().get(0), cachedSurveyDefinition.getItemDefinitions()
+        .get(0));
+
+    // Modify the definitions for both the survey definitions
+    for (SurveyDefinition modifiedSurveyDefinition : new SurveyDefinition[] { surveyDefinition,
+        cachedSurveyDefinition })
+    {
+      modifiedSurveyDefinition.getGroupDefinitions().get(0).addGroupMemberDefinition(
+          new SurveyGroupMemberDefinition("Added Group Member"));
+      modifiedSurveyDefinition.getItemDefinitions().get(0).setLabel("Modified Text");
+
+      for (SurveyItemDefinition itemDefinition : modifiedSurveyDefinition.getItemDefinitions())
+      {
+        if (itemDefinition instanceof SurveyGroupRatingsDefinition)
+        {
+          SurveyGroupRatingsDefinition groupRatingsDefinition =
+              (SurveyGroupRatingsDefinition) itemDefinition;
+
+          groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+              "Added Group Rating", SurveyGroupRatingType.ONE_TO_TEN));
+          groupRatingsDefinition.getGroupMemberDefinitions().get(0).setName(
+              "Modified Group Member");
+        }
+        else if (itemDefinition instanceof SurveySectionDefinition)
+        {
+          ((SurveySectionDefinition) itemDefinition).getItemDefinitions().get(0).setLabel(
+              "Modified Section Text");
+        }
+      }
+
+      assertNotEquals("The survey definition was not modified", data,
+          modifiedSurveyDefinition.getData());
+    }
+
+    SurveyDefinition unmodifiedSurveyDefinition = loadSurveyDefinition(1, data);
+
+    assertNotNull("The version of the survey definition is no longer cached",
+        SurveyDefinitionCache.get(id, 1, data));
+    assertEquals("The cached definitions were modified", data,
+        unmodifiedSurveyDefinition.getData());
+  }
+
+  /**
+   * Setup the organisation and survey definition ID used by the tests and clear the cache.
+   */
+  @Before
+  public void setup()
+  {
+    SurveyDefinitionCache.clear();
+
+    id = UUID.randomUUID();
+
+    organisation = new Organisation(UUID.randomUUID(), "Test Organisation",
+        OrganisationStatus.ACTIVE);
+  }
+
+  /**
+   * Test that the parsed definitions for the different versions of a survey definition are cached
+   * independently and that the parsed definitions are not returned for different JSON data.
+   */
+  @Test
+  public void versionIsolationTest()
+    throws Exception
+  {
+    String firstVersionData = getTestSurveyDefinitionDetails(1, "First Version Text").getData();
+    String secondVersionData = getTestSurveyDefinitionDetails(2, "Second Version Text")
+        .getData();
+
+    loadSurveyDefinition(1, firstVersionData);
+    loadSurveyDefinition(2, secondVersionData);
+
+    assertNotNull("The first version of the survey definition is not cached",
+        SurveyDefinitionCache.get(id, 1, firstVersionData));
+    assertNotNull("The second version of the survey definition is not cached",
+        SurveyDefinitionCache.get(id, 2, secondVersionData));
+    assertNull("The second version of the survey definition was returned for the first version",
+        SurveyDefinitionCache.get(id, 1, secondVersionData));
+
+    assertEquals("The first version of the survey definition is not correct", firstVersionData,
+        loadSurveyDefinition(1, firstVersionData).getData());
+    assertEquals("The second version of the survey definition is not correct",
+        secondVersionData, loadSurveyDefinition(2, secondVersionData).getData());
+
+    // Update the first version of the survey definition in place
+    String updatedFirstVersionData = getTestSurveyDefinitionDetails(1, "Updated Text").getData();
+
+    assertNull("The stale first version of the survey definition was returned",
+        SurveyDefinitionCache.get(id, 1, updatedFirstVersionData));
+    assertEquals("The updated first version of the survey definition is not correct",
+        updatedFirstVersionData, loadSurveyDefinition(1, updatedFirstVersionData).getData());
+
+    SurveyDefinitionCache.invalidate(id, 1);
+
+    assertNull("The first version of the survey definition was not removed from the cache",
+        SurveyDefinitionCache.get(id, 1, updatedFirstVersionData));
+    assertNotNull("The second version of the survey definition was removed from the cache",
+        SurveyDefinitionCache.get(id, 2, secondVersionData));
+  }
+
+  private SurveyDefinition getTestSurveyDefinitionDetails(int version, String textLabel)
+  {
+    SurveyDefinition surveyDefinition = new SurveyDefinition(id, version, organisation,
+        "Test Survey Definition", "Test Survey Definition");
+
+    SurveyGroupDefinition groupDefinition = new SurveyGroupDefinition(UUID.randomUUID(),
+        "Test Group", "Test Group");
+
+    groupDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition("Test Group Member"));
+
+    surveyDefinition.addGroupDefinition(groupDefinition);
+
+    surveyDefinition.addItemDefinition(new SurveyTextDefinition("test_text", textLabel,
+        "Test Text", "Test Text"));
+
+    SurveyGroupRatingsDefinition groupRatingsDefinition = new SurveyGroupRatingsDefinition(
+        "test_group_ratings", "Test Group Ratings", "Test Group Ratings", "Test Group Ratings",
+        true);
+
+    groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        "Test Group Rating", SurveyGroupRatingType.YES_NO_NA));
+    groupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+        "Test Group Member"));
+
+    surveyDefinition.addItemDefinition(groupRatingsDefinition);
+
+    SurveySectionDefinition sectionDefinition = new SurveySectionDefinition("test_section",
+        "Test Section", "Test Section", "Test Section");
+
+    sectionDefinition.addItemDefinition(new SurveyTextDefinition("test_section_text",
+        "Test Section Text", "Test Section Text", "Test Section Text"));
+
+    surveyDefinition.addItemDefinition(sectionDefinition);
+
+    return surveyDefinition;
+  }
+
+  private SurveyDefinition loadSurveyDefinition(int version, String data)
+  {
+    SurveyDefinition surveyDefinition = new SurveyDefinition(id, version, organisation,
+        "Test Survey Definition", "Test Survey Definition");
+
+    surveyDefinition.setData(data);
+
+    return surveyDefinition;
+  }
+}
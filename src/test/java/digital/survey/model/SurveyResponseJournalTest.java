@@ -0,0 +1,231 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.model;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import guru.mmp.application.security.OrganisationStatus;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResponseJournalTest</code> class contains the implementation of the JUnit
+ * tests for the recovery of the <code>SurveyResponseJournal</code> class.
+ *
+ * @author Marcus Portmann
+ */
+public class SurveyResponseJournalTest
+{
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+  private Path journalPath;
+  private SurveyInstance surveyInstance;
+
+  /**
+   * Test that the journal records appended after the journal was truncated are replayed when the
+   * checkpoint written before the truncation was not durable and a stale checkpoint is read.
+   */
+  @Test
+  public void staleCheckpointAfterTruncationTest()
+    throws Exception
+  {
+    Path checkpointPath = journalPath.resolveSibling(journalPath.getFileName() + ".checkpoint");
+
+    List<SurveyResponseJournalEntry> appendedEntries = new ArrayList<>();
+
+    byte[] staleCheckpoint;
+
+    try (SurveyResponseJournal journal = new SurveyResponseJournal(journalPath, 1))
+    {
+      append(journal, "First", appendedEntries);
+      append(journal, "Second Survey Response", appendedEntries);
+
+      journal.commit(journal.read(1).get(0));
+
+      staleCheckpoint = Files.readAllBytes(checkpointPath);
+
+      // Insert the remaining journal records, which truncates the journal
+      journal.commit(journal.read(10).get(0));
+
+      assertEquals("The journal was not truncated", 0, Files.size(journalPath));
+
+      appendedEntries.clear();
+
+      // The first journal record after the truncation ends at the same position as the stale
+      // checkpoint
+      append(journal, "Third", appendedEntries);
+      append(journal, "Fourth Survey Response", appendedEntries);
+      append(journal, "Fifth", appendedEntries);
+    }
+
+    Files.write(checkpointPath, staleCheckpoint);
+
+    try (SurveyResponseJournal journal = new SurveyResponseJournal(journalPath, 1))
+    {
+      assertEntries(appendedEntries, journal.read(10));
+    }
+  }
+
+  /**
+   * Test that the journal records after the checkpoint, and only those journal records, are
+   * replayed when the journal is reopened.
+   */
+  @Test
+  public void replayAfterCheckpointTest()
+    throws Exception
+  {
+    List<SurveyResponseJournalEntry> appendedEntries = new ArrayList<>();
+
+    try (SurveyResponseJournal journal = new SurveyResponseJournal(journalPath))
+    {
+      for (int i = 0; i < 5; i++)
+      {
+        append(journal, "Survey Response " + i, appendedEntries);
+      }
+
+      List<SurveyResponseJournalEntry> entries = journal.read(2);
+
+      assertEntries(appendedEntries.subList(0, 2), entries);
+
+      journal.commit(entries.get(1));
+    }
+
+    try (SurveyResponseJournal journal = new SurveyResponseJournal(journalPath))
+    {
+      List<SurveyResponseJournalEntry> entries = journal.read(10);
+
+      assertEntries(appendedEntries.subList(2, 5), entries);
+
+      journal.commit(entries.get(2));
+    }
+
+    try (SurveyResponseJournal journal = new SurveyResponseJournal(journalPath))
+    {
+      assertEquals("The journal entries that were inserted were replayed", 0,
+          journal.read(10).size());
+    }
+  }
+
+  /**
+   * Setup the survey instance used to create the survey responses for the journal entries.
+   */
+  @Before
+  public void setup()
+    throws Exception
+  {
+    journalPath = temporaryFolder.getRoot().toPath().resolve("SurveyResponses.journal");
+
+    Organisation organisation = new Organisation(UUID.randomUUID(), "Test Organisation",
+        OrganisationStatus.ACTIVE);
+
+    SurveyDefinition surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1, organisation,
+        "Test Survey Definition", "Test Survey Definition");
+
+    surveyDefinition.addItemDefinition(new SurveyTextDefinition("test_text", "Test Text",
+        "Test Text", "Test Text"));
+
+    surveyInstance = new SurveyInstance("Test Survey Instance", "Test Survey Instance",
+        surveyDefinition);
+  }
+
+  /**
+   * Test that an incomplete journal record at the end of the journal, which was never
+   * acknowledged, is discarded when the journal is reopened and that the journal records before it
+   * and appended after it are replayed.
+   */
+  @Test
+  public void tornTailTest()
+    throws Exception
+  {
+    List<SurveyResponseJournalEntry> appendedEntries = new ArrayList<>();
+
+    try (SurveyResponseJournal journal = new SurveyResponseJournal(journalPath))
+    {
+      append(journal, "First Survey Response", appendedEntries);
+      append(journal, "Second Survey Response", appendedEntries);
+    }
+
+    long journalSize = Files.size(journalPath);
+
+    // Append the header and part of the payload for a journal record
+    ByteBuffer tornRecord = ByteBuffer.allocate(12);
+
+    tornRecord.putInt(100);
+    tornRecord.putInt(0x12345678);
+    tornRecord.putInt(0x7B226964);
+
+    Files.write(journalPath, tornRecord.array(), StandardOpenOption.APPEND);
+
+    try (SurveyResponseJournal journal = new SurveyResponseJournal(journalPath))
+    {
+      assertEquals("The incomplete journal record was not discarded", journalSize, Files.size(
+          journalPath));
+
+      append(journal, "Third Survey Response", appendedEntries);
+    }
+
+    try (SurveyResponseJournal journal = new SurveyResponseJournal(journalPath))
+    {
+      assertEntries(appendedEntries, journal.read(10));
+    }
+  }
+
+  private void append(SurveyResponseJournal journal, String text,
+      List<SurveyResponseJournalEntry> appendedEntries)
+    throws Exception
+  {
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    for (SurveyItemResponse itemResponse : surveyResponse.getItemResponses())
+    {
+      if (itemResponse instanceof SurveyTextResponse)
+      {
+        ((SurveyTextResponse) itemResponse).setValue(text);
+      }
+    }
+
+    SurveyResponseJournalEntry entry = new SurveyResponseJournalEntry(surveyResponse);
+
+    journal.append(entry);
+
+    appendedEntries.add(entry);
+  }
+
+  private void assertEntries(List<SurveyResponseJournalEntry> expectedEntries,
+      List<SurveyResponseJournalEntry> entries)
+  {
+    assertEquals("The number of journal entries is not correct", expectedEntries.size(),
+        entries.size());
+
+    for (int i = 0; i < expectedEntries.size(); i++)
+    {
+      assertEquals("The ID for the journal entry is not correct", expectedEntries.get(i).getId(),
+          entries.get(i).getId());
+      assertEquals("The data for the journal entry is not correct", expectedEntries.get(i)
+          .getData(), entries.get(i).getData());
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.tests;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import digital.survey.model.*;
+import guru.mmp.application.security.OrganisationStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>EntityDataCodecBenchmark</code> class contains the JMH benchmarks that compare the
+ * encoding and decoding of the JSON data for a survey response using the shared entity data codec,
+ * which is invoked by the <code>getData()</code> and <code>setData()</code> methods on the entity,
+ * with creating a new <code>ObjectMapper</code> for every invocation.
+ * <p/>
+ * The benchmarks can be run using the <code>main</code> method once the test classes have been
+ * compiled.
+ *
+ * @author Marcus Portmann
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityDataCodecBenchmark
+{
+  private SurveyInstance surveyInstance;
+  private SurveyResponse surveyResponse;
+  private String surveyResponseData;
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args the command-line arguments
+   */
+  public static void main(String[] args)
+    throws Exception
+  {
+    new Runner(new OptionsBuilder().include(EntityDataCodecBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  /**
+   * Decode the JSON data for a survey response using a new <code>ObjectMapper</code>.
+   *
+   * @return the survey response
+   */
+  @Benchmark
+  public SurveyResponse readNewObjectMapper()
+    throws Exception
+  {
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    new ObjectMapper().readerForUpdating(surveyResponse).readValue(surveyResponseData);
+
+    return surveyResponse;
+  }
+
+  /**
+   * Decode the JSON data for a survey response using the shared entity data codec.
+   *
+   * @return the survey response
+   */
+  @Benchmark
+  public SurveyResponse readSharedCodec()
+  {
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    surveyResponse.setData(surveyResponseData);
+
+    return surveyResponse;
+  }
+
+  /**
+   * Setup the survey response for the benchmarks.
+   */
+  @Setup
+  public void setup()
+  {
+    Organisation organisation = new Organisation(UUID.randomUUID(), "Benchmark Organisation",
+        OrganisationStatus.ACTIVE);
+
+    SurveyDefinition surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1, organisation,
+        "Benchmark Survey Definition", "Benchmark Survey Definition");
+
+    surveyDefinition.addItemDefinition(new SurveyTextDefinition("benchmark_text",
+        "Benchmark Text", "Benchmark Text", "Benchmark Text"));
+
+    SurveyGroupRatingsDefinition groupRatingsDefinition = new SurveyGroupRatingsDefinition(
+        "benchmark_group_ratings", "Benchmark Group Ratings", "Benchmark Group Ratings",
+        "Benchmark Group Ratings", true);
+
+    for (int i = 0; i < 10; i++)
+    {
+      groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+          "Group Rating " + i, SurveyGroupRatingType.YES_NO_NA));
+    }
+
+    for (int i = 0; i < 20; i++)
+    {
+      groupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+          "Group Member " + i));
+    }
+
+    surveyDefinition.addItemDefinition(groupRatingsDefinition);
+
+    surveyInstance = new SurveyInstance("Benchmark Survey Instance", "Benchmark Survey Instance",
+        surveyDefinition);
+
+    surveyResponse = new SurveyResponse(surveyInstance);
+
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      groupRatingResponse.setRating(ThreadLocalRandom.current().nextInt(-1, 2));
+    }
+
+    surveyResponseData = surveyResponse.getData();
+  }
+
+  /**
+   * Encode the JSON data for a survey response using a new <code>ObjectMapper</code>.
+   *
+   * @return the JSON data for the survey response
+   */
+  @Benchmark
+  public String writeNewObjectMapper()
+    throws Exception
+  {
+    return new ObjectMapper().writeValueAsString(surveyResponse);
+  }
+
+  /**
+   * Encode the JSON data for a survey response using the shared entity data codec.
+   *
+   * @return the JSON data for the survey response
+   */
+  @Benchmark
+  public String writeSharedCodec()
+  {
+    return surveyResponse.getData();
+  }
+}
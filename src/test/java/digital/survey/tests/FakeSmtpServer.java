@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.tests;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The <code>FakeSmtpServer</code> class implements a minimal local SMTP server that accepts and
+ * discards all mail, which is used to measure the sending of mail offline.
+ * <p/>
+ * An optional connection delay is applied before the greeting is sent for each new connection to
+ * simulate the cost of the TCP, TLS and authentication handshakes with a remote mail server.
+ *
+ * @author Marcus Portmann
+ */
+public class FakeSmtpServer
+  implements AutoCloseable
+{
+  /**
+   * The delay in milliseconds applied before the greeting is sent for each new connection.
+   */
+  private long connectionDelay;
+
+  /**
+   * The number of connections accepted.
+   */
+  private AtomicInteger numberOfConnections = new AtomicInteger();
+
+  /**
+   * The number of messages received.
+   */
+  private AtomicInteger numberOfMessages = new AtomicInteger();
+
+  /**
+   * The server socket.
+   */
+  private ServerSocket serverSocket;
+
+  /**
+   * Constructs a new <code>FakeSmtpServer</code> listening on an ephemeral port on the loopback
+   * address.
+   *
+   * @param connectionDelay the delay in milliseconds applied before the greeting is sent for each
+   *                        new connection
+   */
+  public FakeSmtpServer(long connectionDelay)
+    throws IOException
+  {
+    this.connectionDelay = connectionDelay;
+    this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+    Thread acceptThread = new Thread(this::acceptConnections, "FakeSmtpServer-Accept");
+
+    acceptThread.setDaemon(true);
+    acceptThread.start();
+  }
+
+  /**
+   * Stop the fake SMTP server.
+   */
+  @Override
+  public void close()
+    throws IOException
+  {
+    serverSocket.close();
+  }
+
+  /**
+   * Returns the host the fake SMTP server is listening on.
+   *
+   * @return the host the fake SMTP server is listening on
+   */
+  public String getHost()
+  {
+    return serverSocket.getInetAddress().getHostAddress();
+  }
+
+  /**
+   * Returns the number of connections accepted.
+   *
+   * @return the number of connections accepted
+   */
+  public int getNumberOfConnections()
+  {
+    return numberOfConnections.get();
+  }
+
+  /**
+   * Returns the number of messages received.
+   *
+   * @return the number of messages received
+   */
+  public int getNumberOfMessages()
+  {
+    return numberOfMessages.get();
+  }
+
+  /**
+   * Returns the port the fake SMTP server is listening on.
+   *
+   * @return the port the fake SMTP server is listening on
+   */
+  public int getPort()
+  {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Accept the connections until the server socket is closed.
+   */
+  private void acceptConnections()
+  {
+    while (!serverSocket.isClosed())
+    {
+      try
+      {
+        Socket socket = serverSocket.accept();
+
+        numberOfConnections.incrementAndGet();
+
+        Thread connectionThread = new Thread(() -> handleConnection(socket),
+            "FakeSmtpServer-Connection");
+
+        connectionThread.setDaemon(true);
+        connectionThread.start();
+      }
+      catch (IOException ignored) {}
+    }
+  }
+
+  /**
+   * Handle the SMTP commands for the connection.
+   *
+   * @param socket the socket for the connection
+   */
+  private void handleConnection(Socket socket)
+  {
+    try (Socket ignored = socket;
+      BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+          StandardCharsets.US_ASCII));
+      Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))
+    {
+      if (connectionDelay > 0)
+      {
+        Thread.sleep(connectionDelay);
+      }
+
+      reply(writer, "220 localhost FakeSmtpServer");
+
+      String line;
+
+      while ((line = reader.readLine()) != null)
+      {
+        String command = line.toUpperCase();
+
+        if (command.startsWith("EHLO") || command.startsWith("HELO"))
+        {
+          reply(writer, "250 localhost");
+        }
+        else if (command.startsWith("MAIL") || command.startsWith("RCPT")
+            || command.startsWith("RSET") || command.startsWith("NOOP"))
+        {
+          reply(writer, "250 OK");
+        }
+        else if (command.startsWith("DATA"))
+        {
+          reply(writer, "354 End data with <CR><LF>.<CR><LF>");
+
+          while (((line = reader.readLine()) != null) && (!line.equals(".")))
+          {
+            // Discard the message data
+          }
+
+          numberOfMessages.incrementAndGet();
+
+          reply(writer, "250 OK");
+        }
+        else if (command.startsWith("QUIT"))
+        {
+          reply(writer, "221 Bye");
+
+          return;
+        }
+        else
+        {
+          reply(writer, "502 Command not implemented");
+        }
+      }
+    }
+    catch (Throwable ignored) {}
+  }
+
+  /**
+   * Send the reply.
+   *
+   * @param writer the writer for the connection
+   * @param reply  the reply
+   */
+  private void reply(Writer writer, String reply)
+    throws IOException
+  {
+    writer.write(reply);
+    writer.write("\r\n");
+    writer.flush();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.tests;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.model.SmtpTransportPool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.mail.Message;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SmtpTransportPoolBenchmark</code> class contains the JMH benchmarks that compare
+ * sending mail to a local fake SMTP server using the pooled SMTP transports with connecting a new
+ * SMTP transport for every mail.
+ * <p/>
+ * The fake SMTP server delays each new connection by 20 milliseconds to simulate the TCP, TLS and
+ * authentication handshakes with a remote mail server. The benchmarks can be run using the
+ * <code>main</code> method once the test classes have been compiled.
+ *
+ * @author Marcus Portmann
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class SmtpTransportPoolBenchmark
+{
+  private static final long CONNECTION_DELAY = 20L;
+  private FakeSmtpServer fakeSmtpServer;
+  private Session session;
+  private SmtpTransportPool transportPool;
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args the command-line arguments
+   */
+  public static void main(String[] args)
+    throws Exception
+  {
+    new Runner(new OptionsBuilder().include(SmtpTransportPoolBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  /**
+   * Send a mail using a new SMTP transport.
+   */
+  @Benchmark
+  public void sendNewTransport()
+    throws Exception
+  {
+    MimeMessage message = createMessage();
+
+    Transport transport = session.getTransport("smtp");
+
+    try
+    {
+      transport.connect(fakeSmtpServer.getHost(), fakeSmtpServer.getPort(), null, null);
+
+      transport.sendMessage(message, message.getAllRecipients());
+    }
+    finally
+    {
+      transport.close();
+    }
+  }
+
+  /**
+   * Send a mail using a pooled SMTP transport.
+   */
+  @Benchmark
+  public void sendPooledTransport()
+    throws Exception
+  {
+    MimeMessage message = createMessage();
+
+    transportPool.sendMessage(message, message.getAllRecipients());
+  }
+
+  /**
+   * Start the fake SMTP server and create the pool of SMTP transports.
+   */
+  @Setup
+  public void setup()
+    throws Exception
+  {
+    fakeSmtpServer = new FakeSmtpServer(CONNECTION_DELAY);
+
+    Properties properties = new Properties();
+
+    properties.put("mail.smtp.host", fakeSmtpServer.getHost());
+    properties.put("mail.smtp.port", String.valueOf(fakeSmtpServer.getPort()));
+
+    session = Session.getInstance(properties);
+
+    transportPool = new SmtpTransportPool(session, fakeSmtpServer.getHost(),
+        fakeSmtpServer.getPort(), null, null, 8, 100);
+  }
+
+  /**
+   * Close the pool of SMTP transports and stop the fake SMTP server.
+   */
+  @TearDown
+  public void tearDown()
+    throws Exception
+  {
+    transportPool.close();
+
+    fakeSmtpServer.close();
+  }
+
+  private MimeMessage createMessage()
+    throws Exception
+  {
+    MimeMessage message = new MimeMessage(session);
+
+    message.setFrom(new InternetAddress("no-reply@example.com"));
+    message.addRecipient(Message.RecipientType.TO, new InternetAddress("test@example.com"));
+    message.setSubject("We want your opinion");
+    message.setContent("<div>Please complete the survey.</div>", "text/html");
+
+    return message;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.tests;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.hibernate.SessionFactory;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>StatementCounter</code> class counts the SQL statements prepared by Hibernate while a
+ * service call is executed. It is used to assert that a service call stays within its budget of
+ * SQL statements, and so detect N+1 selects caused by associations that are not fetched by the
+ * queries for the service call. It can also check which tables the entities and collections
+ * loaded by the service call were read from.
+ *
+ * @author Marcus Portmann
+ */
+public class StatementCounter
+{
+  /**
+   * The Hibernate session factory.
+   */
+  private SessionFactory sessionFactory;
+
+  /**
+   * The Hibernate statistics used to count the SQL statements.
+   */
+  private Statistics statistics;
+
+  /**
+   * Constructs a new <code>StatementCounter</code> and enables the Hibernate statistics for the
+   * entity manager factory.
+   *
+   * @param entityManagerFactory the entity manager factory
+   */
+  public StatementCounter(EntityManagerFactory entityManagerFactory)
+  {
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    this.statistics = sessionFactory.getStatistics();
+
+    statistics.setStatisticsEnabled(true);
+  }
+
+  /**
+   * Execute the service call and check that no entities of the specified types were loaded while
+   * it was executed.
+   *
+   * @param description   the description of the service call
+   * @param entityClasses the types of entities the service call must not load
+   * @param serviceCall   the service call
+   * @param <T>           the type of the result of the service call
+   *
+   * @return the result of the service call
+   */
+  public <T> T assertEntitiesNotLoaded(String description, Set<Class<?>> entityClasses,
+      Callable<T> serviceCall)
+    throws Exception
+  {
+    statistics.clear();
+
+    T result = serviceCall.call();
+
+    for (Class<?> entityClass : entityClasses)
+    {
+      EntityStatistics entityStatistics = statistics.getEntityStatistics(entityClass.getName());
+
+      assertEquals(String.format("The %s loaded %s entities", description,
+          entityClass.getSimpleName()), 0, entityStatistics.getLoadCount()
+          + entityStatistics.getFetchCount());
+    }
+
+    return result;
+  }
+
+  /**
+   * Execute the service call and check that the number of SQL statements prepared while it was
+   * executed does not exceed the budget.
+   *
+   * @param description the description of the service call
+   * @param budget      the maximum number of SQL statements the service call may execute
+   * @param serviceCall the service call
+   * @param <T>         the type of the result of the service call
+   *
+   * @return the result of the service call
+   */
+  public <T> T assertStatementBudget(String description, int budget, Callable<T> serviceCall)
+    throws Exception
+  {
+    statistics.clear();
+
+    T result = serviceCall.call();
+
+    long numberOfStatements = statistics.getPrepareStatementCount();
+
+    assertTrue(String.format("The %s executed %d SQL statements which exceeds its budget of %d",
+        description, numberOfStatements, budget), numberOfStatements <= budget);
+
+    return result;
+  }
+
+  /**
+   * Execute the service call and check that the number of SQL statements prepared while it was
+   * executed does not exceed the budget and that the entities and collections loaded while it was
+   * executed were only read from the expected tables.
+   *
+   * @param description the description of the service call
+   * @param budget      the maximum number of SQL statements the service call may execute
+   * @param tableNames  the names of the tables, without the schema, the service call is expected
+   *                    to read
+   * @param serviceCall the service call
+   * @param <T>         the type of the result of the service call
+   *
+   * @return the result of the service call
+   */
+  @SuppressWarnings("deprecation")
+  public <T> T assertTablesRead(String description, int budget, Set<String> tableNames,
+      Callable<T> serviceCall)
+    throws Exception
+  {
+    T result = assertStatementBudget(description, budget, serviceCall);
+
+    Set<String> tablesRead = new TreeSet<>();
+
+    for (String entityName : statistics.getEntityNames())
+    {
+      EntityStatistics entityStatistics = statistics.getEntityStatistics(entityName);
+
+      if ((entityStatistics.getLoadCount() > 0) || (entityStatistics.getFetchCount() > 0))
+      {
+        tablesRead.add(getTableName(((AbstractEntityPersister) sessionFactory.getClassMetadata(
+            entityName)).getTableName()));
+      }
+    }
+
+    for (String role : statistics.getCollectionRoleNames())
+    {
+      CollectionStatistics collectionStatistics = statistics.getCollectionStatistics(role);
+
+      if ((collectionStatistics.getLoadCount() > 0) || (collectionStatistics.getFetchCount() > 0))
+      {
+        tablesRead.add(getTableName(((AbstractCollectionPersister) sessionFactory
+            .getCollectionMetadata(role)).getTableName()));
+      }
+    }
+
+    Set<String> expectedTablesRead = new TreeSet<>();
+
+    for (String tableName : tableNames)
+    {
+      expectedTablesRead.add(getTableName(tableName));
+    }
+
+    assertEquals(String.format("The tables read by the %s are not correct", description),
+        expectedTablesRead, tablesRead);
+
+    return result;
+  }
+
+  private static String getTableName(String qualifiedTableName)
+  {
+    return qualifiedTableName.substring(qualifiedTableName.lastIndexOf('.') + 1).toUpperCase(
+        Locale.ROOT);
+  }
+}
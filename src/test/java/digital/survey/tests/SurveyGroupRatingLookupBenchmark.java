@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.tests;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.model.*;
+import guru.mmp.application.security.OrganisationStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyGroupRatingLookupBenchmark</code> class contains the JMH benchmarks for the
+ * lookup of the survey group rating results for a survey result and the survey group rating
+ * responses for a survey response on a survey definition with a 30 x 10 survey group ratings
+ * grid, comparing the indexed lookups with a linear scan of the cells.
+ * <p/>
+ * The benchmarks can be run using the <code>main</code> method once the test classes have been
+ * compiled.
+ *
+ * @author Marcus Portmann
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SurveyGroupRatingLookupBenchmark
+{
+  private static final int NUMBER_OF_GROUP_MEMBERS = 10;
+  private static final int NUMBER_OF_GROUP_RATINGS = 30;
+  private static final int NUMBER_OF_RESPONSES = 100;
+  private SurveyInstance surveyInstance;
+  private List<SurveyResponse> surveyResponses;
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args the command-line arguments
+   */
+  public static void main(String[] args)
+    throws Exception
+  {
+    new Runner(new OptionsBuilder().include(SurveyGroupRatingLookupBenchmark.class
+        .getSimpleName()).build()).run();
+  }
+
+  /**
+   * Compile a survey result from the survey responses using the indexed lookup of the survey
+   * group rating results.
+   *
+   * @return the survey result
+   */
+  @Benchmark
+  public SurveyResult compileSurveyResultIndexed()
+  {
+    SurveyResult surveyResult = new SurveyResult(surveyInstance);
+
+    for (SurveyResponse surveyResponse : surveyResponses)
+    {
+      surveyResult.addResponse(surveyResponse);
+    }
+
+    return surveyResult;
+  }
+
+  /**
+   * Compile a survey result from the survey responses using a linear scan of the survey group
+   * rating results for each survey group rating response.
+   *
+   * @return the survey result
+   */
+  @Benchmark
+  public SurveyResult compileSurveyResultLinearScan()
+  {
+    SurveyResult surveyResult = new SurveyResult(surveyInstance);
+
+    for (SurveyResponse surveyResponse : surveyResponses)
+    {
+      for (SurveyGroupRatingResponse groupRatingResponse :
+          surveyResponse.getGroupRatingResponses())
+      {
+        for (SurveyGroupRatingResult groupRatingResult : surveyResult.getGroupRatingResults())
+        {
+          if ((groupRatingResult.getGroupRatingsDefinitionId().equals(
+              groupRatingResponse.getGroupRatingsDefinitionId()))
+              && (groupRatingResult.getGroupRatingDefinitionId().equals(
+              groupRatingResponse.getGroupRatingDefinitionId()))
+              && (groupRatingResult.getGroupMemberDefinitionId().equals(
+              groupRatingResponse.getGroupMemberDefinitionId())))
+          {
+            groupRatingResult.addRating(groupRatingResponse.getRating());
+
+            break;
+          }
+        }
+      }
+    }
+
+    return surveyResult;
+  }
+
+  /**
+   * Retrieve every survey group rating response for a survey response using the indexed lookup.
+   *
+   * @param blackhole the JMH blackhole
+   */
+  @Benchmark
+  public void lookupGroupRatingResponsesIndexed(Blackhole blackhole)
+  {
+    SurveyResponse surveyResponse = surveyResponses.get(0);
+
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      blackhole.consume(surveyResponse.getGroupRatingResponseForDefinition(
+          groupRatingResponse.getGroupRatingsDefinitionId(),
+          groupRatingResponse.getGroupRatingDefinitionId(),
+          groupRatingResponse.getGroupMemberDefinitionId()));
+    }
+  }
+
+  /**
+   * Retrieve every survey group rating response for a survey response using a linear scan of the
+   * survey item responses.
+   *
+   * @param blackhole the JMH blackhole
+   */
+  @Benchmark
+  public void lookupGroupRatingResponsesLinearScan(Blackhole blackhole)
+  {
+    SurveyResponse surveyResponse = surveyResponses.get(0);
+
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      for (SurveyItemResponse itemResponse : surveyResponse.getItemResponses())
+      {
+        if (itemResponse instanceof SurveyGroupRatingResponse)
+        {
+          SurveyGroupRatingResponse otherGroupRatingResponse =
+              (SurveyGroupRatingResponse) itemResponse;
+
+          if ((otherGroupRatingResponse.getGroupRatingsDefinitionId().equals(
+              groupRatingResponse.getGroupRatingsDefinitionId()))
+              && (otherGroupRatingResponse.getGroupRatingDefinitionId().equals(
+              groupRatingResponse.getGroupRatingDefinitionId()))
+              && (otherGroupRatingResponse.getGroupMemberDefinitionId().equals(
+              groupRatingResponse.getGroupMemberDefinitionId())))
+          {
+            blackhole.consume(otherGroupRatingResponse);
+
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Setup the survey instance and the randomized survey responses for the benchmarks.
+   */
+  @Setup
+  public void setup()
+  {
+    Organisation organisation = new Organisation(UUID.randomUUID(), "Benchmark Organisation",
+        OrganisationStatus.ACTIVE);
+
+    SurveyDefinition surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1, organisation,
+        "Benchmark Survey Definition", "Benchmark Survey Definition");
+
+    SurveyGroupRatingsDefinition groupRatingsDefinition = new SurveyGroupRatingsDefinition(
+        "benchmark_group_ratings", "Benchmark Group Ratings", "Benchmark Group Ratings",
+        "Benchmark Group Ratings", true);
+
+    for (int i = 0; i < NUMBER_OF_GROUP_RATINGS; i++)
+    {
+      groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+          "Group Rating " + i, SurveyGroupRatingType.ONE_TO_TEN));
+    }
+
+    for (int i = 0; i < NUMBER_OF_GROUP_MEMBERS; i++)
+    {
+      groupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+          "Group Member " + i));
+    }
+
+    surveyDefinition.addItemDefinition(groupRatingsDefinition);
+
+    surveyInstance = new SurveyInstance("Benchmark Survey Instance", "Benchmark Survey Instance",
+        surveyDefinition);
+
+    surveyResponses = new ArrayList<>();
+
+    for (int i = 0; i < NUMBER_OF_RESPONSES; i++)
+    {
+      SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+      for (SurveyGroupRatingResponse groupRatingResponse :
+          surveyResponse.getGroupRatingResponses())
+      {
+        groupRatingResponse.setRating(ThreadLocalRandom.current().nextInt(1, 11));
+      }
+
+      surveyResponses.add(surveyResponse);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.tests;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.model.*;
+import guru.mmp.application.security.OrganisationStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResultAggregationBenchmark</code> class contains the JMH benchmarks that compare
+ * adding a survey response to a survey result by streaming the ratings from the JSON data for the
+ * survey response with decoding the JSON data into a survey response first.
+ * <p/>
+ * The benchmarks can be run using the <code>main</code> method once the test classes have been
+ * compiled, which enables the JMH GC profiler so that the allocation rate per operation is
+ * reported along with the average time.
+ *
+ * @author Marcus Portmann
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SurveyResultAggregationBenchmark
+{
+  private SurveyInstance surveyInstance;
+  private SurveyResult surveyResult;
+  private String surveyResponseData;
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args the command-line arguments
+   */
+  public static void main(String[] args)
+    throws Exception
+  {
+    new Runner(new OptionsBuilder().include(SurveyResultAggregationBenchmark.class
+        .getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+  }
+
+  /**
+   * Add the survey response to the survey result by decoding its JSON data into a survey
+   * response.
+   */
+  @Benchmark
+  public void addDecodedResponse()
+  {
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    surveyResponse.setData(surveyResponseData);
+
+    surveyResult.addResponse(surveyResponse);
+  }
+
+  /**
+   * Add the survey response to the survey result by streaming the ratings from its JSON data.
+   */
+  @Benchmark
+  public void addStreamedResponseData()
+  {
+    surveyResult.addResponseData(surveyResponseData);
+  }
+
+  /**
+   * Setup the survey result and the JSON data for the survey response for the benchmarks.
+   */
+  @Setup
+  public void setup()
+  {
+    Organisation organisation = new Organisation(UUID.randomUUID(), "Benchmark Organisation",
+        OrganisationStatus.ACTIVE);
+
+    SurveyDefinition surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1, organisation,
+        "Benchmark Survey Definition", "Benchmark Survey Definition");
+
+    surveyDefinition.addItemDefinition(new SurveyTextDefinition("benchmark_text",
+        "Benchmark Text", "Benchmark Text", "Benchmark Text"));
+
+    SurveyGroupRatingsDefinition groupRatingsDefinition = new SurveyGroupRatingsDefinition(
+        "benchmark_group_ratings", "Benchmark Group Ratings", "Benchmark Group Ratings",
+        "Benchmark Group Ratings", true);
+
+    for (int i = 0; i < 10; i++)
+    {
+      groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+          "Group Rating " + i, SurveyGroupRatingType.YES_NO_NA));
+    }
+
+    for (int i = 0; i < 20; i++)
+    {
+      groupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+          "Group Member " + i));
+    }
+
+    surveyDefinition.addItemDefinition(groupRatingsDefinition);
+
+    surveyInstance = new SurveyInstance("Benchmark Survey Instance", "Benchmark Survey Instance",
+        surveyDefinition);
+
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      groupRatingResponse.setRating(ThreadLocalRandom.current().nextInt(-1, 2));
+    }
+
+    surveyResponseData = surveyResponse.getData();
+
+    surveyResult = new SurveyResult(surveyInstance);
+  }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.tests;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import digital.survey.model.*;
+import guru.mmp.application.security.OrganisationStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResultTest</code> class contains the implementation of the JUnit tests that
+ * check that adding the survey responses to a survey result by streaming the ratings from their
+ * JSON data produces the same survey result as decoding the JSON data into survey responses first,
+ * and for the precomputed scores and weighted totals for the survey result.
+ *
+ * @author Marcus Portmann
+ */
+public class SurveyResultTest
+{
+  private SurveyDefinition surveyDefinition;
+  private SurveyInstance surveyInstance;
+
+  /**
+   * Test that the precomputed scores and weighted totals are recomputed when survey responses are
+   * added to and removed from the survey result, that retrieving the JSON data for the survey
+   * result does not modify it and that the scores and weighted totals are restored from the JSON
+   * data.
+   */
+  @Test
+  public void groupRatingsTotalsTest()
+  {
+    UUID id = UUID.randomUUID();
+
+    SurveyResult surveyResult = new SurveyResult(id, surveyInstance);
+
+    SurveyGroupRatingResult groupRatingResult = surveyResult.getGroupRatingResults().get(0);
+
+    UUID groupRatingsDefinitionId = groupRatingResult.getGroupRatingsDefinitionId();
+    UUID groupMemberDefinitionId = groupRatingResult.getGroupMemberDefinitionId();
+
+    assertNotNull("The scores and weighted totals were not computed for the new survey result",
+        surveyResult.getGroupRatingsTotals(groupRatingsDefinitionId));
+
+    SurveyResponse firstSurveyResponse = getTestSurveyResponse(0, null, null);
+    SurveyResponse secondSurveyResponse = getTestSurveyResponse(5, null, null);
+
+    surveyResult.addResponse(firstSurveyResponse);
+
+    SurveyGroupRatingsTotals firstGroupRatingsTotals = surveyResult.getGroupRatingsTotals(
+        groupRatingsDefinitionId);
+
+    float firstAverageRating = firstGroupRatingsTotals.getGroupMemberTotal(
+        groupMemberDefinitionId).getAverageRating();
+
+    surveyResult.addResponse(secondSurveyResponse);
+
+    SurveyGroupRatingsTotals groupRatingsTotals = surveyResult.getGroupRatingsTotals(
+        groupRatingsDefinitionId);
+
+    assertNotSame("The scores and weighted totals were not recomputed when a survey response was"
+        + " added", firstGroupRatingsTotals, groupRatingsTotals);
+
+    Date updated = surveyResult.getUpdated();
+
+    String data = surveyResult.getData();
+
+    assertEquals("The JSON data for the survey result is not consistent", data,
+        surveyResult.getData());
+    assertSame("Retrieving the JSON data recomputed the scores and weighted totals",
+        groupRatingsTotals, surveyResult.getGroupRatingsTotals(groupRatingsDefinitionId));
+    assertSame("Retrieving the JSON data updated the survey result", updated,
+        surveyResult.getUpdated());
+
+    SurveyResult restoredSurveyResult = new SurveyResult(id, surveyInstance);
+
+    restoredSurveyResult.setData(data);
+
+    assertEquals("The scores and weighted totals restored from the JSON data are not correct",
+        groupRatingsTotals.getGroupMemberTotal(groupMemberDefinitionId).getAverageRating(),
+        restoredSurveyResult.getGroupRatingsTotals(groupRatingsDefinitionId).getGroupMemberTotal(
+        groupMemberDefinitionId).getAverageRating(), 0.0);
+
+    surveyResult.removeResponse(secondSurveyResponse);
+
+    assertEquals("The scores and weighted totals were not recomputed when a survey response was"
+        + " removed", firstAverageRating, surveyResult.getGroupRatingsTotals(
+        groupRatingsDefinitionId).getGroupMemberTotal(groupMemberDefinitionId).getAverageRating(),
+        0.0);
+  }
+
+  /**
+   * Test that the streamed and decoded survey results match for the ratings given for the survey
+   * group ratings with the rating type "One To Ten".
+   */
+  @Test
+  public void ratingResponsesTest()
+  {
+    List<String> surveyResponseData = new ArrayList<>();
+
+    for (int i = 0; i < 25; i++)
+    {
+      surveyResponseData.add(getTestSurveyResponse(i, SurveyGroupRatingType.ONE_TO_TEN, null)
+          .getData());
+    }
+
+    assertStreamedSurveyResultMatches(surveyResponseData, surveyResponseData);
+  }
+
+  /**
+   * Setup the survey definition and survey instance used to create the survey responses.
+   */
+  @Before
+  public void setup()
+  {
+    Organisation organisation = new Organisation(UUID.randomUUID(), "Test Organisation",
+        OrganisationStatus.ACTIVE);
+
+    surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1, organisation,
+        "Test Survey Definition", "Test Survey Definition");
+
+    surveyDefinition.addItemDefinition(new SurveyTextDefinition("test_text", "Test Text",
+        "Test Text", "Test Text"));
+
+    SurveyGroupRatingsDefinition groupRatingsDefinition = new SurveyGroupRatingsDefinition(
+        "test_group_ratings", "Test Group Ratings", "Test Group Ratings", "Test Group Ratings",
+        true);
+
+    groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        "Test One To Ten Rating", SurveyGroupRatingType.ONE_TO_TEN));
+    groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        "Test Yes No NA Rating", SurveyGroupRatingType.YES_NO_NA));
+
+    for (int i = 0; i < 3; i++)
+    {
+      groupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+          "Test Group Member " + i));
+    }
+
+    surveyDefinition.addItemDefinition(groupRatingsDefinition);
+
+    surveyDefinition.addItemDefinition(new SurveyTextDefinition("test_comments",
+        "Test Comments", "Test Comments", "Test Comments"));
+
+    SurveyGroupRatingsDefinition yesNoNaGroupRatingsDefinition = new SurveyGroupRatingsDefinition(
+        "test_yes_no_na_group_ratings", "Test Yes No NA Group Ratings",
+        "Test Yes No NA Group Ratings", "Test Yes No NA Group Ratings", false);
+
+    yesNoNaGroupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        "Test Yes No NA Rating", SurveyGroupRatingType.YES_NO_NA));
+
+    for (int i = 0; i < 2; i++)
+    {
+      yesNoNaGroupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+          "Test Group Member " + i));
+    }
+
+    surveyDefinition.addItemDefinition(yesNoNaGroupRatingsDefinition);
+
+    surveyInstance = new SurveyInstance("Test Survey Instance", "Test Survey Instance",
+        surveyDefinition);
+  }
+
+  /**
+   * Test that the streamed and decoded survey results match for survey responses whose survey
+   * text responses contain values that look like JSON, escaped characters and no value.
+   */
+  @Test
+  public void textResponsesTest()
+  {
+    String[] textValues = new String[] { null, "", "{\"rating\": 5, \"typeId\": \"\"}",
+        "Quotes \" and backslashes \\ and\nnew lines", "Unicode é中😀",
+        "[\"itemResponses\"]" };
+
+    List<String> surveyResponseData = new ArrayList<>();
+
+    for (int i = 0; i < textValues.length; i++)
+    {
+      surveyResponseData.add(getTestSurveyResponse(i, null, textValues[i]).getData());
+    }
+
+    assertStreamedSurveyResultMatches(surveyResponseData, surveyResponseData);
+  }
+
+  /**
+   * Test that the fields and survey item responses that are not known to the streaming reader,
+   * e.g. those added by a later version of the application, are skipped and do not affect the
+   * streamed survey result.
+   */
+  @Test
+  public void unknownFieldsTest()
+    throws Exception
+  {
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    List<String> surveyResponseData = new ArrayList<>();
+    List<String> surveyResponseDataWithUnknownFields = new ArrayList<>();
+
+    for (int i = 0; i < 10; i++)
+    {
+      String data = getTestSurveyResponse(i, null, "Test Text " + i).getData();
+
+      surveyResponseData.add(data);
+
+      ObjectNode surveyResponseNode = (ObjectNode) objectMapper.readTree(data);
+
+      surveyResponseNode.putObject("unknownObject").putArray("itemResponses").addObject().put(
+          "typeId", SurveyGroupRatingResponse.TYPE_ID.toString()).put("rating", 1);
+      surveyResponseNode.put("unknownValue", 42);
+
+      ArrayNode itemResponsesNode = (ArrayNode) surveyResponseNode.get("itemResponses");
+
+      for (JsonNode itemResponseNode : itemResponsesNode)
+      {
+        ((ObjectNode) itemResponseNode).putArray("unknownArray").addObject().put("rating", 7);
+        ((ObjectNode) itemResponseNode).putNull("unknownNull");
+      }
+
+      itemResponsesNode.addObject().put("typeId", UUID.randomUUID().toString()).put("rating",
+          1).put("value", "Unknown Survey Item Response");
+
+      surveyResponseDataWithUnknownFields.add(objectMapper.writeValueAsString(
+          surveyResponseNode));
+    }
+
+    assertStreamedSurveyResultMatches(surveyResponseDataWithUnknownFields, surveyResponseData);
+  }
+
+  /**
+   * Test that the streamed and decoded survey results match for the ratings given for the survey
+   * group ratings with the rating type "Yes,No,NA".
+   */
+  @Test
+  public void yesNoNaResponsesTest()
+  {
+    List<String> surveyResponseData = new ArrayList<>();
+
+    for (int i = 0; i < 25; i++)
+    {
+      surveyResponseData.add(getTestSurveyResponse(i, SurveyGroupRatingType.YES_NO_NA, null)
+          .getData());
+    }
+
+    assertStreamedSurveyResultMatches(surveyResponseData, surveyResponseData);
+  }
+
+  private void assertStreamedSurveyResultMatches(List<String> streamedSurveyResponseData,
+      List<String> decodedSurveyResponseData)
+  {
+    UUID id = UUID.randomUUID();
+
+    SurveyResult streamedSurveyResult = new SurveyResult(id, surveyInstance);
+
+    for (String data : streamedSurveyResponseData)
+    {
+      streamedSurveyResult.addResponseData(data);
+    }
+
+    SurveyResult decodedSurveyResult = new SurveyResult(id, surveyInstance);
+
+    for (String data : decodedSurveyResponseData)
+    {
+      SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+      surveyResponse.setData(data);
+
+      decodedSurveyResult.addResponse(surveyResponse);
+    }
+
+    assertEquals("The number of responses for the streamed survey result is not correct",
+        decodedSurveyResult.getNumberOfResponses(), streamedSurveyResult.getNumberOfResponses());
+    assertEquals("The survey group rating results for the streamed survey result are not correct",
+        decodedSurveyResult.getGroupRatingResults().size(),
+        streamedSurveyResult.getGroupRatingResults().size());
+
+    for (SurveyGroupRatingResult decodedGroupRatingResult :
+        decodedSurveyResult.getGroupRatingResults())
+    {
+      SurveyGroupRatingResult streamedGroupRatingResult = streamedSurveyResult
+          .getGroupRatingResult(decodedGroupRatingResult.getGroupRatingsDefinitionId(),
+          decodedGroupRatingResult.getGroupRatingDefinitionId(),
+          decodedGroupRatingResult.getGroupMemberDefinitionId());
+
+      assertNotNull("The streamed survey group rating result could not be found",
+          streamedGroupRatingResult);
+
+      SurveyGroupRatingType ratingType =
+          decodedGroupRatingResult.getGroupRatingDefinitionRatingType();
+
+      for (int rating = ratingType.minimumRating(); rating <= ratingType.maximumRating();
+          rating++)
+      {
+        assertEquals(String.format("The count for the rating %d for the streamed survey group"
+            + " rating result is not correct", rating), decodedGroupRatingResult.getRatingCount(
+            rating), streamedGroupRatingResult.getRatingCount(rating));
+      }
+
+      assertEquals("The average rating for the streamed survey group rating result is not"
+          + " correct", decodedGroupRatingResult.getAverageRating(),
+          streamedGroupRatingResult.getAverageRating(), 0.0);
+
+      SurveyGroupRatingsTotals decodedGroupRatingsTotals = decodedSurveyResult
+          .getGroupRatingsTotals(decodedGroupRatingResult.getGroupRatingsDefinitionId());
+      SurveyGroupRatingsTotals streamedGroupRatingsTotals = streamedSurveyResult
+          .getGroupRatingsTotals(decodedGroupRatingResult.getGroupRatingsDefinitionId());
+
+      assertEquals("The total for the survey group member for the streamed survey result is not"
+          + " correct", decodedGroupRatingsTotals.getGroupMemberTotal(
+          decodedGroupRatingResult.getGroupMemberDefinitionId()).getAverageRating(),
+          streamedGroupRatingsTotals.getGroupMemberTotal(
+          decodedGroupRatingResult.getGroupMemberDefinitionId()).getAverageRating(), 0.0);
+      assertEquals("The total for the survey group rating for the streamed survey result is not"
+          + " correct", decodedGroupRatingsTotals.getGroupRatingTotal(
+          decodedGroupRatingResult.getGroupRatingDefinitionId()).getAverageRating(),
+          streamedGroupRatingsTotals.getGroupRatingTotal(
+          decodedGroupRatingResult.getGroupRatingDefinitionId()).getAverageRating(), 0.0);
+    }
+  }
+
+  private SurveyResponse getTestSurveyResponse(int index, SurveyGroupRatingType ratingType,
+      String textValue)
+  {
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    int offset = index;
+
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      SurveyGroupRatingsDefinition groupRatingsDefinition =
+          (SurveyGroupRatingsDefinition) surveyDefinition.getItemDefinition(
+          groupRatingResponse.getGroupRatingsDefinitionId());
+
+      SurveyGroupRatingType groupRatingType = groupRatingsDefinition.getGroupRatingDefinition(
+          groupRatingResponse.getGroupRatingDefinitionId()).getRatingType();
+
+      if ((ratingType == null) || (ratingType == groupRatingType))
+      {
+        groupRatingResponse.setRating(groupRatingType.minimumRating() + (offset++
+            % (groupRatingType.maximumRating() - groupRatingType.minimumRating() + 1)));
+      }
+    }
+
+    for (SurveyItemResponse itemResponse : surveyResponse.getItemResponses())
+    {
+      if (itemResponse instanceof SurveyTextResponse)
+      {
+        ((SurveyTextResponse) itemResponse).setValue(textValue);
+      }
+    }
+
+    return surveyResponse;
+  }
+}
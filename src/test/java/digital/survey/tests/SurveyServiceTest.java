@@ -14,9 +14,13 @@ package digital.survey.tests;
 //~--- non-JDK imports --------------------------------------------------------
 
 import digital.survey.model.*;
+import digital.survey.web.SurveyApplication;
+import guru.mmp.application.configuration.IConfigurationService;
 import guru.mmp.application.security.ISecurityService;
 import guru.mmp.application.security.OrganisationStatus;
 import guru.mmp.application.test.TestClassRunner;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.test.context.ContextConfiguration;
@@ -24,16 +28,30 @@ import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 //~--- JDK imports ------------------------------------------------------------
 
@@ -53,9 +71,323 @@ public class SurveyServiceTest
   private ISurveyService surveyService;
   @Inject
   private ISecurityService securityService;
+  @Inject
+  private IConfigurationService configurationService;
+  @PersistenceUnit(unitName = "applicationPersistenceUnit")
+  private EntityManagerFactory entityManagerFactory;
 
   // TODO ADD METHODS TO TEST BOTH TYPES OF DELETE
 
+  /**
+   * Test that the survey requests queued for sending are claimed using a fixed number of SQL
+   * statements, i.e. a single UPDATE statement rather than an UPDATE statement per survey request.
+   */
+  @Test
+  public void claimSurveyRequestsTest()
+    throws Exception
+  {
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    SurveyInstance surveyInstance = getTestSurveyInstanceDetails(surveyDefinition);
+
+    surveyInstance = surveyService.saveSurveyInstance(surveyInstance);
+
+    List<UUID> surveyRequestIds = new ArrayList<>();
+
+    for (int i = 0; i < 5; i++)
+    {
+      SurveyRequest surveyRequest = surveyService.saveSurveyRequest(new SurveyRequest(
+          surveyInstance, "First Name " + i, "Last Name " + i, "test" + i + "@mmp.guru"));
+
+      surveyRequestIds.add(surveyRequest.getId());
+    }
+
+    // Make the survey requests due before any other survey requests queued for sending
+    executeUpdate("UPDATE SURVEY.SURVEY_REQUESTS SET NEXT_ATTEMPT_AT=? WHERE SURVEY_INSTANCE_ID=?",
+        new Timestamp(0), surveyInstance.getId());
+
+    StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+
+    List<SurveyRequest> surveyRequests = statementCounter.assertStatementBudget(
+        "claiming the survey requests queued for sending", 5,
+        () -> surveyService.getNextSurveyRequestsQueuedForSending(5));
+
+    assertEquals("The number of claimed survey requests is not correct", 5,
+        surveyRequests.size());
+
+    for (SurveyRequest surveyRequest : surveyRequests)
+    {
+      assertTrue("The claimed survey request is not correct", surveyRequestIds.contains(
+          surveyRequest.getId()));
+      assertEquals("The status for the claimed survey request is not correct",
+          SurveyRequestStatus.SENDING, surveyRequest.getStatus());
+      assertEquals("The survey instance for the claimed survey request is not correct",
+          surveyInstance.getName(), surveyRequest.getInstance().getName());
+
+      SurveyRequest retrievedSurveyRequest = surveyService.getSurveyRequest(
+          surveyRequest.getId());
+
+      assertEquals("The status for the claimed survey request was not saved",
+          SurveyRequestStatus.SENDING, retrievedSurveyRequest.getStatus());
+      assertEquals("The lock name for the claimed survey request was not saved",
+          surveyRequest.getLockName(), retrievedSurveyRequest.getLockName());
+      assertNotNull("The lock expiry for the claimed survey request was not saved",
+          retrievedSurveyRequest.getLockExpires());
+    }
+
+    for (UUID surveyRequestId : surveyRequestIds)
+    {
+      surveyService.deleteSurveyRequest(surveyRequestId);
+    }
+  }
+
+  /**
+   * Test that compiling the survey result for a survey instance, whose survey responses span more
+   * than two of the batches the survey responses are retrieved in, includes every survey response
+   * without loading the survey response entities.
+   */
+  @Test
+  public void compileSurveyResultTest()
+    throws Exception
+  {
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    surveyDefinition = surveyService.getSurveyDefinition(surveyDefinition.getId(), 1);
+
+    SurveyInstance surveyInstance = getTestSurveyInstanceDetails(surveyDefinition);
+
+    surveyInstance = surveyService.saveSurveyInstance(surveyInstance);
+
+    SurveyResult expectedSurveyResult = new SurveyResult(surveyInstance);
+
+    // The survey responses are retrieved in batches of 500 when compiling the survey result
+    for (int i = 0; i < 1001; i++)
+    {
+      SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+      randomizeSurveyResponse(surveyResponse);
+
+      surveyService.saveSurveyResponse(surveyResponse);
+
+      expectedSurveyResult.addResponse(surveyResponse);
+    }
+
+    UUID surveyInstanceId = surveyInstance.getId();
+
+    StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+
+    SurveyResult surveyResult = statementCounter.assertEntitiesNotLoaded(
+        "compilation of the survey result for the survey instance", Collections.singleton(
+        SurveyResponse.class), () -> surveyService.getSurveyResultForSurveyInstance(
+        surveyInstanceId));
+
+    assertEquals("The number of responses for the survey result is not correct", 1001,
+        surveyResult.getNumberOfResponses());
+
+    compareSurveyResults(expectedSurveyResult, surveyResult);
+
+    surveyService.deleteSurveyInstance(surveyInstance);
+
+    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+  }
+
+  /**
+   * Test that the service calls that retrieve the survey instances, survey requests, survey
+   * responses and survey results fetch the associations required by their callers without
+   * exceeding their budget of SQL statements.
+   */
+  @Test
+  public void fetchPlanTest()
+    throws Exception
+  {
+    StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    surveyDefinition = surveyService.getSurveyDefinition(surveyDefinition.getId(), 1);
+
+    SurveyInstance surveyInstance = getTestSurveyInstanceDetails(surveyDefinition);
+
+    surveyInstance = surveyService.saveSurveyInstance(surveyInstance);
+
+    SurveyRequest surveyRequest = null;
+
+    for (int i = 0; i < 5; i++)
+    {
+      surveyRequest = surveyService.saveSurveyRequest(new SurveyRequest(surveyInstance,
+          "First Name " + i, "Last Name " + i, "test" + i + "@mmp.guru"));
+
+      SurveyResponse surveyResponse = new SurveyResponse(surveyInstance, surveyRequest);
+
+      randomizeSurveyResponse(surveyResponse);
+
+      surveyService.saveSurveyResponse(surveyResponse);
+    }
+
+    UUID surveyInstanceId = surveyInstance.getId();
+    UUID surveyRequestId = surveyRequest.getId();
+
+    SurveyInstance retrievedSurveyInstance = statementCounter.assertStatementBudget(
+        "retrieval of the survey instance", 1, () -> surveyService.getSurveyInstance(
+        surveyInstanceId));
+
+    assertEquals("The survey definition for the survey instance is not correct",
+        surveyDefinition.getName(), retrievedSurveyInstance.getDefinition().getName());
+
+    List<SurveyRequest> surveyRequests = statementCounter.assertStatementBudget(
+        "retrieval of the survey requests for the survey instance", 1,
+        () -> surveyService.getSurveyRequestsForSurveyInstance(surveyInstanceId));
+
+    assertEquals("The number of survey requests for the survey instance is not correct", 5,
+        surveyRequests.size());
+
+    SurveyRequest retrievedSurveyRequest = statementCounter.assertStatementBudget(
+        "retrieval of the survey request", 1, () -> surveyService.getSurveyRequest(
+        surveyRequestId));
+
+    assertEquals("The survey instance for the survey request is not correct",
+        surveyInstance.getName(), retrievedSurveyRequest.getInstance().getName());
+
+    List<SurveyResponseSummary> surveyResponseSummaries = statementCounter.assertStatementBudget(
+        "retrieval of the survey response summaries for the survey instance", 1,
+        () -> surveyService.getSurveyResponseSummariesForSurveyInstance(surveyInstanceId));
+
+    assertEquals("The number of survey responses for the survey instance is not correct", 5,
+        surveyResponseSummaries.size());
+
+    for (SurveyResponseSummary surveyResponseSummary : surveyResponseSummaries)
+    {
+      assertNotNull("The name for the survey response summary is not correct",
+          surveyResponseSummary.getName());
+    }
+
+    List<SurveyResponse> surveyResponses = statementCounter.assertStatementBudget(
+        "retrieval of the survey responses for the survey instance", 1,
+        () -> surveyService.getSurveyResponsesForSurveyInstance(surveyInstanceId));
+
+    assertEquals("The number of survey responses for the survey instance is not correct", 5,
+        surveyResponses.size());
+
+    SurveyResponse retrievedSurveyResponse = statementCounter.assertStatementBudget(
+        "retrieval of the survey response for the survey request", 1,
+        () -> surveyService.getSurveyResponseForSurveyRequest(surveyRequestId));
+
+    assertEquals("The survey definition for the survey response is not correct",
+        surveyDefinition.getItemDefinitions().size(), retrievedSurveyResponse.getInstance()
+        .getDefinition().getItemDefinitions().size());
+    assertEquals("The name for the survey response is not correct", surveyRequest.getFullName(),
+        retrievedSurveyResponse.getName());
+
+    statementCounter.assertStatementBudget("retrieval of the survey response", 1,
+        () -> surveyService.getSurveyResponse(retrievedSurveyResponse.getId()));
+
+    // Materialize the survey result
+    surveyService.getSurveyResultForSurveyInstance(surveyInstanceId);
+
+    SurveyResult surveyResult = statementCounter.assertStatementBudget(
+        "retrieval of the materialized survey result for the survey instance", 1,
+        () -> surveyService.getSurveyResultForSurveyInstance(surveyInstanceId));
+
+    assertEquals("The number of responses for the survey result is not correct", 5,
+        surveyResult.getNumberOfResponses());
+
+    surveyService.deleteSurveyInstance(surveyInstance);
+
+    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+  }
+
+  /**
+   * Test that the <code>LIKE</code> wildcards and the escape character in a filter are matched
+   * literally by the filtered survey audience member and survey definition queries.
+   */
+  @Test
+  public void filterWildcardsTest()
+    throws Exception
+  {
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyAudience surveyAudience = surveyService.saveSurveyAudience(getTestSurveyAudienceDetails(
+        organisation));
+
+    String[] lastNames = new String[] { "Test 100% Last Name", "Test 1000 Last Name",
+        "Test_Last_Name", "TestXLastXName", "Test\\Last Name", "Test Last Name" };
+
+    for (int i = 0; i < lastNames.length; i++)
+    {
+      surveyService.saveSurveyAudienceMember(new SurveyAudienceMember(UUID.randomUUID(),
+          surveyAudience, "Test First Name " + i, lastNames[i], "Test Email " + i));
+    }
+
+    String[] filters = new String[] { "100%", "T_L", "_", "\\", "%" };
+    String[] expectedLastNames = new String[] { "Test 100% Last Name", "Test_Last_Name",
+        "Test_Last_Name", "Test\\Last Name", "Test 100% Last Name" };
+
+    for (int i = 0; i < filters.length; i++)
+    {
+      assertEquals(String.format("The number of survey audience members matching the filter (%s)"
+          + " is not correct", filters[i]), 1,
+          surveyService.getNumberOfFilteredMembersForSurveyAudience(surveyAudience.getId(),
+          filters[i]));
+
+      List<SurveyAudienceMember> surveyAudienceMembers =
+          surveyService.getFilteredMembersForSurveyAudience(surveyAudience.getId(), filters[i]);
+
+      assertEquals(String.format("The number of survey audience members matching the filter (%s)"
+          + " is not correct", filters[i]), 1, surveyAudienceMembers.size());
+      assertEquals(String.format("The survey audience member matching the filter (%s) is not"
+          + " correct", filters[i]), expectedLastNames[i], surveyAudienceMembers.get(0)
+          .getLastName());
+    }
+
+    SurveyDefinition surveyDefinition = surveyService.saveSurveyDefinition(new SurveyDefinition(
+        UUID.randomUUID(), 1, new Organisation(organisation.getId(), organisation.getName(),
+        organisation.getStatus()), "Test 100% Survey Definition", "Test Survey Definition"));
+
+    SurveyDefinition otherSurveyDefinition = surveyService.saveSurveyDefinition(
+        new SurveyDefinition(UUID.randomUUID(), 1, new Organisation(organisation.getId(),
+        organisation.getName(), organisation.getStatus()), "Test 1000 Survey Definition",
+        "Test Survey Definition"));
+
+    assertEquals("The number of survey definitions matching the filter (100%) is not correct", 1,
+        surveyService.getNumberOfFilteredSurveyDefinitionsForOrganisation(organisation.getId(),
+        "100%"));
+
+    List<SurveyDefinitionSummary> surveyDefinitionSummaries =
+        surveyService.getFilteredSurveyDefinitionSummariesForOrganisation(organisation.getId(),
+        "100%");
+
+    assertEquals("The number of survey definitions matching the filter (100%) is not correct", 1,
+        surveyDefinitionSummaries.size());
+    assertEquals("The survey definition matching the filter (100%) is not correct",
+        surveyDefinition.getId(), surveyDefinitionSummaries.get(0).getId());
+
+    surveyService.deleteSurveyDefinition(otherSurveyDefinition.getId());
+
+    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+
+    surveyService.deleteSurveyAudience(surveyAudience);
+  }
+
   /**
    * Test the get CTO values survey definition functionality.
    */
@@ -162,6 +494,103 @@ public class SurveyServiceTest
 
   }
 
+  /**
+   * Test retrieving the pages of survey audience members and survey requests, sorted by last name
+   * and first name, at the page boundaries, when the names for all the results tie and when the
+   * results are filtered.
+   */
+  @Test
+  public void pagingTest()
+    throws Exception
+  {
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = surveyService.saveSurveyDefinition(
+        getTestSurveyDefinitionDetails(organisation));
+
+    SurveyInstance surveyInstance = surveyService.saveSurveyInstance(
+        getTestSurveyInstanceDetails(surveyDefinition));
+
+    SurveyAudience surveyAudience = surveyService.saveSurveyAudience(
+        getTestSurveyAudienceDetails(organisation));
+
+    // The names for the first three results sort first and match the filter, the rest all tie
+    Set<UUID> filteredMemberIds = new HashSet<>();
+    Set<UUID> filteredSurveyRequestIds = new HashSet<>();
+
+    for (int i = 0; i < 10; i++)
+    {
+      String lastName = (i < 3) ? "Paging Filtered" : "Paging Tied";
+
+      SurveyAudienceMember surveyAudienceMember = surveyService.saveSurveyAudienceMember(
+          new SurveyAudienceMember(UUID.randomUUID(), surveyAudience, "Paging", lastName,
+          "paging" + i + "@example.com"));
+
+      SurveyRequest surveyRequest = surveyService.saveSurveyRequest(new SurveyRequest(
+          surveyInstance, "Paging", lastName, "paging" + i + "@example.com"));
+
+      if (i < 3)
+      {
+        filteredMemberIds.add(surveyAudienceMember.getId());
+        filteredSurveyRequestIds.add(surveyRequest.getId());
+      }
+    }
+
+    // Check the pages of survey audience members
+    List<UUID> memberIds = getPagedMemberIds(surveyAudience.getId(), null, 10, 4,
+        SortDirection.ASCENDING);
+
+    assertEquals("The pages of survey audience members contain duplicate survey audience members",
+        10, new HashSet<>(memberIds).size());
+    assertEquals("The order of the survey audience members differs for a different page size",
+        memberIds, getPagedMemberIds(surveyAudience.getId(), null, 10, 5,
+        SortDirection.ASCENDING));
+    assertEquals("The survey audience members that sort first are not correct", filteredMemberIds,
+        new HashSet<>(memberIds.subList(0, 3)));
+
+    List<UUID> descendingMemberIds = getPagedMemberIds(surveyAudience.getId(), null, 10, 4,
+        SortDirection.DESCENDING);
+
+    Collections.reverse(descendingMemberIds);
+
+    assertEquals("The descending order of the survey audience members is not correct", memberIds,
+        descendingMemberIds);
+    assertEquals("The pages of filtered survey audience members are not correct",
+        memberIds.subList(0, 3), getPagedMemberIds(surveyAudience.getId(), "filtered", 3, 2,
+        SortDirection.ASCENDING));
+
+    // Check the pages of survey requests
+    List<UUID> surveyRequestIds = getPagedSurveyRequestIds(surveyInstance.getId(), null, 10, 4,
+        SortDirection.ASCENDING);
+
+    assertEquals("The pages of survey requests contain duplicate survey requests", 10,
+        new HashSet<>(surveyRequestIds).size());
+    assertEquals("The order of the survey requests differs for a different page size",
+        surveyRequestIds, getPagedSurveyRequestIds(surveyInstance.getId(), null, 10, 5,
+        SortDirection.ASCENDING));
+    assertEquals("The survey requests that sort first are not correct", filteredSurveyRequestIds,
+        new HashSet<>(surveyRequestIds.subList(0, 3)));
+
+    List<UUID> descendingSurveyRequestIds = getPagedSurveyRequestIds(surveyInstance.getId(), null,
+        10, 4, SortDirection.DESCENDING);
+
+    Collections.reverse(descendingSurveyRequestIds);
+
+    assertEquals("The descending order of the survey requests is not correct", surveyRequestIds,
+        descendingSurveyRequestIds);
+    assertEquals("The pages of filtered survey requests are not correct",
+        surveyRequestIds.subList(0, 3), getPagedSurveyRequestIds(surveyInstance.getId(),
+        "filtered", 3, 2, SortDirection.ASCENDING));
+
+    surveyService.deleteSurveyInstance(surveyInstance);
+
+    surveyService.deleteSurveyAudience(surveyAudience);
+
+    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+  }
+
   /**
    * Test the remove survey group definition member functionality.
    */
@@ -290,6 +719,73 @@ public class SurveyServiceTest
     surveyService.deleteSurveyDefinition(surveyDefinition.getId());
   }
 
+  /**
+   * Test that saving a survey response that is managed by the current persistence context updates
+   * the materialized survey result for the survey instance.
+   */
+  @Test
+  @Transactional
+  public void saveManagedSurveyResponseTest()
+    throws Exception
+  {
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    surveyDefinition = surveyService.getSurveyDefinition(surveyDefinition.getId(), 1);
+
+    SurveyInstance surveyInstance = getTestSurveyInstanceDetails(surveyDefinition);
+
+    surveyInstance = surveyService.saveSurveyInstance(surveyInstance);
+
+    SurveyResponse firstSurveyResponse = new SurveyResponse(surveyInstance);
+
+    randomizeSurveyResponse(firstSurveyResponse);
+
+    surveyService.saveSurveyResponse(firstSurveyResponse);
+
+    SurveyResponse secondSurveyResponse = new SurveyResponse(surveyInstance);
+
+    randomizeSurveyResponse(secondSurveyResponse);
+
+    surveyService.saveSurveyResponse(secondSurveyResponse);
+
+    // Materialize the survey result
+    SurveyResult surveyResult = surveyService.getSurveyResultForSurveyInstance(
+        surveyInstance.getId());
+
+    int version = surveyResult.getVersion();
+
+    // Edit the survey response while it is managed by the persistence context
+    SurveyResponse managedSurveyResponse = surveyService.getSurveyResponse(
+        secondSurveyResponse.getId());
+
+    rotateSurveyResponseRatings(managedSurveyResponse);
+
+    surveyService.saveSurveyResponse(managedSurveyResponse);
+
+    surveyResult = surveyService.getSurveyResultForSurveyInstance(surveyInstance.getId());
+
+    compareSurveyResults(surveyService.getSurveyResultForSurveyInstance(surveyInstance.getId(),
+        SurveyResultMode.AGGREGATED), surveyResult);
+
+    SurveyResult expectedSurveyResult = new SurveyResult(surveyInstance);
+
+    expectedSurveyResult.addResponse(firstSurveyResponse);
+    expectedSurveyResult.addResponse(managedSurveyResponse);
+
+    compareSurveyResults(expectedSurveyResult, surveyResult);
+
+    assertEquals("The number of responses for the survey result is not correct", 2,
+        surveyResult.getNumberOfResponses());
+    assertTrue("The version of the survey result was not incremented",
+        surveyResult.getVersion() > version);
+  }
+
   /**
    * Test the save new survey definition functionality.
    */
@@ -394,41 +890,295 @@ public class SurveyServiceTest
     SurveyDefinitionSummary surveyDefinitionSummary = surveyService.getSurveyDefinitionSummary(
         savedSurveyDefinition.getId(), savedSurveyDefinition.getVersion());
 
-    compareSurveyDefinitions(savedSurveyDefinition, surveyDefinitionSummary);
+    compareSurveyDefinitions(savedSurveyDefinition, surveyDefinitionSummary);
+
+    surveyService.deleteSurveyInstance(surveyInstance);
+
+    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+  }
+
+  /**
+   * Test the save updated survey definition functionality.
+   */
+  @Test
+  public void saveUpdatedSurveyDefinitionTest()
+    throws Exception
+  {
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    surveyDefinition = surveyService.getSurveyDefinition(surveyDefinition.getId(), 1);
+
+    surveyDefinition.setName(surveyDefinition.getName() + " Updated");
+    surveyDefinition.setDescription(surveyDefinition.getDescription() + " Updated");
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    SurveyDefinition retrievedSurveyDefinition = surveyService.getSurveyDefinition(
+        surveyDefinition.getId(), surveyDefinition.getVersion());
+
+    compareSurveyDefinitions(surveyDefinition, retrievedSurveyDefinition);
+
+    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+  }
+
+  /**
+   * Test claiming a survey request queued for sending, reclaiming the survey request once its lock
+   * lease has expired, the backoff schedule for retrying the survey request after it could not be
+   * sent and setting its status to "Failed" once it has reached the maximum number of send
+   * attempts, when it is either unlocked for retry or reclaimed.
+   */
+  @Test
+  public void sendSurveyRequestRetryTest()
+    throws Exception
+  {
+    if (!configurationService.keyExists(SurveyApplication
+        .MAXIMUM_SURVEY_REQUEST_SEND_ATTEMPTS_CONFIGURATION_KEY))
+    {
+      configurationService.setValue(SurveyApplication
+          .MAXIMUM_SURVEY_REQUEST_SEND_ATTEMPTS_CONFIGURATION_KEY, 10,
+          "The maximum number of attempts to send a survey request");
+    }
+
+    int maximumSendAttempts = surveyService.getMaximumSurveyRequestSendAttempts();
+
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    SurveyInstance surveyInstance = getTestSurveyInstanceDetails(surveyDefinition);
+
+    surveyInstance = surveyService.saveSurveyInstance(surveyInstance);
+
+    SurveyRequest surveyRequest = surveyService.saveSurveyRequest(getTestSurveyRequestDetails(
+        surveyInstance));
+
+    // Make the survey request due before any other survey requests queued for sending
+    executeUpdate("UPDATE SURVEY.SURVEY_REQUESTS SET NEXT_ATTEMPT_AT=? WHERE ID=?",
+        new Timestamp(0), surveyRequest.getId());
+
+    // Claim the survey request
+    SurveyRequest claimedSurveyRequest = surveyService.getNextSurveyRequestQueuedForSending();
+
+    assertEquals("The claimed survey request is not correct", surveyRequest.getId(),
+        claimedSurveyRequest.getId());
+    assertEquals("The status for the claimed survey request is not correct",
+        SurveyRequestStatus.SENDING, claimedSurveyRequest.getStatus());
+    assertEquals("The send attempts for the claimed survey request are not correct", 0,
+        claimedSurveyRequest.getSendAttempts());
+
+    String lockName = claimedSurveyRequest.getLockName();
+
+    assertNotNull("The claimed survey request is not locked", lockName);
+
+    // Simulate the Survey Service instance that claimed the survey request stopping
+    executeUpdate("UPDATE SURVEY.SURVEY_REQUESTS SET LOCK_NAME=?, LOCK_EXPIRES=? WHERE ID=?",
+        "Stopped Survey Service Instance", new Timestamp(1000), surveyRequest.getId());
+
+    // Reclaim the survey request whose lock lease has expired
+    long now = System.currentTimeMillis();
+
+    claimedSurveyRequest = surveyService.getNextSurveyRequestQueuedForSending();
+
+    assertEquals("The reclaimed survey request is not correct", surveyRequest.getId(),
+        claimedSurveyRequest.getId());
+    assertEquals("The lock name for the reclaimed survey request is not correct", lockName,
+        claimedSurveyRequest.getLockName());
+    assertTrue("The lock lease for the reclaimed survey request has not been renewed",
+        claimedSurveyRequest.getLockExpires().getTime() > now);
+    assertEquals("The send attempts for the reclaimed survey request are not correct", 1,
+        surveyService.getSurveyRequest(surveyRequest.getId()).getSendAttempts());
+
+    // Retry the survey request, which could not be sent, until it reaches the maximum attempts
+    for (int sendAttempts = 2; ; sendAttempts++)
+    {
+      long before = System.currentTimeMillis();
+
+      SurveyRequestStatus status = surveyService.unlockSurveyRequestForRetry(
+          claimedSurveyRequest);
+
+      long after = System.currentTimeMillis();
+
+      SurveyRequest retrievedSurveyRequest = surveyService.getSurveyRequest(
+          surveyRequest.getId());
+
+      assertEquals("The send attempts for the survey request are not correct", sendAttempts,
+          retrievedSurveyRequest.getSendAttempts());
+      assertEquals("The status for the survey request is not correct", status,
+          retrievedSurveyRequest.getStatus());
+      assertNull("The survey request is still locked", retrievedSurveyRequest.getLockName());
+
+      if (sendAttempts >= maximumSendAttempts)
+      {
+        assertEquals("The survey request that reached the maximum number of send attempts was"
+            + " not marked as failed", SurveyRequestStatus.FAILED, status);
+
+        break;
+      }
+
+      assertEquals("The survey request was not queued for sending",
+          SurveyRequestStatus.QUEUED_FOR_SENDING, status);
+
+      // The delay doubles from one minute up to four hours less a jitter of up to half the delay
+      long delay = Math.min(4L * 60L * 60L * 1000L, (60L * 1000L) << (sendAttempts - 1));
+      long nextAttemptAt = retrievedSurveyRequest.getNextAttemptAt().getTime();
+
+      assertTrue(String.format("The next attempt for send attempt %d is too early", sendAttempts),
+          nextAttemptAt >= (before + (delay / 2)));
+      assertTrue(String.format("The next attempt for send attempt %d is too late", sendAttempts),
+          nextAttemptAt <= (after + delay));
+
+      executeUpdate("UPDATE SURVEY.SURVEY_REQUESTS SET NEXT_ATTEMPT_AT=? WHERE ID=?",
+          new Timestamp(0), surveyRequest.getId());
+
+      claimedSurveyRequest = surveyService.getNextSurveyRequestQueuedForSending();
 
-    surveyService.deleteSurveyInstance(surveyInstance);
+      assertEquals("The claimed survey request is not correct", surveyRequest.getId(),
+          claimedSurveyRequest.getId());
+    }
 
-    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+    /*
+     * Simulate a Survey Service instance stopping while sending a survey request on its last send
+     * attempt and check that the survey request is marked as failed rather than reclaimed.
+     */
+    SurveyRequest failedSurveyRequest = surveyService.saveSurveyRequest(
+        getTestSurveyRequestDetails(surveyInstance));
+
+    executeUpdate("UPDATE SURVEY.SURVEY_REQUESTS SET STATUS=?, SEND_ATTEMPTS=?, LOCK_NAME=?,"
+        + " LOCK_EXPIRES=? WHERE ID=?", SurveyRequestStatus.SENDING.code(), maximumSendAttempts
+        - 1, "Stopped Survey Service Instance", new Timestamp(1000), failedSurveyRequest.getId());
+
+    SurveyRequest queuedSurveyRequest = surveyService.saveSurveyRequest(
+        getTestSurveyRequestDetails(surveyInstance));
+
+    executeUpdate("UPDATE SURVEY.SURVEY_REQUESTS SET NEXT_ATTEMPT_AT=? WHERE ID=?",
+        new Timestamp(0), queuedSurveyRequest.getId());
+
+    List<SurveyRequest> claimedSurveyRequests = surveyService
+        .getNextSurveyRequestsQueuedForSending(1);
+
+    assertEquals("The number of claimed survey requests is not correct", 1,
+        claimedSurveyRequests.size());
+    assertEquals("The claimed survey request is not correct", queuedSurveyRequest.getId(),
+        claimedSurveyRequests.get(0).getId());
+
+    SurveyRequest retrievedFailedSurveyRequest = surveyService.getSurveyRequest(
+        failedSurveyRequest.getId());
+
+    assertEquals("The survey request that reached the maximum number of send attempts was not"
+        + " marked as failed", SurveyRequestStatus.FAILED, retrievedFailedSurveyRequest
+        .getStatus());
+    assertEquals("The send attempts for the failed survey request are not correct",
+        maximumSendAttempts, retrievedFailedSurveyRequest.getSendAttempts());
+    assertNull("The failed survey request is still locked",
+        retrievedFailedSurveyRequest.getLockName());
+
+    surveyService.deleteSurveyRequest(surveyRequest.getId());
+    surveyService.deleteSurveyRequest(failedSurveyRequest.getId());
+    surveyService.deleteSurveyRequest(queuedSurveyRequest.getId());
   }
 
   /**
-   * Test the save updated survey definition functionality.
+   * Test that sending a survey request to a survey audience matches the survey audience members to
+   * the existing survey requests for the survey instance using their lower-cased e-mail addresses,
+   * regardless of the default locale, so that the existing survey requests are re-queued and their
+   * survey responses deleted rather than duplicated.
    */
   @Test
-  public void saveUpdatedSurveyDefinitionTest()
+  public void sendSurveyRequestToAudienceTest()
     throws Exception
   {
-    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+    Locale defaultLocale = Locale.getDefault();
 
-    securityService.createOrganisation(organisation, true);
+    // The Turkish locale lower-cases "I" to a dotless "i", which the database does not
+    Locale.setDefault(new Locale("tr", "TR"));
 
-    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+    try
+    {
+      guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
 
-    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+      securityService.createOrganisation(organisation, true);
 
-    surveyDefinition = surveyService.getSurveyDefinition(surveyDefinition.getId(), 1);
+      SurveyDefinition surveyDefinition = surveyService.saveSurveyDefinition(
+          getTestSurveyDefinitionDetails(organisation));
 
-    surveyDefinition.setName(surveyDefinition.getName() + " Updated");
-    surveyDefinition.setDescription(surveyDefinition.getDescription() + " Updated");
+      SurveyInstance surveyInstance = surveyService.saveSurveyInstance(
+          getTestSurveyInstanceDetails(surveyDefinition));
 
-    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+      SurveyAudience surveyAudience = surveyService.saveSurveyAudience(
+          getTestSurveyAudienceDetails(organisation));
 
-    SurveyDefinition retrievedSurveyDefinition = surveyService.getSurveyDefinition(
-        surveyDefinition.getId(), surveyDefinition.getVersion());
+      surveyService.saveSurveyAudienceMember(new SurveyAudienceMember(UUID.randomUUID(),
+          surveyAudience, "Test First Name 1", "Test Last Name 1", "Ian.Member@Example.COM"));
+      surveyService.saveSurveyAudienceMember(new SurveyAudienceMember(UUID.randomUUID(),
+          surveyAudience, "Test First Name 2", "Test Last Name 2", "Ivy.Member@Example.COM"));
+      surveyService.saveSurveyAudienceMember(new SurveyAudienceMember(UUID.randomUUID(),
+          surveyAudience, "Test First Name 3", "Test Last Name 3", "IVY.MEMBER@EXAMPLE.COM"));
 
-    compareSurveyDefinitions(surveyDefinition, retrievedSurveyDefinition);
+      // Create the existing survey request, with a survey response, for the first member
+      SurveyRequest existingSurveyRequest = surveyService.saveSurveyRequest(new SurveyRequest(
+          surveyInstance, "Test First Name 1", "Test Last Name 1", "IAN.MEMBER@EXAMPLE.COM"));
 
-    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+      assertEquals("The e-mail address for the survey request was not lower-cased correctly",
+          "ian.member@example.com", existingSurveyRequest.getEmail());
+
+      surveyService.saveSurveyResponse(new SurveyResponse(surveyInstance,
+          existingSurveyRequest));
+
+      surveyService.sendSurveyRequestToAudience(surveyInstance.getId(), surveyAudience);
+
+      assertEquals("The number of survey requests for the survey instance is not correct", 2,
+          surveyService.getNumberOfSurveyRequestsForSurveyInstance(surveyInstance.getId()));
+
+      SurveyRequest firstSurveyRequest = surveyService.getSurveyRequestForSurveyInstanceByEmail(
+          surveyInstance.getId(), "Ian.Member@Example.COM");
+
+      assertNotNull("The survey request for the first member could not be found",
+          firstSurveyRequest);
+      assertEquals("The existing survey request for the first member was not re-queued",
+          existingSurveyRequest.getId(), firstSurveyRequest.getId());
+      assertNull("The survey response for the existing survey request was not deleted",
+          surveyService.getSurveyResponseForSurveyRequest(existingSurveyRequest.getId()));
+
+      SurveyRequest secondSurveyRequest = surveyService.getSurveyRequestForSurveyInstanceByEmail(
+          surveyInstance.getId(), "ivy.member@example.com");
+
+      assertNotNull("The survey request for the second member could not be found",
+          secondSurveyRequest);
+      assertEquals("The e-mail address for the survey request for the second member is not"
+          + " correct", "ivy.member@example.com", secondSurveyRequest.getEmail());
+
+      // Send the survey request to the survey audience again
+      surveyService.sendSurveyRequestToAudience(surveyInstance.getId(), surveyAudience);
+
+      assertEquals("The number of survey requests for the survey instance is not correct", 2,
+          surveyService.getNumberOfSurveyRequestsForSurveyInstance(surveyInstance.getId()));
+      assertEquals("The survey request for the first member was not re-queued",
+          firstSurveyRequest.getId(), surveyService.getSurveyRequestForSurveyInstanceByEmail(
+          surveyInstance.getId(), "IAN.MEMBER@EXAMPLE.COM").getId());
+      assertEquals("The survey request for the second member was not re-queued",
+          secondSurveyRequest.getId(), surveyService.getSurveyRequestForSurveyInstanceByEmail(
+          surveyInstance.getId(), "IVY.MEMBER@EXAMPLE.COM").getId());
+
+      surveyService.deleteSurveyInstance(surveyInstance);
+
+      surveyService.deleteSurveyAudience(surveyAudience);
+
+      surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+    }
+    finally
+    {
+      Locale.setDefault(defaultLocale);
+    }
   }
 
   /**
@@ -500,6 +1250,147 @@ public class SurveyServiceTest
     surveyService.deleteSurveyAudience(surveyAudience);
   }
 
+  /**
+   * Test the survey request job functionality, including claiming, processing and skipping the
+   * chunks of survey audience members for a survey request job, reclaiming a survey request job
+   * whose lock lease has expired and resetting the locks for the survey request jobs.
+   */
+  @Test
+  public void surveyRequestJobTest()
+    throws Exception
+  {
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    SurveyInstance surveyInstance = getTestSurveyInstanceDetails(surveyDefinition);
+
+    surveyInstance = surveyService.saveSurveyInstance(surveyInstance);
+
+    SurveyAudience surveyAudience = getTestSurveyAudienceDetails(organisation);
+
+    surveyAudience = surveyService.saveSurveyAudience(surveyAudience);
+
+    List<SurveyAudienceMember> surveyAudienceMembers = getTestSurveyAudienceMembersDetails(
+        surveyAudience);
+
+    for (SurveyAudienceMember surveyAudienceMember : surveyAudienceMembers)
+    {
+      surveyService.saveSurveyAudienceMember(surveyAudienceMember);
+    }
+
+    // Claim and process the survey request job using the Background Survey Request Job Processor
+    UUID id = surveyService.createSurveyRequestJob(surveyInstance.getId(), surveyAudience)
+        .getId();
+
+    SurveyRequestJob surveyRequestJob = waitForSurveyRequestJobToComplete(id);
+
+    assertTrue("The survey request job was not completed", surveyRequestJob.isCompleted());
+    assertEquals("The number of enqueued survey audience members is not correct",
+        surveyAudienceMembers.size(), surveyRequestJob.getEnqueued());
+    assertEquals("The number of survey requests for the survey instance is not correct",
+        surveyAudienceMembers.size(), surveyService.getNumberOfSurveyRequestsForSurveyInstance(
+        surveyInstance.getId()));
+
+    // Simulate a survey request job locked by a Survey Service instance that has stopped
+    executeUpdate("UPDATE SURVEY.SURVEY_REQUEST_JOBS SET STATUS=?, LOCK_NAME=?, LOCK_EXPIRES=?,"
+        + " ENQUEUED=0, FAILED=0, LAST_MEMBER_ID=NULL WHERE ID=?",
+        SurveyRequestJobStatus.RUNNING.code(), "Stopped Survey Service", new Timestamp(
+        System.currentTimeMillis() + 60000L), id);
+
+    SurveyRequestJob nextSurveyRequestJob =
+        surveyService.getNextSurveyRequestJobQueuedForProcessing();
+
+    assertTrue("The survey request job was claimed before its lock lease expired",
+        (nextSurveyRequestJob == null) || (!nextSurveyRequestJob.getId().equals(id)));
+    assertFalse("A chunk was processed for a survey request job locked by another Survey Service",
+        surveyService.processNextChunkForSurveyRequestJob(id));
+    assertEquals("The survey request job was processed while locked by another Survey Service", 0,
+        surveyService.getSurveyRequestJob(id).getEnqueued());
+
+    // Reclaim the survey request job once its lock lease has expired and skip the next chunk
+    executeUpdate("UPDATE SURVEY.SURVEY_REQUEST_JOBS SET LOCK_EXPIRES=? WHERE ID=?",
+        new Timestamp(System.currentTimeMillis() - 1000L), id);
+
+    nextSurveyRequestJob = surveyService.getNextSurveyRequestJobQueuedForProcessing();
+
+    assertNotNull("The survey request job whose lock lease expired was not reclaimed",
+        nextSurveyRequestJob);
+    assertEquals("The survey request job whose lock lease expired was not reclaimed", id,
+        nextSurveyRequestJob.getId());
+    assertEquals("The status for the reclaimed survey request job is not correct",
+        SurveyRequestJobStatus.RUNNING, nextSurveyRequestJob.getStatus());
+    assertNotEquals("The lock name for the reclaimed survey request job is not correct",
+        "Stopped Survey Service", nextSurveyRequestJob.getLockName());
+    assertTrue("The lock lease for the reclaimed survey request job has expired",
+        nextSurveyRequestJob.getLockExpires().getTime() > System.currentTimeMillis());
+
+    assertTrue("The next chunk for the survey request job was not skipped",
+        surveyService.skipNextChunkForSurveyRequestJob(id));
+    assertFalse("The survey request job was not completed",
+        surveyService.processNextChunkForSurveyRequestJob(id));
+
+    surveyRequestJob = surveyService.getSurveyRequestJob(id);
+
+    assertTrue("The survey request job was not completed", surveyRequestJob.isCompleted());
+    assertEquals("The number of failed survey audience members is not correct",
+        surveyAudienceMembers.size(), surveyRequestJob.getFailed());
+    assertEquals("The number of enqueued survey audience members is not correct", 0,
+        surveyRequestJob.getEnqueued());
+    assertNull("The lock name for the completed survey request job is not correct",
+        surveyRequestJob.getLockName());
+
+    // Reset the lock for the survey request job claimed by this Survey Service instance
+    executeUpdate("UPDATE SURVEY.SURVEY_REQUEST_JOBS SET STATUS=?, ENQUEUED=0, FAILED=0,"
+        + " LAST_MEMBER_ID=NULL WHERE ID=?", SurveyRequestJobStatus.QUEUED.code(), id);
+
+    nextSurveyRequestJob = surveyService.getNextSurveyRequestJobQueuedForProcessing();
+
+    assertNotNull("The queued survey request job was not claimed", nextSurveyRequestJob);
+    assertEquals("The queued survey request job was not claimed", id, nextSurveyRequestJob
+        .getId());
+
+    surveyService.resetSurveyRequestJobLocks();
+
+    surveyRequestJob = surveyService.getSurveyRequestJob(id);
+
+    assertEquals("The status for the reset survey request job is not correct",
+        SurveyRequestJobStatus.QUEUED, surveyRequestJob.getStatus());
+    assertNull("The lock name for the reset survey request job is not correct",
+        surveyRequestJob.getLockName());
+    assertNull("The lock lease for the reset survey request job is not correct",
+        surveyRequestJob.getLockExpires());
+
+    // Claim and process the survey request job again
+    nextSurveyRequestJob = surveyService.getNextSurveyRequestJobQueuedForProcessing();
+
+    assertNotNull("The reset survey request job was not claimed", nextSurveyRequestJob);
+    assertEquals("The reset survey request job was not claimed", id, nextSurveyRequestJob
+        .getId());
+    assertTrue("The next chunk for the survey request job was not processed",
+        surveyService.processNextChunkForSurveyRequestJob(id));
+    assertFalse("The survey request job was not completed",
+        surveyService.processNextChunkForSurveyRequestJob(id));
+
+    surveyRequestJob = surveyService.getSurveyRequestJob(id);
+
+    assertTrue("The survey request job was not completed", surveyRequestJob.isCompleted());
+    assertEquals("The number of enqueued survey audience members is not correct",
+        surveyAudienceMembers.size(), surveyRequestJob.getEnqueued());
+    assertEquals("The total number of survey audience members is not correct",
+        surveyAudienceMembers.size(), surveyRequestJob.getTotal());
+
+    surveyService.deleteSurveyInstance(surveyInstance);
+
+    surveyService.deleteSurveyAudience(surveyAudience);
+
+    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+  }
+
   /**
    * Test the survey request functionality.
    */
@@ -665,6 +1556,193 @@ public class SurveyServiceTest
         surveyDefinition.getId(), surveyDefinition.getVersion()));
   }
 
+  /**
+   * Test the survey result functionality.
+   */
+  @Test
+  public void surveyResultTest()
+    throws Exception
+  {
+    guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = getTestSurveyDefinitionDetails(organisation);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    surveyDefinition = surveyService.getSurveyDefinition(surveyDefinition.getId(), 1);
+
+    SurveyInstance surveyInstance = getTestSurveyInstanceDetails(surveyDefinition);
+
+    surveyInstance = surveyService.saveSurveyInstance(surveyInstance);
+
+    SurveyResponse firstSurveyResponse = new SurveyResponse(surveyInstance);
+
+    randomizeSurveyResponse(firstSurveyResponse);
+
+    surveyService.saveSurveyResponse(firstSurveyResponse);
+
+    SurveyResult expectedSurveyResult = new SurveyResult(surveyInstance);
+
+    expectedSurveyResult.addResponse(firstSurveyResponse);
+
+    compareSurveyResults(expectedSurveyResult, surveyService.getSurveyResultForSurveyInstance(
+        surveyInstance.getId()));
+
+    SurveyResponse secondSurveyResponse = new SurveyResponse(surveyInstance);
+
+    randomizeSurveyResponse(secondSurveyResponse);
+
+    surveyService.saveSurveyResponse(secondSurveyResponse);
+
+    expectedSurveyResult.addResponse(secondSurveyResponse);
+
+    compareSurveyResults(expectedSurveyResult, surveyService.getSurveyResultForSurveyInstance(
+        surveyInstance.getId()));
+
+    expectedSurveyResult.removeResponse(secondSurveyResponse);
+
+    randomizeSurveyResponse(secondSurveyResponse);
+
+    surveyService.saveSurveyResponse(secondSurveyResponse);
+
+    expectedSurveyResult.addResponse(secondSurveyResponse);
+
+    compareSurveyResults(expectedSurveyResult, surveyService.getSurveyResultForSurveyInstance(
+        surveyInstance.getId()));
+
+    compareSurveyResults(expectedSurveyResult, surveyService.getSurveyResultForSurveyInstance(
+        surveyInstance.getId(), SurveyResultMode.AGGREGATED));
+
+    surveyService.deleteSurveyResponse(firstSurveyResponse.getId());
+
+    expectedSurveyResult.removeResponse(firstSurveyResponse);
+
+    compareSurveyResults(expectedSurveyResult, surveyService.getSurveyResultForSurveyInstance(
+        surveyInstance.getId()));
+
+    compareSurveyResults(expectedSurveyResult, surveyService.getSurveyResultForSurveyInstance(
+        surveyInstance.getId(), SurveyResultMode.AGGREGATED));
+
+    assertEquals("The number of responses for the survey result is not correct", 1,
+        surveyService.getSurveyResultForSurveyInstance(surveyInstance.getId())
+        .getNumberOfResponses());
+
+    surveyService.deleteSurveyInstance(surveyInstance);
+
+    surveyService.deleteSurveyDefinition(surveyDefinition.getId());
+  }
+
+  /**
+   * Test that unlocking a survey request, which could not be sent, for retry schedules the next
+   * send attempt using the exponential backoff delay for its send attempts and sets its status to
+   * "Failed" once it reaches the maximum number of send attempts.
+   */
+  @Test
+  public void unlockSurveyRequestForRetryTest()
+    throws Exception
+  {
+    String maximumSendAttemptsKey = SurveyApplication
+        .MAXIMUM_SURVEY_REQUEST_SEND_ATTEMPTS_CONFIGURATION_KEY;
+
+    Integer previousMaximumSendAttempts = configurationService.keyExists(maximumSendAttemptsKey)
+        ? configurationService.getInteger(maximumSendAttemptsKey)
+        : null;
+
+    configurationService.setValue(maximumSendAttemptsKey, 3,
+        "The maximum number of attempts to send a survey request");
+
+    try
+    {
+      guru.mmp.application.security.Organisation organisation = getTestOrganisationDetails();
+
+      securityService.createOrganisation(organisation, true);
+
+      SurveyDefinition surveyDefinition = surveyService.saveSurveyDefinition(
+          getTestSurveyDefinitionDetails(organisation));
+
+      SurveyInstance surveyInstance = surveyService.saveSurveyInstance(
+          getTestSurveyInstanceDetails(surveyDefinition));
+
+      SurveyRequest surveyRequest = surveyService.saveSurveyRequest(getTestSurveyRequestDetails(
+          surveyInstance));
+
+      for (int sendAttempts = 1; sendAttempts <= 3; sendAttempts++)
+      {
+        // Make the survey request due before any other survey requests queued for sending
+        executeUpdate("UPDATE SURVEY.SURVEY_REQUESTS SET NEXT_ATTEMPT_AT=? WHERE ID=?",
+            new Timestamp(0), surveyRequest.getId());
+
+        SurveyRequest claimedSurveyRequest = surveyService.getNextSurveyRequestQueuedForSending();
+
+        assertEquals("The claimed survey request is not correct", surveyRequest.getId(),
+            claimedSurveyRequest.getId());
+
+        long before = System.currentTimeMillis();
+
+        SurveyRequestStatus status = surveyService.unlockSurveyRequestForRetry(
+            claimedSurveyRequest);
+
+        long after = System.currentTimeMillis();
+
+        SurveyRequest retrievedSurveyRequest = surveyService.getSurveyRequest(
+            surveyRequest.getId());
+
+        assertEquals("The send attempts for the survey request are not correct", sendAttempts,
+            retrievedSurveyRequest.getSendAttempts());
+        assertEquals("The status for the survey request is not correct", status,
+            retrievedSurveyRequest.getStatus());
+        assertNull("The survey request is still locked", retrievedSurveyRequest.getLockName());
+
+        if (sendAttempts < 3)
+        {
+          assertEquals(String.format("The survey request was not queued for sending after send"
+              + " attempt %d", sendAttempts), SurveyRequestStatus.QUEUED_FOR_SENDING, status);
+
+          // The delay is one minute for the first send attempt and two minutes for the second
+          long delay = (60L * 1000L) << (sendAttempts - 1);
+          long nextAttemptAt = retrievedSurveyRequest.getNextAttemptAt().getTime();
+
+          assertTrue(String.format("The next attempt after send attempt %d is too early",
+              sendAttempts), nextAttemptAt >= (before + (delay / 2)));
+          assertTrue(String.format("The next attempt after send attempt %d is too late",
+              sendAttempts), nextAttemptAt <= (after + delay));
+        }
+        else
+        {
+          assertEquals("The survey request that reached the maximum number of send attempts was"
+              + " not marked as failed", SurveyRequestStatus.FAILED, status);
+        }
+      }
+
+      // Check that the failed survey request is not claimed for sending again
+      executeUpdate("UPDATE SURVEY.SURVEY_REQUESTS SET NEXT_ATTEMPT_AT=? WHERE ID=?",
+          new Timestamp(0), surveyRequest.getId());
+
+      SurveyRequest claimedSurveyRequest = surveyService.getNextSurveyRequestQueuedForSending();
+
+      if (claimedSurveyRequest != null)
+      {
+        assertNotEquals("The failed survey request was claimed for sending",
+            surveyRequest.getId(), claimedSurveyRequest.getId());
+
+        surveyService.unlockSurveyRequest(claimedSurveyRequest.getId(),
+            SurveyRequestStatus.QUEUED_FOR_SENDING);
+      }
+
+      surveyService.deleteSurveyRequest(surveyRequest.getId());
+    }
+    finally
+    {
+      if (previousMaximumSendAttempts != null)
+      {
+        configurationService.setValue(maximumSendAttemptsKey, previousMaximumSendAttempts,
+            "The maximum number of attempts to send a survey request");
+      }
+    }
+  }
+
   private static synchronized SurveyDefinition getCTOValuesSurveyDefinitionDetails()
   {
     Organisation organisation = new Organisation(UUID.fromString(
@@ -1264,6 +2342,127 @@ public class SurveyServiceTest
         surveyResponse.getName(), surveyResponseSummary.getName());
   }
 
+  private void compareSurveyResults(SurveyResult surveyResult1, SurveyResult surveyResult2)
+  {
+    assertEquals("The number of responses for the two survey results do not match",
+        surveyResult1.getNumberOfResponses(), surveyResult2.getNumberOfResponses());
+    assertEquals("The survey group rating results for the two survey results do not match",
+        surveyResult1.getGroupRatingResults().size(), surveyResult2.getGroupRatingResults().size());
+
+    for (SurveyGroupRatingResult groupRatingResult1 : surveyResult1.getGroupRatingResults())
+    {
+      SurveyGroupRatingResult groupRatingResult2 = surveyResult2.getGroupRatingResult(
+          groupRatingResult1.getGroupRatingsDefinitionId(),
+          groupRatingResult1.getGroupRatingDefinitionId(),
+          groupRatingResult1.getGroupMemberDefinitionId());
+
+      assertNotNull("The survey group rating result could not be found", groupRatingResult2);
+
+      assertEquals("The average ratings for the two survey group rating results do not match",
+          groupRatingResult1.getAverageRating(), groupRatingResult2.getAverageRating(), 0.001);
+      assertEquals(
+          "The number of valid ratings for the two survey group rating results do not match",
+          groupRatingResult1.getNumberOfRatingsWithValidScore(),
+          groupRatingResult2.getNumberOfRatingsWithValidScore());
+
+      SurveyGroupRatingsTotals groupRatingsTotals1 = surveyResult1.getGroupRatingsTotals(
+          groupRatingResult1.getGroupRatingsDefinitionId());
+      SurveyGroupRatingsTotals groupRatingsTotals2 = surveyResult2.getGroupRatingsTotals(
+          groupRatingResult1.getGroupRatingsDefinitionId());
+
+      assertEquals("The weighted totals for the survey group member do not match",
+          groupRatingsTotals1.getGroupMemberTotal(groupRatingResult1.getGroupMemberDefinitionId())
+          .getAverageRating(), groupRatingsTotals2.getGroupMemberTotal(
+          groupRatingResult1.getGroupMemberDefinitionId()).getAverageRating(), 0.001);
+      assertEquals("The weighted totals for the survey group rating do not match",
+          groupRatingsTotals1.getGroupRatingTotal(groupRatingResult1.getGroupRatingDefinitionId())
+          .getAverageRating(), groupRatingsTotals2.getGroupRatingTotal(
+          groupRatingResult1.getGroupRatingDefinitionId()).getAverageRating(), 0.001);
+    }
+  }
+
+  private int executeUpdate(String sql, Object... parameters)
+    throws Exception
+  {
+    ConnectionProvider connectionProvider = entityManagerFactory.unwrap(
+        SessionFactoryImplementor.class).getServiceRegistry().getService(ConnectionProvider.class);
+
+    Connection connection = connectionProvider.getConnection();
+
+    try (PreparedStatement statement = connection.prepareStatement(sql))
+    {
+      for (int i = 0; i < parameters.length; i++)
+      {
+        statement.setObject(i + 1, parameters[i]);
+      }
+
+      int numberOfRowsUpdated = statement.executeUpdate();
+
+      if (!connection.getAutoCommit())
+      {
+        connection.commit();
+      }
+
+      return numberOfRowsUpdated;
+    }
+    finally
+    {
+      connectionProvider.closeConnection(connection);
+    }
+  }
+
+  private List<UUID> getPagedMemberIds(UUID id, String filter, int total, int limit,
+      SortDirection sortDirection)
+    throws Exception
+  {
+    List<UUID> ids = new ArrayList<>();
+
+    // Retrieve the pages up to and including the empty page at the offset for the total
+    for (int offset = 0; offset <= total; offset += limit)
+    {
+      List<SurveyAudienceMember> page = (filter == null)
+          ? surveyService.getMembersForSurveyAudience(id, offset, limit, sortDirection)
+          : surveyService.getFilteredMembersForSurveyAudience(id, filter, offset, limit,
+          sortDirection);
+
+      assertEquals(String.format("The number of survey audience members for the page at offset %d"
+          + " is not correct", offset), Math.min(limit, total - offset), page.size());
+
+      for (SurveyAudienceMember surveyAudienceMember : page)
+      {
+        ids.add(surveyAudienceMember.getId());
+      }
+    }
+
+    return ids;
+  }
+
+  private List<UUID> getPagedSurveyRequestIds(UUID id, String filter, int total, int limit,
+      SortDirection sortDirection)
+    throws Exception
+  {
+    List<UUID> ids = new ArrayList<>();
+
+    // Retrieve the pages up to and including the empty page at the offset for the total
+    for (int offset = 0; offset <= total; offset += limit)
+    {
+      List<SurveyRequest> page = (filter == null)
+          ? surveyService.getSurveyRequestsForSurveyInstance(id, offset, limit, sortDirection)
+          : surveyService.getFilteredSurveyRequestsForSurveyInstance(id, filter, offset, limit,
+          sortDirection);
+
+      assertEquals(String.format("The number of survey requests for the page at offset %d is not"
+          + " correct", offset), Math.min(limit, total - offset), page.size());
+
+      for (SurveyRequest surveyRequest : page)
+      {
+        ids.add(surveyRequest.getId());
+      }
+    }
+
+    return ids;
+  }
+
   private void randomizeSurveyResponse(SurveyResponse surveyResponse)
   {
     SurveyDefinition surveyDefinition = surveyResponse.getInstance().getDefinition();
@@ -1301,4 +2500,55 @@ public class SurveyServiceTest
       }
     }
   }
+
+  private void rotateSurveyResponseRatings(SurveyResponse surveyResponse)
+  {
+    SurveyDefinition surveyDefinition = surveyResponse.getInstance().getDefinition();
+
+    for (SurveyItemDefinition itemDefinition : surveyDefinition.getAllItemDefinitions())
+    {
+      if (itemDefinition instanceof SurveyGroupRatingsDefinition)
+      {
+        SurveyGroupRatingsDefinition groupRatingsDefinition =
+            (SurveyGroupRatingsDefinition) itemDefinition;
+
+        for (SurveyGroupRatingDefinition groupRatingDefinition :
+            groupRatingsDefinition.getGroupRatingDefinitions())
+        {
+          SurveyGroupRatingType ratingType = groupRatingDefinition.getRatingType();
+
+          for (SurveyGroupMemberDefinition groupMemberDefinition :
+              groupRatingsDefinition.getGroupMemberDefinitions())
+          {
+            SurveyGroupRatingResponse groupRatingResponse =
+                surveyResponse.getGroupRatingResponseForDefinition(groupRatingsDefinition.getId(),
+                groupRatingDefinition.getId(), groupMemberDefinition.getId());
+
+            // Change every rating to the next rating for the type of survey group rating
+            groupRatingResponse.setRating((groupRatingResponse.getRating()
+                < ratingType.maximumRating())
+                ? groupRatingResponse.getRating() + 1
+                : ratingType.minimumRating());
+          }
+        }
+      }
+    }
+  }
+
+  private SurveyRequestJob waitForSurveyRequestJobToComplete(UUID id)
+    throws Exception
+  {
+    long waitUntil = System.currentTimeMillis() + 30000L;
+
+    SurveyRequestJob surveyRequestJob = surveyService.getSurveyRequestJob(id);
+
+    while ((!surveyRequestJob.isCompleted()) && (System.currentTimeMillis() < waitUntil))
+    {
+      Thread.sleep(100L);
+
+      surveyRequestJob = surveyService.getSurveyRequestJob(id);
+    }
+
+    return surveyRequestJob;
+  }
 }
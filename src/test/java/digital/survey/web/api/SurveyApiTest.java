@@ -0,0 +1,686 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.web.api;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import digital.survey.model.*;
+import digital.survey.tests.StatementCounter;
+import digital.survey.tests.SurveyTestConfiguration;
+import guru.mmp.application.security.ISecurityService;
+import guru.mmp.application.security.OrganisationStatus;
+import guru.mmp.application.test.TestClassRunner;
+import org.apache.wicket.Session;
+import org.apache.wicket.ThreadContext;
+import org.apache.wicket.injection.Injector;
+import org.apache.wicket.protocol.http.servlet.ServletWebRequest;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
+import org.apache.wicket.request.resource.AbstractResource;
+import org.apache.wicket.response.ByteArrayResponse;
+import org.apache.wicket.util.tester.WicketTester;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyApiTest</code> class contains the implementation of the JUnit tests for the
+ * <code>SurveyResponseResource</code> and <code>SurveyResultResource</code> classes.
+ *
+ * @author Marcus Portmann
+ */
+@RunWith(TestClassRunner.class)
+@ContextConfiguration(classes = { SurveyTestConfiguration.class })
+@TestExecutionListeners(listeners = { DependencyInjectionTestExecutionListener.class,
+    DirtiesContextTestExecutionListener.class, TransactionalTestExecutionListener.class })
+public class SurveyApiTest
+{
+  /**
+   * The object mapper used to read the JSON data.
+   */
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  @Inject
+  private ApplicationContext applicationContext;
+  @Inject
+  private ISecurityService securityService;
+  @Inject
+  private ISurveyService surveyService;
+  @Inject
+  private PlatformTransactionManager transactionManager;
+  @PersistenceUnit(unitName = "applicationPersistenceUnit")
+  private EntityManagerFactory entityManagerFactory;
+  private SurveyInstance surveyInstance;
+  private WicketTester tester;
+
+  /**
+   * Test that a survey response submitted with invalid JSON data is rejected with a
+   * <b>400 Bad Request</b> and is not saved.
+   */
+  @Test
+  public void badSurveyResponseDataTest()
+    throws Exception
+  {
+    createTestSurveyInstance();
+
+    for (String data : new String[] { "{\"itemResponses\": [", "[]", "Not JSON",
+        getInvalidRatingSurveyResponseData() })
+    {
+      Response response = process(new SurveyResponseResource(), "POST", surveyInstance.getId(),
+          null, data);
+
+      assertEquals(String.format("The status for the invalid survey response data (%s) is not"
+          + " correct", data), HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+    }
+
+    assertEquals("The survey responses with invalid data were saved", 0,
+        surveyService.getNumberOfSurveyResponsesForSurveyInstance(surveyInstance.getId()));
+  }
+
+  /**
+   * Test that a survey response submitted using one of the encodings used to store the data for a
+   * survey response, rather than plain JSON, is rejected with a <b>400 Bad Request</b> without
+   * being decoded, e.g. so that a small submission cannot be inflated to a very large string.
+   */
+  @Test
+  public void encodedSurveyResponseDataTest()
+    throws Exception
+  {
+    createTestSurveyInstance();
+
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    char[] value = new char[16 * 1024 * 1024];
+
+    Arrays.fill(value, ' ');
+
+    for (SurveyItemResponse itemResponse : surveyResponse.getItemResponses())
+    {
+      if (itemResponse instanceof SurveyTextResponse)
+      {
+        ((SurveyTextResponse) itemResponse).setValue(new String(value));
+      }
+    }
+
+    byte[] smileData = new ObjectMapper(new SmileFactory()).writeValueAsBytes(surveyResponse);
+
+    ByteArrayOutputStream deflatedSmileData = new ByteArrayOutputStream();
+
+    try (DeflaterOutputStream out = new DeflaterOutputStream(deflatedSmileData))
+    {
+      out.write(smileData);
+    }
+
+    String data = "#" + EntityDataEncoding.DEFLATED_SMILE.code() + ":" + Base64.getEncoder()
+        .encodeToString(deflatedSmileData.toByteArray());
+
+    assertTrue("The encoded survey response data is not small enough to be submitted",
+        data.length() < (1024 * 1024));
+
+    Response response = process(new SurveyResponseResource(), "POST", surveyInstance.getId(),
+        null, data);
+
+    assertEquals("The status for the encoded survey response data is not correct",
+        HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+
+    response = process(new SurveyResponseResource(), "POST", surveyInstance.getId(), null, "#"
+        + EntityDataEncoding.SMILE.code() + ":" + Base64.getEncoder().encodeToString(
+        new ObjectMapper(new SmileFactory()).writeValueAsBytes(new SurveyResponse(
+        surveyInstance))));
+
+    assertEquals("The status for the encoded survey response data is not correct",
+        HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+
+    assertEquals("The survey responses with encoded data were saved", 0,
+        surveyService.getNumberOfSurveyResponsesForSurveyInstance(surveyInstance.getId()));
+  }
+
+  /**
+   * Test that a survey result that has not been modified since the entity tag was returned is
+   * answered with a <b>304 Not Modified</b>, and that a new survey result and entity tag are
+   * returned once a survey response is submitted or a submitted survey response is edited.
+   */
+  @Test
+  public void notModifiedSurveyResultTest()
+    throws Exception
+  {
+    createTestSurveyInstance();
+
+    SurveyResponse submittedSurveyResponse = new SurveyResponse(surveyInstance);
+
+    setRatings(submittedSurveyResponse, 0);
+
+    Response response = process(new SurveyResponseResource(), "POST", surveyInstance.getId(),
+        null, objectMapper.writeValueAsString(submittedSurveyResponse), null);
+
+    assertEquals("The status for the submitted survey response is not correct",
+        HttpServletResponse.SC_CREATED, response.getStatus());
+
+    UUID surveyResponseId = UUID.fromString(response.getBody().get("id").asText());
+
+    // Retrieve the survey result and check that it is not modified
+    response = process(new TestSurveyResultResource(), "GET", surveyInstance.getId(), null, null,
+        null);
+
+    assertEquals("The status for the survey result is not correct", HttpServletResponse.SC_OK,
+        response.getStatus());
+
+    String entityTag = response.getEntityTag();
+
+    assertNotNull("The entity tag for the survey result was not returned", entityTag);
+    assertEquals("The number of responses for the survey result is not correct", 1,
+        response.getBody().get("numberOfResponses").asInt());
+
+    SurveyResult expectedSurveyResult = new SurveyResult(surveyInstance);
+
+    expectedSurveyResult.addResponse(submittedSurveyResponse);
+
+    compareSurveyResults(expectedSurveyResult, response.getSurveyResult());
+
+    // Check that the survey result that was not modified is answered using only its summary
+    StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+
+    response = statementCounter.assertTablesRead("retrieving the survey result that was not"
+        + " modified", 1, Collections.singleton("SURVEY_RESULTS"), () -> process(
+        new TestSurveyResultResource(), "GET", surveyInstance.getId(), null, null, entityTag));
+
+    assertEquals("The status for the survey result that was not modified is not correct",
+        HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+    assertEquals("The entity tag for the survey result that was not modified is not correct",
+        entityTag, response.getEntityTag());
+    assertNull("A body was returned for the survey result that was not modified",
+        response.getBody());
+
+    response = statementCounter.assertTablesRead("retrieving the survey result that was not"
+        + " modified", 1, Collections.singleton("SURVEY_RESULTS"), () -> process(
+        new TestSurveyResultResource(), "GET", surveyInstance.getId(), null, null, "\""
+        + UUID.randomUUID() + "\", W/" + entityTag));
+
+    assertEquals("The status for the survey result that was not modified is not correct",
+        HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+
+    // Edit the survey response after it was created, while it is managed by the persistence
+    // context
+    SurveyResult editedSurveyResult = new TransactionTemplate(transactionManager).execute(
+        status ->
+        {
+          try
+          {
+            SurveyResponse editedSurveyResponse = surveyService.getSurveyResponse(
+                surveyResponseId);
+
+            setRatings(editedSurveyResponse, 1);
+
+            surveyService.saveSurveyResponse(editedSurveyResponse);
+
+            SurveyResult surveyResult = new SurveyResult(surveyInstance);
+
+            surveyResult.addResponse(editedSurveyResponse);
+
+            return surveyResult;
+          }
+          catch (SurveyServiceException e)
+          {
+            throw new RuntimeException("Failed to edit the survey response", e);
+          }
+        });
+
+    response = process(new TestSurveyResultResource(), "GET", surveyInstance.getId(), null, null,
+        entityTag);
+
+    assertEquals("The status for the survey result that was modified is not correct",
+        HttpServletResponse.SC_OK, response.getStatus());
+    assertNotEquals("The entity tag for the survey result that was modified was not changed",
+        entityTag, response.getEntityTag());
+    assertEquals("The number of responses for the survey result is not correct", 1,
+        response.getBody().get("numberOfResponses").asInt());
+
+    compareSurveyResults(editedSurveyResult, response.getSurveyResult());
+    compareSurveyResults(surveyService.getSurveyResultForSurveyInstance(surveyInstance.getId(),
+        SurveyResultMode.AGGREGATED), response.getSurveyResult());
+
+    String modifiedEntityTag = response.getEntityTag();
+
+    response = statementCounter.assertTablesRead("retrieving the survey result that was not"
+        + " modified", 1, Collections.singleton("SURVEY_RESULTS"), () -> process(
+        new TestSurveyResultResource(), "GET", surveyInstance.getId(), null, null,
+        modifiedEntityTag));
+
+    assertEquals("The status for the survey result that was not modified is not correct",
+        HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+  }
+
+  /**
+   * Setup the Wicket tester, whose application injects the Spring beans into the resources.
+   */
+  @Before
+  public void setup()
+  {
+    tester = new WicketTester();
+
+    new Injector()
+    {
+      @Override
+      public void inject(Object object)
+      {
+        applicationContext.getAutowireCapableBeanFactory().autowireBean(object);
+      }
+    }.bind(tester.getApplication());
+  }
+
+  /**
+   * Test that an anonymous respondent can retrieve the survey response template and submit a
+   * completed survey response without a session being created.
+   */
+  @Test
+  public void submitSurveyResponseTest()
+    throws Exception
+  {
+    createTestSurveyInstance();
+
+    Response response = process(new SurveyResponseResource(), "GET", surveyInstance.getId(),
+        null, null);
+
+    assertEquals("The status for the survey response template is not correct",
+        HttpServletResponse.SC_OK, response.getStatus());
+
+    ObjectNode surveyResponseNode = (ObjectNode) response.getBody().get("response");
+
+    for (JsonNode itemResponseNode : surveyResponseNode.get("itemResponses"))
+    {
+      if (itemResponseNode.has("rating"))
+      {
+        ((ObjectNode) itemResponseNode).put("rating", 0);
+      }
+    }
+
+    response = process(new SurveyResponseResource(), "POST", surveyInstance.getId(), null,
+        objectMapper.writeValueAsString(surveyResponseNode));
+
+    assertEquals("The status for the submitted survey response is not correct",
+        HttpServletResponse.SC_CREATED, response.getStatus());
+
+    SurveyResponse surveyResponse = surveyService.getSurveyResponse(UUID.fromString(
+        response.getBody().get("id").asText()));
+
+    assertNotNull("The submitted survey response was not saved", surveyResponse);
+
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      assertEquals("The rating for the submitted survey response is not correct", 0,
+          groupRatingResponse.getRating());
+    }
+  }
+
+  /**
+   * Destroy the Wicket tester.
+   */
+  @After
+  public void teardown()
+  {
+    tester.destroy();
+  }
+
+  /**
+   * Test that the requests for a survey instance or survey request that is not valid or does not
+   * exist are answered with a <b>404 Not Found</b>.
+   */
+  @Test
+  public void unknownIdTest()
+    throws Exception
+  {
+    createTestSurveyInstance();
+
+    UUID unknownId = UUID.randomUUID();
+
+    assertEquals("The status for the missing survey instance ID is not correct",
+        HttpServletResponse.SC_NOT_FOUND, process(new SurveyResponseResource(), "GET", null, null,
+        null).getStatus());
+    assertEquals("The status for the invalid survey instance ID is not correct",
+        HttpServletResponse.SC_NOT_FOUND, process(new SurveyResponseResource(), "GET",
+        "Invalid ID", null, null).getStatus());
+    assertEquals("The status for the unknown survey instance ID is not correct",
+        HttpServletResponse.SC_NOT_FOUND, process(new SurveyResponseResource(), "GET", unknownId,
+        null, null).getStatus());
+    assertEquals("The status for the unknown survey instance ID is not correct",
+        HttpServletResponse.SC_NOT_FOUND, process(new SurveyResponseResource(), "POST",
+        unknownId, null, objectMapper.writeValueAsString(new SurveyResponse(surveyInstance)))
+        .getStatus());
+    assertEquals("The status for the unknown survey request ID is not correct",
+        HttpServletResponse.SC_NOT_FOUND, process(new SurveyResponseResource(), "GET",
+        surveyInstance.getId(), unknownId, null).getStatus());
+
+    assertEquals("The status for the missing survey instance ID is not correct",
+        HttpServletResponse.SC_NOT_FOUND, process(new TestSurveyResultResource(), "GET", null,
+        null, null, null).getStatus());
+    assertEquals("The status for the invalid survey instance ID is not correct",
+        HttpServletResponse.SC_NOT_FOUND, process(new TestSurveyResultResource(), "GET",
+        "Invalid ID", null, null, null).getStatus());
+    assertEquals("The status for the unknown survey instance ID is not correct",
+        HttpServletResponse.SC_NOT_FOUND, process(new TestSurveyResultResource(), "GET",
+        unknownId, null, null, "*").getStatus());
+
+    Response response = process(new SurveyResponseResource(), "GET", surveyInstance.getId(),
+        null, null);
+
+    assertEquals("The status for the survey response template is not correct",
+        HttpServletResponse.SC_OK, response.getStatus());
+    assertEquals("The survey instance for the survey response template is not correct",
+        surveyInstance.getId().toString(), response.getBody().get("surveyInstanceId").asText());
+  }
+
+  private void compareSurveyResults(SurveyResult expectedSurveyResult, SurveyResult surveyResult)
+  {
+    assertEquals("The number of responses for the survey result is not correct",
+        expectedSurveyResult.getNumberOfResponses(), surveyResult.getNumberOfResponses());
+    assertEquals("The number of survey group rating results is not correct",
+        expectedSurveyResult.getGroupRatingResults().size(),
+        surveyResult.getGroupRatingResults().size());
+
+    for (SurveyGroupRatingResult expectedGroupRatingResult :
+        expectedSurveyResult.getGroupRatingResults())
+    {
+      SurveyGroupRatingResult groupRatingResult = surveyResult.getGroupRatingResult(
+          expectedGroupRatingResult.getGroupRatingsDefinitionId(),
+          expectedGroupRatingResult.getGroupRatingDefinitionId(),
+          expectedGroupRatingResult.getGroupMemberDefinitionId());
+
+      assertNotNull("The survey group rating result could not be found", groupRatingResult);
+
+      SurveyGroupRatingType ratingType =
+          expectedGroupRatingResult.getGroupRatingDefinitionRatingType();
+
+      for (int rating = ratingType.minimumRating(); rating <= ratingType.maximumRating();
+          rating++)
+      {
+        assertEquals(String.format("The count for the rating %d for the survey group rating"
+            + " result is not correct", rating), expectedGroupRatingResult.getRatingCount(rating),
+            groupRatingResult.getRatingCount(rating));
+      }
+    }
+  }
+
+  private void createTestSurveyInstance()
+    throws Exception
+  {
+    UUID organisationId = UUID.randomUUID();
+
+    guru.mmp.application.security.Organisation organisation =
+        new guru.mmp.application.security.Organisation(organisationId, "Test Organisation ("
+        + organisationId + ")", OrganisationStatus.ACTIVE);
+
+    securityService.createOrganisation(organisation, true);
+
+    SurveyDefinition surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1,
+        new Organisation(organisation.getId(), organisation.getName(), organisation.getStatus()),
+        "Test Survey Definition", "Test Survey Definition");
+
+    surveyDefinition.setAnonymous(true);
+
+    surveyDefinition.addItemDefinition(new SurveyTextDefinition("test_text", "Test Text",
+        "Test Text", "Test Text"));
+
+    SurveyGroupRatingsDefinition groupRatingsDefinition = new SurveyGroupRatingsDefinition(
+        "test_group_ratings", "Test Group Ratings", "Test Group Ratings", "Test Group Ratings",
+        true);
+
+    groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        "Test Yes No NA Rating 1", SurveyGroupRatingType.YES_NO_NA));
+    groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        "Test Yes No NA Rating 2", SurveyGroupRatingType.YES_NO_NA));
+
+    for (int i = 0; i < 3; i++)
+    {
+      groupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+          "Test Group Member " + i));
+    }
+
+    surveyDefinition.addItemDefinition(groupRatingsDefinition);
+
+    surveyDefinition = surveyService.saveSurveyDefinition(surveyDefinition);
+
+    surveyInstance = surveyService.saveSurveyInstance(new SurveyInstance("Test Survey Instance",
+        "Test Survey Instance", surveyDefinition));
+  }
+
+  private String getInvalidRatingSurveyResponseData()
+    throws Exception
+  {
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    JsonNode node = objectMapper.valueToTree(surveyResponse);
+
+    for (JsonNode itemResponseNode : node.get("itemResponses"))
+    {
+      if (itemResponseNode.has("rating"))
+      {
+        ((ObjectNode) itemResponseNode).put("rating", 42);
+      }
+    }
+
+    return objectMapper.writeValueAsString(node);
+  }
+
+  private Response process(AbstractResource resource, String method, Object surveyInstanceId,
+      UUID surveyRequestId, String data)
+    throws Exception
+  {
+    return process(resource, method, surveyInstanceId, surveyRequestId, data, null);
+  }
+
+  private Response process(AbstractResource resource, String method, Object surveyInstanceId,
+      UUID surveyRequestId, String data, String ifNoneMatch)
+    throws Exception
+  {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/surveys");
+
+    if (data != null)
+    {
+      request.setContentType("application/json");
+      request.setContent(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    if (ifNoneMatch != null)
+    {
+      request.addHeader("If-None-Match", ifNoneMatch);
+    }
+
+    PageParameters parameters = new PageParameters();
+
+    if (surveyInstanceId != null)
+    {
+      parameters.set("surveyInstanceId", surveyInstanceId.toString());
+    }
+
+    if (surveyRequestId != null)
+    {
+      parameters.set("surveyRequestId", surveyRequestId.toString());
+    }
+
+    ByteArrayResponse response = new ByteArrayResponse();
+
+    ServletWebRequest webRequest = new ServletWebRequest(request, "");
+
+    AbstractResource.Attributes attributes = new AbstractResource.Attributes(webRequest, response,
+        parameters);
+
+    AbstractResource.ResourceResponse resourceResponse;
+
+    // Process the request using a request cycle without the session created by the Wicket tester
+    ThreadContext threadContext = ThreadContext.detach();
+
+    try
+    {
+      ThreadContext.setApplication(tester.getApplication());
+      ThreadContext.setRequestCycle(tester.getApplication().createRequestCycle(webRequest,
+          response));
+
+      resourceResponse = resource.newResourceResponse(attributes);
+
+      if ((resourceResponse.getErrorCode() == null)
+          && (resourceResponse.getWriteCallback() != null))
+      {
+        resourceResponse.getWriteCallback().writeData(attributes);
+      }
+
+      assertFalse(String.format("A session was created for the %s request", method),
+          Session.exists());
+      assertNull(String.format("An HTTP session was bound for the %s request", method),
+          request.getSession(false));
+    }
+    finally
+    {
+      ThreadContext.restore(threadContext);
+    }
+
+    if (resourceResponse.getErrorCode() != null)
+    {
+      return new Response(resourceResponse.getErrorCode(), null, null);
+    }
+
+    JsonNode body = (resourceResponse.getWriteCallback() != null)
+        ? objectMapper.readTree(response.getBytes())
+        : null;
+
+    return new Response((resourceResponse.getStatusCode() != null)
+        ? resourceResponse.getStatusCode()
+        : HttpServletResponse.SC_OK, resourceResponse.getHeaders().getHeader("ETag"), body);
+  }
+
+  private void setRatings(SurveyResponse surveyResponse, int offset)
+  {
+    int rating = offset;
+
+    for (SurveyGroupRatingResponse groupRatingResponse : surveyResponse.getGroupRatingResponses())
+    {
+      groupRatingResponse.setRating((rating++ % 3) - 1);
+    }
+  }
+
+  /**
+   * The <code>Response</code> class holds the status, entity tag and JSON body returned by a
+   * resource.
+   */
+  private class Response
+  {
+    private JsonNode body;
+    private String entityTag;
+    private int status;
+
+    /**
+     * Constructs a new <code>Response</code>.
+     *
+     * @param status    the HTTP status code
+     * @param entityTag the entity tag
+     * @param body      the JSON body
+     */
+    Response(int status, String entityTag, JsonNode body)
+    {
+      this.status = status;
+      this.entityTag = entityTag;
+      this.body = body;
+    }
+
+    /**
+     * Returns the JSON body.
+     *
+     * @return the JSON body
+     */
+    JsonNode getBody()
+    {
+      return body;
+    }
+
+    /**
+     * Returns the entity tag.
+     *
+     * @return the entity tag
+     */
+    String getEntityTag()
+    {
+      return entityTag;
+    }
+
+    /**
+     * Returns the HTTP status code.
+     *
+     * @return the HTTP status code
+     */
+    int getStatus()
+    {
+      return status;
+    }
+
+    /**
+     * Returns the survey result read from the JSON body.
+     *
+     * @return the survey result read from the JSON body
+     */
+    SurveyResult getSurveyResult()
+      throws Exception
+    {
+      SurveyResult surveyResult = new SurveyResult(surveyInstance);
+
+      surveyResult.setData(objectMapper.writeValueAsString(body.get("result")));
+
+      return surveyResult;
+    }
+  }
+
+  /**
+   * The <code>TestSurveyResultResource</code> class extends the <code>SurveyResultResource</code>
+   * class to grant access to the survey results without a web session for a user.
+   */
+  private static class TestSurveyResultResource extends SurveyResultResource
+  {
+    private static final long serialVersionUID = 1000000;
+
+    @Override
+    protected boolean hasAccessToSurveyResults()
+    {
+      return true;
+    }
+  }
+}
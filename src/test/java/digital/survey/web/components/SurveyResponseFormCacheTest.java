@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 Marcus Portmann
+ * All rights reserved.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package digital.survey.web.components;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import digital.survey.model.*;
+import guru.mmp.application.security.OrganisationStatus;
+import org.apache.wicket.model.Model;
+import org.apache.wicket.util.tester.WicketTester;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+//~--- JDK imports ------------------------------------------------------------
+
+/**
+ * The <code>SurveyResponseFormCacheTest</code> class contains the implementation of the JUnit
+ * tests for the <code>SurveyResponseFormCache</code> class and the rendering of the survey group
+ * ratings on the respondent form using the cached markup.
+ *
+ * @author Marcus Portmann
+ */
+public class SurveyResponseFormCacheTest
+{
+  private static final String ESCAPED_GROUP_MEMBER_NAME =
+      "Member &lt;i&gt;&quot;Quoted&quot;&lt;/i&gt; &amp; Partners";
+  private static final String ESCAPED_GROUP_RATING_NAME =
+      "Rating &lt;b&gt;&quot;Quoted&quot;&lt;/b&gt; &amp; More";
+  private static final String ESCAPED_LABEL =
+      "Label &lt;script&gt;alert(&quot;Label&quot;)&lt;/script&gt; &amp; More";
+  private static final String GROUP_MEMBER_NAME = "Member <i>\"Quoted\"</i> & Partners";
+  private static final String GROUP_RATING_NAME = "Rating <b>\"Quoted\"</b> & More";
+  private static final String LABEL = "Label <script>alert(\"Label\")</script> & More";
+  private SurveyGroupRatingsDefinition groupRatingsDefinition;
+  private SurveyInstance surveyInstance;
+  private WicketTester tester;
+
+  /**
+   * Test that the names of the survey group ratings and survey group members, and the label for
+   * the survey group ratings definition, are escaped when the survey group ratings are rendered on
+   * the respondent form.
+   */
+  @Test
+  public void groupRatingsResponsePanelEscapingTest()
+  {
+    SurveyResponse surveyResponse = new SurveyResponse(surveyInstance);
+
+    tester.startComponentInPage(new SurveyGroupRatingsResponsePanel("groupRatingsResponse",
+        new Model<>(groupRatingsDefinition), new Model<>(surveyResponse)));
+
+    String markup = tester.getLastResponseAsString();
+
+    assertTrue("The label for the survey group ratings definition was not escaped",
+        markup.contains(ESCAPED_LABEL));
+    assertTrue("The name of the survey group rating was not escaped", markup.contains(
+        ESCAPED_GROUP_RATING_NAME));
+    assertTrue("The name of the survey group member was not escaped", markup.contains(
+        ESCAPED_GROUP_MEMBER_NAME));
+
+    assertFalse("The label for the survey group ratings definition was not escaped",
+        markup.contains(LABEL));
+    assertFalse("The name of the survey group rating was not escaped", markup.contains(
+        GROUP_RATING_NAME));
+    assertFalse("The name of the survey group member was not escaped", markup.contains(
+        GROUP_MEMBER_NAME));
+    assertFalse("The markup contains unescaped markup from a name or label", markup.contains(
+        "<script>") || markup.contains("<b>") || markup.contains("<i>"));
+  }
+
+  /**
+   * Setup the survey group ratings definition, whose names and label contain characters that must
+   * be escaped, and the survey instance used to create the survey responses.
+   */
+  @Before
+  public void setup()
+  {
+    tester = new WicketTester();
+
+    Organisation organisation = new Organisation(UUID.randomUUID(), "Test Organisation",
+        OrganisationStatus.ACTIVE);
+
+    SurveyDefinition surveyDefinition = new SurveyDefinition(UUID.randomUUID(), 1, organisation,
+        "Test Survey Definition", "Test Survey Definition");
+
+    groupRatingsDefinition = new SurveyGroupRatingsDefinition("test_group_ratings", LABEL,
+        "Test Group Ratings", "Test Group Ratings", true);
+
+    groupRatingsDefinition.addGroupRatingDefinition(new SurveyGroupRatingDefinition(
+        GROUP_RATING_NAME, SurveyGroupRatingType.YES_NO_NA));
+    groupRatingsDefinition.addGroupMemberDefinition(new SurveyGroupMemberDefinition(
+        GROUP_MEMBER_NAME));
+
+    surveyDefinition.addItemDefinition(groupRatingsDefinition);
+
+    surveyInstance = new SurveyInstance("Test Survey Instance", "Test Survey Instance",
+        surveyDefinition);
+  }
+
+  /**
+   * Test that the names of the survey group ratings and survey group members are escaped in the
+   * cached markup skeleton for the survey group ratings definition.
+   */
+  @Test
+  public void skeletonEscapingTest()
+  {
+    SurveyDefinition surveyDefinition = surveyInstance.getDefinition();
+
+    SurveyResponseFormCache.Skeleton skeleton = SurveyResponseFormCache.getGroupRatingsSkeleton(
+        surveyDefinition.getId(), surveyDefinition.getVersion(), groupRatingsDefinition);
+
+    assertEquals("The number of cells for the markup skeleton is not correct", 1,
+        skeleton.getCells().size());
+
+    String markup = String.join("", skeleton.getFragments());
+
+    assertTrue("The name of the survey group rating was not escaped", markup.contains(
+        ESCAPED_GROUP_RATING_NAME));
+    assertTrue("The name of the survey group member was not escaped", markup.contains(
+        ESCAPED_GROUP_MEMBER_NAME));
+
+    assertFalse("The name of the survey group rating was not escaped", markup.contains(
+        GROUP_RATING_NAME));
+    assertFalse("The name of the survey group member was not escaped", markup.contains(
+        GROUP_MEMBER_NAME));
+  }
+
+  /**
+   * Destroy the Wicket tester.
+   */
+  @After
+  public void teardown()
+  {
+    tester.destroy();
+  }
+}